@@ -0,0 +1,279 @@
+// 原生内核基准测试
+// 在主机上测量特征搜索、可打印字符串提取、各哈希内核以及整块搜索的吞吐量，
+// 用于在工作站上快速发现内核性能回退，无需刷机。
+//
+// 构建与运行（在仓库根目录）：
+//   cmake -S app/src/main/cpp -B build/native-host -DCMAKE_BUILD_TYPE=Release
+//   cmake --build build/native-host --target algotools_bench
+//   build/native-host/algotools_bench [--quick] [--csv] [--filter=<名称片段>]
+//
+// 输入数据由固定种子的伪随机数生成，多次运行之间完全一致。
+
+#include <chrono>
+#include <cstdint>
+#include <cstdio>
+#include <cstring>
+#include <functional>
+#include <string>
+#include <vector>
+
+#include "md5.h"
+#include "memory_utils.h"
+#include "sha1.h"
+#include "sha256.h"
+#include "sha384.h"
+#include "sha512.h"
+#include "sha3.h"
+#include "sm3.h"
+#include "string_search.h"
+
+namespace {
+
+// 固定种子的xorshift64*伪随机数生成器
+class Random {
+public:
+    explicit Random(uint64_t seed) : state(seed != 0 ? seed : 0x9E3779B97F4A7C15ULL) {}
+
+    uint64_t next() {
+        state ^= state >> 12;
+        state ^= state << 25;
+        state ^= state >> 27;
+        return state * 0x2545F4914F6CDD1DULL;
+    }
+
+    // 返回 [low, high] 范围内的整数
+    size_t range(size_t low, size_t high) {
+        return low + static_cast<size_t>(next() % (high - low + 1));
+    }
+
+private:
+    uint64_t state;
+};
+
+// 候选字符串长度分布
+struct LengthDistribution {
+    const char* name;
+    size_t shortWeight;   // 2~8字节
+    size_t mediumWeight;  // 8~32字节
+    size_t longWeight;    // 32~256字节
+};
+
+const LengthDistribution kDistributions[] = {
+    {"short", 100, 0, 0},
+    {"medium", 0, 100, 0},
+    {"long", 0, 0, 100},
+    {"mixed", 70, 25, 5},
+};
+
+size_t sampleLength(Random& random, const LengthDistribution& dist) {
+    size_t total = dist.shortWeight + dist.mediumWeight + dist.longWeight;
+    size_t pick = random.range(0, total - 1);
+    if (pick < dist.shortWeight) {
+        return random.range(2, 8);
+    }
+    if (pick < dist.shortWeight + dist.mediumWeight) {
+        return random.range(8, 32);
+    }
+    return random.range(32, 256);
+}
+
+// 生成模拟内存转储：按长度分布写入可打印字符串，之间用1~4个控制字符分隔
+std::vector<uint8_t> makeDumpData(size_t size, const LengthDistribution& dist, uint64_t seed) {
+    static const char kAlphabet[] =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_-.,:/=?&{}\"";
+    Random random(seed);
+    std::vector<uint8_t> data(size);
+    size_t pos = 0;
+    while (pos < size) {
+        size_t length = sampleLength(random, dist);
+        for (size_t i = 0; i < length && pos < size; i++) {
+            data[pos++] = static_cast<uint8_t>(kAlphabet[random.next() % (sizeof(kAlphabet) - 1)]);
+        }
+        size_t gap = random.range(1, 4);
+        for (size_t i = 0; i < gap && pos < size; i++) {
+            data[pos++] = static_cast<uint8_t>(random.next() % 9); // 0x00~0x08，不是可打印字符
+        }
+    }
+    return data;
+}
+
+struct Options {
+    bool quick = false;
+    bool csv = false;
+    std::string filter;
+};
+
+// 防止编译器把被测代码优化掉
+volatile uint64_t gSink = 0;
+
+class Runner {
+public:
+    explicit Runner(const Options& options) : options(options) {
+        if (options.csv) {
+            printf("benchmark,bytes_per_op,mb_per_s,items_per_s,iterations\n");
+        } else {
+            printf("%-44s %12s %12s %14s %8s\n", "benchmark", "bytes/op", "MB/s", "items/s", "iters");
+        }
+    }
+
+    // 重复运行直到达到最短测量时间，报告平均吞吐量
+    // op 返回本次处理的条目数（候选数、哈希数等），用于计算 items/s
+    void run(const std::string& name, size_t bytesPerOp, const std::function<uint64_t()>& op) {
+        if (!options.filter.empty() && name.find(options.filter) == std::string::npos) {
+            return;
+        }
+        const double minSeconds = options.quick ? 0.05 : 0.3;
+
+        gSink = gSink + op(); // 预热
+        uint64_t items = 0;
+        uint64_t iterations = 0;
+        auto start = std::chrono::steady_clock::now();
+        double elapsed = 0;
+        do {
+            items += op();
+            iterations++;
+            elapsed = std::chrono::duration<double>(std::chrono::steady_clock::now() - start).count();
+        } while (elapsed < minSeconds);
+
+        double mbPerSecond = static_cast<double>(bytesPerOp) * iterations / elapsed / (1024.0 * 1024.0);
+        double itemsPerSecond = static_cast<double>(items) / elapsed;
+        if (options.csv) {
+            printf("%s,%zu,%.2f,%.0f,%llu\n", name.c_str(), bytesPerOp, mbPerSecond, itemsPerSecond,
+                   static_cast<unsigned long long>(iterations));
+        } else {
+            printf("%-44s %12zu %12.2f %14.0f %8llu\n", name.c_str(), bytesPerOp, mbPerSecond, itemsPerSecond,
+                   static_cast<unsigned long long>(iterations));
+        }
+        fflush(stdout);
+    }
+
+private:
+    const Options& options;
+};
+
+std::string sizeLabel(size_t size) {
+    if (size >= 1024 * 1024) {
+        return std::to_string(size / (1024 * 1024)) + "MB";
+    }
+    return std::to_string(size / 1024) + "KB";
+}
+
+void benchSearch(Runner& runner, const std::vector<size_t>& sizes) {
+    for (size_t size : sizes) {
+        std::vector<uint8_t> data = makeDumpData(size, kDistributions[3], 1);
+        // 模式不在数据中（包含控制字符），每次都要扫描整块数据
+        for (size_t patternLength : {4, 16, 64}) {
+            std::string pattern(patternLength, 'q');
+            pattern[patternLength / 2] = '\x01';
+            runner.run("search/absent/p" + std::to_string(patternLength) + "/" + sizeLabel(size), size,
+                       [&]() -> uint64_t {
+                           return searchInMemory(data.data(), static_cast<int>(data.size()),
+                                                 reinterpret_cast<const uint8_t*>(pattern.data()),
+                                                 static_cast<int>(pattern.size())) ? 1 : 0;
+                       });
+        }
+    }
+}
+
+void benchExtract(Runner& runner, const std::vector<size_t>& sizes) {
+    for (size_t size : sizes) {
+        for (const LengthDistribution& dist : kDistributions) {
+            std::vector<uint8_t> data = makeDumpData(size, dist, 2);
+            runner.run(std::string("extract/") + dist.name + "/" + sizeLabel(size), size,
+                       [&]() -> uint64_t {
+                           return extractPrintableStrings(data.data(), data.size()).size();
+                       });
+        }
+    }
+}
+
+void benchHashKernels(Runner& runner) {
+    struct Kernel {
+        const char* name;
+        std::function<std::string(const std::string&)> hash;
+    };
+    const Kernel kernels[] = {
+        {"MD5", [](const std::string& text) { MD5 md5; return md5.calculate(text); }},
+        {"SHA-1", [](const std::string& text) { return hashing::sha1::hash(text); }},
+        {"SHA-256", [](const std::string& text) { return sha256(text); }},
+        {"SHA-384", [](const std::string& text) { return sha384(text); }},
+        {"SHA-512", [](const std::string& text) { return sha512(text); }},
+        {"SHA-224", [](const std::string& text) { return sha224(text); }},
+        {"SHA-512/256", [](const std::string& text) { return sha512_256(text); }},
+        {"SM3", [](const std::string& text) { return sm3(text); }},
+        {"SHA3-256", [](const std::string& text) { return sha3(text, 32); }},
+        {"SHA3-512", [](const std::string& text) { return sha3(text, 64); }},
+        {"KECCAK-256", [](const std::string& text) { return keccak256(text); }},
+    };
+
+    // 每次操作计算一批同长度的候选字符串
+    const size_t batchBytes = 64 * 1024;
+    for (const Kernel& kernel : kernels) {
+        for (size_t length : {8, 32, 128, 1024}) {
+            Random random(3);
+            std::vector<std::string> batch(batchBytes / length);
+            for (std::string& text : batch) {
+                text.resize(length);
+                for (char& c : text) {
+                    c = static_cast<char>('a' + random.next() % 26);
+                }
+            }
+            runner.run(std::string("hash/") + kernel.name + "/len" + std::to_string(length),
+                       batch.size() * length, [&]() -> uint64_t {
+                           uint64_t checksum = 0;
+                           for (const std::string& text : batch) {
+                               checksum += static_cast<uint8_t>(kernel.hash(text)[0]);
+                           }
+                           gSink = gSink + checksum;
+                           return batch.size();
+                       });
+        }
+    }
+}
+
+// 完整的单块搜索：提取 + 逐个计算哈希，目标哈希不存在
+void benchEndToEnd(Runner& runner, size_t size) {
+    const std::string missingHash(32, '0');
+    for (const LengthDistribution& dist : kDistributions) {
+        std::vector<uint8_t> data = makeDumpData(size, dist, 4);
+        runner.run(std::string("find/MD5/") + dist.name + "/" + sizeLabel(size), size, [&]() -> uint64_t {
+            return findHashOriginalInMemory(data.data(), data.size(), missingHash, "MD5").size();
+        });
+    }
+    // 32字节摘要的所有算法在一次提取中尝试
+    const std::string missingHash256(64, '0');
+    std::vector<uint8_t> data = makeDumpData(size, kDistributions[3], 4);
+    runner.run("find/32-byte-all/mixed/" + sizeLabel(size), size, [&]() -> uint64_t {
+        return findHashOriginalInMemory(data.data(), data.size(), missingHash256,
+                                        "SHA-256,SM3,SHA3-256,KECCAK-256,SHA-512/256").size();
+    });
+}
+
+} // namespace
+
+int main(int argc, char** argv) {
+    Options options;
+    for (int i = 1; i < argc; i++) {
+        if (strcmp(argv[i], "--quick") == 0) {
+            options.quick = true;
+        } else if (strcmp(argv[i], "--csv") == 0) {
+            options.csv = true;
+        } else if (strncmp(argv[i], "--filter=", 9) == 0) {
+            options.filter = argv[i] + 9;
+        } else {
+            fprintf(stderr, "用法: %s [--quick] [--csv] [--filter=<名称片段>]\n", argv[0]);
+            return 2;
+        }
+    }
+
+    std::vector<size_t> sizes = options.quick
+            ? std::vector<size_t>{64 * 1024, 1024 * 1024}
+            : std::vector<size_t>{64 * 1024, 1024 * 1024, 16 * 1024 * 1024};
+
+    Runner runner(options);
+    benchSearch(runner, sizes);
+    benchExtract(runner, sizes);
+    benchHashKernels(runner);
+    benchEndToEnd(runner, options.quick ? 1024 * 1024 : 4 * 1024 * 1024);
+    return 0;
+}
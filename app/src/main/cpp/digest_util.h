@@ -0,0 +1,40 @@
+#pragma once
+#include <cstddef>
+#include <cstdint>
+#include <string>
+
+// 摘要内核的公共工具：字节序转换和十六进制编码，均不分配内存（返回std::string的版本除外）
+
+inline uint32_t load_be32(const uint8_t* p) {
+    return (static_cast<uint32_t>(p[0]) << 24) | (static_cast<uint32_t>(p[1]) << 16) |
+           (static_cast<uint32_t>(p[2]) << 8) | static_cast<uint32_t>(p[3]);
+}
+
+inline void store_be32(uint8_t* p, uint32_t v) {
+    p[0] = static_cast<uint8_t>(v >> 24);
+    p[1] = static_cast<uint8_t>(v >> 16);
+    p[2] = static_cast<uint8_t>(v >> 8);
+    p[3] = static_cast<uint8_t>(v);
+}
+
+inline void store_be64(uint8_t* p, uint64_t v) {
+    for (int i = 7; i >= 0; --i) {
+        p[i] = static_cast<uint8_t>(v);
+        v >>= 8;
+    }
+}
+
+// 把摘要写成小写十六进制，out 至少有 2 * length 个字节，不写入结尾的'\0'
+inline void digest_to_hex(const uint8_t* digest, size_t length, char* out) {
+    static const char kDigits[] = "0123456789abcdef";
+    for (size_t i = 0; i < length; ++i) {
+        out[i * 2] = kDigits[digest[i] >> 4];
+        out[i * 2 + 1] = kDigits[digest[i] & 0xF];
+    }
+}
+
+inline std::string digest_to_hex(const uint8_t* digest, size_t length) {
+    std::string hex(length * 2, '\0');
+    digest_to_hex(digest, length, &hex[0]);
+    return hex;
+}
@@ -1,14 +1,15 @@
 #include "memory_utils.h"
-#include <android/log.h>
-#include <functional>
+#include "native_log.h"
+#include <algorithm>
+#include <cctype>
+#include <cstring>
 #include "md5.h"
 #include "sha1.h"
 #include "sha256.h"
 #include "sha384.h"
 #include "sha512.h"
-
-// 外部声明日志开关变量
-extern bool gEnableJniLog;
+#include "sha3.h"
+#include "sm3.h"
 
 // 定义日志标签
 #define LOG_TAG "MemoryUtils"
@@ -16,128 +17,360 @@ extern bool gEnableJniLog;
 // 日志宏
 #define LOG(...)\
     if (gEnableJniLog) { \
-        __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__); \
+        NATIVE_LOG_PRINT(LOG_TAG, __VA_ARGS__); \
     }
 
-// 从内存数据中提取可打印字符串
-std::vector<std::string> extractPrintableStrings(const uint8_t* data, size_t length) {
-    std::vector<std::string> result;
-    std::string current;
+CandidateDedupSet::CandidateDedupSet(size_t maxEntries) {
+    // 负载因子上限为1/2，因此每个分片的槽位数为其条目上限的两倍
+    size_t perShard = maxEntries / SHARD_COUNT * 2;
+    maxSlotsPerShard = 1024;
+    while (maxSlotsPerShard < perShard) {
+        maxSlotsPerShard <<= 1;
+    }
+}
+
+CandidateDedupSet::~CandidateDedupSet() {
+    for (auto& shard : shards) {
+        delete[] shard.slots;
+    }
+}
+
+// FNV-1a 再经过 murmur3 的 fmix64 混合，得到分布均匀的64位指纹（0保留为空槽位）
+uint64_t CandidateDedupSet::fingerprint(const std::string& text) {
+    uint64_t h = 0xcbf29ce484222325ULL ^ text.length();
+    for (unsigned char c : text) {
+        h ^= c;
+        h *= 0x100000001b3ULL;
+    }
+    h ^= h >> 33;
+    h *= 0xff51afd7ed558ccdULL;
+    h ^= h >> 33;
+    h *= 0xc4ceb9fe1a85ec53ULL;
+    h ^= h >> 33;
+    return h == 0 ? 1 : h;
+}
+
+bool CandidateDedupSet::growLocked(Shard& shard) {
+    size_t newCapacity = shard.capacity == 0 ? 1024 : shard.capacity * 2;
+    if (newCapacity > maxSlotsPerShard) {
+        return false;
+    }
+    auto* newSlots = new uint64_t[newCapacity]();
+    for (size_t i = 0; i < shard.capacity; i++) {
+        uint64_t fp = shard.slots[i];
+        if (fp == 0) continue;
+        size_t pos = (fp >> 6) & (newCapacity - 1);
+        while (newSlots[pos] != 0) {
+            pos = (pos + 1) & (newCapacity - 1);
+        }
+        newSlots[pos] = fp;
+    }
+    delete[] shard.slots;
+    shard.slots = newSlots;
+    shard.capacity = newCapacity;
+    return true;
+}
+
+bool CandidateDedupSet::insert(const std::string& text) {
+    uint64_t fp = fingerprint(text);
+    // 低6位选择分片，其余位决定分片内的位置
+    Shard& shard = shards[fp & (SHARD_COUNT - 1)];
+    std::lock_guard<std::mutex> lock(shard.mutex);
+
+    if ((shard.size + 1) * 2 > shard.capacity && !growLocked(shard)) {
+        // 分片已满：只查询不再记录
+        if (shard.capacity == 0) return true;
+        size_t pos = (fp >> 6) & (shard.capacity - 1);
+        while (shard.slots[pos] != 0) {
+            if (shard.slots[pos] == fp) return false;
+            pos = (pos + 1) & (shard.capacity - 1);
+        }
+        return true;
+    }
+
+    size_t pos = (fp >> 6) & (shard.capacity - 1);
+    while (shard.slots[pos] != 0) {
+        if (shard.slots[pos] == fp) return false;
+        pos = (pos + 1) & (shard.capacity - 1);
+    }
+    shard.slots[pos] = fp;
+    shard.size++;
+    return true;
+}
+
+// 从内存数据中提取可打印字节序列的位置
+std::vector<PrintableSpan> extractPrintableSpans(const uint8_t* data, size_t length) {
+    std::vector<PrintableSpan> result;
+    size_t start = 0;
+    bool inSpan = false;
     
     for (size_t i = 0; i < length; i++) {
-        // 改进处理逻辑，包含几乎所有可打印字符，包括特殊字符
         uint8_t c = data[i];
-        // 优化处理逻辑：直接使用ASCII范围检查
         // 1. 所有ASCII可打印字符 (32-126)
         // 2. 制表符、换行符、回车符 (9,10,13)
         // 3. 所有可能的UTF-8多字节字符 (>=128)
-        if ((c >= 32 && c <= 126) || // 所有ASCII可打印字符(包括所有特殊字符)
-            c == 9 || c == 10 || c == 13 || // 制表符、换行符、回车符
-            c >= 128) { // 可能的UTF-8多字节字符
-            // 特别关注一些常用的特殊字符
-            if (c == ',' || c == '?' || c == '.') {
-                LOG("处理特殊字符: %c (ASCII: %d)", (char)c, c);
+        if ((c >= 32 && c <= 126) || c == 9 || c == 10 || c == 13 || c >= 128) {
+            if (!inSpan) {
+                start = i;
+                inSpan = true;
             }
-            
-            current += (char)c;
-        } else if (!current.empty()) {
-            // 当遇到非可打印字符时，结束当前字符串
-            if (current.length() >= 2) {
-                // 记录包含特殊字符的字符串
-                if (current.find(',') != std::string::npos || current.find('?') != std::string::npos) {
-                    LOG("提取包含特殊字符的字符串: '%s'", current.c_str());
-                }
-                result.push_back(current);
+        } else if (inSpan) {
+            // 当遇到非可打印字符时，结束当前序列
+            if (i - start >= 2) {
+                result.push_back({start, i - start});
             }
-            current.clear();
+            inSpan = false;
         }
     }
     
-    // 处理最后一个字符串
-    if (!current.empty() && current.length() >= 2) {
-        if (current.find(',') != std::string::npos || current.find('?') != std::string::npos) {
-            LOG("提取包含特殊字符的字符串: '%s'", current.c_str());
-        }
-        result.push_back(current);
+    // 处理最后一个序列
+    if (inSpan && length - start >= 2) {
+        result.push_back({start, length - start});
     }
     
-    LOG("提取到 %d 个可能的字符串", result.size());
+    LOG("提取到 %zu 个可能的字符串", result.size());
     return result;
 }
 
-// 在内存数据中查找哈希值对应的原文
-std::string findHashOriginalInMemory(const uint8_t* data, size_t dataLength, 
-                                    const std::string& hashValue, 
-                                    const std::string& hashType) {
+// 从内存数据中提取可打印字符串
+std::vector<std::string> extractPrintableStrings(const uint8_t* data, size_t length) {
+    std::vector<PrintableSpan> spans = extractPrintableSpans(data, length);
+    std::vector<std::string> result;
+    result.reserve(spans.size());
+    for (const PrintableSpan& span : spans) {
+        result.emplace_back(reinterpret_cast<const char*>(data + span.offset), span.length);
+    }
+    return result;
+}
+
+// 把一个数据块的哈希阶段计数和耗时累加到会话
+static void recordHashStage(SearchSession* session, uint64_t hashedCount, int skippedCount, uint64_t hashStart) {
+    session->hashesComputed.fetch_add(hashedCount, std::memory_order_relaxed);
+    session->dedupSkipped.fetch_add(static_cast<uint64_t>(skippedCount), std::memory_order_relaxed);
+    session->hashNanos.fetch_add(monotonicNanos() - hashStart, std::memory_order_relaxed);
+}
+
+namespace {
+
+// 哈希内核：把文本的摘要以小写十六进制写入 hexOut（不写入结尾的'\0'）
+using HashKernel = void (*)(const std::string& text, char* hexOut);
+
+struct HashAlgorithm {
+    const char* name;
+    size_t digestLength;
+    HashKernel kernel;
+};
+
+inline const uint8_t* textBytes(const std::string& text) {
+    return reinterpret_cast<const uint8_t*>(text.data());
+}
+
+void md5Kernel(const std::string& text, char* hexOut) {
+    MD5 md5;
+    uint8_t digest[16];
+    md5.update(textBytes(text), text.length());
+    md5.final(digest);
+    digest_to_hex(digest, sizeof(digest), hexOut);
+}
+
+void sha1Kernel(const std::string& text, char* hexOut) {
+    std::string hash = hashing::sha1::hash(text);
+    for (size_t i = 0; i < 40; i++) {
+        hexOut[i] = static_cast<char>(std::tolower(static_cast<unsigned char>(hash[i])));
+    }
+}
+
+template <const uint32_t* INITIAL, size_t LENGTH>
+void sha256FamilyKernel(const std::string& text, char* hexOut) {
+    uint8_t digest[LENGTH];
+    sha256_family_digest(textBytes(text), text.length(), INITIAL, digest, LENGTH);
+    digest_to_hex(digest, LENGTH, hexOut);
+}
+
+template <const uint64_t* INITIAL, size_t LENGTH>
+void sha512FamilyKernel(const std::string& text, char* hexOut) {
+    uint8_t digest[LENGTH];
+    sha512_family_digest(textBytes(text), text.length(), INITIAL, digest, LENGTH);
+    digest_to_hex(digest, LENGTH, hexOut);
+}
+
+template <size_t LENGTH, uint8_t PADDING>
+void keccakKernel(const std::string& text, char* hexOut) {
+    uint8_t digest[LENGTH];
+    keccak_digest(textBytes(text), text.length(), LENGTH, PADDING, digest);
+    digest_to_hex(digest, LENGTH, hexOut);
+}
+
+void sm3Kernel(const std::string& text, char* hexOut) {
+    uint8_t digest[32];
+    sm3_digest(textBytes(text), text.length(), digest);
+    digest_to_hex(digest, sizeof(digest), hexOut);
+}
+
+// 支持的哈希算法，名称与Java层 HashCryptoUtils.SUPPORTED_TYPES 一致
+const HashAlgorithm kHashAlgorithms[] = {
+    {"MD5", 16, md5Kernel},
+    {"SHA-1", 20, sha1Kernel},
+    {"SHA-224", 28, sha256FamilyKernel<INITIAL_H224_VALUES, 28>},
+    {"SHA-256", 32, sha256FamilyKernel<INITIAL_H_VALUES, 32>},
+    {"SHA-384", 48, sha512FamilyKernel<INITIAL_H384_VALUES, 48>},
+    {"SHA-512", 64, sha512FamilyKernel<INITIAL_H512_VALUES, 64>},
+    {"SHA-512/256", 32, sha512FamilyKernel<INITIAL_H512_256_VALUES, 32>},
+    {"SM3", 32, sm3Kernel},
+    {"SHA3-224", 28, keccakKernel<28, SHA3_DOMAIN_PADDING>},
+    {"SHA3-256", 32, keccakKernel<32, SHA3_DOMAIN_PADDING>},
+    {"SHA3-384", 48, keccakKernel<48, SHA3_DOMAIN_PADDING>},
+    {"SHA3-512", 64, keccakKernel<64, SHA3_DOMAIN_PADDING>},
+    {"KECCAK-256", 32, keccakKernel<32, KECCAK_DOMAIN_PADDING>},
+};
+
+const HashAlgorithm* findAlgorithm(const std::string& name) {
+    for (const HashAlgorithm& algorithm : kHashAlgorithms) {
+        if (name == algorithm.name) {
+            return &algorithm;
+        }
+    }
+    return nullptr;
+}
+
+// 解析逗号分隔的哈希类型列表，只保留摘要长度与目标值一致的算法
+std::vector<const HashAlgorithm*> resolveAlgorithms(const std::string& hashTypes, size_t hexLength) {
+    std::vector<const HashAlgorithm*> algorithms;
+    size_t start = 0;
+    while (start <= hashTypes.length()) {
+        size_t end = hashTypes.find(',', start);
+        if (end == std::string::npos) {
+            end = hashTypes.length();
+        }
+        std::string name = hashTypes.substr(start, end - start);
+        const HashAlgorithm* algorithm = findAlgorithm(name);
+        if (algorithm == nullptr) {
+            LOG("不支持的哈希类型: %s", name.c_str());
+        } else if (algorithm->digestLength * 2 != hexLength) {
+            LOG("哈希类型 %s 与目标值长度 %zu 不符，跳过", name.c_str(), hexLength);
+        } else if (std::find(algorithms.begin(), algorithms.end(), algorithm) == algorithms.end()) {
+            algorithms.push_back(algorithm);
+        }
+        start = end + 1;
+    }
+    return algorithms;
+}
+
+} // namespace
+
+// 全部命中模式：被去重跳过的候选是否与已命中的原文相同
+static bool isMatchedText(SearchSession* session, const std::string& text) {
+    if (!session->hasMatches.load(std::memory_order_acquire)) {
+        return false;
+    }
+    std::lock_guard<std::mutex> lock(session->matchMutex);
+    return std::find(session->matchedTexts.begin(), session->matchedTexts.end(), text)
+            != session->matchedTexts.end();
+}
+
+// 记录已命中的原文
+static void rememberMatchedText(SearchSession* session, const std::string& text) {
+    std::lock_guard<std::mutex> lock(session->matchMutex);
+    if (std::find(session->matchedTexts.begin(), session->matchedTexts.end(), text) == session->matchedTexts.end()) {
+        session->matchedTexts.push_back(text);
+    }
+    session->hasMatches.store(true, std::memory_order_release);
+}
+
+// 在内存数据中查找哈希值对应的原文，返回命中的位置
+void findHashMatchesInMemory(const uint8_t* data, size_t dataLength,
+                             const std::string& hashValue,
+                             const std::string& hashType,
+                             SearchSession* session,
+                             bool allMatches,
+                             std::vector<HashMatch>& matches) {
     // 从数据中提取可能的文本
-    std::vector<std::string> possibleTexts = extractPrintableStrings(data, dataLength);
+    uint64_t extractStart = session != nullptr ? monotonicNanos() : 0;
+    std::vector<PrintableSpan> spans = extractPrintableSpans(data, dataLength);
+    uint64_t hashStart = 0;
+    if (session != nullptr) {
+        hashStart = monotonicNanos();
+        session->extractNanos.fetch_add(hashStart - extractStart, std::memory_order_relaxed);
+    }
     
     LOG("开始比较哈希值，目标类型: %s, 值: %s, 提取到 %zu 个可能的文本", 
-        hashType.c_str(), hashValue.c_str(), possibleTexts.size());
+        hashType.c_str(), hashValue.c_str(), spans.size());
     
-    // 创建哈希计算函数指针，提高效率
-    std::function<std::string(const std::string&)> hashFunc;
+    // 同一长度的多个算法在一次提取中逐个尝试，例如 "SHA-256,SM3,SHA3-256"
+    std::vector<const HashAlgorithm*> algorithms = resolveAlgorithms(hashType, hashValue.length());
+    if (algorithms.empty()) {
+        LOG("没有可用的哈希类型: %s", hashType.c_str());
+        return;
+    }
+    char calculatedHash[128];
     
-    // 根据哈希类型选择合适的哈希函数
-    if (hashType == "MD5") {
-        hashFunc = [](const std::string& text) {
-            MD5 md5;
-            return md5.calculate(text.c_str());
-        };
-    } else if (hashType == "SHA-1") {
-        hashFunc = [](const std::string& text) {
-            return hashing::sha1::hash(text);
-        };
-    } else if (hashType == "SHA-256") {
-        hashFunc = [](const std::string& text) {
-            return sha256(text);
-        };
-    } else if (hashType == "SHA-384") {
-        hashFunc = [](const std::string& text) {
-            return sha384(text);
-        };
-    } else if (hashType == "SHA-512") {
-        hashFunc = [](const std::string& text) {
-            return sha512(text);
-        };
-    } else {
-        LOG("不支持的哈希类型: %s", hashType.c_str());
-        return "";
+    CandidateDedupSet* dedupSet = session != nullptr ? session->dedupSet : nullptr;
+    if (session != nullptr) {
+        session->candidatesExtracted.fetch_add(spans.size(), std::memory_order_relaxed);
     }
     
     // 对每个可能的文本计算哈希值并比较
     int processedCount = 0;
-    for (const auto& text : possibleTexts) {
+    int skippedCount = 0;
+    uint64_t hashedCount = 0;
+    std::string text;
+    for (const PrintableSpan& span : spans) {
         // 每处理1000个文本记录一次进度
         if (++processedCount % 1000 == 0) {
-            LOG("已处理 %d/%zu 个可能的文本", processedCount, possibleTexts.size());
+            LOG("已处理 %d/%zu 个可能的文本", processedCount, spans.size());
         }
+        text.assign(reinterpret_cast<const char*>(data + span.offset), span.length);
         
-        // 计算哈希值
-        std::string calculatedHash = hashFunc(text);
+        // 已在其他数据块或转储中计算过的文本直接跳过，全部命中模式下已命中原文的副本仍然返回
+        if (dedupSet != nullptr && !dedupSet->insert(text)) {
+            skippedCount++;
+            if (allMatches && isMatchedText(session, text)) {
+                matches.push_back({span.offset, span.length});
+            }
+            continue;
+        }
         
-        // 将计算出的哈希转换为小写以便比较
-        std::transform(calculatedHash.begin(), calculatedHash.end(), calculatedHash.begin(), 
-                     [](unsigned char c){ return std::tolower(c); });
+        // 计算每个算法的哈希值并比较，目标值已由调用方转换为小写
+        const HashAlgorithm* matched = nullptr;
+        hashedCount++;
+        for (const HashAlgorithm* algorithm : algorithms) {
+            algorithm->kernel(text, calculatedHash);
+            if (std::memcmp(calculatedHash, hashValue.data(), hashValue.length()) == 0) {
+                matched = algorithm;
+                break;
+            }
+        }
         
-        // 比较哈希值
-        if (calculatedHash == hashValue) {
-            LOG("找到匹配的原文: '%s', 哈希值: %s", text.c_str(), calculatedHash.c_str());
-            
-            // 记录特殊字符
-            if (text.find(',') != std::string::npos || text.find('?') != std::string::npos) {
-                LOG("匹配的原文包含特殊字符");
-                for (size_t i = 0; i < text.length(); i++) {
-                    if (text[i] == ',' || text[i] == '?' || text[i] == '.') {
-                        LOG("特殊字符位置[%zu]: '%c' (ASCII: %d)", i, text[i], (int)(unsigned char)text[i]);
-                    }
-                }
+        if (matched != nullptr) {
+            LOG("找到匹配的原文: 偏移 %zu, 长度 %zu, 哈希类型: %s, 哈希值: %s",
+                span.offset, span.length, matched->name, hashValue.c_str());
+            matches.push_back({span.offset, span.length});
+            if (!allMatches) {
+                break;
+            }
+            if (session != nullptr) {
+                rememberMatchedText(session, text);
             }
-            
-            return text;
         }
     }
     
-    LOG("处理完成，共检查了 %d 个可能的文本，未找到匹配", processedCount);
-    return "";
+    if (session != nullptr) {
+        recordHashStage(session, hashedCount, skippedCount, hashStart);
+    }
+    
+    LOG("处理完成，共检查了 %d 个可能的文本（去重跳过 %d 个），命中 %zu 处", processedCount, skippedCount,
+        matches.size());
+}
+
+// 在内存数据中查找哈希值对应的原文
+std::string findHashOriginalInMemory(const uint8_t* data, size_t dataLength, 
+                                    const std::string& hashValue, 
+                                    const std::string& hashType,
+                                    SearchSession* session) {
+    std::vector<HashMatch> matches;
+    findHashMatchesInMemory(data, dataLength, hashValue, hashType, session, false, matches);
+    if (matches.empty()) {
+        return "";
+    }
+    return std::string(reinterpret_cast<const char*>(data + matches[0].offset), matches[0].length);
 } 
\ No newline at end of file
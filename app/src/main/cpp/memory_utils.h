@@ -2,11 +2,112 @@
 #include <vector>
 #include <string>
 #include <cstdint>
+#include <mutex>
+#include <atomic>
+#include <chrono>
+
+// 候选字符串去重集合
+// 按64位指纹记录已经计算过哈希的候选字符串，可在多个数据块、多个转储之间共享，
+// 使重复出现的字符串只计算一次哈希。内部按指纹分片加锁，每个分片是开放寻址表，
+// 总容量有上限，达到上限后不再记录新指纹（只影响去重效果，不影响正确性）。
+class CandidateDedupSet {
+public:
+    explicit CandidateDedupSet(size_t maxEntries);
+    ~CandidateDedupSet();
+
+    // 记录候选字符串，首次出现返回true（需要计算哈希），已出现过返回false
+    bool insert(const std::string& text);
+
+private:
+    static constexpr size_t SHARD_COUNT = 64;
+    struct Shard {
+        std::mutex mutex;
+        uint64_t* slots = nullptr;
+        size_t capacity = 0;
+        size_t size = 0;
+    };
+
+    static uint64_t fingerprint(const std::string& text);
+    bool growLocked(Shard& shard);
+
+    Shard shards[SHARD_COUNT];
+    size_t maxSlotsPerShard;
+};
+
+// 一次搜索任务的会话，跨数据块和转储共享状态
+struct SearchSession {
+    CandidateDedupSet* dedupSet = nullptr;
+
+    // 进度计数器，由扫描线程累加，供进度通道定时读取
+    std::atomic<uint64_t> candidatesExtracted{0};
+    std::atomic<uint64_t> hashesComputed{0};
+
+    // 分阶段指标，所有扫描线程累加
+    std::atomic<uint64_t> dedupSkipped{0};          // 去重跳过的候选数
+    std::atomic<uint64_t> featureSearchNanos{0};    // 特征字符串搜索耗时
+    std::atomic<uint64_t> extractNanos{0};          // 可打印字符串提取耗时
+    std::atomic<uint64_t> hashNanos{0};             // 去重与哈希计算耗时
+    std::atomic<uint64_t> bytesSearched{0};         // 传入原生层的字节数
+    std::atomic<uint64_t> bytesSkippedByFeature{0}; // 因不含特征字符串而跳过的字节数
+
+    // 全部命中模式下已命中的原文，用于识别被去重跳过的副本
+    std::mutex matchMutex;
+    std::vector<std::string> matchedTexts;
+    std::atomic<bool> hasMatches{false};
+};
+
+// 会话计数数组的下标，与Java层 SearchSession.COUNTER_* 保持一致
+enum SearchSessionCounter {
+    COUNTER_CANDIDATES = 0,
+    COUNTER_HASHES,
+    COUNTER_DEDUP_SKIPPED,
+    COUNTER_FEATURE_SEARCH_NANOS,
+    COUNTER_EXTRACT_NANOS,
+    COUNTER_HASH_NANOS,
+    COUNTER_BYTES_SEARCHED,
+    COUNTER_BYTES_SKIPPED_BY_FEATURE,
+    COUNTER_COUNT
+};
+
+// 单调时钟（纳秒），用于分阶段计时
+inline uint64_t monotonicNanos() {
+    return static_cast<uint64_t>(std::chrono::duration_cast<std::chrono::nanoseconds>(
+            std::chrono::steady_clock::now().time_since_epoch()).count());
+}
+
+// 可打印字节序列在数据中的位置
+struct PrintableSpan {
+    size_t offset;
+    size_t length;
+};
+
+// 从内存数据中提取可打印字节序列的位置
+std::vector<PrintableSpan> extractPrintableSpans(const uint8_t* data, size_t length);
 
 // 从内存数据中提取可打印字符串
 std::vector<std::string> extractPrintableStrings(const uint8_t* data, size_t length);
 
+// 一处命中：原文在数据中的位置，原文字节由调用方从数据中读取
+struct HashMatch {
+    size_t offset;
+    size_t length;
+};
+
+// 在内存数据中查找哈希值对应的原文，返回命中的位置
+// allMatches 为false时找到第一个命中即返回；为true时处理完所有候选，
+// 并把被会话去重跳过、但与已命中原文相同的候选也作为命中返回
+void findHashMatchesInMemory(const uint8_t* data, size_t dataLength,
+                             const std::string& hashValue,
+                             const std::string& hashType,
+                             SearchSession* session,
+                             bool allMatches,
+                             std::vector<HashMatch>& matches);
+
 // 在内存数据中查找哈希值对应的原文
+// hashValue 为小写十六进制；hashType 可以是逗号分隔的多个同长度算法（如 "SHA-256,SM3,SHA3-256"），
+// 每个候选字符串依次计算这些算法，只提取一次
+// session 可为nullptr；若会话带有去重集合，已在其他数据块中计算过的候选字符串会被跳过
 std::string findHashOriginalInMemory(const uint8_t* data, size_t dataLength, 
                                     const std::string& hashValue, 
-                                    const std::string& hashType); 
\ No newline at end of file
+                                    const std::string& hashType,
+                                    SearchSession* session = nullptr);
\ No newline at end of file
@@ -1,20 +1,22 @@
 #include <jni.h>
 #include <string>
 #include <cstring>
-#include <android/log.h>
+#include <algorithm>
+#include "native_log.h"
 #include "string_search.h"
 #include "memory_utils.h"
+#include "proc_table.h"
+#include <mutex>
+#include <fcntl.h>
+#include <unistd.h>
 
 // Define a log tag
 #define LOG_TAG "JNI信息"
 
-// 定义全局日志开关变量，供其他模块使用
-bool gEnableJniLog = false; // 默认关闭JNI日志
-
 // 更新LOG宏以检查gEnableJniLog
 #define LOG(...)\
     if (gEnableJniLog) { \
-        __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__); \
+        NATIVE_LOG_PRINT(LOG_TAG, __VA_ARGS__); \
     }
 
 // 原生函数的实现
@@ -68,19 +70,21 @@ static jboolean containsFeatureString_native(JNIEnv* env, __attribute__((unused)
     return found ? JNI_TRUE : JNI_FALSE;
 }
 
-// 在内存块中搜索哈希值对应的原文
-static jstring findHashOriginal_native(JNIEnv* env, __attribute__((unused)) jclass clazz,
-                                      jbyteArray data, jint dataLength, jstring hashValue,
-                                      jstring hashType, jstring featureStr) {
+// 在内存块中搜索哈希值对应的原文（session可为nullptr）
+// 返回命中位置的数组 [offset0, length0, offset1, length1, ...]，没有命中时返回null。
+// 只返回位置而不返回字符串：原文可能不是合法的UTF-8，由Java层从数据块中读取原始字节
+static jintArray findHashMatchesImpl(JNIEnv* env, jbyteArray data, jint dataLength, jstring hashValue,
+                                     jstring hashType, jstring featureStr, SearchSession* session,
+                                     bool allMatches) {
     if (data == nullptr || hashValue == nullptr || hashType == nullptr) {
-        LOG("findHashOriginal_native: 输入参数为 null")
+        LOG("findHashMatchesImpl: 输入参数为 null")
         return nullptr;
     }
     
     // 获取哈希值
     const char* nativeHashValue = env->GetStringUTFChars(hashValue, nullptr);
     if (nativeHashValue == nullptr) {
-        LOG("findHashOriginal_native: GetStringUTFChars 失败 (hashValue)")
+        LOG("findHashMatchesImpl: GetStringUTFChars 失败 (hashValue)")
         return nullptr;
     }
     
@@ -93,7 +97,7 @@ static jstring findHashOriginal_native(JNIEnv* env, __attribute__((unused)) jcla
     const char* nativeHashType = env->GetStringUTFChars(hashType, nullptr);
     if (nativeHashType == nullptr) {
         env->ReleaseStringUTFChars(hashValue, nativeHashValue);
-        LOG("findHashOriginal_native: GetStringUTFChars 失败 (hashType)")
+        LOG("findHashMatchesImpl: GetStringUTFChars 失败 (hashType)")
         return nullptr;
     }
     
@@ -110,18 +114,30 @@ static jstring findHashOriginal_native(JNIEnv* env, __attribute__((unused)) jcla
         if (nativeFeatureStr != nullptr) {
             env->ReleaseStringUTFChars(featureStr, nativeFeatureStr);
         }
-        LOG("findHashOriginal_native: GetByteArrayElements 失败")
+        LOG("findHashMatchesImpl: GetByteArrayElements 失败")
         return nullptr;
     }
     
+    if (session != nullptr) {
+        session->bytesSearched.fetch_add(static_cast<uint64_t>(dataLength), std::memory_order_relaxed);
+    }
+    
     // 如果有特征字符串，先检查是否包含它
     if (nativeFeatureStr != nullptr && strlen(nativeFeatureStr) > 0) {
+        uint64_t featureStart = session != nullptr ? monotonicNanos() : 0;
         bool containsFeature = searchInMemory(
             reinterpret_cast<const uint8_t*>(nativeData),
             dataLength,
             reinterpret_cast<const uint8_t*>(nativeFeatureStr),
             strlen(nativeFeatureStr)
         );
+        if (session != nullptr) {
+            session->featureSearchNanos.fetch_add(monotonicNanos() - featureStart, std::memory_order_relaxed);
+            if (!containsFeature) {
+                session->bytesSkippedByFeature.fetch_add(static_cast<uint64_t>(dataLength),
+                                                         std::memory_order_relaxed);
+            }
+        }
         
         if (!containsFeature) {
             // 释放资源
@@ -133,21 +149,18 @@ static jstring findHashOriginal_native(JNIEnv* env, __attribute__((unused)) jcla
         }
     }
     
-    // 启用JNI日志以帮助调试中文处理问题
-    bool originalLogState = gEnableJniLog;
-    gEnableJniLog = true;
-    
     // 在内存中查找哈希值对应的原文
-    std::string foundPlaintext = findHashOriginalInMemory(
+    std::vector<HashMatch> matches;
+    findHashMatchesInMemory(
         reinterpret_cast<const uint8_t*>(nativeData),
         dataLength,
         hashValueStr,
-        nativeHashType
+        nativeHashType,
+        session,
+        allMatches,
+        matches
     );
     
-    // 恢复日志状态
-    gEnableJniLog = originalLogState;
-    
     // 释放资源
     env->ReleaseByteArrayElements(data, nativeData, JNI_ABORT);
     env->ReleaseStringUTFChars(hashValue, nativeHashValue);
@@ -157,13 +170,114 @@ static jstring findHashOriginal_native(JNIEnv* env, __attribute__((unused)) jcla
     }
     
     // 返回结果
-    if (!foundPlaintext.empty()) {
-        LOG("返回找到的原文: %s", foundPlaintext.c_str());
-        return env->NewStringUTF(foundPlaintext.c_str());
-    } else {
+    if (matches.empty()) {
         LOG("未找到原文");
         return nullptr;
     }
+    LOG("返回 %zu 处命中", matches.size());
+    std::vector<jint> positions;
+    positions.reserve(matches.size() * 2);
+    for (const HashMatch& match : matches) {
+        positions.push_back(static_cast<jint>(match.offset));
+        positions.push_back(static_cast<jint>(match.length));
+    }
+    jintArray result = env->NewIntArray(static_cast<jsize>(positions.size()));
+    if (result != nullptr) {
+        env->SetIntArrayRegion(result, 0, static_cast<jsize>(positions.size()), positions.data());
+    }
+    return result;
+}
+
+// 创建搜索会话，maxDedupEntries大于0时启用候选字符串去重
+static jlong createSearchSession_native(__attribute__((unused)) JNIEnv* env,
+                                        __attribute__((unused)) jclass clazz, jint maxDedupEntries) {
+    auto* session = new SearchSession();
+    if (maxDedupEntries > 0) {
+        session->dedupSet = new CandidateDedupSet(static_cast<size_t>(maxDedupEntries));
+    }
+    LOG("创建搜索会话: %p, 去重上限: %d", session, maxDedupEntries)
+    return reinterpret_cast<jlong>(session);
+}
+
+// 释放搜索会话
+static void releaseSearchSession_native(__attribute__((unused)) JNIEnv* env,
+                                        __attribute__((unused)) jclass clazz, jlong handle) {
+    auto* session = reinterpret_cast<SearchSession*>(handle);
+    if (session == nullptr) {
+        return;
+    }
+    delete session->dedupSet;
+    delete session;
+    LOG("释放搜索会话: %p", session)
+}
+
+// 查找哈希值对应的原文的位置，handle为0时不使用会话；有会话时候选字符串去重跨数据块共享
+static jintArray findHashMatches_native(JNIEnv* env, __attribute__((unused)) jclass clazz,
+                                        jlong handle, jbyteArray data, jint dataLength,
+                                        jstring hashValue, jstring hashType, jstring featureStr,
+                                        jboolean allMatches) {
+    return findHashMatchesImpl(env, data, dataLength, hashValue, hashType, featureStr,
+                               reinterpret_cast<SearchSession*>(handle), allMatches == JNI_TRUE);
+}
+
+// 读取搜索会话的计数器，下标见 SearchSessionCounter
+static void getSearchSessionCounters_native(JNIEnv* env, __attribute__((unused)) jclass clazz,
+                                            jlong handle, jlongArray out) {
+    auto* session = reinterpret_cast<SearchSession*>(handle);
+    if (session == nullptr || out == nullptr) {
+        return;
+    }
+    jlong counters[COUNTER_COUNT];
+    counters[COUNTER_CANDIDATES] = static_cast<jlong>(session->candidatesExtracted.load(std::memory_order_relaxed));
+    counters[COUNTER_HASHES] = static_cast<jlong>(session->hashesComputed.load(std::memory_order_relaxed));
+    counters[COUNTER_DEDUP_SKIPPED] = static_cast<jlong>(session->dedupSkipped.load(std::memory_order_relaxed));
+    counters[COUNTER_FEATURE_SEARCH_NANOS] =
+            static_cast<jlong>(session->featureSearchNanos.load(std::memory_order_relaxed));
+    counters[COUNTER_EXTRACT_NANOS] = static_cast<jlong>(session->extractNanos.load(std::memory_order_relaxed));
+    counters[COUNTER_HASH_NANOS] = static_cast<jlong>(session->hashNanos.load(std::memory_order_relaxed));
+    counters[COUNTER_BYTES_SEARCHED] = static_cast<jlong>(session->bytesSearched.load(std::memory_order_relaxed));
+    counters[COUNTER_BYTES_SKIPPED_BY_FEATURE] =
+            static_cast<jlong>(session->bytesSkippedByFeature.load(std::memory_order_relaxed));
+    jsize length = std::min<jsize>(env->GetArrayLength(out), COUNTER_COUNT);
+    env->SetLongArrayRegion(out, 0, length, counters);
+}
+
+// 页缓存提示类型，与 NativeIoAdvisor 中的常量一致
+enum FileAdvice {
+    ADVICE_WILL_NEED = 0,
+    ADVICE_DONT_NEED = 1
+};
+
+// 对文件的一段范围调用 posix_fadvise
+// WILLNEED/DONTNEED作用于文件的页缓存而不是某个描述符，因此可以另外打开文件给出提示
+static jboolean adviseFile_native(JNIEnv* env, __attribute__((unused)) jclass clazz,
+                                  jstring path, jlong offset, jlong length, jint advice) {
+    if (path == nullptr || offset < 0 || length <= 0) {
+        return JNI_FALSE;
+    }
+    int posixAdvice;
+    switch (advice) {
+        case ADVICE_WILL_NEED:
+            posixAdvice = POSIX_FADV_WILLNEED;
+            break;
+        case ADVICE_DONT_NEED:
+            posixAdvice = POSIX_FADV_DONTNEED;
+            break;
+        default:
+            return JNI_FALSE;
+    }
+    const char* pathChars = env->GetStringUTFChars(path, nullptr);
+    if (pathChars == nullptr) {
+        return JNI_FALSE;
+    }
+    int fd = open(pathChars, O_RDONLY | O_CLOEXEC);
+    env->ReleaseStringUTFChars(path, pathChars);
+    if (fd < 0) {
+        return JNI_FALSE;
+    }
+    int result = posix_fadvise(fd, static_cast<off_t>(offset), static_cast<off_t>(length), posixAdvice);
+    close(fd);
+    return result == 0 ? JNI_TRUE : JNI_FALSE;
 }
 
 // JNINativeMethod 数组，用于动态注册
@@ -180,10 +294,53 @@ static const JNINativeMethod gMethods[] = {
         (void*)containsFeatureString_native
     },
     {
-        "findHashOriginal",
-        "([BILjava/lang/String;Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;",
-        (void*)findHashOriginal_native
+        "createSearchSession",
+        "(I)J",
+        (void*)createSearchSession_native
+    },
+    {
+        "releaseSearchSession",
+        "(J)V",
+        (void*)releaseSearchSession_native
+    },
+    {
+        "findHashMatches",
+        "(J[BILjava/lang/String;Ljava/lang/String;Ljava/lang/String;Z)[I",
+        (void*)findHashMatches_native
+    },
+    {
+        "getSearchSessionCounters",
+        "(J[J)V",
+        (void*)getSearchSessionCounters_native
+    },
+    {
+        "adviseFile",
+        "(Ljava/lang/String;JJI)Z",
+        (void*)adviseFile_native
+    }
+};
+
+// 进程内扫描/proc使用的命令行缓存
+static ProcTableCache gProcTableCache;
+static std::mutex gProcTableMutex;
+
+// 在当前进程内扫描/proc，返回格式化的进程表（只能看到当前进程有权限访问的进程）
+static jstring scanProcTable_native(JNIEnv* env, __attribute__((unused)) jclass clazz) {
+    std::vector<ProcEntry> entries;
+    {
+        std::lock_guard<std::mutex> guard(gProcTableMutex);
+        if (!scanProcTable(entries, &gProcTableCache)) {
+            LOG("scanProcTable_native: 无法打开 /proc")
+            return nullptr;
+        }
     }
+    std::string text = formatProcTable(entries);
+    return env->NewStringUTF(text.c_str());
+}
+
+// ProcessTable 类的方法表
+static const JNINativeMethod gProcessTableMethods[] = {
+    {"scanNative", "()Ljava/lang/String;", (void*)scanProcTable_native},
 };
 
 // JNI_OnLoad 函数，在库加载时调用
@@ -206,6 +363,21 @@ jint JNI_OnLoad(JavaVM* vm, __attribute__((unused)) void* reserved) {
         return JNI_ERR;
     }
     
+    env->DeleteLocalRef(clazz);
+
+    clazz = env->FindClass("com/ghostxx/algotools/utils/ProcessTable");
+    if (clazz == nullptr) {
+        LOG("JNI_OnLoad: 找不到类 com/ghostxx/algotools/utils/ProcessTable")
+        return JNI_ERR;
+    }
+
+    if (env->RegisterNatives(clazz, gProcessTableMethods,
+                             sizeof(gProcessTableMethods) / sizeof(gProcessTableMethods[0])) < 0) {
+        LOG("JNI_OnLoad: ProcessTable RegisterNatives 失败")
+        env->DeleteLocalRef(clazz);
+        return JNI_ERR;
+    }
+
     env->DeleteLocalRef(clazz);
     LOG("JNI_OnLoad: 原生方法动态注册成功")
     return JNI_VERSION_1_6;
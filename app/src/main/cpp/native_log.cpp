@@ -0,0 +1,4 @@
+#include "native_log.h"
+
+// 定义全局日志开关变量，供其他模块使用
+bool gEnableJniLog = false; // 默认关闭JNI日志
@@ -0,0 +1,21 @@
+#pragma once
+
+// 原生日志适配层
+// Android构建时输出到logcat；主机构建（基准测试等）时输出到stderr，
+// 使搜索、提取和哈希内核可以脱离NDK在普通Linux上编译。
+
+// 全局日志开关，由Java层通过 setJniLoggingEnabled 控制
+extern bool gEnableJniLog;
+
+#ifdef __ANDROID__
+#include <android/log.h>
+#define NATIVE_LOG_PRINT(tag, ...) __android_log_print(ANDROID_LOG_DEBUG, tag, __VA_ARGS__)
+#else
+#include <cstdio>
+#define NATIVE_LOG_PRINT(tag, ...) \
+    do { \
+        fprintf(stderr, "D/%s: ", tag); \
+        fprintf(stderr, __VA_ARGS__); \
+        fputc('\n', stderr); \
+    } while (0)
+#endif
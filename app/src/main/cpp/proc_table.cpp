@@ -0,0 +1,178 @@
+#include "proc_table.h"
+
+#include <dirent.h>
+#include <fcntl.h>
+#include <sys/stat.h>
+#include <unistd.h>
+#include <cstdio>
+#include <cstdlib>
+#include <cstring>
+
+namespace {
+
+// 读取整个小文件到缓冲区，返回读取的字节数，失败返回-1
+ssize_t readSmallFile(const char* path, char* buffer, size_t bufferSize) {
+    int fd = open(path, O_RDONLY | O_CLOEXEC);
+    if (fd < 0) {
+        return -1;
+    }
+    size_t total = 0;
+    while (total < bufferSize) {
+        ssize_t n = read(fd, buffer + total, bufferSize - total);
+        if (n < 0) {
+            close(fd);
+            return -1;
+        }
+        if (n == 0) {
+            break;
+        }
+        total += static_cast<size_t>(n);
+    }
+    close(fd);
+    return static_cast<ssize_t>(total);
+}
+
+// 解析/proc/<pid>/stat，取出启动时间和常驻页数
+bool parseStat(const char* stat, uint64_t& startTime, int64_t& rssPages) {
+    // 进程名可能包含空格和括号，从最后一个')'之后开始解析
+    const char* p = strrchr(stat, ')');
+    if (p == nullptr) {
+        return false;
+    }
+    p++;
+
+    // ')'之后第1个字段是state（第3个字段），starttime是第22个字段，rss是第24个字段
+    int field = 2;
+    while (*p != '\0' && field < 24) {
+        while (*p == ' ') {
+            p++;
+        }
+        field++;
+        if (field == 22) {
+            startTime = strtoull(p, nullptr, 10);
+        } else if (field == 24) {
+            rssPages = strtoll(p, nullptr, 10);
+            return true;
+        }
+        while (*p != ' ' && *p != '\0') {
+            p++;
+        }
+    }
+    return false;
+}
+
+// 读取命令行，参数之间的'\0'、制表符和换行替换为空格，非ASCII字节替换为'?'（输出需经JNI转换为字符串）
+std::string readCmdline(const char* path) {
+    char buffer[1024];
+    ssize_t n = readSmallFile(path, buffer, sizeof(buffer));
+    if (n <= 0) {
+        return std::string();
+    }
+    while (n > 0 && buffer[n - 1] == '\0') {
+        n--;
+    }
+    for (ssize_t i = 0; i < n; i++) {
+        if (buffer[i] == '\0' || buffer[i] == '\t' || buffer[i] == '\n') {
+            buffer[i] = ' ';
+        } else if (static_cast<unsigned char>(buffer[i]) >= 0x80) {
+            buffer[i] = '?';
+        }
+    }
+    return std::string(buffer, static_cast<size_t>(n));
+}
+
+} // namespace
+
+const std::string* ProcTableCache::find(int pid, uint64_t startTime) const {
+    auto it = entries_.find(pid);
+    if (it == entries_.end() || it->second.startTime != startTime) {
+        return nullptr;
+    }
+    return &it->second.cmdline;
+}
+
+void ProcTableCache::update(const std::vector<ProcEntry>& entries) {
+    std::unordered_map<int, CachedCmdline> next;
+    next.reserve(entries.size());
+    for (const ProcEntry& entry : entries) {
+        next.emplace(entry.pid, CachedCmdline{entry.startTime, entry.cmdline});
+    }
+    entries_.swap(next);
+}
+
+bool scanProcTable(std::vector<ProcEntry>& out, ProcTableCache* cache) {
+    DIR* dir = opendir("/proc");
+    if (dir == nullptr) {
+        return false;
+    }
+
+    const long pageKb = sysconf(_SC_PAGESIZE) / 1024;
+    char path[64];
+    char statText[1024];
+
+    struct dirent* de;
+    while ((de = readdir(dir)) != nullptr) {
+        const char* name = de->d_name;
+        if (name[0] < '1' || name[0] > '9') {
+            continue;
+        }
+        char* end = nullptr;
+        long pid = strtol(name, &end, 10);
+        if (*end != '\0') {
+            continue;
+        }
+
+        ProcEntry entry;
+        entry.pid = static_cast<int>(pid);
+
+        // /proc/<pid>目录的属主就是进程的uid
+        struct stat st {};
+        snprintf(path, sizeof(path), "/proc/%ld", pid);
+        if (stat(path, &st) != 0) {
+            continue; // 进程已退出
+        }
+        entry.uid = static_cast<int>(st.st_uid);
+
+        snprintf(path, sizeof(path), "/proc/%ld/stat", pid);
+        ssize_t n = readSmallFile(path, statText, sizeof(statText) - 1);
+        if (n <= 0) {
+            continue;
+        }
+        statText[n] = '\0';
+        int64_t rssPages = 0;
+        if (!parseStat(statText, entry.startTime, rssPages)) {
+            continue;
+        }
+        entry.rssKb = rssPages * pageKb;
+
+        const std::string* cached = cache != nullptr ? cache->find(entry.pid, entry.startTime) : nullptr;
+        if (cached != nullptr) {
+            entry.cmdline = *cached;
+        } else {
+            snprintf(path, sizeof(path), "/proc/%ld/cmdline", pid);
+            entry.cmdline = readCmdline(path);
+        }
+
+        out.push_back(std::move(entry));
+    }
+    closedir(dir);
+
+    if (cache != nullptr) {
+        cache->update(out);
+    }
+    return true;
+}
+
+std::string formatProcTable(const std::vector<ProcEntry>& entries) {
+    std::string text = "#PROCTABLE v1\n";
+    text.reserve(entries.size() * 64);
+    char line[96];
+    for (const ProcEntry& entry : entries) {
+        snprintf(line, sizeof(line), "%d\t%d\t%llu\t%lld\t", entry.pid, entry.uid,
+                 static_cast<unsigned long long>(entry.startTime), static_cast<long long>(entry.rssKb));
+        text += line;
+        text += entry.cmdline;
+        text += '\n';
+    }
+    return text;
+}
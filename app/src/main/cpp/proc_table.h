@@ -0,0 +1,41 @@
+#pragma once
+#include <string>
+#include <vector>
+#include <unordered_map>
+#include <cstdint>
+
+// 进程表条目
+struct ProcEntry {
+    int pid = 0;
+    int uid = -1;
+    uint64_t startTime = 0; // 进程启动时间（开机后的时钟滴答数，/proc/<pid>/stat第22个字段）
+    int64_t rssKb = 0;      // 常驻内存（KB）
+    std::string cmdline;    // 命令行，参数之间以空格分隔
+};
+
+// 进程表缓存
+// 以pid和启动时间为键缓存命令行：同一pid启动时间不变时复用上次读取的命令行，
+// 启动时间变化（pid被复用）或进程消失时对应条目失效。
+class ProcTableCache {
+public:
+    // 查找缓存的命令行，pid和启动时间都匹配时返回指针，否则返回nullptr
+    const std::string* find(int pid, uint64_t startTime) const;
+
+    // 用本次扫描结果替换缓存，未出现在本次扫描中的进程被移除
+    void update(const std::vector<ProcEntry>& entries);
+
+private:
+    struct CachedCmdline {
+        uint64_t startTime;
+        std::string cmdline;
+    };
+    std::unordered_map<int, CachedCmdline> entries_;
+};
+
+// 单次遍历/proc，读取每个进程的命令行、uid、启动时间和常驻内存
+// cache不为空时复用未变化进程的命令行并在扫描后更新缓存
+bool scanProcTable(std::vector<ProcEntry>& out, ProcTableCache* cache = nullptr);
+
+// 将进程表格式化为文本，首行为版本头，之后每行一个进程：
+// pid \t uid \t startTime \t rssKb \t cmdline
+std::string formatProcTable(const std::vector<ProcEntry>& entries);
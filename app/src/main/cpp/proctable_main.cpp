@@ -0,0 +1,18 @@
+// 进程表扫描工具
+// 打包为 libproctable.so 随应用安装，由ROOT Shell执行，
+// 以ROOT权限一次遍历/proc并把进程表输出到标准输出（格式见 formatProcTable）。
+#include <cstdio>
+#include <vector>
+#include "proc_table.h"
+
+int main() {
+    std::vector<ProcEntry> entries;
+    entries.reserve(512);
+    if (!scanProcTable(entries)) {
+        fprintf(stderr, "无法打开 /proc\n");
+        return 1;
+    }
+    std::string text = formatProcTable(entries);
+    fwrite(text.data(), 1, text.size(), stdout);
+    return 0;
+}
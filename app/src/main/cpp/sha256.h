@@ -5,6 +5,7 @@
 #include <string> // For std::string
 #include <cstring> // For std::memcpy
 #include <cstdint> // For uint32_t, uint64_t
+#include "digest_util.h"
 
 // SHA-256 constants K
 const uint32_t K_CONST[64] = { // Renamed to avoid conflict if K is used elsewhere
@@ -135,3 +136,50 @@ inline std::string sha256(const std::string& input_string) {
     }
     return ss.str();
 }
+
+
+// Initial hash values H0-H7 for SHA-224
+const uint32_t INITIAL_H224_VALUES[8] = {
+    0xc1059ed8, 0x367cd507, 0x3070dd17, 0xf70e5939,
+    0xffc00b31, 0x68581511, 0x64f98fa7, 0xbefa4fa4
+};
+
+// 不分配内存的SHA-256族摘要：按给定初始值计算，输出前 out_length 个字节
+// SHA-256: INITIAL_H_VALUES, 32字节；SHA-224: INITIAL_H224_VALUES, 28字节
+inline void sha256_family_digest(const uint8_t* data, size_t length, const uint32_t initial[8],
+                                 uint8_t* out, size_t out_length) {
+    uint32_t state[8];
+    std::memcpy(state, initial, sizeof(state));
+
+    const size_t full_blocks = length / 64;
+    for (size_t i = 0; i < full_blocks; ++i) {
+        compress_block_sha256(state, data + i * 64);
+    }
+
+    // 剩余数据和填充最多占两个分组
+    uint8_t final_blocks[128] = {0};
+    const size_t remaining = length % 64;
+    std::memcpy(final_blocks, data + full_blocks * 64, remaining);
+    final_blocks[remaining] = 0x80;
+    const size_t final_length = remaining + 1 + 8 <= 64 ? 64 : 128;
+    store_be64(final_blocks + final_length - 8, static_cast<uint64_t>(length) << 3);
+    compress_block_sha256(state, final_blocks);
+    if (final_length == 128) {
+        compress_block_sha256(state, final_blocks + 64);
+    }
+
+    uint8_t full[32];
+    for (int i = 0; i < 8; ++i) {
+        store_be32(full + i * 4, state[i]);
+    }
+    std::memcpy(out, full, out_length);
+}
+
+// SHA-224 hashing function, same compression as SHA-256 with different initial values,
+// truncated to 224 bits (28 bytes, 56 hex chars)
+inline std::string sha224(const std::string& input_string) {
+    uint8_t digest[28];
+    sha256_family_digest(reinterpret_cast<const uint8_t*>(input_string.data()), input_string.length(),
+                         INITIAL_H224_VALUES, digest, sizeof(digest));
+    return digest_to_hex(digest, sizeof(digest));
+}
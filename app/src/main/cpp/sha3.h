@@ -0,0 +1,130 @@
+#pragma once
+#include <cstddef>
+#include <cstdint>
+#include <cstring>
+#include <string>
+#include "digest_util.h"
+
+// SHA-3（FIPS 202）和原始Keccak（以太坊使用的Keccak-256）
+// 两者使用同一个Keccak-f[1600]置换，只有填充的域分隔字节不同：SHA-3为0x06，Keccak为0x01。
+// 速率（每次吸收的字节数）为 200 - 2 * 摘要字节数。
+
+const uint64_t KECCAK_ROUND_CONSTANTS[24] = {
+    0x0000000000000001ULL, 0x0000000000008082ULL, 0x800000000000808aULL, 0x8000000080008000ULL,
+    0x000000000000808bULL, 0x0000000080000001ULL, 0x8000000080008081ULL, 0x8000000000008009ULL,
+    0x000000000000008aULL, 0x0000000000000088ULL, 0x0000000080008009ULL, 0x000000008000000aULL,
+    0x000000008000808bULL, 0x800000000000008bULL, 0x8000000000008089ULL, 0x8000000000008003ULL,
+    0x8000000000008002ULL, 0x8000000000000080ULL, 0x000000000000800aULL, 0x800000008000000aULL,
+    0x8000000080008081ULL, 0x8000000000008080ULL, 0x0000000080000001ULL, 0x8000000080008008ULL
+};
+
+// rho步骤的循环移位量和pi步骤的置换顺序
+const unsigned KECCAK_RHO[24] = {
+    1, 3, 6, 10, 15, 21, 28, 36, 45, 55, 2, 14, 27, 41, 56, 8, 25, 43, 62, 18, 39, 61, 20, 44
+};
+const unsigned KECCAK_PI[24] = {
+    10, 7, 11, 17, 18, 3, 5, 16, 8, 21, 24, 4, 15, 23, 19, 13, 12, 2, 20, 14, 22, 9, 6, 1
+};
+
+const uint8_t SHA3_DOMAIN_PADDING = 0x06;
+const uint8_t KECCAK_DOMAIN_PADDING = 0x01;
+
+inline uint64_t keccak_rotl(uint64_t x, unsigned n) {
+    return (x << n) | (x >> (64 - n));
+}
+
+inline void keccak_f1600(uint64_t state[25]) {
+    for (int round = 0; round < 24; ++round) {
+        // theta：五列的奇偶校验，展开以避免取模
+        uint64_t C0 = state[0] ^ state[5] ^ state[10] ^ state[15] ^ state[20];
+        uint64_t C1 = state[1] ^ state[6] ^ state[11] ^ state[16] ^ state[21];
+        uint64_t C2 = state[2] ^ state[7] ^ state[12] ^ state[17] ^ state[22];
+        uint64_t C3 = state[3] ^ state[8] ^ state[13] ^ state[18] ^ state[23];
+        uint64_t C4 = state[4] ^ state[9] ^ state[14] ^ state[19] ^ state[24];
+        uint64_t D0 = C4 ^ keccak_rotl(C1, 1);
+        uint64_t D1 = C0 ^ keccak_rotl(C2, 1);
+        uint64_t D2 = C1 ^ keccak_rotl(C3, 1);
+        uint64_t D3 = C2 ^ keccak_rotl(C4, 1);
+        uint64_t D4 = C3 ^ keccak_rotl(C0, 1);
+        for (int y = 0; y < 25; y += 5) {
+            state[y] ^= D0;
+            state[y + 1] ^= D1;
+            state[y + 2] ^= D2;
+            state[y + 3] ^= D3;
+            state[y + 4] ^= D4;
+        }
+        // rho 和 pi
+        uint64_t current = state[1];
+        for (int i = 0; i < 24; ++i) {
+            unsigned j = KECCAK_PI[i];
+            uint64_t next = state[j];
+            state[j] = keccak_rotl(current, KECCAK_RHO[i]);
+            current = next;
+        }
+        // chi
+        for (int y = 0; y < 25; y += 5) {
+            uint64_t A0 = state[y], A1 = state[y + 1], A2 = state[y + 2], A3 = state[y + 3], A4 = state[y + 4];
+            state[y] = A0 ^ (~A1 & A2);
+            state[y + 1] = A1 ^ (~A2 & A3);
+            state[y + 2] = A2 ^ (~A3 & A4);
+            state[y + 3] = A3 ^ (~A4 & A0);
+            state[y + 4] = A4 ^ (~A0 & A1);
+        }
+        // iota
+        state[0] ^= KECCAK_ROUND_CONSTANTS[round];
+    }
+}
+
+// 把 count 个字节（8的倍数）按小端序异或进状态
+inline void keccak_absorb_bytes(uint64_t state[25], const uint8_t* data, size_t count) {
+    for (size_t i = 0; i < count / 8; ++i) {
+        const uint8_t* p = data + i * 8;
+        uint64_t lane = 0;
+        for (int b = 7; b >= 0; --b) {
+            lane = (lane << 8) | p[b];
+        }
+        state[i] ^= lane;
+    }
+}
+
+// 不分配内存的Keccak海绵摘要
+// out_length 为摘要字节数（28、32、48或64），domain_padding 为 SHA3_DOMAIN_PADDING 或 KECCAK_DOMAIN_PADDING
+inline void keccak_digest(const uint8_t* data, size_t length, size_t out_length, uint8_t domain_padding,
+                          uint8_t* out) {
+    uint64_t state[25] = {0};
+    const size_t rate = 200 - 2 * out_length;
+
+    while (length >= rate) {
+        keccak_absorb_bytes(state, data, rate);
+        keccak_f1600(state);
+        data += rate;
+        length -= rate;
+    }
+
+    // 最后一个分组：剩余数据 + 域分隔字节 ... 0x80
+    uint8_t block[200] = {0};
+    std::memcpy(block, data, length);
+    block[length] ^= domain_padding;
+    block[rate - 1] ^= 0x80;
+    keccak_absorb_bytes(state, block, rate);
+    keccak_f1600(state);
+
+    // 摘要长度都小于速率，挤出一次即可
+    for (size_t i = 0; i < out_length; ++i) {
+        out[i] = static_cast<uint8_t>(state[i / 8] >> (8 * (i % 8)));
+    }
+}
+
+inline std::string sha3(const std::string& input_string, size_t out_length) {
+    uint8_t digest[64];
+    keccak_digest(reinterpret_cast<const uint8_t*>(input_string.data()), input_string.length(), out_length,
+                  SHA3_DOMAIN_PADDING, digest);
+    return digest_to_hex(digest, out_length);
+}
+
+inline std::string keccak256(const std::string& input_string) {
+    uint8_t digest[32];
+    keccak_digest(reinterpret_cast<const uint8_t*>(input_string.data()), input_string.length(), sizeof(digest),
+                  KECCAK_DOMAIN_PADDING, digest);
+    return digest_to_hex(digest, sizeof(digest));
+}
@@ -5,6 +5,7 @@
 #include <string>
 #include <cstring>
 #include <cstdint>
+#include "digest_util.h"
 
 // SHA-512 constants K
 const uint64_t K512[80] = {
@@ -155,4 +156,53 @@ inline std::string sha512(const std::string& input_string) {
     *ptr = '\0';
     
     return std::string(hex);
-} 
\ No newline at end of file
+} 
+
+
+// Initial hash values H0-H7 for SHA-512/256 (FIPS 180-4 5.3.6.2)
+const uint64_t INITIAL_H512_256_VALUES[8] = {
+    0x22312194fc2bf72cULL, 0x9f555fa3c84c64c2ULL,
+    0x2393b86b6f53b151ULL, 0x963877195940eabdULL,
+    0x96283ee2a88effe3ULL, 0xbe5e1e2553863992ULL,
+    0x2b0199fc2c85b8aaULL, 0x0eb72ddc81c52ca2ULL
+};
+
+// 不分配内存的SHA-512族摘要：按给定初始值计算，输出前 out_length 个字节
+// SHA-512: INITIAL_H512_VALUES, 64字节；SHA-384: INITIAL_H384_VALUES, 48字节；
+// SHA-512/256: INITIAL_H512_256_VALUES, 32字节
+inline void sha512_family_digest(const uint8_t* data, size_t length, const uint64_t initial[8],
+                                 uint8_t* out, size_t out_length) {
+    alignas(16) uint64_t state[8];
+    std::memcpy(state, initial, sizeof(state));
+
+    const size_t full_blocks = length / 128;
+    for (size_t i = 0; i < full_blocks; ++i) {
+        compress_block_sha512(state, data + i * 128);
+    }
+
+    // 剩余数据和填充最多占两个分组，长度字段为128位大端整数，高64位对候选字符串总是0
+    alignas(16) uint8_t final_blocks[256] = {0};
+    const size_t remaining = length % 128;
+    std::memcpy(final_blocks, data + full_blocks * 128, remaining);
+    final_blocks[remaining] = 0x80;
+    const size_t final_length = remaining + 1 + 16 <= 128 ? 128 : 256;
+    store_be64(final_blocks + final_length - 8, static_cast<uint64_t>(length) << 3);
+    compress_block_sha512(state, final_blocks);
+    if (final_length == 256) {
+        compress_block_sha512(state, final_blocks + 128);
+    }
+
+    uint8_t full[64];
+    for (int i = 0; i < 8; ++i) {
+        store_be64(full + i * 8, state[i]);
+    }
+    std::memcpy(out, full, out_length);
+}
+
+// SHA-512/256 hashing function (32 bytes, 64 hex chars)
+inline std::string sha512_256(const std::string& input_string) {
+    uint8_t digest[32];
+    sha512_family_digest(reinterpret_cast<const uint8_t*>(input_string.data()), input_string.length(),
+                         INITIAL_H512_256_VALUES, digest, sizeof(digest));
+    return digest_to_hex(digest, sizeof(digest));
+}
\ No newline at end of file
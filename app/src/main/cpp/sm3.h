@@ -0,0 +1,107 @@
+#pragma once
+#include <cstddef>
+#include <cstdint>
+#include <cstring>
+#include <string>
+#include "digest_util.h"
+
+// SM3 密码杂凑算法（GB/T 32905-2016），分组64字节，摘要32字节
+// 填充方式与SHA-256相同，压缩函数按标准逐轮展开，不分配内存
+
+const uint32_t SM3_INITIAL_VALUES[8] = {
+    0x7380166f, 0x4914b2b9, 0x172442d7, 0xda8a0600,
+    0xa96f30bc, 0x163138aa, 0xe38dee4d, 0xb0fb0e4e
+};
+
+inline uint32_t sm3_rotl(uint32_t x, unsigned n) {
+    n &= 31;
+    return n == 0 ? x : (x << n) | (x >> (32 - n));
+}
+
+inline uint32_t sm3_p0(uint32_t x) {
+    return x ^ sm3_rotl(x, 9) ^ sm3_rotl(x, 17);
+}
+
+inline uint32_t sm3_p1(uint32_t x) {
+    return x ^ sm3_rotl(x, 15) ^ sm3_rotl(x, 23);
+}
+
+inline void compress_block_sm3(uint32_t V[8], const uint8_t* block) {
+    uint32_t W[68];
+    for (int j = 0; j < 16; ++j) {
+        W[j] = load_be32(block + j * 4);
+    }
+    for (int j = 16; j < 68; ++j) {
+        W[j] = sm3_p1(W[j - 16] ^ W[j - 9] ^ sm3_rotl(W[j - 3], 15)) ^ sm3_rotl(W[j - 13], 7) ^ W[j - 6];
+    }
+
+    uint32_t A = V[0], B = V[1], C = V[2], D = V[3];
+    uint32_t E = V[4], F = V[5], G = V[6], H = V[7];
+
+    // 前16轮和后48轮的常量与布尔函数不同，分成两个循环避免轮内分支
+    for (int j = 0; j < 16; ++j) {
+        uint32_t a12 = sm3_rotl(A, 12);
+        uint32_t SS1 = sm3_rotl(a12 + E + sm3_rotl(0x79cc4519, j), 7);
+        uint32_t SS2 = SS1 ^ a12;
+        uint32_t TT1 = (A ^ B ^ C) + D + SS2 + (W[j] ^ W[j + 4]);
+        uint32_t TT2 = (E ^ F ^ G) + H + SS1 + W[j];
+        D = C;
+        C = sm3_rotl(B, 9);
+        B = A;
+        A = TT1;
+        H = G;
+        G = sm3_rotl(F, 19);
+        F = E;
+        E = sm3_p0(TT2);
+    }
+    for (int j = 16; j < 64; ++j) {
+        uint32_t a12 = sm3_rotl(A, 12);
+        uint32_t SS1 = sm3_rotl(a12 + E + sm3_rotl(0x7a879d8a, j), 7);
+        uint32_t SS2 = SS1 ^ a12;
+        uint32_t TT1 = ((A & B) | (A & C) | (B & C)) + D + SS2 + (W[j] ^ W[j + 4]);
+        uint32_t TT2 = ((E & F) | (~E & G)) + H + SS1 + W[j];
+        D = C;
+        C = sm3_rotl(B, 9);
+        B = A;
+        A = TT1;
+        H = G;
+        G = sm3_rotl(F, 19);
+        F = E;
+        E = sm3_p0(TT2);
+    }
+
+    V[0] ^= A; V[1] ^= B; V[2] ^= C; V[3] ^= D;
+    V[4] ^= E; V[5] ^= F; V[6] ^= G; V[7] ^= H;
+}
+
+// 不分配内存的SM3摘要，out 为32字节
+inline void sm3_digest(const uint8_t* data, size_t length, uint8_t out[32]) {
+    uint32_t state[8];
+    std::memcpy(state, SM3_INITIAL_VALUES, sizeof(state));
+
+    const size_t full_blocks = length / 64;
+    for (size_t i = 0; i < full_blocks; ++i) {
+        compress_block_sm3(state, data + i * 64);
+    }
+
+    uint8_t final_blocks[128] = {0};
+    const size_t remaining = length % 64;
+    std::memcpy(final_blocks, data + full_blocks * 64, remaining);
+    final_blocks[remaining] = 0x80;
+    const size_t final_length = remaining + 1 + 8 <= 64 ? 64 : 128;
+    store_be64(final_blocks + final_length - 8, static_cast<uint64_t>(length) << 3);
+    compress_block_sm3(state, final_blocks);
+    if (final_length == 128) {
+        compress_block_sm3(state, final_blocks + 64);
+    }
+
+    for (int i = 0; i < 8; ++i) {
+        store_be32(out + i * 4, state[i]);
+    }
+}
+
+inline std::string sm3(const std::string& input_string) {
+    uint8_t digest[32];
+    sm3_digest(reinterpret_cast<const uint8_t*>(input_string.data()), input_string.length(), digest);
+    return digest_to_hex(digest, sizeof(digest));
+}
@@ -1,9 +1,6 @@
 #include "string_search.h"
 #include <algorithm>
-#include <android/log.h>
-
-// 外部声明日志开关变量
-extern bool gEnableJniLog;
+#include "native_log.h"
 
 // 定义日志标签
 #define LOG_TAG "StringSearch"
@@ -11,7 +8,7 @@ extern bool gEnableJniLog;
 // 日志宏
 #define LOG(...)\
     if (gEnableJniLog) { \
-        __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__); \
+        NATIVE_LOG_PRINT(LOG_TAG, __VA_ARGS__); \
     }
 
 // 使用Boyer-Moore算法在内存块中搜索特征字符串
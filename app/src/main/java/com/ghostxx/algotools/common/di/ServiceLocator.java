@@ -59,7 +59,7 @@ public class ServiceLocator {
     /**
      * 获取内存转储仓库
      */
-    public MemoryDumpRepository getMemoryDumpRepository() {
+    public synchronized MemoryDumpRepository getMemoryDumpRepository() {
         if (memoryDumpRepository == null) {
             memoryDumpRepository = new MemoryDumpRepositoryImpl(applicationContext);
         }
@@ -4,14 +4,30 @@ import android.content.Context;
 import android.util.Log;
 
 import com.ghostxx.algotools.domain.entity.HashAnalysisResult;
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
 import com.ghostxx.algotools.domain.entity.MemoryDump;
+import com.ghostxx.algotools.domain.entity.ScanMetrics;
 import com.ghostxx.algotools.domain.repository.HashAnalysisRepository;
-import com.ghostxx.algotools.repository.fileprocessing.FileProcessingEngine;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+import com.ghostxx.algotools.engine.entropy.EntropyFilterProcessor;
+import com.ghostxx.algotools.engine.fingerprint.AlgorithmFingerprint;
+import com.ghostxx.algotools.engine.fingerprint.ConstantScanProcessor;
+import com.ghostxx.algotools.engine.hash.MatchRecord;
+import com.ghostxx.algotools.engine.hash.MatchStream;
+import com.ghostxx.algotools.repository.fileprocessing.EngineTuning;
 import com.ghostxx.algotools.repository.fileprocessing.HashSearchProcessor;
+import com.ghostxx.algotools.repository.fileprocessing.ProgressChannel;
+import com.ghostxx.algotools.repository.fileprocessing.SearchSession;
+import com.ghostxx.algotools.utils.AndroidEngineLogger;
 import com.ghostxx.algotools.utils.HashCryptoUtils;
+import com.ghostxx.algotools.utils.NativeIoAdvisor;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 哈希分析仓库实现
@@ -22,18 +38,20 @@ public class HashAnalysisRepositoryImpl implements HashAnalysisRepository {
     
     private final Context context;
     private final FileProcessingEngine fileEngine;
+    private final EngineTuning engineTuning;
+    // 最近一次常量识别得到的哈希类型，按排名排列
+    private volatile List<String> detectedHashTypes;
     
     public HashAnalysisRepositoryImpl(Context context) {
         this.context = context.getApplicationContext();
+        AndroidEngineLogger.install();
         
         // 创建并配置文件处理引擎
         this.fileEngine = new FileProcessingEngine();
-        int cpuCores = Runtime.getRuntime().availableProcessors();
-        int optimalThreads = Math.max(1, Math.min(cpuCores - 1, 4)); // 保留一个核心给UI线程
-        
-        fileEngine.setThreadCount(optimalThreads)
-                 .setChunkSize(4 * 1024 * 1024) // 4MB
-                 .setOverlapSize(128 * 1024); // 128KB
+        // 按本机调好的线程数和块大小配置，每次扫描中继续调优
+        this.engineTuning = EngineTuning.getInstance(context);
+        engineTuning.configure(fileEngine);
+        fileEngine.setIoAdvisor(NativeIoAdvisor.getInstance()); // 预读流水线的页缓存提示
     }
     
     @Override
@@ -42,39 +60,108 @@ public class HashAnalysisRepositoryImpl implements HashAnalysisRepository {
         if (dump == null || !dump.isValid() || hash == null || hash.isEmpty()) {
             return HashAnalysisResult.failure(hashType, 0);
         }
+        return searchPlaintextInDumps(Collections.singletonList(dump), hash, featureString, hashType, callback);
+    }
+    
+    @Override
+    public HashAnalysisResult searchPlaintextInDumps(List<MemoryDump> dumps, String hash, String featureString,
+                                                     String hashType, HashSearchOptions options,
+                                                     ProgressCallback callback) {
+        if (options == null) {
+            options = HashSearchOptions.plain();
+        }
+        // 结果中显示的类型，HMAC模式下带上前缀
+        String resultType = options.getResultType(hashType);
+        if (dumps == null || dumps.isEmpty() || hash == null || hash.isEmpty()) {
+            return HashAnalysisResult.failure(resultType, 0);
+        }
         
-        try {
+        // 过滤无效和重复的转储
+        List<MemoryDump> validDumps = new ArrayList<>();
+        List<File> dumpFiles = new ArrayList<>();
+        Set<String> seenPaths = new HashSet<>();
+        for (MemoryDump dump : dumps) {
+            if (dump == null || !dump.isValid() || !seenPaths.add(dump.getFilePath())) {
+                continue;
+            }
             File dumpFile = new File(dump.getFilePath());
             if (!dumpFile.exists() || dumpFile.length() == 0) {
-                Log.e(TAG, "转储文件不存在或为空");
-                return HashAnalysisResult.failure(hashType, 0);
-            }
-            
-            long startTime = System.currentTimeMillis();
-            
-            // 创建哈希搜索处理器
-            HashSearchProcessor processor = new HashSearchProcessor(hash, featureString, hashType);
-            
-            // 创建进度回调转换器
-            FileProcessingEngine.ProgressCallback engineCallback = null;
-            if (callback != null) {
-                engineCallback = (current, total) -> callback.onProgressUpdate(current, total);
+                Log.w(TAG, "转储文件不存在或为空: " + dump.getFilePath());
+                continue;
             }
+            validDumps.add(dump);
+            dumpFiles.add(dumpFile);
+        }
+        
+        if (dumpFiles.isEmpty()) {
+            Log.e(TAG, "没有可搜索的转储文件");
+            return HashAnalysisResult.failure(resultType, 0);
+        }
+        
+        long startTime = System.currentTimeMillis();
+        
+        // 整个任务共用一个搜索会话，候选字符串在数据块和转储之间去重
+        try (SearchSession session = SearchSession.create(hash, hashType, options);
+             ProgressChannel progressChannel = createProgressChannel(session, callback);
+             EngineTuning.Scan tuning = engineTuning.startScan(fileEngine, true)) {
+            // 创建哈希搜索处理器，命中同时报告给命中流，以保留原文的原始字节和实际命中的算法
+            MatchStream stream = new MatchStream(hash, false, null);
+            HashSearchProcessor processor = new HashSearchProcessor(hash, featureString, hashType, session, options)
+                    .setMatchStream(stream);
+            // 按各转储的熵图跳过填零区域和压缩/加密数据，不再从中提取候选
+            EntropyFilterProcessor entropyFilter = new EntropyFilterProcessor(processor, dumpFiles);
             
-            // 执行文件处理
-            String plaintext = fileEngine.processFile(dumpFile, processor, engineCallback);
+            // 执行文件处理，工作线程只更新进度通道，由通道按固定频率回调
+            FileProcessingEngine.FileResult fileResult = fileEngine.processFiles(dumpFiles, entropyFilter,
+                    progressChannel);
             long endTime = System.currentTimeMillis();
+            entropyFilter.saveMaps();
+            ScanMetrics metrics = collectMetrics(session, entropyFilter.getBytesSkipped());
             
-            if (plaintext != null && !plaintext.isEmpty()) {
-                return HashAnalysisResult.success(plaintext, hashType, endTime - startTime);
+            if (fileResult != null && fileResult.getResult() != null && !fileResult.getResult().isEmpty()) {
+                MemoryDump sourceDump = validDumps.get(fileResult.getFileIndex());
+                Log.d(TAG, "在转储 " + sourceDump.getFilePath() + " 中找到原文");
+                // 同时尝试了多种算法时，结果中显示实际命中的算法；按原始字节确定，不经过UTF-8解码后的字符串
+                MatchRecord match = fileResult.getMatchRecord();
+                String matchedType = options.getResultType(match != null
+                        ? match.getHashType() : processor.getMatchedHashType(fileResult.getResult()));
+                return HashAnalysisResult.success(fileResult.getResult(), matchedType, endTime - startTime, sourceDump)
+                        .withMetrics(metrics)
+                        .withPlaintextBytes(match != null ? match.getBytes() : null);
             } else {
-                return HashAnalysisResult.failure(hashType, endTime - startTime);
+                return HashAnalysisResult.failure(resultType, endTime - startTime).withMetrics(metrics);
             }
             
         } catch (Exception e) {
             Log.e(TAG, "搜索哈希原文时出错", e);
-            return HashAnalysisResult.failure(hashType, 0);
+            return HashAnalysisResult.failure(resultType, System.currentTimeMillis() - startTime);
+        }
+    }
+    
+    /**
+     * 汇总引擎和原生会话的分阶段指标
+     */
+    private ScanMetrics collectMetrics(SearchSession session, long bytesSkippedByEntropy) {
+        FileProcessingEngine.RunStats runStats = fileEngine.getLastRunStats();
+        if (runStats == null) {
+            return null;
         }
+        ScanMetrics metrics = session.buildMetrics(runStats, bytesSkippedByEntropy);
+        Log.d(TAG, "扫描指标: " + metrics.toJson());
+        return metrics;
+    }
+    
+    /**
+     * 创建节流的进度通道，没有回调时返回null
+     */
+    private static ProgressChannel createProgressChannel(SearchSession session, ProgressCallback callback) {
+        if (callback == null) {
+            return null;
+        }
+        return new ProgressChannel(session, progress -> {
+            callback.onProgressUpdate(progress.getBytesScanned(), progress.getTotalBytes());
+            callback.onScanProgress(progress);
+        });
     }
     
     @Override
@@ -87,6 +174,47 @@ public class HashAnalysisRepositoryImpl implements HashAnalysisRepository {
         return identifiedTypes.toArray(new String[0]);
     }
     
+    @Override
+    public String resolveSearchHashType(String hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        return HashCryptoUtils.toSearchHashType(HashCryptoUtils.identifyHashType(hash), detectedHashTypes);
+    }
+    
+    @Override
+    public List<String> detectHashAlgorithms(List<MemoryDump> dumps, ProgressCallback callback) {
+        List<File> dumpFiles = new ArrayList<>();
+        if (dumps != null) {
+            for (MemoryDump dump : dumps) {
+                if (dump != null && dump.isValid() && new File(dump.getFilePath()).length() > 0) {
+                    dumpFiles.add(new File(dump.getFilePath()));
+                }
+            }
+        }
+        if (dumpFiles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        // 常量识别不计算哈希，使用纯Java会话只为汇报进度
+        try (SearchSession session = SearchSession.createJava(SearchSession.DEFAULT_MAX_DEDUP_ENTRIES);
+             ProgressChannel progressChannel = createProgressChannel(session, callback);
+             EngineTuning.Scan tuning = engineTuning.startScan(fileEngine, false)) {
+            ConstantScanProcessor processor = new ConstantScanProcessor();
+            fileEngine.processFiles(dumpFiles, processor, progressChannel);
+            List<AlgorithmFingerprint> fingerprints = processor.getFingerprints();
+            for (AlgorithmFingerprint fingerprint : fingerprints) {
+                Log.d(TAG, "算法常量: " + fingerprint);
+            }
+            List<String> types = ConstantScanProcessor.toHashTypes(fingerprints);
+            detectedHashTypes = types.isEmpty() ? null : types;
+            return types;
+        } catch (Exception e) {
+            Log.e(TAG, "识别算法常量时出错", e);
+            return Collections.emptyList();
+        }
+    }
+    
     @Override
     public void cancelAnalysis() {
         fileEngine.cancelOperation();
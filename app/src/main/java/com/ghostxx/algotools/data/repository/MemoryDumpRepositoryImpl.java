@@ -12,13 +12,18 @@ import android.util.Log;
 
 import androidx.core.content.ContextCompat;
 
+import com.ghostxx.algotools.data.source.DumpCatalog;
 import com.ghostxx.algotools.domain.entity.AppProcess;
 import com.ghostxx.algotools.domain.entity.MemoryDump;
 import com.ghostxx.algotools.domain.repository.MemoryDumpRepository;
+import com.ghostxx.algotools.engine.region.RegionMap;
 import com.ghostxx.algotools.utils.ToolsManager;
 
 import java.io.File;
+import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * 内存转储仓库实现
@@ -28,10 +33,16 @@ public class MemoryDumpRepositoryImpl implements MemoryDumpRepository {
     private static final String TAG = "MemoryDumpRepoImpl";
     private static final String DUMPS_DIR = "AlgoTools/dumps";
     
+    // 转储淘汰策略：总大小不超过4GB，保留时间不超过7天
+    private static final long DEFAULT_MAX_TOTAL_BYTES = 4L * 1024 * 1024 * 1024;
+    private static final long DEFAULT_MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+    
     private final Context context;
+    private final DumpCatalog catalog;
     
     public MemoryDumpRepositoryImpl(Context context) {
         this.context = context.getApplicationContext();
+        this.catalog = new DumpCatalog(new File(Environment.getExternalStorageDirectory(), DUMPS_DIR));
     }
     
     @Override
@@ -42,26 +53,42 @@ public class MemoryDumpRepositoryImpl implements MemoryDumpRepository {
         }
         
         try {
-            // 使用固定的文件名
-            String fileName = "memory_dump.bin";
-            File outputDir = new File(Environment.getExternalStorageDirectory(), DUMPS_DIR);
+            // 每次转储使用独立的文件名，保留历史转储
+            Date creationTime = new Date();
+            String dumpId = buildDumpId(process, creationTime);
+            File outputDir = catalog.getDumpsDir();
             if (!outputDir.exists()) {
                 outputDir.mkdirs();
             }
-            String outputPath = new File(outputDir, fileName).getAbsolutePath();
+            String outputPath = new File(outputDir, dumpId + ".bin").getAbsolutePath();
+            
+            // 在转储前记录进程的可读区域，用于把命中的文件偏移换算回虚拟地址和所在区域
+            String regions = ToolsManager.readReadableRegions(process.getPid());
+            int regionCount = regions.isEmpty()
+                    ? ToolsManager.countReadableRegions(process.getPid())
+                    : RegionMap.parse(regions, -1).getRegions().size();
             
             // 执行转储
             String result = ToolsManager.dumpProcessMemoryByPid(context, process.getPid(), outputPath);
             
             if (result.startsWith("内存转储成功")) {
                 File dumpFile = new File(outputPath);
-                // 创建内存转储实体
-                return new MemoryDump(
+                if (!regions.isEmpty()) {
+                    RegionMap.save(dumpFile, regions);
+                }
+                // 创建内存转储实体并登记到目录
+                MemoryDump dump = new MemoryDump(
+                        dumpId,
                         outputPath,
                         dumpFile.length(),
-                        new Date(),
-                        process
+                        creationTime,
+                        process,
+                        regionCount,
+                        DumpCatalog.computeFingerprint(dumpFile)
                 );
+                catalog.add(dump);
+                catalog.evict(DEFAULT_MAX_TOTAL_BYTES, DEFAULT_MAX_AGE_MS, dumpId);
+                return dump;
             } else {
                 Log.e(TAG, "转储失败: " + result);
                 return null;
@@ -76,7 +103,12 @@ public class MemoryDumpRepositoryImpl implements MemoryDumpRepository {
     @Override
     public MemoryDump getLatestDump() {
         try {
-            // 检查私有文件夹中的副本
+            MemoryDump latest = catalog.getLatest();
+            if (latest != null) {
+                return latest;
+            }
+            
+            // 目录为空时兼容旧版本保存在私有文件夹中的副本
             File privateFile = new File(context.getExternalFilesDir(null), "memory_data.bin");
             if (privateFile.exists() && privateFile.length() > 0) {
                 return new MemoryDump(
@@ -87,32 +119,6 @@ public class MemoryDumpRepositoryImpl implements MemoryDumpRepository {
                 );
             }
             
-            // 检查公共文件夹
-            File publicDir = new File(Environment.getExternalStorageDirectory(), DUMPS_DIR);
-            File[] files = publicDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".bin"));
-            
-            if (files != null && files.length > 0) {
-                // 按修改时间降序排序
-                File latestFile = null;
-                long latestTime = 0;
-                
-                for (File file : files) {
-                    if (file.lastModified() > latestTime) {
-                        latestTime = file.lastModified();
-                        latestFile = file;
-                    }
-                }
-                
-                if (latestFile != null) {
-                    return new MemoryDump(
-                            latestFile.getAbsolutePath(),
-                            latestFile.length(),
-                            new Date(latestFile.lastModified()),
-                            null // 无源进程信息
-                    );
-                }
-            }
-            
             return null;
         } catch (Exception e) {
             Log.e(TAG, "获取最新转储文件时出错", e);
@@ -120,6 +126,35 @@ public class MemoryDumpRepositoryImpl implements MemoryDumpRepository {
         }
     }
     
+    @Override
+    public List<MemoryDump> listDumps() {
+        return catalog.list();
+    }
+    
+    @Override
+    public MemoryDump getDumpById(String id) {
+        return catalog.get(id);
+    }
+    
+    @Override
+    public boolean deleteDump(String id) {
+        return catalog.remove(id);
+    }
+    
+    @Override
+    public int evictDumps(long maxTotalBytes, long maxAgeMs) {
+        return catalog.evict(maxTotalBytes, maxAgeMs, null);
+    }
+    
+    /**
+     * 生成转储id，格式为 包名_PID_时间戳
+     */
+    private static String buildDumpId(AppProcess process, Date creationTime) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.US).format(creationTime);
+        return process.getPackageName().replaceAll("[^A-Za-z0-9._-]", "_")
+                + "_" + process.getPid() + "_" + timestamp;
+    }
+    
     @Override
     public boolean hasStoragePermission() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
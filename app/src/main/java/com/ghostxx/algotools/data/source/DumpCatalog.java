@@ -0,0 +1,405 @@
+package com.ghostxx.algotools.data.source;
+
+import android.util.Log;
+
+import com.ghostxx.algotools.domain.entity.AppProcess;
+import com.ghostxx.algotools.domain.entity.MemoryDump;
+import com.ghostxx.algotools.engine.entropy.EntropyMap;
+import com.ghostxx.algotools.engine.region.RegionMap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * 内存转储目录
+ * 以追加写入的索引文件记录每一次转储的元数据（路径、PID、包名、时间、大小、区域数、内容指纹），
+ * 启动时只读取一次索引，之后的列举和查找都在内存中完成，不再逐个stat转储目录中的文件。
+ *
+ * 索引文件格式（UTF-8文本，每行一条记录，字段以制表符分隔）：
+ * <pre>
+ * A  id  path  pid  package  appName  timeMs  size  regionCount  fingerprint   // 新增转储
+ * D  id                                                                     // 删除转储（墓碑）
+ * </pre>
+ * 墓碑数量过多时会重写索引文件进行压缩。
+ */
+public class DumpCatalog {
+    private static final String TAG = "DumpCatalog";
+
+    public static final String INDEX_FILE_NAME = "catalog.idx";
+    private static final String HEADER = "#ALGOTOOLS-DUMP-CATALOG v1";
+    private static final String RECORD_ADD = "A";
+    private static final String RECORD_DELETE = "D";
+    private static final int ADD_FIELD_COUNT = 10;
+
+    // 指纹采样窗口：文件头、中间、尾部各64KB
+    private static final int FINGERPRINT_SAMPLE_SIZE = 64 * 1024;
+    // 墓碑数量超过该阈值且超过有效记录数时压缩索引
+    private static final int COMPACT_TOMBSTONE_THRESHOLD = 32;
+
+    private final File dumpsDir;
+    private final File indexFile;
+
+    // 按登记顺序（即时间顺序）保存的有效转储
+    private final LinkedHashMap<String, MemoryDump> entries = new LinkedHashMap<>();
+    private int tombstoneCount = 0;
+    private boolean loaded = false;
+
+    public DumpCatalog(File dumpsDir) {
+        this.dumpsDir = dumpsDir;
+        this.indexFile = new File(dumpsDir, INDEX_FILE_NAME);
+    }
+
+    /**
+     * 获取转储目录
+     */
+    public File getDumpsDir() {
+        return dumpsDir;
+    }
+
+    /**
+     * 登记一次新的转储
+     * @param dump 转储信息，id不能为空
+     * @return 是否登记成功
+     */
+    public synchronized boolean add(MemoryDump dump) {
+        if (dump == null || dump.getId() == null) {
+            return false;
+        }
+        ensureLoaded();
+        try {
+            appendLine(formatAdd(dump));
+            entries.remove(dump.getId());
+            entries.put(dump.getId(), dump);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "写入转储索引失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 列出所有转储，按时间从新到旧排列
+     */
+    public synchronized List<MemoryDump> list() {
+        ensureLoaded();
+        List<MemoryDump> result = new ArrayList<>(entries.values());
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * 根据id查找转储
+     * @return 对应的转储，不存在时返回null
+     */
+    public synchronized MemoryDump get(String id) {
+        ensureLoaded();
+        return id == null ? null : entries.get(id);
+    }
+
+    /**
+     * 获取最新的转储。若索引中最新的文件已被外部删除，会自动移除该记录并继续向前查找。
+     * @return 最新的转储，不存在时返回null
+     */
+    public synchronized MemoryDump getLatest() {
+        ensureLoaded();
+        List<MemoryDump> newestFirst = new ArrayList<>(entries.values());
+        Collections.reverse(newestFirst);
+        for (MemoryDump dump : newestFirst) {
+            if (new File(dump.getFilePath()).exists()) {
+                return dump;
+            }
+            Log.w(TAG, "转储文件已不存在，移除索引记录: " + dump.getFilePath());
+            removeEntry(dump.getId(), false);
+        }
+        return null;
+    }
+
+    /**
+     * 删除转储（同时删除文件）
+     * @return 是否存在并已删除
+     */
+    public synchronized boolean remove(String id) {
+        ensureLoaded();
+        return removeEntry(id, true);
+    }
+
+    /**
+     * 按总大小和存放时间淘汰旧转储
+     * @param maxTotalBytes 所有转储的总大小上限，小于等于0表示不限制
+     * @param maxAgeMs 转储的最长保留时间，小于等于0表示不限制
+     * @param keepId 无论如何都保留的转储id（通常是刚生成的转储），可为null
+     * @return 被淘汰的转储数量
+     */
+    public synchronized int evict(long maxTotalBytes, long maxAgeMs, String keepId) {
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        long totalBytes = 0;
+        for (MemoryDump dump : entries.values()) {
+            totalBytes += dump.getSize();
+        }
+
+        List<String> victims = new ArrayList<>();
+        // entries按时间从旧到新排列，优先淘汰最旧的转储
+        for (MemoryDump dump : entries.values()) {
+            if (dump.getId().equals(keepId)) {
+                continue;
+            }
+            boolean tooOld = maxAgeMs > 0 && now - dump.getCreationTime().getTime() > maxAgeMs;
+            boolean overBudget = maxTotalBytes > 0 && totalBytes > maxTotalBytes;
+            if (tooOld || overBudget) {
+                victims.add(dump.getId());
+                totalBytes -= dump.getSize();
+            }
+        }
+
+        for (String id : victims) {
+            removeEntry(id, true);
+        }
+        if (!victims.isEmpty()) {
+            Log.i(TAG, "已淘汰 " + victims.size() + " 个旧转储，剩余总大小: " + totalBytes + " 字节");
+        }
+        return victims.size();
+    }
+
+    /**
+     * 计算转储文件的内容指纹
+     * 对文件大小以及头部、中部、尾部各64KB采样做MD5，避免对数GB的转储做全量哈希
+     * @return 32位十六进制指纹，失败时返回null
+     */
+    public static String computeFingerprint(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            long length = raf.length();
+            for (int i = 0; i < 8; i++) {
+                md.update((byte) (length >>> (i * 8)));
+            }
+
+            byte[] buffer = new byte[FINGERPRINT_SAMPLE_SIZE];
+            long[] offsets = {0, Math.max(0, length / 2 - FINGERPRINT_SAMPLE_SIZE / 2),
+                    Math.max(0, length - FINGERPRINT_SAMPLE_SIZE)};
+            for (long offset : offsets) {
+                raf.seek(offset);
+                int read = raf.read(buffer, 0, (int) Math.min(buffer.length, length - offset));
+                if (read > 0) {
+                    md.update(buffer, 0, read);
+                }
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (byte b : md.digest()) {
+                sb.append(String.format("%02x", b & 0xFF));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            Log.e(TAG, "计算转储指纹失败: " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 首次访问时加载索引文件；索引不存在时导入目录中已有的转储文件
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        if (!indexFile.exists()) {
+            importExistingDumps();
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (RECORD_ADD.equals(fields[0]) && fields.length >= ADD_FIELD_COUNT) {
+                    MemoryDump dump = parseAdd(fields);
+                    if (dump != null) {
+                        entries.remove(dump.getId());
+                        entries.put(dump.getId(), dump);
+                    }
+                } else if (RECORD_DELETE.equals(fields[0]) && fields.length >= 2) {
+                    if (entries.remove(fields[1]) != null) {
+                        tombstoneCount++;
+                    }
+                } else {
+                    Log.w(TAG, "忽略无法识别的索引记录: " + line);
+                }
+            }
+            Log.d(TAG, "已加载转储索引，共 " + entries.size() + " 条记录");
+        } catch (IOException e) {
+            Log.e(TAG, "读取转储索引失败", e);
+        }
+    }
+
+    /**
+     * 将目录中尚未登记的旧转储文件导入索引（无来源进程信息）
+     */
+    private void importExistingDumps() {
+        File[] files = dumpsDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".bin"));
+        List<MemoryDump> imported = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                if (file.length() <= 0) {
+                    continue;
+                }
+                String name = file.getName();
+                imported.add(new MemoryDump(
+                        name.substring(0, name.length() - 4),
+                        file.getAbsolutePath(),
+                        file.length(),
+                        new Date(file.lastModified()),
+                        null,
+                        -1,
+                        null
+                ));
+            }
+        }
+        Collections.sort(imported, (a, b) -> a.getCreationTime().compareTo(b.getCreationTime()));
+        for (MemoryDump dump : imported) {
+            entries.put(dump.getId(), dump);
+        }
+
+        try {
+            rewriteIndex();
+            if (!imported.isEmpty()) {
+                Log.i(TAG, "已将 " + imported.size() + " 个已有转储导入索引");
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "创建转储索引失败", e);
+        }
+    }
+
+    private boolean removeEntry(String id, boolean deleteFile) {
+        MemoryDump dump = id == null ? null : entries.remove(id);
+        if (dump == null) {
+            return false;
+        }
+        if (deleteFile) {
+            File file = new File(dump.getFilePath());
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "删除转储文件失败: " + file);
+            }
+            // 转储的熵图和区域表随转储一起删除
+            File entropyMap = EntropyMap.sidecarOf(file);
+            if (entropyMap.exists() && !entropyMap.delete()) {
+                Log.w(TAG, "删除熵图文件失败: " + entropyMap);
+            }
+            File regionMap = RegionMap.sidecarOf(file);
+            if (regionMap.exists() && !regionMap.delete()) {
+                Log.w(TAG, "删除区域表文件失败: " + regionMap);
+            }
+        }
+        try {
+            appendLine(RECORD_DELETE + "\t" + id);
+            tombstoneCount++;
+            if (tombstoneCount > COMPACT_TOMBSTONE_THRESHOLD && tombstoneCount > entries.size()) {
+                rewriteIndex();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "写入转储删除记录失败", e);
+        }
+        return true;
+    }
+
+    private void appendLine(String line) throws IOException {
+        if (!dumpsDir.exists() && !dumpsDir.mkdirs()) {
+            throw new IOException("无法创建转储目录: " + dumpsDir);
+        }
+        boolean isNew = !indexFile.exists();
+        try (Writer writer = new OutputStreamWriter(
+                new FileOutputStream(indexFile, true), StandardCharsets.UTF_8)) {
+            if (isNew) {
+                writer.write(HEADER + "\n");
+            }
+            writer.write(line);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * 用当前有效记录重写索引文件（先写临时文件再重命名，避免中途失败导致索引损坏）
+     */
+    private void rewriteIndex() throws IOException {
+        if (!dumpsDir.exists() && !dumpsDir.mkdirs()) {
+            throw new IOException("无法创建转储目录: " + dumpsDir);
+        }
+        File tmpFile = new File(dumpsDir, INDEX_FILE_NAME + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmpFile);
+             Writer writer = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+            writer.write(HEADER + "\n");
+            for (MemoryDump dump : entries.values()) {
+                writer.write(formatAdd(dump));
+                writer.write('\n');
+            }
+            writer.flush();
+            fos.getFD().sync();
+        }
+        if (!tmpFile.renameTo(indexFile)) {
+            throw new IOException("无法替换转储索引文件: " + indexFile);
+        }
+        tombstoneCount = 0;
+    }
+
+    private static String formatAdd(MemoryDump dump) {
+        AppProcess process = dump.getSourceProcess();
+        return RECORD_ADD
+                + "\t" + sanitize(dump.getId())
+                + "\t" + sanitize(dump.getFilePath())
+                + "\t" + (process != null ? process.getPid() : -1)
+                + "\t" + (process != null ? sanitize(process.getPackageName()) : "")
+                + "\t" + (process != null ? sanitize(process.getAppName()) : "")
+                + "\t" + dump.getCreationTime().getTime()
+                + "\t" + dump.getSize()
+                + "\t" + dump.getRegionCount()
+                + "\t" + (dump.getFingerprint() != null ? dump.getFingerprint() : "");
+    }
+
+    private static MemoryDump parseAdd(String[] fields) {
+        try {
+            int pid = Integer.parseInt(fields[3]);
+            String packageName = fields[4];
+            AppProcess process = packageName.isEmpty() ? null
+                    : new AppProcess(packageName, pid, fields[5].isEmpty() ? packageName : fields[5]);
+            return new MemoryDump(
+                    fields[1],
+                    fields[2],
+                    Long.parseLong(fields[7]),
+                    new Date(Long.parseLong(fields[6])),
+                    process,
+                    Integer.parseInt(fields[8]),
+                    fields[9].isEmpty() ? null : fields[9]
+            );
+        } catch (NumberFormatException e) {
+            Log.w(TAG, "解析索引记录失败: " + fields[1], e);
+            return null;
+        }
+    }
+
+    private static String sanitize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+} 
\ No newline at end of file
@@ -9,12 +9,19 @@ public class HashAnalysisResult {
     private final String plaintext;
     private final String hashType;
     private final long timeSpentMs;
+    private final MemoryDump sourceDump;
+    private final ScanMetrics metrics;
+    private final byte[] plaintextBytes;
     
-    private HashAnalysisResult(boolean isSuccess, String plaintext, String hashType, long timeSpentMs) {
+    private HashAnalysisResult(boolean isSuccess, String plaintext, String hashType, long timeSpentMs,
+                               MemoryDump sourceDump, ScanMetrics metrics, byte[] plaintextBytes) {
         this.isSuccess = isSuccess;
         this.plaintext = plaintext;
         this.hashType = hashType;
         this.timeSpentMs = timeSpentMs;
+        this.sourceDump = sourceDump;
+        this.metrics = metrics;
+        this.plaintextBytes = plaintextBytes;
     }
     
     /**
@@ -31,6 +38,14 @@ public class HashAnalysisResult {
         return plaintext;
     }
     
+    /**
+     * 获取原文的原始字节，不是合法UTF-8的原文以此为准（{@link #getPlaintext()} 中无效字节显示为替换字符）
+     * @return 原始字节，未找到或未知时为null
+     */
+    public byte[] getPlaintextBytes() {
+        return plaintextBytes != null ? plaintextBytes.clone() : null;
+    }
+    
     /**
      * 获取哈希类型
      */
@@ -45,6 +60,36 @@ public class HashAnalysisResult {
         return timeSpentMs;
     }
     
+    /**
+     * 获取找到原文的内存转储，未找到或未知时为null
+     */
+    public MemoryDump getSourceDump() {
+        return sourceDump;
+    }
+    
+    /**
+     * 获取扫描的分阶段指标，未扫描时为null
+     */
+    public ScanMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * 返回附带扫描指标的副本
+     */
+    public HashAnalysisResult withMetrics(ScanMetrics metrics) {
+        return new HashAnalysisResult(isSuccess, plaintext, hashType, timeSpentMs, sourceDump, metrics,
+                plaintextBytes);
+    }
+    
+    /**
+     * 返回附带原文原始字节的副本
+     */
+    public HashAnalysisResult withPlaintextBytes(byte[] plaintextBytes) {
+        return new HashAnalysisResult(isSuccess, plaintext, hashType, timeSpentMs, sourceDump, metrics,
+                plaintextBytes);
+    }
+    
     /**
      * 获取分析耗时（秒）
      */
@@ -56,13 +101,21 @@ public class HashAnalysisResult {
      * 创建成功结果
      */
     public static HashAnalysisResult success(String plaintext, String hashType, long timeSpentMs) {
-        return new HashAnalysisResult(true, plaintext, hashType, timeSpentMs);
+        return success(plaintext, hashType, timeSpentMs, null);
+    }
+    
+    /**
+     * 创建成功结果，并记录原文所在的内存转储
+     */
+    public static HashAnalysisResult success(String plaintext, String hashType, long timeSpentMs,
+                                             MemoryDump sourceDump) {
+        return new HashAnalysisResult(true, plaintext, hashType, timeSpentMs, sourceDump, null, null);
     }
     
     /**
      * 创建失败结果
      */
     public static HashAnalysisResult failure(String hashType, long timeSpentMs) {
-        return new HashAnalysisResult(false, null, hashType, timeSpentMs);
+        return new HashAnalysisResult(false, null, hashType, timeSpentMs, null, null, null);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,291 @@
+package com.ghostxx.algotools.domain.entity;
+
+/**
+ * 哈希搜索选项
+ * 描述目标值是如何由原文计算出来的：普通哈希，或者已知消息/已知密钥的HMAC。
+ * 普通哈希可以指定固定的前缀和后缀，例如 md5(salt + x)、sha1(prefix + x + suffix)，
+ * 以及嵌套哈希的轮数和内层编码，例如 md5(md5(x))。
+ */
+public class HashSearchOptions {
+
+    /**
+     * 搜索模式
+     */
+    public enum Mode {
+        /** 目标值是候选字符串的哈希 */
+        PLAIN("普通哈希"),
+        /** 目标值是HMAC，已知消息，候选字符串作为密钥 */
+        HMAC_KNOWN_MESSAGE("HMAC(已知消息)"),
+        /** 目标值是HMAC，已知密钥，候选字符串作为消息 */
+        HMAC_KNOWN_KEY("HMAC(已知密钥)");
+
+        private final String displayName;
+
+        Mode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 嵌套哈希时内层摘要作为下一轮输入的编码
+     */
+    public enum InnerEncoding {
+        HEX_LOWER("小写十六进制"),
+        HEX_UPPER("大写十六进制"),
+        RAW("原始字节");
+
+        private final String displayName;
+
+        InnerEncoding(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final HashSearchOptions PLAIN = new Builder().build();
+
+    private final Mode mode;
+    private final String hmacKnownValue;
+    private final String prefix;
+    private final String suffix;
+    private final int rounds;
+    private final InnerEncoding innerEncoding;
+
+    private HashSearchOptions(Builder builder) {
+        this.mode = builder.mode;
+        this.hmacKnownValue = builder.hmacKnownValue;
+        this.prefix = builder.prefix;
+        this.suffix = builder.suffix;
+        this.rounds = builder.rounds;
+        this.innerEncoding = builder.innerEncoding;
+    }
+
+    /**
+     * 普通哈希搜索
+     */
+    public static HashSearchOptions plain() {
+        return PLAIN;
+    }
+
+    /**
+     * 已知消息的HMAC搜索
+     * @param message 已知的消息
+     */
+    public static HashSearchOptions hmacKnownMessage(String message) {
+        return new Builder().setMode(Mode.HMAC_KNOWN_MESSAGE).setHmacKnownValue(message).build();
+    }
+
+    /**
+     * 已知密钥的HMAC搜索
+     * @param key 已知的密钥
+     */
+    public static HashSearchOptions hmacKnownKey(String key) {
+        return new Builder().setMode(Mode.HMAC_KNOWN_KEY).setHmacKnownValue(key).build();
+    }
+
+    /**
+     * 带固定前缀和后缀的普通哈希搜索
+     * @param prefix 拼接在候选字符串前的文本（可为空）
+     * @param suffix 拼接在候选字符串后的文本（可为空）
+     */
+    public static HashSearchOptions affixed(String prefix, String suffix) {
+        return new Builder().setPrefix(prefix).setSuffix(suffix).build();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 获取HMAC的已知消息或已知密钥
+     */
+    public String getHmacKnownValue() {
+        return hmacKnownValue;
+    }
+
+    /**
+     * 获取拼接在候选字符串前的文本，未设置时为空字符串
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * 获取拼接在候选字符串后的文本，未设置时为空字符串
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * 获取哈希轮数，1表示不嵌套
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * 获取嵌套哈希时内层摘要的编码
+     */
+    public InnerEncoding getInnerEncoding() {
+        return innerEncoding;
+    }
+
+    /**
+     * 是否为嵌套哈希
+     */
+    public boolean isNested() {
+        return rounds > 1;
+    }
+
+    /**
+     * 是否设置了前缀或后缀
+     */
+    public boolean hasAffix() {
+        return !prefix.isEmpty() || !suffix.isEmpty();
+    }
+
+    /**
+     * 是否为不带前缀和后缀的普通哈希搜索
+     */
+    public boolean isPlainHash() {
+        return mode == Mode.PLAIN && !hasAffix() && !isNested();
+    }
+
+    /**
+     * 是否为HMAC搜索
+     */
+    public boolean isHmac() {
+        return mode == Mode.HMAC_KNOWN_MESSAGE || mode == Mode.HMAC_KNOWN_KEY;
+    }
+
+    /**
+     * 是否需要纯Java搜索引擎（原生层只支持普通哈希）
+     */
+    public boolean requiresJavaEngine() {
+        return !isPlainHash();
+    }
+
+    /**
+     * 获取结果中显示的类型，例如 "MD5"、"HMAC-SHA-256"、"MD5(前缀+原文+后缀)"、"MD5(MD5(原文))"
+     * @param hashType 哈希类型
+     */
+    public String getResultType(String hashType) {
+        if (isHmac()) {
+            return "HMAC-" + hashType;
+        }
+        if (isPlainHash()) {
+            return hashType;
+        }
+        String input = (prefix.isEmpty() ? "" : "前缀+") + "原文" + (suffix.isEmpty() ? "" : "+后缀");
+        for (int i = 0; i < rounds; i++) {
+            input = hashType + "(" + input + ")";
+        }
+        return input;
+    }
+
+    /**
+     * 获取状态信息中显示的搜索模式描述
+     */
+    public String getDescription() {
+        StringBuilder description = new StringBuilder(mode.getDisplayName());
+        if (!prefix.isEmpty()) {
+            description.append(", 前缀: ").append(prefix);
+        }
+        if (!suffix.isEmpty()) {
+            description.append(", 后缀: ").append(suffix);
+        }
+        if (isNested()) {
+            description.append(", ").append(rounds).append("轮(").append(innerEncoding.getDisplayName()).append(')');
+        }
+        return description.toString();
+    }
+
+    /**
+     * 构建器
+     */
+    public static class Builder {
+        private Mode mode = Mode.PLAIN;
+        private String hmacKnownValue;
+        private String prefix = "";
+        private String suffix = "";
+        private int rounds = 1;
+        private InnerEncoding innerEncoding = InnerEncoding.HEX_LOWER;
+
+        /**
+         * @return this (链式调用)
+         */
+        public Builder setMode(Mode mode) {
+            this.mode = mode != null ? mode : Mode.PLAIN;
+            return this;
+        }
+
+        /**
+         * 设置HMAC的已知消息或已知密钥
+         * @return this (链式调用)
+         */
+        public Builder setHmacKnownValue(String hmacKnownValue) {
+            this.hmacKnownValue = hmacKnownValue;
+            return this;
+        }
+
+        /**
+         * 设置拼接在候选字符串前的文本，例如盐值
+         * @return this (链式调用)
+         */
+        public Builder setPrefix(String prefix) {
+            this.prefix = prefix != null ? prefix : "";
+            return this;
+        }
+
+        /**
+         * 设置拼接在候选字符串后的文本
+         * @return this (链式调用)
+         */
+        public Builder setSuffix(String suffix) {
+            this.suffix = suffix != null ? suffix : "";
+            return this;
+        }
+
+        /**
+         * 设置哈希轮数，例如 md5(md5(x)) 为2
+         * @return this (链式调用)
+         */
+        public Builder setRounds(int rounds) {
+            this.rounds = rounds;
+            return this;
+        }
+
+        /**
+         * 设置嵌套哈希时内层摘要的编码
+         * @return this (链式调用)
+         */
+        public Builder setInnerEncoding(InnerEncoding innerEncoding) {
+            this.innerEncoding = innerEncoding != null ? innerEncoding : InnerEncoding.HEX_LOWER;
+            return this;
+        }
+
+        public HashSearchOptions build() {
+            if (mode != Mode.PLAIN && hmacKnownValue == null) {
+                throw new IllegalArgumentException("HMAC搜索需要指定已知的消息或密钥");
+            }
+            if (mode != Mode.PLAIN && (!prefix.isEmpty() || !suffix.isEmpty())) {
+                throw new IllegalArgumentException("前缀和后缀只用于普通哈希搜索");
+            }
+            if (rounds < 1) {
+                throw new IllegalArgumentException("哈希轮数必须不小于1: " + rounds);
+            }
+            if (mode != Mode.PLAIN && rounds > 1) {
+                throw new IllegalArgumentException("嵌套哈希只用于普通哈希搜索");
+            }
+            return new HashSearchOptions(this);
+        }
+    }
+} 
\ No newline at end of file
@@ -7,46 +7,78 @@ import java.util.Date;
  * 表示从进程中提取的内存转储信息
  */
 public class MemoryDump {
+    private final String id;
     private final String filePath;
     private final long size;
     private final Date creationTime;
     private final AppProcess sourceProcess;
-    
+    private final int regionCount;
+    private final String fingerprint;
+
     public MemoryDump(String filePath, long size, Date creationTime, AppProcess sourceProcess) {
+        this(null, filePath, size, creationTime, sourceProcess, -1, null);
+    }
+
+    public MemoryDump(String id, String filePath, long size, Date creationTime, AppProcess sourceProcess,
+                      int regionCount, String fingerprint) {
+        this.id = id;
         this.filePath = filePath;
         this.size = size;
         this.creationTime = creationTime;
         this.sourceProcess = sourceProcess;
+        this.regionCount = regionCount;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * 获取转储在目录中的唯一标识，未登记到目录时为null
+     */
+    public String getId() {
+        return id;
     }
-    
+
     /**
      * 获取转储文件路径
      */
     public String getFilePath() {
         return filePath;
     }
-    
+
     /**
      * 获取转储文件大小（字节）
      */
     public long getSize() {
         return size;
     }
-    
+
     /**
      * 获取转储创建时间
      */
     public Date getCreationTime() {
         return creationTime;
     }
-    
+
     /**
      * 获取转储来源进程
      */
     public AppProcess getSourceProcess() {
         return sourceProcess;
     }
-    
+
+    /**
+     * 获取转储时进程的可读内存区域数量，未知时为-1
+     */
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * 获取转储内容指纹，未知时为null
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
     /**
      * 检查转储文件是否有效
      */
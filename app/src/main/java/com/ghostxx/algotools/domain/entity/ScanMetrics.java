@@ -0,0 +1,348 @@
+package com.ghostxx.algotools.domain.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 扫描任务的分阶段指标
+ * 记录一次搜索任务中I/O映射、特征搜索、字符串提取、哈希计算各阶段的耗时和计数，
+ * 以及每个工作线程的忙碌/空闲时间，用于判断一次慢速扫描的瓶颈在I/O、提取还是哈希。
+ * 各阶段耗时是所有线程的累加值，可能大于任务总耗时。
+ */
+public class ScanMetrics {
+    private final long wallTimeNanos;
+    private final long bytesScanned;
+    private final int chunks;
+    private final long ioNanos;
+    private final long processNanos;
+    private final long featureSearchNanos;
+    private final long extractNanos;
+    private final long hashNanos;
+    private final long bytesSkippedByFeature;
+    private final long bytesSkippedByEntropy;
+    private final long candidates;
+    private final long hashesComputed;
+    private final long dedupSkipped;
+    private final List<ThreadMetrics> threads;
+
+    private ScanMetrics(Builder builder) {
+        this.wallTimeNanos = builder.wallTimeNanos;
+        this.bytesScanned = builder.bytesScanned;
+        this.chunks = builder.chunks;
+        this.ioNanos = builder.ioNanos;
+        this.processNanos = builder.processNanos;
+        this.featureSearchNanos = builder.featureSearchNanos;
+        this.extractNanos = builder.extractNanos;
+        this.hashNanos = builder.hashNanos;
+        this.bytesSkippedByFeature = builder.bytesSkippedByFeature;
+        this.bytesSkippedByEntropy = builder.bytesSkippedByEntropy;
+        this.candidates = builder.candidates;
+        this.hashesComputed = builder.hashesComputed;
+        this.dedupSkipped = builder.dedupSkipped;
+        this.threads = Collections.unmodifiableList(new ArrayList<>(builder.threads));
+    }
+
+    /**
+     * 获取任务总耗时（纳秒）
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    /**
+     * 获取扫描的字节数（不含块之间的重叠区域）
+     */
+    public long getBytesScanned() {
+        return bytesScanned;
+    }
+
+    /**
+     * 获取处理的数据块数
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * 获取映射文件和复制数据的累计耗时（纳秒）
+     */
+    public long getIoNanos() {
+        return ioNanos;
+    }
+
+    /**
+     * 获取块处理器的累计耗时（纳秒），包含特征搜索、提取、哈希以及JNI开销
+     */
+    public long getProcessNanos() {
+        return processNanos;
+    }
+
+    /**
+     * 获取特征字符串搜索的累计耗时（纳秒）
+     */
+    public long getFeatureSearchNanos() {
+        return featureSearchNanos;
+    }
+
+    /**
+     * 获取可打印字符串提取的累计耗时（纳秒）
+     */
+    public long getExtractNanos() {
+        return extractNanos;
+    }
+
+    /**
+     * 获取去重与哈希计算的累计耗时（纳秒）
+     */
+    public long getHashNanos() {
+        return hashNanos;
+    }
+
+    /**
+     * 获取因不含特征字符串而跳过的字节数
+     */
+    public long getBytesSkippedByFeature() {
+        return bytesSkippedByFeature;
+    }
+
+    /**
+     * 获取按熵图跳过的字节数（填零区域、压缩/加密数据）
+     */
+    public long getBytesSkippedByEntropy() {
+        return bytesSkippedByEntropy;
+    }
+
+    /**
+     * 获取提取到的候选字符串数
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * 获取实际计算的哈希数
+     */
+    public long getHashesComputed() {
+        return hashesComputed;
+    }
+
+    /**
+     * 获取因去重而跳过的候选数
+     */
+    public long getDedupSkipped() {
+        return dedupSkipped;
+    }
+
+    /**
+     * 获取每个工作线程的指标
+     */
+    public List<ThreadMetrics> getThreads() {
+        return threads;
+    }
+
+    /**
+     * 获取累计耗时最长的阶段：io、featureSearch、extract 或 hash
+     */
+    public String getDominantStage() {
+        String stage = "io";
+        long max = ioNanos;
+        if (featureSearchNanos > max) {
+            stage = "featureSearch";
+            max = featureSearchNanos;
+        }
+        if (extractNanos > max) {
+            stage = "extract";
+            max = extractNanos;
+        }
+        if (hashNanos > max) {
+            stage = "hash";
+        }
+        return stage;
+    }
+
+    /**
+     * 导出为JSON字符串，时间单位为毫秒
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(512);
+        json.append('{');
+        appendMs(json, "wallTimeMs", wallTimeNanos).append(',');
+        json.append("\"bytesScanned\":").append(bytesScanned).append(',');
+        json.append("\"chunks\":").append(chunks).append(',');
+        appendMs(json, "ioMs", ioNanos).append(',');
+        appendMs(json, "processMs", processNanos).append(',');
+        appendMs(json, "featureSearchMs", featureSearchNanos).append(',');
+        appendMs(json, "extractMs", extractNanos).append(',');
+        appendMs(json, "hashMs", hashNanos).append(',');
+        json.append("\"bytesSkippedByFeature\":").append(bytesSkippedByFeature).append(',');
+        json.append("\"bytesSkippedByEntropy\":").append(bytesSkippedByEntropy).append(',');
+        json.append("\"candidates\":").append(candidates).append(',');
+        json.append("\"hashesComputed\":").append(hashesComputed).append(',');
+        json.append("\"dedupSkipped\":").append(dedupSkipped).append(',');
+        json.append("\"dominantStage\":\"").append(getDominantStage()).append("\",");
+        json.append("\"threads\":[");
+        for (int i = 0; i < threads.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            threads.get(i).appendJson(json);
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    private static StringBuilder appendMs(StringBuilder json, String name, long nanos) {
+        return json.append('"').append(name).append("\":")
+                .append(String.format(Locale.US, "%.3f", nanos / 1e6));
+    }
+
+    /**
+     * 单个工作线程的指标
+     */
+    public static class ThreadMetrics {
+        private final String name;
+        private final long busyNanos;
+        private final long idleNanos;
+        private final int chunks;
+
+        public ThreadMetrics(String name, long busyNanos, long idleNanos, int chunks) {
+            this.name = name;
+            this.busyNanos = busyNanos;
+            this.idleNanos = idleNanos;
+            this.chunks = chunks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 获取执行数据块任务的时间（纳秒）
+         */
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        /**
+         * 获取任务期间等待的时间（纳秒）
+         */
+        public long getIdleNanos() {
+            return idleNanos;
+        }
+
+        /**
+         * 获取处理的数据块数
+         */
+        public int getChunks() {
+            return chunks;
+        }
+
+        void appendJson(StringBuilder json) {
+            json.append("{\"name\":\"").append(name.replace("\\", "\\\\").replace("\"", "\\\"")).append("\",");
+            appendMs(json, "busyMs", busyNanos).append(',');
+            appendMs(json, "idleMs", idleNanos).append(',');
+            json.append("\"chunks\":").append(chunks).append('}');
+        }
+    }
+
+    /**
+     * 指标构建器
+     */
+    public static class Builder {
+        private long wallTimeNanos;
+        private long bytesScanned;
+        private int chunks;
+        private long ioNanos;
+        private long processNanos;
+        private long featureSearchNanos;
+        private long extractNanos;
+        private long hashNanos;
+        private long bytesSkippedByFeature;
+        private long bytesSkippedByEntropy;
+        private long candidates;
+        private long hashesComputed;
+        private long dedupSkipped;
+        private final List<ThreadMetrics> threads = new ArrayList<>();
+
+        public Builder setWallTimeNanos(long wallTimeNanos) {
+            this.wallTimeNanos = wallTimeNanos;
+            return this;
+        }
+
+        public Builder setBytesScanned(long bytesScanned) {
+            this.bytesScanned = bytesScanned;
+            return this;
+        }
+
+        public Builder setChunks(int chunks) {
+            this.chunks = chunks;
+            return this;
+        }
+
+        public Builder setIoNanos(long ioNanos) {
+            this.ioNanos = ioNanos;
+            return this;
+        }
+
+        public Builder setProcessNanos(long processNanos) {
+            this.processNanos = processNanos;
+            return this;
+        }
+
+        public Builder setFeatureSearchNanos(long featureSearchNanos) {
+            this.featureSearchNanos = featureSearchNanos;
+            return this;
+        }
+
+        public Builder setExtractNanos(long extractNanos) {
+            this.extractNanos = extractNanos;
+            return this;
+        }
+
+        public Builder setHashNanos(long hashNanos) {
+            this.hashNanos = hashNanos;
+            return this;
+        }
+
+        public Builder setBytesSkippedByFeature(long bytesSkippedByFeature) {
+            this.bytesSkippedByFeature = bytesSkippedByFeature;
+            return this;
+        }
+
+        public Builder setBytesSkippedByEntropy(long bytesSkippedByEntropy) {
+            this.bytesSkippedByEntropy = bytesSkippedByEntropy;
+            return this;
+        }
+
+        public Builder setCandidates(long candidates) {
+            this.candidates = candidates;
+            return this;
+        }
+
+        public Builder setHashesComputed(long hashesComputed) {
+            this.hashesComputed = hashesComputed;
+            return this;
+        }
+
+        public Builder setDedupSkipped(long dedupSkipped) {
+            this.dedupSkipped = dedupSkipped;
+            return this;
+        }
+
+        public Builder addThread(ThreadMetrics thread) {
+            this.threads.add(thread);
+            return this;
+        }
+
+        public ScanMetrics build() {
+            return new ScanMetrics(this);
+        }
+    }
+} 
\ No newline at end of file
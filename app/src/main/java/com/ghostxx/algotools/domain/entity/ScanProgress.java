@@ -0,0 +1,101 @@
+package com.ghostxx.algotools.domain.entity;
+
+/**
+ * 扫描进度快照
+ * 由进度通道按固定频率生成，包含已扫描字节数、吞吐量、候选字符串数、哈希速度和预计剩余时间
+ */
+public class ScanProgress {
+    private final long bytesScanned;
+    private final long totalBytes;
+    private final long elapsedMs;
+    private final double bytesPerSecond;
+    private final long candidates;
+    private final long hashesComputed;
+    private final double hashesPerSecond;
+    private final long etaMs;
+
+    public ScanProgress(long bytesScanned, long totalBytes, long elapsedMs, double bytesPerSecond,
+                        long candidates, long hashesComputed, double hashesPerSecond, long etaMs) {
+        this.bytesScanned = bytesScanned;
+        this.totalBytes = totalBytes;
+        this.elapsedMs = elapsedMs;
+        this.bytesPerSecond = bytesPerSecond;
+        this.candidates = candidates;
+        this.hashesComputed = hashesComputed;
+        this.hashesPerSecond = hashesPerSecond;
+        this.etaMs = etaMs;
+    }
+
+    /**
+     * 获取已扫描的字节数
+     */
+    public long getBytesScanned() {
+        return bytesScanned;
+    }
+
+    /**
+     * 获取需要扫描的总字节数
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 获取从开始扫描到当前快照经过的时间（毫秒）
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * 获取平滑后的扫描速度（字节/秒）
+     */
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * 获取平滑后的扫描速度（MB/秒）
+     */
+    public double getMegabytesPerSecond() {
+        return bytesPerSecond / (1024.0 * 1024.0);
+    }
+
+    /**
+     * 获取已提取的候选字符串数
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * 获取已计算的哈希数（去重跳过的候选不计入）
+     */
+    public long getHashesComputed() {
+        return hashesComputed;
+    }
+
+    /**
+     * 获取平滑后的哈希计算速度（次/秒）
+     */
+    public double getHashesPerSecond() {
+        return hashesPerSecond;
+    }
+
+    /**
+     * 获取预计剩余时间（毫秒），速度未知时为-1
+     */
+    public long getEtaMs() {
+        return etaMs;
+    }
+
+    /**
+     * 获取进度百分比（0~100）
+     */
+    public int getPercent() {
+        if (totalBytes <= 0) {
+            return 0;
+        }
+        return (int) Math.min(100, bytesScanned * 100 / totalBytes);
+    }
+} 
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.ghostxx.algotools.domain.repository;
 
 import com.ghostxx.algotools.domain.entity.HashAnalysisResult;
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
 import com.ghostxx.algotools.domain.entity.MemoryDump;
+import com.ghostxx.algotools.domain.entity.ScanProgress;
+
+import java.util.List;
 
 /**
  * 哈希分析仓库接口
@@ -21,6 +25,35 @@ public interface HashAnalysisRepository {
     HashAnalysisResult searchPlaintext(MemoryDump dump, String hash, String featureString, 
                                   String hashType, ProgressCallback callback);
     
+    /**
+     * 在多个内存转储中并行搜索哈希值对应的原文
+     * 所有转储在同一个任务中扫描，候选字符串在转储之间去重，只计算一次哈希
+     * @param dumps 内存转储列表
+     * @param hash 要分析的哈希值
+     * @param featureString 特征字符串（可选，用于缩小搜索范围）
+     * @param hashType 哈希类型
+     * @param callback 进度回调（按所有转储的总字节数汇报）
+     * @return 哈希分析结果，成功时包含原文所在的转储
+     */
+    default HashAnalysisResult searchPlaintextInDumps(List<MemoryDump> dumps, String hash, String featureString,
+                                                      String hashType, ProgressCallback callback) {
+        return searchPlaintextInDumps(dumps, hash, featureString, hashType, HashSearchOptions.plain(), callback);
+    }
+    
+    /**
+     * 按搜索选项在多个内存转储中并行搜索原文
+     * @param dumps 内存转储列表
+     * @param hash 目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选，用于缩小搜索范围）
+     * @param hashType 哈希类型，HMAC模式下为底层哈希类型
+     * @param options 搜索选项
+     * @param callback 进度回调（按所有转储的总字节数汇报）
+     * @return 哈希分析结果，成功时包含原文所在的转储
+     */
+    HashAnalysisResult searchPlaintextInDumps(List<MemoryDump> dumps, String hash, String featureString,
+                                              String hashType, HashSearchOptions options,
+                                              ProgressCallback callback);
+    
     /**
      * 识别哈希类型
      * @param hash 哈希值
@@ -28,6 +61,23 @@ public interface HashAnalysisRepository {
      */
     String[] identifyHashType(String hash);
     
+    /**
+     * 获取搜索使用的哈希类型
+     * 调用过 {@link #detectHashAlgorithms} 时优先使用转储中识别出的算法
+     * @param hash 哈希值
+     * @return 逗号分隔的同长度哈希类型（如 "SHA-256,SM3"），无法识别时返回null
+     */
+    String resolveSearchHashType(String hash);
+    
+    /**
+     * 通过常量表识别转储中使用的哈希算法
+     * 结果会被记录下来，之后 {@link #resolveSearchHashType(String)} 只选择识别出的算法
+     * @param dumps 内存转储列表
+     * @param callback 进度回调
+     * @return 按排名排列的哈希类型，未识别出时为空列表
+     */
+    List<String> detectHashAlgorithms(List<MemoryDump> dumps, ProgressCallback callback);
+    
     /**
      * 取消当前分析操作
      */
@@ -35,8 +85,16 @@ public interface HashAnalysisRepository {
     
     /**
      * 进度回调接口
+     * 回调在后台线程中以最高10Hz的频率触发
      */
     interface ProgressCallback {
         void onProgressUpdate(long current, long total);
+        
+        /**
+         * 扫描进度详情（吞吐量、候选数、哈希速度、预计剩余时间）
+         * @param progress 进度快照
+         */
+        default void onScanProgress(ScanProgress progress) {
+        }
     }
 } 
\ No newline at end of file
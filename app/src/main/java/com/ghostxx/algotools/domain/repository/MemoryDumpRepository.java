@@ -3,6 +3,8 @@ package com.ghostxx.algotools.domain.repository;
 import com.ghostxx.algotools.domain.entity.AppProcess;
 import com.ghostxx.algotools.domain.entity.MemoryDump;
 
+import java.util.List;
+
 /**
  * 内存转储仓库接口
  * 定义与内存转储相关的数据操作契约
@@ -22,6 +24,34 @@ public interface MemoryDumpRepository {
      */
     MemoryDump getLatestDump();
     
+    /**
+     * 列出所有已登记的内存转储
+     * @return 转储列表，按时间从新到旧排列
+     */
+    List<MemoryDump> listDumps();
+    
+    /**
+     * 根据id获取内存转储
+     * @param id 转储id
+     * @return 对应的转储，不存在时返回null
+     */
+    MemoryDump getDumpById(String id);
+    
+    /**
+     * 删除内存转储及其文件
+     * @param id 转储id
+     * @return 是否删除成功
+     */
+    boolean deleteDump(String id);
+    
+    /**
+     * 按总大小和存放时间淘汰旧的内存转储
+     * @param maxTotalBytes 所有转储的总大小上限，小于等于0表示不限制
+     * @param maxAgeMs 转储的最长保留时间（毫秒），小于等于0表示不限制
+     * @return 被淘汰的转储数量
+     */
+    int evictDumps(long maxTotalBytes, long maxAgeMs);
+    
     /**
      * 检查存储权限
      * @return 如果有权限则返回true，否则返回false
@@ -1,10 +1,13 @@
 package com.ghostxx.algotools.domain.usecase;
 
 import com.ghostxx.algotools.domain.entity.HashAnalysisResult;
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
 import com.ghostxx.algotools.domain.entity.MemoryDump;
 import com.ghostxx.algotools.domain.repository.HashAnalysisRepository;
 import com.ghostxx.algotools.domain.repository.MemoryDumpRepository;
 
+import java.util.List;
+
 /**
  * 哈希分析用例
  */
@@ -34,9 +37,11 @@ public class AnalyzeHashUseCase {
             return HashAnalysisResult.failure("未知", 0);
         }
         
-        // 识别哈希类型
-        String[] possibleTypes = hashAnalysisRepository.identifyHashType(hash);
-        String hashType = possibleTypes.length > 0 ? possibleTypes[0] : "MD5";
+        // 识别哈希类型，同长度的多种算法一起搜索
+        String hashType = hashAnalysisRepository.resolveSearchHashType(hash);
+        if (hashType == null) {
+            hashType = "MD5";
+        }
         
         // 执行分析
         long startTime = System.currentTimeMillis();
@@ -48,6 +53,67 @@ public class AnalyzeHashUseCase {
         }
     }
     
+    /**
+     * 在多个内存转储中执行用例
+     * @param dumps 要搜索的内存转储列表，为空时搜索目录中的全部转储
+     * @param hash 要分析的哈希值
+     * @param featureString 特征字符串（可选）
+     * @param callback 进度回调
+     * @return 哈希分析结果，成功时包含原文所在的转储
+     */
+    public HashAnalysisResult execute(List<MemoryDump> dumps, String hash, String featureString,
+                                  HashAnalysisRepository.ProgressCallback callback) {
+        return execute(dumps, hash, featureString, HashSearchOptions.plain(), callback);
+    }
+    
+    /**
+     * 按搜索选项在多个内存转储中执行用例
+     * @param dumps 要搜索的内存转储列表，为空时搜索目录中的全部转储
+     * @param hash 要分析的目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param options 搜索选项（普通哈希、带前缀/后缀的哈希或HMAC）
+     * @param callback 进度回调
+     * @return 哈希分析结果，成功时包含原文所在的转储
+     */
+    public HashAnalysisResult execute(List<MemoryDump> dumps, String hash, String featureString,
+                                  HashSearchOptions options, HashAnalysisRepository.ProgressCallback callback) {
+        if (dumps == null || dumps.isEmpty()) {
+            dumps = memoryDumpRepository.listDumps();
+        }
+        if (dumps == null || dumps.isEmpty()) {
+            return HashAnalysisResult.failure("未知", 0);
+        }
+        
+        // 识别哈希类型，同长度的多种算法一起搜索
+        String hashType = hashAnalysisRepository.resolveSearchHashType(hash);
+        if (hashType == null) {
+            hashType = "MD5";
+        }
+        
+        // 执行分析
+        long startTime = System.currentTimeMillis();
+        try {
+            return hashAnalysisRepository.searchPlaintextInDumps(dumps, hash, featureString, hashType, options,
+                    callback);
+        } catch (Exception e) {
+            long endTime = System.currentTimeMillis();
+            return HashAnalysisResult.failure(hashType, endTime - startTime);
+        }
+    }
+    
+    /**
+     * 通过常量表识别转储中使用的哈希算法，之后的分析只搜索识别出的算法
+     * @param dumps 要扫描的内存转储列表，为空时扫描目录中的全部转储
+     * @param callback 进度回调
+     * @return 按排名排列的哈希类型，未识别出时为空列表
+     */
+    public List<String> detectHashAlgorithms(List<MemoryDump> dumps, HashAnalysisRepository.ProgressCallback callback) {
+        if (dumps == null || dumps.isEmpty()) {
+            dumps = memoryDumpRepository.listDumps();
+        }
+        return hashAnalysisRepository.detectHashAlgorithms(dumps, callback);
+    }
+    
     /**
      * 取消当前分析
      */
@@ -10,6 +10,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.CheckBox;
+import android.widget.RadioGroup;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -20,6 +21,8 @@ import androidx.lifecycle.ViewModelProvider;
 import com.ghostxx.algotools.R;
 import com.ghostxx.algotools.common.ui.InputFieldView;
 import com.ghostxx.algotools.common.ui.ResultCardView;
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
+import com.ghostxx.algotools.domain.entity.ScanProgress;
 import com.ghostxx.algotools.model.AnalysisResult;
 import com.ghostxx.algotools.utils.HashCryptoUtils;
 import com.ghostxx.algotools.viewmodel.HashAnalysisViewModel;
@@ -29,7 +32,9 @@ import com.ghostxx.algotools.viewmodel.HashAnalysisViewModel;
  * 功能：
  * 1. 提供哈希值输入
  * 2. 提供特征字符串输入（可选，用于优化搜索）
- * 3. 展示分析结果
+ * 3. 选择搜索模式（普通哈希、已知消息或已知密钥的HMAC），普通哈希可指定前缀、后缀和嵌套哈希的轮数
+ * 4. 自动破解：不输入哈希值，把转储中的所有摘要与转储自身的字符串连接
+ * 5. 展示分析结果
  */
 public class HashAnalysisFragment extends Fragment {
     private static final String TAG = "HashAnalysisFragment";
@@ -37,8 +42,18 @@ public class HashAnalysisFragment extends Fragment {
     // 界面元素
     private InputFieldView hashInputView;          // 哈希值输入框
     private InputFieldView featureInputView;       // 特征字符串输入框
+    private RadioGroup searchModeGroup;           // 搜索模式选择
+    private InputFieldView hmacInputView;          // HMAC已知消息/密钥输入框
+    private View affixLayout;                     // 前缀/后缀输入区域
+    private InputFieldView prefixInputView;        // 前缀输入框
+    private InputFieldView suffixInputView;        // 后缀输入框
+    private InputFieldView roundsInputView;        // 哈希轮数输入框
     private Button analyzeButton;                 // 分析按钮
+    private Button autoCrackButton;               // 自动破解按钮
+    private Button scanKeysButton;                // 密钥扫描按钮
+    private Button detectAlgorithmsButton;        // 算法识别按钮
     private ResultCardView resultCardView;         // 结果卡片
+    private CheckBox allMatchesCheckbox;          // 全部匹配复选框
     private CheckBox jniLoggingCheckbox;          // JNI日志复选框
 
     // ViewModel
@@ -68,12 +83,34 @@ public class HashAnalysisFragment extends Fragment {
         // 绑定界面元素
         hashInputView = view.findViewById(R.id.hashInputView);
         featureInputView = view.findViewById(R.id.featureInputView);
+        searchModeGroup = view.findViewById(R.id.searchModeGroup);
+        hmacInputView = view.findViewById(R.id.hmacInputView);
+        affixLayout = view.findViewById(R.id.affixLayout);
+        prefixInputView = view.findViewById(R.id.prefixInputView);
+        suffixInputView = view.findViewById(R.id.suffixInputView);
+        roundsInputView = view.findViewById(R.id.roundsInputView);
         analyzeButton = view.findViewById(R.id.analyzeButton);
+        autoCrackButton = view.findViewById(R.id.autoCrackButton);
+        scanKeysButton = view.findViewById(R.id.scanKeysButton);
+        detectAlgorithmsButton = view.findViewById(R.id.detectAlgorithmsButton);
         resultCardView = view.findViewById(R.id.resultCardView);
+        allMatchesCheckbox = view.findViewById(R.id.allMatchesCheckbox);
         jniLoggingCheckbox = view.findViewById(R.id.jniLoggingCheckbox);
 
         // 设置按钮事件
         analyzeButton.setOnClickListener(v -> startAnalysis());
+        autoCrackButton.setOnClickListener(v -> viewModel.autoCrack());
+        scanKeysButton.setOnClickListener(v -> viewModel.scanKeys());
+        detectAlgorithmsButton.setOnClickListener(v -> viewModel.detectAlgorithms());
+        
+        // HMAC模式下显示已知消息/密钥输入框，普通哈希模式下显示前缀/后缀输入框
+        searchModeGroup.setOnCheckedChangeListener((group, checkedId) -> {
+            boolean hmac = checkedId != R.id.modePlainRadio;
+            hmacInputView.setVisibility(hmac ? View.VISIBLE : View.GONE);
+            affixLayout.setVisibility(hmac ? View.GONE : View.VISIBLE);
+            hmacInputView.getInputLayout().setHint(checkedId == R.id.modeHmacKeyRadio
+                    ? "HMAC 已知密钥" : "HMAC 已知消息");
+        });
         
         // 设置JNI日志开关
         setupJniLogging();
@@ -105,20 +142,26 @@ public class HashAnalysisFragment extends Fragment {
         // 观察加载状态
         viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
             analyzeButton.setEnabled(!isLoading);
+            autoCrackButton.setEnabled(!isLoading);
+            scanKeysButton.setEnabled(!isLoading);
+            detectAlgorithmsButton.setEnabled(!isLoading);
             if (isLoading) {
                 resultCardView.setCopyButtonVisible(false);
             }
         });
         
-        // 观察进度
-        viewModel.getProgressPercent().observe(getViewLifecycleOwner(), percent -> {
-            if (percent > 0) {
+        // 观察进度（包含扫描速度和预计剩余时间）
+        viewModel.getScanProgress().observe(getViewLifecycleOwner(), progress -> {
+            if (progress != null && progress.getBytesScanned() > 0) {
+                String progressLine = formatProgress(progress);
                 String currentStatus = resultCardView.getContent();
-                if (!currentStatus.contains("进度:")) {
-                    resultCardView.setContent(currentStatus + "\n进度: " + percent + "%");
+                int index = currentStatus.indexOf("进度:");
+                if (index < 0) {
+                    resultCardView.setContent(currentStatus + "\n" + progressLine);
                 } else {
-                    String newStatus = currentStatus.replaceAll("进度: \\d+%", "进度: " + percent + "%");
-                    resultCardView.setContent(newStatus);
+                    int end = currentStatus.indexOf('\n', index);
+                    resultCardView.setContent(currentStatus.substring(0, index) + progressLine
+                            + (end >= 0 ? currentStatus.substring(end) : ""));
                 }
             }
         });
@@ -129,6 +172,23 @@ public class HashAnalysisFragment extends Fragment {
         });
     }
     
+    /**
+     * 格式化进度行，例如 "进度: 42% (180.5 MB/s, 剩余 3秒)"
+     */
+    @SuppressLint("DefaultLocale")
+    private static String formatProgress(ScanProgress progress) {
+        StringBuilder line = new StringBuilder();
+        line.append("进度: ").append(progress.getPercent()).append('%');
+        if (progress.getBytesPerSecond() > 0) {
+            line.append(String.format(" (%.1f MB/s", progress.getMegabytesPerSecond()));
+            if (progress.getEtaMs() >= 0) {
+                line.append(", 剩余 ").append((progress.getEtaMs() + 999) / 1000).append("秒");
+            }
+            line.append(')');
+        }
+        return line.toString();
+    }
+    
     /**
      * 处理分析结果
      */
@@ -155,7 +215,36 @@ public class HashAnalysisFragment extends Fragment {
         String featureString = featureInputView.getText().trim();
         
         // 调用ViewModel进行分析
-        viewModel.analyzeHash(hashToAnalyze, featureString);
+        viewModel.analyzeHash(hashToAnalyze, featureString, buildSearchOptions(), allMatchesCheckbox.isChecked());
+    }
+    
+    /**
+     * 根据选中的搜索模式构建搜索选项，HMAC的已知值和前缀/后缀不做trim，空白也可能是其一部分
+     */
+    private HashSearchOptions buildSearchOptions() {
+        int checkedId = searchModeGroup.getCheckedRadioButtonId();
+        if (checkedId == R.id.modeHmacMessageRadio) {
+            return HashSearchOptions.hmacKnownMessage(hmacInputView.getText());
+        }
+        if (checkedId == R.id.modeHmacKeyRadio) {
+            return HashSearchOptions.hmacKnownKey(hmacInputView.getText());
+        }
+        return new HashSearchOptions.Builder()
+                .setPrefix(prefixInputView.getText())
+                .setSuffix(suffixInputView.getText())
+                .setRounds(parseRounds(roundsInputView.getText()))
+                .build();
+    }
+    
+    /**
+     * 解析哈希轮数，为空或无效时按1轮处理
+     */
+    private int parseRounds(String text) {
+        try {
+            return Math.max(1, Integer.parseInt(text.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
     }
     
     /**
@@ -1,5 +1,7 @@
 package com.ghostxx.algotools.model;
 
+import com.ghostxx.algotools.domain.entity.ScanMetrics;
+
 /**
  * 分析结果模型类
  */
@@ -8,6 +10,7 @@ public class AnalysisResult {
     private final String plaintext;
     private final String errorMessage;
     private final long timeSpentMs;
+    private final ScanMetrics metrics;
     
     /**
      * 构造函数
@@ -16,10 +19,7 @@ public class AnalysisResult {
      * @param timeSpentMs 处理时间（毫秒）
      */
     public AnalysisResult(boolean success, String plaintext, long timeSpentMs) {
-        this.success = success;
-        this.plaintext = plaintext;
-        this.errorMessage = null;
-        this.timeSpentMs = timeSpentMs;
+        this(success, plaintext, null, timeSpentMs, null);
     }
     
     /**
@@ -29,10 +29,16 @@ public class AnalysisResult {
      * @param errorMessage 错误消息（失败时有值）
      */
     public AnalysisResult(boolean success, String plaintext, String errorMessage) {
+        this(success, plaintext, errorMessage, 0, null);
+    }
+    
+    private AnalysisResult(boolean success, String plaintext, String errorMessage, long timeSpentMs,
+                           ScanMetrics metrics) {
         this.success = success;
         this.plaintext = plaintext;
         this.errorMessage = errorMessage;
-        this.timeSpentMs = 0;
+        this.timeSpentMs = timeSpentMs;
+        this.metrics = metrics;
     }
     
     /**
@@ -63,6 +69,20 @@ public class AnalysisResult {
         return timeSpentMs;
     }
     
+    /**
+     * 获取扫描的分阶段指标，未扫描时为null
+     */
+    public ScanMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * 返回附带扫描指标的副本
+     */
+    public AnalysisResult withMetrics(ScanMetrics metrics) {
+        return new AnalysisResult(success, plaintext, errorMessage, timeSpentMs, metrics);
+    }
+    
     /**
      * 获取处理时间（秒）
      */
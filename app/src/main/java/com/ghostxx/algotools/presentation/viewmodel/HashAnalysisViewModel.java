@@ -9,12 +9,16 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.ghostxx.algotools.common.di.ServiceLocator;
 import com.ghostxx.algotools.domain.entity.HashAnalysisResult;
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
 import com.ghostxx.algotools.domain.entity.MemoryDump;
+import com.ghostxx.algotools.domain.entity.ScanProgress;
 import com.ghostxx.algotools.domain.repository.HashAnalysisRepository;
 import com.ghostxx.algotools.domain.repository.MemoryDumpRepository;
 import com.ghostxx.algotools.domain.usecase.AnalyzeHashUseCase;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -31,6 +35,7 @@ public class HashAnalysisViewModel extends AndroidViewModel {
     private final MutableLiveData<Boolean> isAnalyzing = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private final MutableLiveData<Integer> analysisProgress = new MutableLiveData<>(0);
+    private final MutableLiveData<ScanProgress> scanProgress = new MutableLiveData<>();
     private final MutableLiveData<String[]> possibleHashTypes = new MutableLiveData<>();
     private final MutableLiveData<MemoryDump> currentDump = new MutableLiveData<>();
     
@@ -65,6 +70,46 @@ public class HashAnalysisViewModel extends AndroidViewModel {
      * @param featureString 特征字符串（可选）
      */
     public void analyzeHash(String hash, String featureString) {
+        analyzeHash(hash, featureString, HashSearchOptions.plain());
+    }
+    
+    /**
+     * 按搜索选项在最新转储中分析
+     * @param hash 要分析的目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param options 搜索选项
+     */
+    public void analyzeHash(String hash, String featureString, HashSearchOptions options) {
+        startAnalysis(hash, featureString, options != null ? options : HashSearchOptions.plain(), null);
+    }
+    
+    /**
+     * 在多个转储中并行分析哈希
+     * @param dumps 要搜索的转储列表，为空时搜索目录中的全部转储
+     * @param hash 要分析的哈希值
+     * @param featureString 特征字符串（可选）
+     */
+    public void analyzeHashInDumps(List<MemoryDump> dumps, String hash, String featureString) {
+        analyzeHashInDumps(dumps, hash, featureString, HashSearchOptions.plain());
+    }
+    
+    /**
+     * 按搜索选项在多个转储中并行分析
+     * @param dumps 要搜索的转储列表，为空时搜索目录中的全部转储
+     * @param hash 要分析的目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param options 搜索选项
+     */
+    public void analyzeHashInDumps(List<MemoryDump> dumps, String hash, String featureString,
+                                   HashSearchOptions options) {
+        startAnalysis(hash, featureString, options, dumps != null ? dumps : Collections.<MemoryDump>emptyList());
+    }
+    
+    /**
+     * 启动分析任务
+     * @param dumps 要搜索的转储列表，为null时只搜索最新转储
+     */
+    private void startAnalysis(String hash, String featureString, HashSearchOptions options, List<MemoryDump> dumps) {
         if (hash == null || hash.isEmpty()) {
             errorMessage.setValue("请输入哈希值");
             return;
@@ -73,24 +118,35 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         isAnalyzing.setValue(true);
         errorMessage.setValue(null);
         analysisProgress.setValue(0);
+        scanProgress.setValue(null);
         
         // 识别哈希类型
         String[] types = analyzeHashUseCase.identifyHashType(hash);
         possibleHashTypes.setValue(types);
         
-        // 创建进度回调
-        HashAnalysisRepository.ProgressCallback callback = (current, total) -> {
-            int progress = 0;
-            if (total > 0) {
-                progress = (int) ((current * 100) / total);
+        // 创建进度回调，仓库以最高10Hz的频率在后台线程回调
+        HashAnalysisRepository.ProgressCallback callback = new HashAnalysisRepository.ProgressCallback() {
+            @Override
+            public void onProgressUpdate(long current, long total) {
+                // 百分比由 onScanProgress 一并发布
+            }
+            
+            @Override
+            public void onScanProgress(ScanProgress progress) {
+                analysisProgress.postValue(progress.getPercent());
+                scanProgress.postValue(progress);
             }
-            analysisProgress.postValue(progress);
         };
         
         executor.execute(() -> {
             try {
-                HashAnalysisResult result = analyzeHashUseCase.execute(hash, featureString, callback);
+                HashAnalysisResult result = dumps != null || !options.isPlainHash()
+                        ? analyzeHashUseCase.execute(latestOrAll(dumps), hash, featureString, options, callback)
+                        : analyzeHashUseCase.execute(hash, featureString, callback);
                 analysisResult.postValue(result);
+                if (result != null && result.getSourceDump() != null) {
+                    currentDump.postValue(result.getSourceDump());
+                }
                 isAnalyzing.postValue(false);
                 
                 if (result != null && !result.isSuccess()) {
@@ -103,6 +159,17 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         });
     }
     
+    /**
+     * 要搜索的转储：未指定时只搜索最新转储
+     */
+    private List<MemoryDump> latestOrAll(List<MemoryDump> dumps) {
+        if (dumps != null) {
+            return dumps;
+        }
+        MemoryDump latest = memoryDumpRepository.getLatestDump();
+        return latest != null ? Collections.singletonList(latest) : Collections.<MemoryDump>emptyList();
+    }
+    
     /**
      * 取消当前分析
      */
@@ -147,6 +214,13 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         return analysisProgress;
     }
     
+    /**
+     * 获取扫描进度详情（吞吐量、候选数、哈希速度、预计剩余时间）
+     */
+    public LiveData<ScanProgress> getScanProgress() {
+        return scanProgress;
+    }
+    
     public LiveData<String[]> getPossibleHashTypes() {
         return possibleHashTypes;
     }
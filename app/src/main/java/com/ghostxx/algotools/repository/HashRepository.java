@@ -5,10 +5,34 @@ import android.util.Log;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.ghostxx.algotools.repository.fileprocessing.FileProcessingEngine;
+import com.ghostxx.algotools.common.di.ServiceLocator;
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
+import com.ghostxx.algotools.domain.entity.MemoryDump;
+import com.ghostxx.algotools.domain.entity.ScanMetrics;
+import com.ghostxx.algotools.domain.entity.ScanProgress;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+import com.ghostxx.algotools.engine.entropy.EntropyFilterProcessor;
+import com.ghostxx.algotools.engine.fingerprint.AlgorithmFingerprint;
+import com.ghostxx.algotools.engine.fingerprint.ConstantScanProcessor;
+import com.ghostxx.algotools.engine.hash.DigestPair;
+import com.ghostxx.algotools.engine.hash.MatchRecord;
+import com.ghostxx.algotools.engine.hash.MatchSink;
+import com.ghostxx.algotools.engine.hash.MatchStream;
+import com.ghostxx.algotools.engine.hash.SelfJoinSearch;
+import com.ghostxx.algotools.engine.keys.KeyMaterial;
+import com.ghostxx.algotools.engine.keys.KeyScanProcessor;
+import com.ghostxx.algotools.engine.region.RegionMap;
+import com.ghostxx.algotools.repository.fileprocessing.EngineTuning;
 import com.ghostxx.algotools.repository.fileprocessing.HashSearchProcessor;
+import com.ghostxx.algotools.repository.fileprocessing.ProgressChannel;
+import com.ghostxx.algotools.repository.fileprocessing.SearchSession;
+import com.ghostxx.algotools.utils.AndroidEngineLogger;
+import com.ghostxx.algotools.utils.HashCryptoUtils;
+import com.ghostxx.algotools.utils.NativeIoAdvisor;
 
 /**
  * 哈希分析仓库类，负责处理数据相关操作
@@ -18,32 +42,66 @@ public class HashRepository {
     
     private final Context context;
     private final FileProcessingEngine fileEngine;
+    private final EngineTuning engineTuning;
     private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
+    private volatile ScanMetrics lastMetrics;
+    private volatile String lastMatchedHashType;
+    private volatile MatchRecord lastMatch;
+    // 最近一次常量识别的转储（路径和修改时间）及识别出的哈希类型
+    private volatile String detectedDumpKey;
+    private volatile List<String> detectedHashTypes;
     
     public HashRepository(Context context) {
         this.context = context.getApplicationContext(); // 使用应用程序上下文防止内存泄漏
+        AndroidEngineLogger.install();
         this.fileEngine = new FileProcessingEngine();
         
-        // 配置文件处理引擎
-        int cpuCores = Runtime.getRuntime().availableProcessors();
-        int optimalThreads = Math.max(1, Math.min(cpuCores - 1, 4)); // 保留一个核心给UI线程
-        
-        fileEngine.setThreadCount(optimalThreads)
-                  .setChunkSize(4 * 1024 * 1024) // 4MB
-                  .setOverlapSize(128 * 1024); // 128KB
+        // 按本机调好的线程数和块大小配置文件处理引擎，每次扫描中继续调优
+        this.engineTuning = EngineTuning.getInstance(context);
+        engineTuning.configure(fileEngine);
+        fileEngine.setIoAdvisor(NativeIoAdvisor.getInstance()); // 预读流水线的页缓存提示
     }
     
     /**
-     * 获取内存转储文件
+     * 获取内存转储文件（转储目录中最新的一次转储）
      */
     public File getDumpFile() {
-        File dumpFile = new File(context.getExternalFilesDir(null), "memory_data.bin");
+        MemoryDump dump = ServiceLocator.getInstance(context).getMemoryDumpRepository().getLatestDump();
+        if (dump == null || !dump.isValid()) {
+            return null;
+        }
+        File dumpFile = new File(dump.getFilePath());
         if (!dumpFile.exists() || dumpFile.length() == 0) {
             return null;
         }
         return dumpFile;
     }
     
+    /**
+     * 获取最近一次搜索的分阶段指标
+     * @return 扫描指标，尚未完成过搜索时返回null
+     */
+    public ScanMetrics getLastMetrics() {
+        return lastMetrics;
+    }
+    
+    /**
+     * 获取最近一次搜索命中的哈希类型
+     * 同时搜索多种同长度算法时（如 "SHA-256,SM3"），返回实际命中的算法
+     * @return 哈希类型，最近一次搜索未找到原文时返回null
+     */
+    public String getLastMatchedHashType() {
+        return lastMatchedHashType;
+    }
+    
+    /**
+     * 获取最近一次搜索找到的原文的命中记录，其中保留了原文的原始字节
+     * @return 命中记录，最近一次搜索未找到原文时返回null
+     */
+    public MatchRecord getLastMatch() {
+        return lastMatch;
+    }
+    
     /**
      * 取消当前操作
      */
@@ -63,25 +121,101 @@ public class HashRepository {
      */
     public String searchPlaintext(File dumpFile, String hashToCrack, String featureString, 
                                 String hashType, ProgressCallback progressCallback) throws Exception {
+        return searchPlaintext(dumpFile, hashToCrack, featureString, hashType, HashSearchOptions.plain(),
+                progressCallback);
+    }
+    
+    /**
+     * 按搜索选项在内存转储文件中搜索原文
+     * @param dumpFile 内存转储文件
+     * @param hashToCrack 目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param hashType 哈希类型，多个同长度类型用逗号分隔，HMAC模式下为底层哈希类型
+     * @param options 搜索选项
+     * @param progressCallback 进度回调
+     * @return 找到的原文，未找到则返回null
+     */
+    public String searchPlaintext(File dumpFile, String hashToCrack, String featureString, String hashType,
+                                HashSearchOptions options, ProgressCallback progressCallback) throws Exception {
+        return runSearch(dumpFile, hashToCrack, featureString, hashType, options, null, progressCallback);
+    }
+    
+    /**
+     * 查找原文在转储中的全部副本
+     * 扫描完整个转储，每处命中在找到时立即交给接收方，界面不必等扫描结束就能显示第一处命中；
+     * 转储有区域表时记录中带有虚拟地址和所在的内存区域
+     * @param dumpFile 内存转储文件
+     * @param hashToCrack 目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param hashType 哈希类型，多个同长度类型用逗号分隔，HMAC模式下为底层哈希类型
+     * @param options 搜索选项
+     * @param sink 命中的接收方（可选），在工作线程中调用
+     * @param progressCallback 进度回调
+     * @return 按偏移排序的命中记录，未找到时返回空列表
+     */
+    public List<MatchRecord> searchAllMatches(File dumpFile, String hashToCrack, String featureString,
+                                              String hashType, HashSearchOptions options, MatchSink sink,
+                                              ProgressCallback progressCallback) throws Exception {
+        MatchStream stream = new MatchStream(hashToCrack, true, sink)
+                .setRegionMaps(Collections.singletonList(RegionMap.forDump(dumpFile)));
+        runSearch(dumpFile, hashToCrack, featureString, hashType, options, stream, progressCallback);
+        List<MatchRecord> records = stream.getRecords();
+        if (!records.isEmpty()) {
+            lastMatchedHashType = records.get(0).getHashType();
+            lastMatch = records.get(0);
+        }
+        Log.d(TAG, "全部命中: " + stream.getMatchCount() + " 处，超出上限未保留 " + stream.getDroppedCount() + " 处");
+        return records;
+    }
+    
+    /**
+     * 执行一次原文搜索
+     * @param stream 命中流，为null时找到第一个原文即停止（内部使用首个命中模式的命中流确定命中的算法）
+     * @return 找到的第一个原文，全部命中模式或未找到时返回null
+     */
+    private String runSearch(File dumpFile, String hashToCrack, String featureString, String hashType,
+                             HashSearchOptions options, MatchStream stream, ProgressCallback progressCallback)
+            throws Exception {
         // 重置取消标志
         cancelRequested.set(false);
+        lastMatchedHashType = null;
+        lastMatch = null;
+        lastMetrics = null;
         
         long fileSize = dumpFile.length();
         Log.d(TAG, String.format("开始分析哈希值 %s (文件大小: %.2f MB)", 
                 hashToCrack, fileSize / (1024.0 * 1024.0)));
         
-        try {
+        MatchStream matchStream = stream != null ? stream : new MatchStream(hashToCrack, false, null);
+        try (SearchSession session = SearchSession.create(hashToCrack, hashType, options);
+             ProgressChannel progressChannel = createProgressChannel(session, progressCallback);
+             EngineTuning.Scan tuning = engineTuning.startScan(fileEngine, true)) {
             // 创建哈希搜索处理器
-            HashSearchProcessor processor = new HashSearchProcessor(hashToCrack, featureString, hashType);
+            HashSearchProcessor processor = new HashSearchProcessor(hashToCrack, featureString, hashType, session,
+                    options).setMatchStream(matchStream);
+            // 按熵图跳过填零区域和压缩/加密数据，不再从中提取候选
+            EntropyFilterProcessor entropyFilter = new EntropyFilterProcessor(processor,
+                    Collections.singletonList(dumpFile));
             
-            // 创建进度回调转换器
-            FileProcessingEngine.ProgressCallback engineCallback = null;
-                if (progressCallback != null) {
-                engineCallback = progressCallback::onProgressUpdate;
-            }
+            // 执行文件处理，工作线程只更新进度通道，由通道按固定频率回调
+            FileProcessingEngine.FileResult fileResult = fileEngine.processFiles(
+                    Collections.singletonList(dumpFile), entropyFilter, progressChannel);
+            String result = fileResult != null ? fileResult.getResult() : null;
+            entropyFilter.saveMaps();
             
-            // 执行文件处理
-            return fileEngine.processFile(dumpFile, processor, engineCallback);
+            FileProcessingEngine.RunStats runStats = fileEngine.getLastRunStats();
+            lastMetrics = runStats != null
+                    ? session.buildMetrics(runStats, entropyFilter.getBytesSkipped()) : null;
+            if (lastMetrics != null) {
+                Log.d(TAG, "扫描指标: " + lastMetrics.toJson());
+            }
+            if (result != null) {
+                // 按原始字节确定命中的算法，不是合法UTF-8的原文在返回的字符串中已被改写
+                MatchRecord match = fileResult.getMatchRecord();
+                lastMatchedHashType = match != null ? match.getHashType() : processor.getMatchedHashType(result);
+                lastMatch = match;
+            }
+            return result;
             
         } catch (IOException e) {
             Log.e(TAG, "搜索哈希原文时出错: " + e.getMessage(), e);
@@ -89,10 +223,134 @@ public class HashRepository {
         }
     }
     
+    /**
+     * 自动破解：找出转储中的所有十六进制摘要，再用转储自身的字符串计算哈希与之连接
+     * 第一遍只收集摘要，第二遍计算哈希，进度按两遍合计报告
+     * @param dumpFile 内存转储文件
+     * @param progressCallback 进度回调
+     * @return 找到的摘要和原文，未找到时返回空列表
+     */
+    public List<DigestPair> autoCrack(File dumpFile, ProgressCallback progressCallback) throws Exception {
+        cancelRequested.set(false);
+        Log.d(TAG, String.format("开始自动破解 (文件大小: %.2f MB)", dumpFile.length() / (1024.0 * 1024.0)));
+        
+        // 哈希计算在纯Java引擎中进行，原生层只支持单个目标值
+        try (SearchSession session = SearchSession.createJava(SearchSession.DEFAULT_MAX_DEDUP_ENTRIES);
+             ProgressChannel progressChannel = createProgressChannel(session, progressCallback);
+             EngineTuning.Scan tuning = engineTuning.startScan(fileEngine, false)) {
+            SelfJoinSearch search = new SelfJoinSearch(HashCryptoUtils.getSupportedTypes());
+            List<DigestPair> pairs = search.run(fileEngine, Collections.singletonList(dumpFile),
+                    session.getJavaSession(), progressChannel);
+            
+            FileProcessingEngine.RunStats runStats = fileEngine.getLastRunStats();
+            lastMetrics = runStats != null ? session.buildMetrics(runStats) : null;
+            Log.d(TAG, "自动破解: " + search.getDigestCount() + " 个摘要，找到 " + pairs.size() + " 个原文");
+            return pairs;
+        } catch (IOException e) {
+            Log.e(TAG, "自动破解时出错: " + e.getMessage(), e);
+            throw new Exception("处理文件时出错: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 扫描转储中的密钥材料：展开的AES轮密钥、DER编码的RSA/EC私钥和PEM私钥
+     * @param dumpFile 内存转储文件
+     * @param progressCallback 进度回调
+     * @return 找到的密钥，按偏移排序
+     */
+    public List<KeyMaterial> scanKeys(File dumpFile, ProgressCallback progressCallback) throws Exception {
+        cancelRequested.set(false);
+        Log.d(TAG, String.format("开始扫描密钥材料 (文件大小: %.2f MB)", dumpFile.length() / (1024.0 * 1024.0)));
+        
+        try (SearchSession session = SearchSession.createJava(SearchSession.DEFAULT_MAX_DEDUP_ENTRIES);
+             ProgressChannel progressChannel = createProgressChannel(session, progressCallback);
+             EngineTuning.Scan tuning = engineTuning.startScan(fileEngine, false)) {
+            KeyScanProcessor processor = new KeyScanProcessor();
+            fileEngine.processFiles(Collections.singletonList(dumpFile), processor, progressChannel);
+            
+            FileProcessingEngine.RunStats runStats = fileEngine.getLastRunStats();
+            lastMetrics = runStats != null ? session.buildMetrics(runStats) : null;
+            List<KeyMaterial> keys = processor.getKeys();
+            Log.d(TAG, "密钥扫描: 找到 " + keys.size() + " 个密钥，超出上限 " + processor.getDroppedKeys() + " 个");
+            return keys;
+        } catch (IOException e) {
+            Log.e(TAG, "扫描密钥材料时出错: " + e.getMessage(), e);
+            throw new Exception("处理文件时出错: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 通过常量表识别转储中使用的算法（MD5 T表、SHA K常量、AES S盒、CRC表等）
+     * 识别出的哈希类型会被记录，之后搜索同一个转储时可由 {@link #getDetectedHashTypes(File)} 获取
+     * @param dumpFile 内存转储文件
+     * @param progressCallback 进度回调
+     * @return 按得分排序的识别结果
+     */
+    public List<AlgorithmFingerprint> detectAlgorithms(File dumpFile, ProgressCallback progressCallback)
+            throws Exception {
+        cancelRequested.set(false);
+        Log.d(TAG, String.format("开始识别算法常量 (文件大小: %.2f MB)", dumpFile.length() / (1024.0 * 1024.0)));
+        
+        try (SearchSession session = SearchSession.createJava(SearchSession.DEFAULT_MAX_DEDUP_ENTRIES);
+             ProgressChannel progressChannel = createProgressChannel(session, progressCallback);
+             EngineTuning.Scan tuning = engineTuning.startScan(fileEngine, false)) {
+            ConstantScanProcessor processor = new ConstantScanProcessor();
+            fileEngine.processFiles(Collections.singletonList(dumpFile), processor, progressChannel);
+            
+            FileProcessingEngine.RunStats runStats = fileEngine.getLastRunStats();
+            lastMetrics = runStats != null ? session.buildMetrics(runStats) : null;
+            List<AlgorithmFingerprint> fingerprints = processor.getFingerprints();
+            if (!fileEngine.isCancelled()) {
+                detectedHashTypes = ConstantScanProcessor.toHashTypes(fingerprints);
+                detectedDumpKey = dumpKey(dumpFile);
+            }
+            Log.d(TAG, "算法常量识别: " + fingerprints);
+            return fingerprints;
+        } catch (IOException e) {
+            Log.e(TAG, "识别算法常量时出错: " + e.getMessage(), e);
+            throw new Exception("处理文件时出错: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 获取对该转储识别出的哈希类型
+     * @param dumpFile 内存转储文件
+     * @return 按排名排列的哈希类型，没有识别过该转储（或转储已被覆盖）时返回null
+     */
+    public List<String> getDetectedHashTypes(File dumpFile) {
+        List<String> types = detectedHashTypes;
+        return types != null && dumpKey(dumpFile).equals(detectedDumpKey) ? types : null;
+    }
+    
+    private static String dumpKey(File dumpFile) {
+        return dumpFile.getAbsolutePath() + "@" + dumpFile.lastModified();
+    }
+    
+    /**
+     * 创建节流的进度通道，没有回调时返回null
+     */
+    private static ProgressChannel createProgressChannel(SearchSession session, ProgressCallback callback) {
+        if (callback == null) {
+            return null;
+        }
+        return new ProgressChannel(session, progress -> {
+            callback.onProgressUpdate(progress.getBytesScanned(), progress.getTotalBytes());
+            callback.onScanProgress(progress);
+        });
+    }
+    
     /**
      * 进度回调接口
+     * 回调在后台线程中以最高10Hz的频率触发
      */
     public interface ProgressCallback {
         void onProgressUpdate(long current, long total);
+        
+        /**
+         * 扫描进度详情（吞吐量、候选数、哈希速度、预计剩余时间）
+         * @param progress 进度快照
+         */
+        default void onScanProgress(ScanProgress progress) {
+        }
     }
 } 
\ No newline at end of file
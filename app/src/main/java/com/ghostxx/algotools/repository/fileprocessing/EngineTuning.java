@@ -0,0 +1,125 @@
+package com.ghostxx.algotools.repository.fileprocessing;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.PowerManager;
+import android.util.Log;
+
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+import com.ghostxx.algotools.engine.tuning.ThroughputTuner;
+import com.ghostxx.algotools.engine.tuning.TuningProfile;
+
+/**
+ * 引擎调优参数的持久化和扫描期间的温度监听
+ * 调好的线程数和块大小按设备型号保存，应用的所有文件处理引擎共用；
+ * 每次扫描由 {@link #startScan} 开始调优，Android 10起同时监听设备温度，发热时由调优器降低并发。
+ */
+public final class EngineTuning {
+    private static final String TAG = "EngineTuning";
+    private static final String PREFS_NAME = "engine_tuning";
+    private static final String KEY_PREFIX = "profile_";
+    // 数据块之间的重叠区域，需大于最长的候选字符串
+    private static final int OVERLAP_SIZE = 128 * 1024; // 128KB
+
+    private static EngineTuning instance;
+
+    private final SharedPreferences preferences;
+    private final PowerManager powerManager;
+    private final String profileKey;
+    private final int cpuCores;
+    private final TuningProfile profile;
+
+    private EngineTuning(Context context) {
+        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        this.profileKey = KEY_PREFIX + Build.MODEL;
+        this.cpuCores = Runtime.getRuntime().availableProcessors();
+        this.profile = TuningProfile.parse(preferences.getString(profileKey, null), cpuCores);
+        Log.d(TAG, "调优参数 (" + Build.MODEL + "): " + profile);
+    }
+
+    /**
+     * 获取实例
+     */
+    public static synchronized EngineTuning getInstance(Context context) {
+        if (instance == null) {
+            instance = new EngineTuning(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * 按保存的调优参数配置引擎
+     * 引擎的线程数设为CPU核心数，作为运行中增加并发的上限，实际并发使用调好的线程数
+     * @param engine 文件处理引擎
+     */
+    public void configure(FileProcessingEngine engine) {
+        engine.setThreadCount(cpuCores)
+              .setChunkSize(profile.getChunkSize())
+              .setOverlapSize(OVERLAP_SIZE);
+        engine.setActiveThreadCount(profile.getThreadCount());
+    }
+
+    /**
+     * 开始一次调优的扫描
+     * 在调用引擎处理文件之前调用，用try-with-resources在处理结束后关闭
+     * @param engine 文件处理引擎
+     * @param measureChunkSize 是否试探并记录块大小的吞吐量，只有原文搜索测量，其他扫描只调整并发
+     * @return 扫描的调优状态
+     */
+    public Scan startScan(FileProcessingEngine engine, boolean measureChunkSize) {
+        return new Scan(engine, measureChunkSize);
+    }
+
+    /**
+     * 内存允许的最大块大小：预读流水线在堆上为每个线程准备缓冲区，另外两个在读取线程中轮转，
+     * 所有缓冲区最多占用堆上限的四分之一
+     */
+    private int maxChunkSize(FileProcessingEngine engine) {
+        long budget = Runtime.getRuntime().maxMemory() / 4 / (engine.getThreadCount() + 2);
+        return (int) Math.min(budget, Integer.MAX_VALUE);
+    }
+
+    private void save() {
+        preferences.edit().putString(profileKey, profile.serialize()).apply();
+    }
+
+    /**
+     * 一次扫描的调优状态
+     */
+    public final class Scan implements AutoCloseable {
+        private final FileProcessingEngine engine;
+        private final ThroughputTuner tuner;
+        private final FileProcessingEngine.RunStats previousStats;
+        private final PowerManager.OnThermalStatusChangedListener thermalListener;
+
+        private Scan(FileProcessingEngine engine, boolean measureChunkSize) {
+            this.engine = engine;
+            this.previousStats = engine.getLastRunStats();
+            this.tuner = ThroughputTuner.start(engine, profile, maxChunkSize(engine), measureChunkSize);
+            if (powerManager != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                tuner.onThermalStatus(powerManager.getCurrentThermalStatus());
+                thermalListener = tuner::onThermalStatus;
+                powerManager.addThermalStatusListener(thermalListener);
+            } else {
+                thermalListener = null;
+            }
+        }
+
+        /**
+         * 结束调优，记录本次扫描的吞吐量并保存调优参数
+         * 扫描被取消或没有开始处理文件时只保存运行中调好的线程数
+         */
+        @Override
+        public void close() {
+            if (thermalListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                powerManager.removeThermalStatusListener(thermalListener);
+            }
+            FileProcessingEngine.RunStats runStats = engine.getLastRunStats();
+            boolean ran = runStats != null && runStats != previousStats;
+            tuner.finish(ran ? runStats : null, ran && !engine.isCancelled());
+            save();
+        }
+    }
+} 
\ No newline at end of file
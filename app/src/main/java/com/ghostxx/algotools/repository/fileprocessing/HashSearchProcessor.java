@@ -2,18 +2,43 @@ package com.ghostxx.algotools.repository.fileprocessing;
 
 import android.util.Log;
 
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+import com.ghostxx.algotools.engine.hash.DigestTarget;
+import com.ghostxx.algotools.engine.hash.DigestTransform;
+import com.ghostxx.algotools.engine.hash.HmacSearchProcessor;
+import com.ghostxx.algotools.engine.hash.JavaHashSearchProcessor;
+import com.ghostxx.algotools.engine.hash.JavaSearchSession;
+import com.ghostxx.algotools.engine.hash.MatchRecord;
+import com.ghostxx.algotools.engine.hash.MatchStream;
 import com.ghostxx.algotools.utils.HashCryptoUtils;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * 哈希搜索处理器
- * 在文件块中搜索哈希值对应的原文
+ * 在文件块中搜索哈希值对应的原文。普通哈希由原生层计算；
+ * 原生库不可用、会话是纯Java会话、搜索模式为HMAC、指定了前缀/后缀或嵌套哈希、
+ * 以及目标值是截断的摘要时，委托给引擎模块中的纯Java实现（{@link JavaHashSearchProcessor}、{@link HmacSearchProcessor}）。
+ * Base64等编码的完整摘要先转换为十六进制，仍可由原生层搜索。
+ * 哈希类型可以是逗号分隔的多个同长度算法（见 {@link HashCryptoUtils#toSearchHashType}），
+ * 两种实现都在一次提取中逐个尝试，命中后由 {@link #getMatchedHashType(String)} 确定实际的算法。
+ * 设置了命中流（{@link #setMatchStream}）时每处命中立即报告为 {@link com.ghostxx.algotools.engine.hash.MatchRecord}，
+ * 全部命中模式下处理器不返回原文，引擎扫描完所有数据块。
  */
 public class HashSearchProcessor implements FileChunkProcessor {
     private static final String TAG = "HashSearchProcessor";
     
     private final String hashToCrack;
+    // 交给原生层的小写十六进制目标值，原生层无法比较时为null
+    private final String nativeHash;
     private final String featureString;
     private final String hashType;
+    private final SearchSession session;
+    private final HashSearchOptions options;
+    // 纯Java实现，使用原生层时为null
+    private final FileChunkProcessor javaProcessor;
+    private volatile MatchStream matchStream;
     
     /**
      * 构造函数
@@ -22,31 +47,207 @@ public class HashSearchProcessor implements FileChunkProcessor {
      * @param hashType 哈希类型（如MD5、SHA-1等）
      */
     public HashSearchProcessor(String hashToCrack, String featureString, String hashType) {
+        this(hashToCrack, featureString, hashType, null);
+    }
+    
+    /**
+     * 构造函数
+     * @param hashToCrack 要破解的哈希值
+     * @param featureString 特征字符串，用于缩小搜索范围
+     * @param hashType 哈希类型（如MD5、SHA-1等）
+     * @param session 搜索会话（可选），用于在数据块和转储之间共享候选去重集合
+     */
+    public HashSearchProcessor(String hashToCrack, String featureString, String hashType, SearchSession session) {
+        this(hashToCrack, featureString, hashType, session, HashSearchOptions.plain());
+    }
+    
+    /**
+     * 构造函数
+     * @param hashToCrack 要破解的哈希值（普通哈希或HMAC）
+     * @param featureString 特征字符串，用于缩小搜索范围
+     * @param hashType 哈希类型（如MD5、SHA-1等），HMAC模式下为底层哈希类型
+     * @param session 搜索会话（可选），HMAC模式下应使用 {@link SearchSession#createJava(int)} 创建的会话
+     * @param options 搜索选项
+     */
+    public HashSearchProcessor(String hashToCrack, String featureString, String hashType, SearchSession session,
+                               HashSearchOptions options) {
         this.hashToCrack = hashToCrack;
+        this.nativeHash = toNativeHash(hashToCrack, hashType);
         this.featureString = featureString;
         this.hashType = hashType;
+        this.session = session;
+        this.options = options != null ? options : HashSearchOptions.plain();
+        this.javaProcessor = createJavaProcessor(this.options);
+    }
+    
+    /**
+     * 检查搜索是否需要纯Java引擎，用于选择搜索会话的类型
+     * @param hash 目标值
+     * @param hashType 哈希类型
+     * @param options 搜索选项
+     */
+    public static boolean requiresJavaEngine(String hash, String hashType, HashSearchOptions options) {
+        return (options != null && options.requiresJavaEngine()) || toNativeHash(hash, hashType) == null;
+    }
+    
+    /**
+     * 把目标值转换为原生层可比较的小写十六进制
+     * @return 目标值是完整长度的摘要时返回十六进制，截断、无法解码或有多种解释时返回null
+     */
+    private static String toNativeHash(String hash, String hashType) {
+        DigestTarget target = DigestTarget.tryParse(hash);
+        int digestLength = hashType != null ? commonDigestLength(hashType) : -1;
+        return target != null && digestLength > 0 ? target.toFullLengthHex(digestLength) : null;
+    }
+    
+    /**
+     * 获取逗号分隔的哈希类型共同的摘要长度
+     * @return 摘要长度，类型不支持或长度不一致时返回-1
+     */
+    private static int commonDigestLength(String hashType) {
+        int digestLength = -1;
+        for (String type : hashType.split(",")) {
+            int length = DigestTarget.digestLengthOf(type.trim());
+            if (length <= 0 || (digestLength > 0 && length != digestLength)) {
+                return -1;
+            }
+            digestLength = length;
+        }
+        return digestLength;
+    }
+    
+    /**
+     * 设置命中流，找到的每处命中立即报告给它
+     * @param matchStream 命中流，为null时只返回第一个原文
+     * @return this (链式调用)
+     */
+    public HashSearchProcessor setMatchStream(MatchStream matchStream) {
+        this.matchStream = matchStream;
+        if (javaProcessor instanceof JavaHashSearchProcessor) {
+            ((JavaHashSearchProcessor) javaProcessor).setMatchStream(matchStream);
+        } else if (javaProcessor instanceof HmacSearchProcessor) {
+            ((HmacSearchProcessor) javaProcessor).setMatchStream(matchStream);
+        }
+        return this;
+    }
+    
+    /**
+     * 确定找到的原文实际对应的哈希类型
+     * @param plaintext 搜索得到的原文
+     * @return 命中的哈希类型，只有一种类型或无法确定时返回构造时的哈希类型
+     */
+    public String getMatchedHashType(String plaintext) {
+        if (plaintext == null) {
+            return hashType;
+        }
+        byte[] bytes = plaintext.getBytes(StandardCharsets.UTF_8);
+        return getMatchedHashType(bytes, 0, bytes.length);
+    }
+    
+    /**
+     * 确定数据中一处命中实际对应的哈希类型
+     * @param data 数据
+     * @param start 原文的起始位置
+     * @param length 原文的字节数
+     * @return 命中的哈希类型，只有一种类型或无法确定时返回构造时的哈希类型
+     */
+    public String getMatchedHashType(byte[] data, int start, int length) {
+        if (hashType.indexOf(',') < 0) {
+            return hashType;
+        }
+        if (options.isHmac()) {
+            // HMAC只使用第一种类型
+            return hashType.substring(0, hashType.indexOf(','));
+        }
+        // 原生层只返回命中位置，用纯Java实现重新计算一次确定算法
+        JavaHashSearchProcessor resolver = javaProcessor instanceof JavaHashSearchProcessor
+                ? (JavaHashSearchProcessor) javaProcessor
+                : new JavaHashSearchProcessor(DigestTarget.parse(hashToCrack), hashType, options.getPrefix(),
+                        options.getSuffix(), DigestTransform.none(), null, null);
+        String matched = resolver.findMatchingType(data, start, length);
+        return matched != null ? matched : hashType;
+    }
+    
+    /**
+     * 需要时创建纯Java实现
+     */
+    private FileChunkProcessor createJavaProcessor(HashSearchOptions options) {
+        JavaSearchSession javaSession = session != null ? session.getJavaSession() : null;
+        switch (options.getMode()) {
+            case HMAC_KNOWN_MESSAGE:
+                return new HmacSearchProcessor(hashToCrack, hashType, HmacSearchProcessor.Mode.KNOWN_MESSAGE,
+                        options.getHmacKnownValue(), featureString, javaSession);
+            case HMAC_KNOWN_KEY:
+                return new HmacSearchProcessor(hashToCrack, hashType, HmacSearchProcessor.Mode.KNOWN_KEY,
+                        options.getHmacKnownValue(), featureString, javaSession);
+            default:
+                if (options.isPlainHash() && nativeHash != null && HashCryptoUtils.isNativeAvailable()
+                        && (session == null || !session.isJava())) {
+                    return null;
+                }
+                DigestTransform transform = DigestTransform.nested(options.getRounds(),
+                        DigestTransform.InnerEncoding.valueOf(options.getInnerEncoding().name()));
+                return new JavaHashSearchProcessor(DigestTarget.parse(hashToCrack), hashType, options.getPrefix(),
+                        options.getSuffix(), transform, featureString, javaSession);
+        }
     }
     
     @Override
     public String processChunk(byte[] data, int dataSize) {
+        return processChunk(data, dataSize, -1, -1);
+    }
+    
+    @Override
+    public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        ChunkResult result = processChunkResult(data, dataSize, fileIndex, fileOffset);
+        return result != null ? result.getResult() : null;
+    }
+    
+    @Override
+    public ChunkResult processChunkResult(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        if (javaProcessor != null) {
+            return javaProcessor.processChunkResult(data, dataSize, fileIndex, fileOffset);
+        }
+        
         // 如果提供了特征字符串，先检查数据是否包含该字符串
-        if (featureString != null && !featureString.isEmpty()) {
+        // 会话模式下由原生层统一检查并计入阶段指标，避免对同一块数据搜索两次
+        if (session == null && featureString != null && !featureString.isEmpty()) {
             boolean containsFeature = HashCryptoUtils.containsFeatureString(data, dataSize, featureString);
             if (!containsFeature) {
                 return null; // 不包含特征字符串，跳过
             }
         }
         
-        // 在数据中查找哈希值的原文
-        String result = HashCryptoUtils.findHashOriginal(data, dataSize, hashToCrack, hashType, featureString);
-        if (result != null) {
-            Log.d(TAG, "找到哈希值 " + hashToCrack + " 的原文: " + result);
+        // 在数据中查找哈希值的原文，原生层返回 [偏移, 长度] 对
+        MatchStream stream = matchStream;
+        boolean allMatches = stream != null && stream.isAllMatches();
+        int[] matches = HashCryptoUtils.findHashMatches(session != null ? session.getHandle() : 0, data, dataSize,
+                nativeHash, hashType, featureString, allMatches);
+        if (matches == null || matches.length < 2) {
+            return null;
+        }
+        MatchRecord first = null;
+        if (stream != null) {
+            for (int i = 0; i + 1 < matches.length; i += 2) {
+                long offset = fileOffset >= 0 ? fileOffset + matches[i] : -1;
+                MatchRecord record = stream.report(fileIndex, offset, data, matches[i], matches[i + 1],
+                        getMatchedHashType(data, matches[i], matches[i + 1]));
+                if (i == 0) {
+                    first = record;
+                }
+            }
+        }
+        if (allMatches) {
+            // 全部命中模式下不返回原文，引擎继续扫描剩余数据块
+            return null;
         }
-        return result;
+        String result = new String(data, matches[0], matches[1], StandardCharsets.UTF_8);
+        Log.d(TAG, "找到哈希值 " + hashToCrack + " 的原文: " + result);
+        return new ChunkResult(result, first);
     }
     
     @Override
     public String getName() {
-        return "HashSearch-" + hashType;
+        return javaProcessor != null ? javaProcessor.getName() : "HashSearch-" + hashType;
     }
 } 
\ No newline at end of file
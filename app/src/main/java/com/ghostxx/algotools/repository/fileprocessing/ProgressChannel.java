@@ -0,0 +1,169 @@
+package com.ghostxx.algotools.repository.fileprocessing;
+
+import android.util.Log;
+
+import com.ghostxx.algotools.domain.entity.ScanProgress;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节流的扫描进度通道
+ * 工作线程每处理完一个数据块只做一次原子更新，不再直接回调界面；
+ * 通道内的后台定时线程按固定频率（默认10Hz）汇总字节进度和原生会话计数，
+ * 计算平滑后的吞吐量和预计剩余时间，只在数据有变化时通知监听器。
+ * 关闭时会再发送一次最终快照。
+ */
+public class ProgressChannel implements FileProcessingEngine.ProgressCallback, Closeable {
+    private static final String TAG = "ProgressChannel";
+
+    // 默认通知间隔，即10Hz
+    public static final long DEFAULT_INTERVAL_MS = 100;
+    // 速度指数平滑系数，越大越灵敏
+    private static final double RATE_SMOOTHING = 0.3;
+
+    /**
+     * 进度监听器，在进度通道的后台线程中回调
+     */
+    public interface Listener {
+        void onProgress(ScanProgress progress);
+    }
+
+    private final SearchSession session;
+    private final Listener listener;
+    private final ScheduledExecutorService ticker;
+    private final AtomicLong bytesScanned = new AtomicLong(0);
+    private final AtomicLong totalBytes = new AtomicLong(0);
+    private final long startNanos = System.nanoTime();
+
+    // 以下字段只在持有this锁时访问
+    private final long[] counters = new long[SearchSession.COUNTER_COUNT];
+    private long lastTickNanos = startNanos;
+    private long lastBytes = -1;
+    private long lastCandidates = -1;
+    private long lastHashes = -1;
+    private double bytesRate;
+    private double hashRate;
+    private boolean closed;
+
+    /**
+     * 创建默认10Hz的进度通道
+     * @param session 搜索会话，用于读取候选数和哈希数，可以为null
+     * @param listener 进度监听器
+     */
+    public ProgressChannel(SearchSession session, Listener listener) {
+        this(session, listener, DEFAULT_INTERVAL_MS);
+    }
+
+    /**
+     * 创建进度通道
+     * @param session 搜索会话，用于读取候选数和哈希数，可以为null
+     * @param listener 进度监听器
+     * @param intervalMs 通知间隔（毫秒）
+     */
+    public ProgressChannel(SearchSession session, Listener listener, long intervalMs) {
+        this.session = session;
+        this.listener = listener;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ProgressChannel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录字节进度，由工作线程调用，只做原子更新
+     */
+    @Override
+    public void onProgressUpdate(long current, long total) {
+        updateMax(totalBytes, total);
+        updateMax(bytesScanned, current);
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdown();
+        try {
+            ticker.awaitTermination(DEFAULT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            emit(true);
+            closed = true;
+        }
+    }
+
+    private synchronized void tick() {
+        if (!closed) {
+            emit(false);
+        }
+    }
+
+    /**
+     * 汇总当前进度并通知监听器
+     * @param force 为true时即使没有变化也通知
+     */
+    private void emit(boolean force) {
+        long now = System.nanoTime();
+        long bytes = bytesScanned.get();
+        long total = totalBytes.get();
+        if (session != null) {
+            session.readCounters(counters);
+        }
+        long candidates = counters[SearchSession.COUNTER_CANDIDATES];
+        long hashes = counters[SearchSession.COUNTER_HASHES];
+
+        boolean changed = bytes != lastBytes || candidates != lastCandidates || hashes != lastHashes;
+        if (!changed && !force) {
+            return;
+        }
+
+        double seconds = (now - lastTickNanos) / 1e9;
+        if (seconds > 0 && lastBytes >= 0) {
+            bytesRate = smooth(bytesRate, (bytes - lastBytes) / seconds);
+            hashRate = smooth(hashRate, (hashes - lastHashes) / seconds);
+        }
+        lastTickNanos = now;
+        lastBytes = bytes;
+        lastCandidates = candidates;
+        lastHashes = hashes;
+
+        long etaMs = -1;
+        if (bytesRate > 0 && total >= bytes) {
+            etaMs = (long) ((total - bytes) / bytesRate * 1000);
+        }
+
+        ScanProgress progress = new ScanProgress(bytes, total, (now - startNanos) / 1000000,
+                bytesRate, candidates, hashes, hashRate, etaMs);
+        try {
+            listener.onProgress(progress);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "进度监听器出错", e);
+        }
+    }
+
+    private static double smooth(double previous, double sample) {
+        if (previous <= 0) {
+            return sample;
+        }
+        return previous + RATE_SMOOTHING * (sample - previous);
+    }
+
+    private static void updateMax(AtomicLong target, long value) {
+        long current;
+        while (value > (current = target.get())) {
+            if (target.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.ghostxx.algotools.repository.fileprocessing;
+
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
+import com.ghostxx.algotools.domain.entity.ScanMetrics;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+import com.ghostxx.algotools.engine.hash.JavaSearchSession;
+import com.ghostxx.algotools.utils.HashCryptoUtils;
+
+import java.io.Closeable;
+
+/**
+ * 搜索会话
+ * 一次搜索任务（可能跨多个转储）共用一个会话，会话内的候选字符串去重集合让
+ * 在多个数据块或多个转储中重复出现的字符串只计算一次哈希。
+ * 原生库不可用时会话由纯Java的 {@link JavaSearchSession} 实现，计数布局保持一致。
+ */
+public class SearchSession implements Closeable {
+    // 默认去重上限：约400万条指纹，原生内存占用不超过64MB
+    public static final int DEFAULT_MAX_DEDUP_ENTRIES = 4 * 1024 * 1024;
+    // 计数数组下标，与原生层 SearchSessionCounter 保持一致
+    // 已提取的候选字符串数
+    public static final int COUNTER_CANDIDATES = 0;
+    // 已计算的哈希数
+    public static final int COUNTER_HASHES = 1;
+    // 去重跳过的候选数
+    public static final int COUNTER_DEDUP_SKIPPED = 2;
+    // 特征字符串搜索耗时（纳秒）
+    public static final int COUNTER_FEATURE_SEARCH_NANOS = 3;
+    // 可打印字符串提取耗时（纳秒）
+    public static final int COUNTER_EXTRACT_NANOS = 4;
+    // 去重与哈希计算耗时（纳秒）
+    public static final int COUNTER_HASH_NANOS = 5;
+    // 传入原生层的字节数
+    public static final int COUNTER_BYTES_SEARCHED = 6;
+    // 因不含特征字符串而跳过的字节数
+    public static final int COUNTER_BYTES_SKIPPED_BY_FEATURE = 7;
+    // 计数数组长度
+    public static final int COUNTER_COUNT = 8;
+
+    private long handle;
+    private final JavaSearchSession javaSession;
+
+    private SearchSession(long handle, JavaSearchSession javaSession) {
+        this.handle = handle;
+        this.javaSession = javaSession;
+    }
+
+    /**
+     * 创建带候选去重的搜索会话
+     */
+    public static SearchSession create() {
+        return create(DEFAULT_MAX_DEDUP_ENTRIES);
+    }
+
+    /**
+     * 创建搜索会话
+     * @param maxDedupEntries 去重集合的最大条目数，0表示不去重
+     */
+    public static SearchSession create(int maxDedupEntries) {
+        if (!HashCryptoUtils.isNativeAvailable()) {
+            return new SearchSession(0, new JavaSearchSession(maxDedupEntries));
+        }
+        return new SearchSession(HashCryptoUtils.createSearchSession(maxDedupEntries), null);
+    }
+
+    /**
+     * 按目标值和搜索选项创建会话：原生层无法比较的目标值（如截断的摘要）和搜索模式使用纯Java会话
+     * @param hash 目标值
+     * @param hashType 哈希类型
+     * @param options 搜索选项
+     */
+    public static SearchSession create(String hash, String hashType, HashSearchOptions options) {
+        return HashSearchProcessor.requiresJavaEngine(hash, hashType, options)
+                ? createJava(DEFAULT_MAX_DEDUP_ENTRIES) : create();
+    }
+
+    /**
+     * 创建纯Java搜索会话，用于原生层不支持的搜索模式（如HMAC）
+     * @param maxDedupEntries 去重集合的最大条目数，0表示不去重
+     */
+    public static SearchSession createJava(int maxDedupEntries) {
+        return new SearchSession(0, new JavaSearchSession(maxDedupEntries));
+    }
+
+    /**
+     * 是否为纯Java会话
+     */
+    public boolean isJava() {
+        return javaSession != null;
+    }
+
+    /**
+     * 获取纯Java会话，原生会话返回null
+     */
+    public JavaSearchSession getJavaSession() {
+        return javaSession;
+    }
+
+    /**
+     * 获取原生会话句柄
+     */
+    public synchronized long getHandle() {
+        if (handle == 0) {
+            throw new IllegalStateException("搜索会话已关闭");
+        }
+        return handle;
+    }
+
+    /**
+     * 读取会话的累计计数，会话已关闭时保持数组不变
+     * @param counters 长度至少为 {@link #COUNTER_COUNT} 的输出数组
+     */
+    public synchronized void readCounters(long[] counters) {
+        if (javaSession != null) {
+            counters[COUNTER_CANDIDATES] = javaSession.getCandidates();
+            counters[COUNTER_HASHES] = javaSession.getHashesComputed();
+            counters[COUNTER_DEDUP_SKIPPED] = javaSession.getDedupSkipped();
+            counters[COUNTER_FEATURE_SEARCH_NANOS] = javaSession.getFeatureSearchNanos();
+            counters[COUNTER_EXTRACT_NANOS] = javaSession.getExtractNanos();
+            counters[COUNTER_HASH_NANOS] = javaSession.getHashNanos();
+            counters[COUNTER_BYTES_SEARCHED] = javaSession.getBytesSearched();
+            counters[COUNTER_BYTES_SKIPPED_BY_FEATURE] = javaSession.getBytesSkippedByFeature();
+        } else if (handle != 0) {
+            HashCryptoUtils.getSearchSessionCounters(handle, counters);
+        }
+    }
+
+    /**
+     * 合并引擎的运行统计和会话中的原生阶段计数，生成扫描指标
+     * @param runStats 引擎最近一次处理的运行统计
+     */
+    public ScanMetrics buildMetrics(FileProcessingEngine.RunStats runStats) {
+        return buildMetrics(runStats, 0);
+    }
+
+    /**
+     * 合并引擎的运行统计和会话中的原生阶段计数，生成扫描指标
+     * @param runStats 引擎最近一次处理的运行统计
+     * @param bytesSkippedByEntropy 熵图预筛选跳过的字节数
+     */
+    public ScanMetrics buildMetrics(FileProcessingEngine.RunStats runStats, long bytesSkippedByEntropy) {
+        long[] counters = new long[COUNTER_COUNT];
+        readCounters(counters);
+        
+        ScanMetrics.Builder builder = new ScanMetrics.Builder()
+                .setWallTimeNanos(runStats.getWallNanos())
+                .setBytesScanned(runStats.getBytesProcessed())
+                .setChunks(runStats.getChunks())
+                .setIoNanos(runStats.getIoNanos())
+                .setProcessNanos(runStats.getProcessNanos())
+                .setFeatureSearchNanos(counters[COUNTER_FEATURE_SEARCH_NANOS])
+                .setExtractNanos(counters[COUNTER_EXTRACT_NANOS])
+                .setHashNanos(counters[COUNTER_HASH_NANOS])
+                .setBytesSkippedByFeature(counters[COUNTER_BYTES_SKIPPED_BY_FEATURE])
+                .setBytesSkippedByEntropy(bytesSkippedByEntropy)
+                .setCandidates(counters[COUNTER_CANDIDATES])
+                .setHashesComputed(counters[COUNTER_HASHES])
+                .setDedupSkipped(counters[COUNTER_DEDUP_SKIPPED]);
+        for (FileProcessingEngine.WorkerStats worker : runStats.getWorkers()) {
+            builder.addThread(new ScanMetrics.ThreadMetrics(worker.getThreadName(), worker.getBusyNanos(),
+                    Math.max(0, runStats.getWallNanos() - worker.getBusyNanos()), worker.getChunks()));
+        }
+        // 预读线程的空闲时间是等待工作线程归还缓冲区的时间，几乎没有空闲说明扫描受I/O限制
+        FileProcessingEngine.WorkerStats reader = runStats.getReader();
+        if (reader != null) {
+            builder.addThread(new ScanMetrics.ThreadMetrics(reader.getThreadName(), reader.getBusyNanos(),
+                    Math.max(0, runStats.getWallNanos() - reader.getBusyNanos()), reader.getChunks()));
+        }
+        return builder.build();
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (handle != 0) {
+            HashCryptoUtils.releaseSearchSession(handle);
+            handle = 0;
+        }
+    }
+} 
\ No newline at end of file
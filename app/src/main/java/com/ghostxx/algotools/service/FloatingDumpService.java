@@ -2,18 +2,17 @@ package com.ghostxx.algotools.service;
 
 import android.app.Service;
 import android.content.Intent;
-import android.os.Environment;
-import android.os.Handler;
 import android.os.IBinder;
-import android.os.Looper;
 import android.util.Log;
 import android.widget.Toast;
 import androidx.annotation.Nullable;
 import com.ghostxx.algotools.MainActivity;
+import com.ghostxx.algotools.common.di.ServiceLocator;
+import com.ghostxx.algotools.domain.entity.AppProcess;
+import com.ghostxx.algotools.domain.entity.MemoryDump;
+import com.ghostxx.algotools.domain.repository.MemoryDumpRepository;
 import com.ghostxx.algotools.model.AppInfo;
 import com.ghostxx.algotools.utils.ToolsManager;
-import java.io.File;
-import java.io.IOException;
 
 /**
  * 悬浮窗内存转储服务
@@ -28,9 +27,7 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
     private String lastLoggedPackageName = "";
     private int lastLoggedPid = -1;
     private boolean isServiceRunning = true;
-    private Handler refreshHandler;
-    private Runnable refreshRunnable;
-    private static final long REFRESH_INTERVAL_MS = 1500; // 1秒
+    private ForegroundAppScheduler foregroundScheduler;
     
     @Override
     public void onCreate() {
@@ -46,29 +43,8 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
         // 复制转储工具
         ToolsManager.copyDumpToolIfNeeded(this);
         
-        // 初始化并启动定时刷新
-        refreshHandler = new Handler(Looper.getMainLooper());
-        refreshRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (isServiceRunning) {
-                    AppInfo foregroundApp = processMonitor.getForegroundApp();
-                    if (foregroundApp != null) {
-                        String currentPackage = foregroundApp.getPackageName();
-                        int currentPid = foregroundApp.getPid();
-                        
-                        // 检查应用状态是否发生变化
-                        if (!currentPackage.equals(lastLoggedPackageName) || currentPid != lastLoggedPid) {
-                            lastLoggedPackageName = currentPackage;
-                            lastLoggedPid = currentPid;
-                            refreshForegroundApp();
-                        }
-                    }
-                    refreshHandler.postDelayed(this, REFRESH_INTERVAL_MS);
-                }
-            }
-        };
-        refreshHandler.post(refreshRunnable);
+        // 在后台线程中检测前台应用，只有变化时才回到主线程更新悬浮窗
+        startForegroundScheduler();
     }
     
     @Override
@@ -78,23 +54,27 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
             floatingWindowManager = new FloatingWindowManager(this, this);
             floatingWindowManager.createFloatingWindow();
         }
-        if (refreshHandler == null) { // 确保定时器也恢复
-            refreshHandler = new Handler(Looper.getMainLooper());
-            refreshRunnable = new Runnable() {
-                @Override
-                public void run() {
-                    if (isServiceRunning) {
-                        refreshForegroundApp();
-                        refreshHandler.postDelayed(this, REFRESH_INTERVAL_MS);
-                    }
-                }
-            };
-            refreshHandler.post(refreshRunnable);
+        if (foregroundScheduler == null) { // 确保检测调度器也恢复
+            startForegroundScheduler();
+        } else {
+            foregroundScheduler.requestRefresh();
         }
         
         return START_STICKY;
     }
     
+    /**
+     * 创建并启动前台应用检测调度器
+     */
+    private void startForegroundScheduler() {
+        foregroundScheduler = new ForegroundAppScheduler(this, processMonitor, app -> {
+            if (isServiceRunning) {
+                updateForegroundApp(app);
+            }
+        });
+        foregroundScheduler.start();
+    }
+    
     @Nullable
     @Override
     public IBinder onBind(Intent intent) {
@@ -113,26 +93,25 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
             floatingWindowManager = null;
         }
         
-        // 停止定时刷新
-        if (refreshHandler != null && refreshRunnable != null) {
-            refreshHandler.removeCallbacks(refreshRunnable);
+        // 停止前台应用检测
+        if (foregroundScheduler != null) {
+            foregroundScheduler.stop();
+            foregroundScheduler = null;
         }
         
         showToast("内存转储服务已停止", Toast.LENGTH_SHORT);
     }
     
     /**
-     * 刷新前台应用信息
+     * 根据检测结果更新前台应用信息（主线程调用）
+     * @param foregroundApp 前台应用，没有前台应用时为null
      */
-    private void refreshForegroundApp() {
+    private void updateForegroundApp(AppInfo foregroundApp) {
         try {
-            // 获取前台应用包名
-            String packageName = processMonitor.getForegroundAppPackageName();
-            
-            if (packageName != null && !packageName.isEmpty()) {
-                // 获取应用PID
-                int pid = processMonitor.getPidByPackageName(packageName);
-                String appName = processMonitor.getAppName(packageName); // 获取应用名，即使PID获取失败也显示应用名
+            if (foregroundApp != null) {
+                String packageName = foregroundApp.getPackageName();
+                int pid = foregroundApp.getPid();
+                String appName = foregroundApp.getAppName(); // 即使PID获取失败也显示应用名
                 
                 if (pid > 0) {
                     // 更新当前应用信息
@@ -184,6 +163,9 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
     public void onDumpButtonClicked() {
         if (currentApp == null || currentApp.getPid() <= 0) {
             showToast("没有有效的应用信息，请等待自动刷新", Toast.LENGTH_SHORT);
+            if (foregroundScheduler != null) {
+                foregroundScheduler.requestRefresh();
+            }
             if (floatingWindowManager != null) {
                 floatingWindowManager.ensureExpanded(); // 即使没有PID，也展开日志区显示提示
                 floatingWindowManager.appendLog("无法转储：无有效应用或PID");
@@ -197,23 +179,22 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
             floatingWindowManager.appendLog("开始转储 " + currentApp.getAppName() + " (PID: " + currentApp.getPid() + ") 的内存...");
         }
         
-        // 执行内存转储
+        // 执行内存转储，转储期间暂停前台应用检测
+        final AppInfo targetApp = currentApp;
+        final ForegroundAppScheduler scheduler = foregroundScheduler;
+        if (scheduler != null) {
+            scheduler.setPaused(true);
+        }
         new Thread(() -> {
             try {
-                // 使用固定的文件名
-                String fileName = "memory_dump.bin";
-                File outputDir = new File(Environment.getExternalStorageDirectory(), "AlgoTools/dumps");
-                if (!outputDir.exists()) {
-                    outputDir.mkdirs();
-                }
-                String outputPath = new File(outputDir, fileName).getAbsolutePath();
-                
-                // 执行转储
-                final String result = ToolsManager.dumpProcessMemoryByPid(
-                        FloatingDumpService.this, 
-                        currentApp.getPid(), 
-                        outputPath
-                );
+                // 通过转储仓库执行，转储会以独立文件保存并登记到转储目录
+                MemoryDumpRepository dumpRepository =
+                        ServiceLocator.getInstance(FloatingDumpService.this).getMemoryDumpRepository();
+                MemoryDump dump = dumpRepository.dumpProcessMemory(new AppProcess(
+                        targetApp.getPackageName(), targetApp.getPid(), targetApp.getAppName()));
+                final String result = dump != null
+                        ? "内存转储成功: " + dump.getFilePath()
+                        : "内存转储失败，请查看日志";
                 
                 // 更新UI
                 runOnUiThread(() -> {
@@ -223,24 +204,10 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
                     showToast(result, Toast.LENGTH_LONG);
                     
                     // 如果转储成功，启动分析界面
-                    if (result.startsWith("内存转储成功")) {
-                        // 复制文件到应用私有目录
-                        File privateFile = new File(getExternalFilesDir(null), "memory_data.bin");
-                        try {
-                            java.nio.file.Files.copy(
-                                new File(outputPath).toPath(),
-                                privateFile.toPath(),
-                                java.nio.file.StandardCopyOption.REPLACE_EXISTING
-                            );
-                            
-                            // 启动分析界面
-                            Intent intent = new Intent(FloatingDumpService.this, MainActivity.class);
-                            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                            startActivity(intent);
-                        } catch (IOException e) {
-                            Log.e(TAG, "复制转储文件失败", e);
-                            showToast("复制转储文件失败: " + e.getMessage(), Toast.LENGTH_LONG);
-                        }
+                    if (dump != null) {
+                        Intent intent = new Intent(FloatingDumpService.this, MainActivity.class);
+                        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                        startActivity(intent);
                     }
                 });
             } catch (Exception e) {
@@ -253,6 +220,10 @@ public class FloatingDumpService extends Service implements FloatingWindowManage
                     }
                     showToast(errorMsg, Toast.LENGTH_LONG);
                 });
+            } finally {
+                if (scheduler != null) {
+                    scheduler.setPaused(false);
+                }
             }
         }).start();
     }
@@ -0,0 +1,223 @@
+package com.ghostxx.algotools.service;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.util.Log;
+
+import com.ghostxx.algotools.model.AppInfo;
+import com.ghostxx.algotools.service.processmonitor.ForegroundAccessibilityService;
+
+/**
+ * 前台应用轮询调度器
+ * 在独立的后台线程中检测前台应用，检测过程中的su/dumpsys等阻塞调用不会占用主线程。
+ * 前台应用没有变化时轮询间隔逐步拉长，发生变化或收到刷新请求时恢复到最短间隔；
+ * 屏幕关闭或调用方暂停（如正在转储内存）时停止轮询，恢复后立即检测一次；无障碍服务开启时窗口切换会立即触发检测。
+ * 多次刷新请求会合并为一次检测，只有检测结果真正变化时才通知主线程。
+ */
+public class ForegroundAppScheduler {
+    private static final String TAG = "ForegroundAppScheduler";
+
+    // 最短轮询间隔
+    private static final long MIN_INTERVAL_MS = 1000;
+    // 最长轮询间隔
+    private static final long MAX_INTERVAL_MS = 8000;
+    // 无变化时间隔的增长倍数
+    private static final float BACKOFF_FACTOR = 1.5f;
+
+    /**
+     * 前台应用变化监听器，在主线程回调
+     */
+    public interface Listener {
+        /**
+         * 前台应用发生变化
+         * @param app 新的前台应用，没有前台应用时为null
+         */
+        void onForegroundAppChanged(AppInfo app);
+    }
+
+    private final Context context;
+    private final ProcessMonitor processMonitor;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final HandlerThread pollThread;
+    private final Handler pollHandler;
+    private final Runnable pollRunnable = this::poll;
+
+    // 以下字段只在轮询线程中访问
+    private long currentIntervalMs = MIN_INTERVAL_MS;
+    private boolean screenOn = true;
+    private boolean paused;
+    private String lastPackageName;
+    private int lastPid;
+    private String lastAppName;
+    private boolean hasResult;
+
+    private volatile boolean stopped;
+
+    private final BroadcastReceiver screenReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final boolean on = Intent.ACTION_SCREEN_ON.equals(intent.getAction());
+            pollHandler.post(() -> onScreenStateChanged(on));
+        }
+    };
+
+    public ForegroundAppScheduler(Context context, ProcessMonitor processMonitor, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.processMonitor = processMonitor;
+        this.listener = listener;
+
+        pollThread = new HandlerThread("ForegroundPoller");
+        pollThread.start();
+        pollHandler = new Handler(pollThread.getLooper());
+    }
+
+    /**
+     * 开始轮询
+     */
+    public void start() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_SCREEN_ON);
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        context.registerReceiver(screenReceiver, filter);
+
+        // 无障碍服务检测到窗口切换时立即刷新
+        ForegroundAccessibilityService.setForegroundChangeListener(this::requestRefresh);
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        final boolean interactive = powerManager == null || powerManager.isInteractive();
+        pollHandler.post(() -> {
+            screenOn = interactive;
+            if (screenOn) {
+                pollHandler.post(pollRunnable);
+            }
+        });
+    }
+
+    /**
+     * 请求尽快检测一次前台应用
+     * 请求在轮询线程中排队，排队期间的多次请求只会触发一次检测，并把轮询间隔恢复到最短
+     */
+    public void requestRefresh() {
+        pollHandler.post(() -> {
+            if (stopped) {
+                return;
+            }
+            currentIntervalMs = MIN_INTERVAL_MS;
+            pollHandler.removeCallbacks(pollRunnable);
+            if (screenOn && !paused) {
+                pollHandler.post(pollRunnable);
+            }
+        });
+    }
+
+    /**
+     * 暂停或恢复轮询
+     * 内存转储期间暂停，避免检测前台应用的ROOT命令与转储争用，恢复后立即检测一次
+     * @param pause 是否暂停
+     */
+    public void setPaused(boolean pause) {
+        pollHandler.post(() -> {
+            if (stopped || paused == pause) {
+                return;
+            }
+            paused = pause;
+            pollHandler.removeCallbacks(pollRunnable);
+            if (!pause && screenOn) {
+                Log.d(TAG, "恢复轮询");
+                currentIntervalMs = MIN_INTERVAL_MS;
+                pollHandler.post(pollRunnable);
+            } else if (pause) {
+                Log.d(TAG, "暂停轮询");
+            }
+        });
+    }
+
+    /**
+     * 停止轮询并结束后台线程
+     */
+    public void stop() {
+        ForegroundAccessibilityService.setForegroundChangeListener(null);
+        try {
+            context.unregisterReceiver(screenReceiver);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "屏幕状态监听未注册");
+        }
+        stopped = true;
+        pollHandler.removeCallbacksAndMessages(null);
+        pollThread.quitSafely();
+    }
+
+    private void onScreenStateChanged(boolean on) {
+        if (stopped || screenOn == on) {
+            return;
+        }
+        screenOn = on;
+        pollHandler.removeCallbacks(pollRunnable);
+        if (on && !paused) {
+            Log.d(TAG, "屏幕已点亮，恢复轮询");
+            currentIntervalMs = MIN_INTERVAL_MS;
+            pollHandler.post(pollRunnable);
+        } else if (!on) {
+            Log.d(TAG, "屏幕已关闭，暂停轮询");
+        }
+    }
+
+    private void poll() {
+        if (stopped || !screenOn || paused) {
+            return;
+        }
+
+        AppInfo app = null;
+        try {
+            app = processMonitor.getForegroundApp();
+        } catch (Exception e) {
+            Log.e(TAG, "检测前台应用时出错: " + e.getMessage(), e);
+        }
+
+        if (stopped || paused) {
+            return;
+        }
+
+        if (isChanged(app)) {
+            rememberResult(app);
+            currentIntervalMs = MIN_INTERVAL_MS;
+            final AppInfo changedApp = app;
+            mainHandler.post(() -> {
+                if (!stopped) {
+                    listener.onForegroundAppChanged(changedApp);
+                }
+            });
+        } else {
+            currentIntervalMs = Math.min(MAX_INTERVAL_MS, (long) (currentIntervalMs * BACKOFF_FACTOR));
+        }
+
+        pollHandler.removeCallbacks(pollRunnable);
+        pollHandler.postDelayed(pollRunnable, currentIntervalMs);
+    }
+
+    private boolean isChanged(AppInfo app) {
+        if (!hasResult) {
+            return true;
+        }
+        if (app == null) {
+            return lastPackageName != null;
+        }
+        return !app.getPackageName().equals(lastPackageName)
+                || app.getPid() != lastPid
+                || !String.valueOf(app.getAppName()).equals(lastAppName);
+    }
+
+    private void rememberResult(AppInfo app) {
+        hasResult = true;
+        lastPackageName = app != null ? app.getPackageName() : null;
+        lastPid = app != null ? app.getPid() : -1;
+        lastAppName = app != null ? String.valueOf(app.getAppName()) : null;
+    }
+} 
\ No newline at end of file
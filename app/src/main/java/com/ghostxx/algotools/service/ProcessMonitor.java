@@ -7,9 +7,8 @@ import android.util.Log;
 
 import com.ghostxx.algotools.model.AppInfo;
 import com.ghostxx.algotools.service.processmonitor.ProcessDetector;
+import com.ghostxx.algotools.utils.RootShell;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -125,17 +124,6 @@ public class ProcessMonitor {
      * @return true如果有root权限，false如果没有
      */
     public boolean checkRootAccess() {
-        try {
-            java.lang.Process process = Runtime.getRuntime().exec("su -c id");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line = reader.readLine();
-            boolean hasRoot = line != null && line.contains("uid=0");
-            reader.close();
-            process.waitFor();
-            return hasRoot;
-        } catch (Exception e) {
-            Log.e(TAG, "Root检查失败: " + e.getMessage());
-            return false;
-        }
+        return RootShell.getInstance().isRootAvailable();
     }
 }
\ No newline at end of file
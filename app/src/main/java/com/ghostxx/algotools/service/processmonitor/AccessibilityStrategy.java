@@ -0,0 +1,80 @@
+package com.ghostxx.algotools.service.processmonitor;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.ghostxx.algotools.utils.ProcessTable;
+
+/**
+ * 基于无障碍服务检测前台应用的策略实现
+ * 前台包名由 {@link ForegroundAccessibilityService} 在窗口切换时实时更新，读取没有任何开销。
+ * 服务连接期间该策略的结果是权威的：前台是桌面或黑名单应用时直接返回“没有可用的前台应用”，
+ * 不再退回到dumpsys或使用情况统计。
+ * 前台应用的PID在第一次需要时从 {@link ProcessTable} 解析并按包名缓存，窗口切换时失效；
+ * 使用缓存前在进程表快照中确认该PID仍属于这个包，应用重启或pid被复用后会重新解析。
+ */
+public class AccessibilityStrategy implements ProcessDetectionStrategy {
+    private static final String TAG = "AccessibilityStrategy";
+    private Context context;
+    private PackageFilterManager packageFilterManager;
+
+    // PID缓存，窗口切换代数变化时失效
+    private String cachedPidPackage = "";
+    private int cachedPid = -1;
+    private int cachedPidGeneration;
+
+    @Override
+    public void init(Context context) {
+        this.context = context.getApplicationContext();
+        this.packageFilterManager = new PackageFilterManager();
+    }
+
+    @Override
+    public String getForegroundAppPackageName() {
+        String packageName = ForegroundAccessibilityService.getForegroundPackage();
+        if (packageName.isEmpty() || packageFilterManager.isBlacklisted(packageName)) {
+            return "";
+        }
+        return packageName;
+    }
+
+    @Override
+    public synchronized int getPidForPackage(String packageName) {
+        if (packageName == null || packageName.isEmpty()) {
+            return -1;
+        }
+        ProcessTable processTable = ProcessTable.getInstance(context);
+        int generation = ForegroundAccessibilityService.getWindowChangeGeneration();
+        if (cachedPid > 0 && packageName.equals(cachedPidPackage) && generation == cachedPidGeneration) {
+            ProcessTable.ProcessInfo process = processTable.getProcess(cachedPid);
+            if (process != null && packageName.equals(process.getPackageName())) {
+                return cachedPid;
+            }
+        }
+        cachedPidPackage = packageName;
+        cachedPidGeneration = generation;
+        cachedPid = processTable.getPid(packageName);
+        Log.d(TAG, "解析 " + packageName + " 的PID: " + cachedPid);
+        return cachedPid;
+    }
+
+    @Override
+    public boolean isAuthoritative() {
+        return true;
+    }
+
+    @Override
+    public int getPriority() {
+        return 0; // 可用时优先于其他所有策略
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return ForegroundAccessibilityService.isRunning();
+    }
+
+    @Override
+    public String getName() {
+        return "Accessibility";
+    }
+} 
\ No newline at end of file
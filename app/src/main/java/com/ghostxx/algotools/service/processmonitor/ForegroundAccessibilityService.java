@@ -0,0 +1,136 @@
+package com.ghostxx.algotools.service.processmonitor;
+
+import android.accessibilityservice.AccessibilityService;
+import android.content.ComponentName;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.util.Log;
+import android.view.accessibility.AccessibilityEvent;
+
+import com.ghostxx.algotools.utils.ProcessTable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 前台应用无障碍服务
+ * 监听 TYPE_WINDOW_STATE_CHANGED 事件，在Activity切换时立即记录新的前台应用包名，
+ * 供 {@link AccessibilityStrategy} 直接读取，不需要周期性地查询dumpsys或使用情况统计。
+ * 该服务是可选的，需要用户在系统设置中手动开启。
+ */
+public class ForegroundAccessibilityService extends AccessibilityService {
+    private static final String TAG = "ForegroundA11yService";
+
+    private static volatile boolean running = false;
+    private static volatile String foregroundPackage = "";
+    // Activity窗口切换的次数，用于让按前台应用缓存的数据失效
+    private static volatile int windowChangeGeneration;
+    private static volatile Runnable foregroundChangeListener;
+
+    // 窗口类名是否为Activity的缓存，过滤对话框、Toast等非Activity窗口
+    private final Map<String, Boolean> activityClassCache = new HashMap<>();
+
+    /**
+     * 服务是否已连接
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 获取最近一次切换到前台的应用包名，未知时返回空字符串
+     */
+    public static String getForegroundPackage() {
+        return foregroundPackage;
+    }
+
+    /**
+     * 获取Activity窗口切换的代数，每次切换（包括同一应用内的切换）加一
+     */
+    public static int getWindowChangeGeneration() {
+        return windowChangeGeneration;
+    }
+
+    /**
+     * 设置前台应用变化监听器，在无障碍事件线程（主线程）回调
+     * @param listener 监听器，传入null取消监听
+     */
+    public static void setForegroundChangeListener(Runnable listener) {
+        foregroundChangeListener = listener;
+    }
+
+    @Override
+    protected void onServiceConnected() {
+        super.onServiceConnected();
+        running = true;
+        Log.i(TAG, "无障碍服务已连接");
+    }
+
+    @Override
+    public void onAccessibilityEvent(AccessibilityEvent event) {
+        if (event == null || event.getEventType() != AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED) {
+            return;
+        }
+        CharSequence packageName = event.getPackageName();
+        CharSequence className = event.getClassName();
+        if (packageName == null || className == null) {
+            return;
+        }
+
+        String pkg = packageName.toString();
+        if (!isActivity(pkg, className.toString())) {
+            return;
+        }
+        // 只在事件线程中写入
+        windowChangeGeneration++;
+        if (pkg.equals(foregroundPackage)) {
+            return;
+        }
+
+        foregroundPackage = pkg;
+        Log.d(TAG, "前台应用切换: " + pkg);
+        ProcessTable.getInstance(this).requestRefresh();
+        Runnable listener = foregroundChangeListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public void onInterrupt() {
+        // 不提供反馈，无需处理
+    }
+
+    @Override
+    public boolean onUnbind(Intent intent) {
+        running = false;
+        foregroundPackage = "";
+        Log.i(TAG, "无障碍服务已断开");
+        return super.onUnbind(intent);
+    }
+
+    @Override
+    public void onDestroy() {
+        running = false;
+        foregroundPackage = "";
+        super.onDestroy();
+    }
+
+    /**
+     * 判断窗口类名是否对应一个Activity
+     */
+    private boolean isActivity(String packageName, String className) {
+        String key = packageName + "/" + className;
+        Boolean cached = activityClassCache.get(key);
+        if (cached == null) {
+            try {
+                getPackageManager().getActivityInfo(new ComponentName(packageName, className), 0);
+                cached = true;
+            } catch (PackageManager.NameNotFoundException e) {
+                cached = false;
+            }
+            activityClassCache.put(key, cached);
+        }
+        return cached;
+    }
+} 
\ No newline at end of file
@@ -19,6 +19,25 @@ public interface ProcessDetectionStrategy {
      */
     String getForegroundAppPackageName();
     
+    /**
+     * 获取该策略已知的应用PID（可选）
+     * 能够低成本提供PID的策略可以重写该方法，否则由ProcessDetector自行查询
+     * @param packageName 本策略返回的前台应用包名
+     * @return 应用PID，未知时返回-1
+     */
+    default int getPidForPackage(String packageName) {
+        return -1;
+    }
+    
+    /**
+     * 该策略可用时其结果是否为最终结果（可选）
+     * 权威策略没有返回前台应用时（如前台是桌面），ProcessDetector不再尝试优先级更低的策略
+     * @return 是否为权威策略，默认false
+     */
+    default boolean isAuthoritative() {
+        return false;
+    }
+    
     /**
      * 获取策略的优先级，数值越小优先级越高
      * @return 优先级值
@@ -6,6 +6,8 @@ import android.content.pm.PackageManager;
 import android.util.Log;
 
 import com.ghostxx.algotools.model.AppInfo;
+import com.ghostxx.algotools.utils.ProcessTable;
+import com.ghostxx.algotools.utils.RootShell;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -20,6 +22,8 @@ public class ProcessDetector {
     private final Context context;
     private final List<ProcessDetectionStrategy> strategies = new ArrayList<>();
     private final PackageFilterManager packageFilterManager = new PackageFilterManager();
+    // 最近一次成功获取前台应用的策略
+    private volatile ProcessDetectionStrategy lastMatchedStrategy;
 
     public ProcessDetector(Context context) {
         this.context = context.getApplicationContext();
@@ -31,6 +35,7 @@ public class ProcessDetector {
      */
     private void initStrategies() {
         // 添加所有可用的策略，并按照优先级排序
+        addStrategy(new AccessibilityStrategy());
         addStrategy(new UsageStatsStrategy());
         addStrategy(new ShellCommandStrategy());
         
@@ -46,8 +51,7 @@ public class ProcessDetector {
     private void addStrategy(ProcessDetectionStrategy strategy) {
         strategy.init(context);
         strategies.add(strategy);
-        Log.d(TAG, "已添加策略: " + strategy.getName() + ", 优先级: " + strategy.getPriority() + 
-              ", 可用: " + strategy.isAvailable());
+        Log.d(TAG, "已添加策略: " + strategy.getName() + ", 优先级: " + strategy.getPriority());
     }
 
     /**
@@ -60,7 +64,11 @@ public class ProcessDetector {
             return null;
         }
         
-        int pid = getPidByPackageName(packageName);
+        ProcessDetectionStrategy strategy = lastMatchedStrategy;
+        int pid = strategy != null ? strategy.getPidForPackage(packageName) : -1;
+        if (pid <= 0) {
+            pid = getPidByPackageName(packageName);
+        }
         String appName = getAppName(packageName);
         
         return new AppInfo(packageName, pid, appName);
@@ -78,12 +86,19 @@ public class ProcessDetector {
                 if (packageName != null && !packageName.isEmpty() && 
                     !packageFilterManager.isBlacklisted(packageName)) {
                     Log.d(TAG, "使用 " + strategy.getName() + " 策略成功获取前台应用: " + packageName);
+                    lastMatchedStrategy = strategy;
                     return packageName;
                 }
+                if (strategy.isAuthoritative()) {
+                    // 权威策略确认当前没有可用的前台应用（如位于桌面），不再使用开销更大的策略
+                    lastMatchedStrategy = null;
+                    return "";
+                }
             }
         }
         
         Log.d(TAG, "所有策略均未获取到有效前台应用");
+        lastMatchedStrategy = null;
         return "";
     }
 
@@ -97,55 +112,45 @@ public class ProcessDetector {
             return -1;
         }
         
-        try {
-            // 尝试使用Shell命令获取PID
-            java.lang.Process process = Runtime.getRuntime().exec("su -c ps -A | grep " + packageName);
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(process.getInputStream()));
-            String line;
-            int pid = -1;
-            
-            while ((line = reader.readLine()) != null) {
-                Log.d(TAG, "进程信息: " + line);
-                if (line.contains(packageName)) {
-                    // 解析ps命令输出的PID (第二列)
-                    String[] columns = line.trim().split("\\s+");
-                    if (columns.length >= 2) {
-                        try {
-                            pid = Integer.parseInt(columns[1]);
-                            break;
-                        } catch (NumberFormatException e) {
-                            Log.e(TAG, "解析PID时出错: " + e.getMessage(), e);
-                        }
+        // 优先从进程表缓存中查找
+        int cachedPid = ProcessTable.getInstance(context).getPid(packageName);
+        if (cachedPid > 0) {
+            Log.d(TAG, "从进程表获取到 " + packageName + " 的PID: " + cachedPid);
+            return cachedPid;
+        }
+        
+        RootShell rootShell = RootShell.getInstance();
+        
+        // 尝试使用Shell命令获取PID
+        RootShell.Result result = rootShell.exec("ps -A | grep " + packageName);
+        for (String line : result.getStdout().split("\n")) {
+            Log.d(TAG, "进程信息: " + line);
+            if (line.contains(packageName)) {
+                // 解析ps命令输出的PID (第二列)
+                String[] columns = line.trim().split("\\s+");
+                if (columns.length >= 2) {
+                    try {
+                        int pid = Integer.parseInt(columns[1]);
+                        Log.d(TAG, "获取到 " + packageName + " 的PID: " + pid);
+                        return pid;
+                    } catch (NumberFormatException e) {
+                        Log.e(TAG, "解析PID时出错: " + e.getMessage(), e);
                     }
                 }
             }
-            reader.close();
-            process.waitFor();
-            
-            if (pid > 0) {
-                Log.d(TAG, "获取到 " + packageName + " 的PID: " + pid);
+        }
+        
+        // 如果ps命令失败，尝试使用pidof命令
+        result = rootShell.exec("pidof " + packageName);
+        String output = result.getStdout().trim();
+        if (!output.isEmpty()) {
+            try {
+                int pid = Integer.parseInt(output.split("\\s+")[0]);
+                Log.d(TAG, "使用pidof获取到 " + packageName + " 的PID: " + pid);
                 return pid;
+            } catch (NumberFormatException e) {
+                Log.e(TAG, "解析pidof输出时出错: " + e.getMessage(), e);
             }
-            
-            // 如果ps命令失败，尝试使用pidof命令
-            process = Runtime.getRuntime().exec("su -c pidof " + packageName);
-            reader = new java.io.BufferedReader(new java.io.InputStreamReader(process.getInputStream()));
-            line = reader.readLine();
-            reader.close();
-            process.waitFor();
-            
-            if (line != null && !line.isEmpty()) {
-                try {
-                    pid = Integer.parseInt(line.trim());
-                    Log.d(TAG, "使用pidof获取到 " + packageName + " 的PID: " + pid);
-                    return pid;
-                } catch (NumberFormatException e) {
-                    Log.e(TAG, "解析pidof输出时出错: " + e.getMessage(), e);
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "获取PID时出错: " + e.getMessage(), e);
         }
         
         Log.d(TAG, "未能获取 " + packageName + " 的PID");
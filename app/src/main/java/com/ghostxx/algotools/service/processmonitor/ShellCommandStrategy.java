@@ -3,8 +3,7 @@ package com.ghostxx.algotools.service.processmonitor;
 import android.content.Context;
 import android.util.Log;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import com.ghostxx.algotools.utils.RootShell;
 
 /**
  * 使用Shell命令检测前台应用的策略实现
@@ -13,18 +12,17 @@ public class ShellCommandStrategy implements ProcessDetectionStrategy {
     private static final String TAG = "ShellCommandStrategy";
     private Context context;
     private PackageFilterManager packageFilterManager;
-    private boolean hasRootAccess = false;
 
     @Override
     public void init(Context context) {
         this.context = context.getApplicationContext();
         this.packageFilterManager = new PackageFilterManager();
-        this.hasRootAccess = checkRootAccess();
+        // ROOT权限在后台线程中检查，避免在初始化线程或轮询线程上等待su授权
     }
 
     @Override
     public String getForegroundAppPackageName() {
-        if (!hasRootAccess) {
+        if (!checkRootAccess()) {
             Log.d(TAG, "无ROOT权限，Shell命令策略不可用");
             return "";
         }
@@ -56,7 +54,7 @@ public class ShellCommandStrategy implements ProcessDetectionStrategy {
 
     @Override
     public boolean isAvailable() {
-        return hasRootAccess;
+        return checkRootAccess();
     }
 
     @Override
@@ -68,40 +66,35 @@ public class ShellCommandStrategy implements ProcessDetectionStrategy {
      * 使用 "dumpsys window windows" 命令获取前台应用包名
      */
     private String getPackageNameUsingWindowDumpsys() {
-        try {
-            java.lang.Process process = Runtime.getRuntime().exec("su -c dumpsys window windows | grep -E 'mCurrentFocus|mFocusedApp'");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("mCurrentFocus") || line.contains("mFocusedApp")) {
-                    Log.d(TAG, "窗口焦点信息: " + line);
-                    String extractedPart = ""; // 当前行提取到的非黑名单包名
-                    if (line.contains("/")) {
-                        String[] parts = line.split("/")[0].split(" ");
-                        for (String part : parts) {
-                            if (part.contains(".")) { // 基础检查，判断是否像包名
-                                if (!packageFilterManager.isBlacklisted(part)) {
-                                    extractedPart = part;
-                                    Log.d(TAG, "Window dumpsys提取到候选包名: " + extractedPart);
-                                    break; // 找到一个非黑名单的，跳出内层循环
-                                } else {
-                                    Log.d(TAG, "Window dumpsys提取到的包名在黑名单中: " + part);
-                                }
+        RootShell.Result result = RootShell.getInstance()
+                .exec("dumpsys window windows | grep -E 'mCurrentFocus|mFocusedApp'");
+        if (result.getExitCode() < 0) {
+            Log.e(TAG, "使用window dumpsys获取前台应用出错: " + result.getStderr());
+            return "";
+        }
+
+        for (String line : result.getStdout().split("\n")) {
+            if (line.contains("mCurrentFocus") || line.contains("mFocusedApp")) {
+                Log.d(TAG, "窗口焦点信息: " + line);
+                String extractedPart = ""; // 当前行提取到的非黑名单包名
+                if (line.contains("/")) {
+                    String[] parts = line.split("/")[0].split(" ");
+                    for (String part : parts) {
+                        if (part.contains(".")) { // 基础检查，判断是否像包名
+                            if (!packageFilterManager.isBlacklisted(part)) {
+                                extractedPart = part;
+                                Log.d(TAG, "Window dumpsys提取到候选包名: " + extractedPart);
+                                break; // 找到一个非黑名单的，跳出内层循环
+                            } else {
+                                Log.d(TAG, "Window dumpsys提取到的包名在黑名单中: " + part);
                             }
                         }
                     }
-                    if (!extractedPart.isEmpty()) {
-                        reader.close();
-                        process.waitFor();
-                        return extractedPart;
-                    }
+                }
+                if (!extractedPart.isEmpty()) {
+                    return extractedPart;
                 }
             }
-            reader.close();
-            process.waitFor();
-        } catch (Exception e) {
-            Log.e(TAG, "使用window dumpsys获取前台应用出错: " + e.getMessage(), e);
         }
         return "";
     }
@@ -110,37 +103,27 @@ public class ShellCommandStrategy implements ProcessDetectionStrategy {
      * 使用 "dumpsys activity recents" 命令获取前台应用包名
      */
     private String getPackageNameUsingRecentsDumpsys() {
-        try {
-            Log.d(TAG, "尝试使用dumpsys recents获取前台应用");
-            java.lang.Process process = Runtime.getRuntime().exec("su -c dumpsys activity recents | grep 'Recent #0' -A2");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-            String tempCandidate = null;
-
-            while ((line = reader.readLine()) != null) {
-                Log.d(TAG, "近期任务信息: " + line);
-                if (line.contains(" packageName=")) {
-                    String[] parts = line.trim().split("packageName=");
-                    if (parts.length > 1) {
-                        String extractedPkg = parts[1].split(" ")[0];
-                        if (!packageFilterManager.isBlacklisted(extractedPkg)) {
-                            tempCandidate = extractedPkg;
-                            Log.d(TAG, "Recents dumpsys提取到候选包名: " + tempCandidate);
-                            break; // 找到非黑名单包，跳出循环
-                        } else {
-                            Log.d(TAG, "Recents dumpsys提取到的包名在黑名单中: " + extractedPkg);
-                        }
+        Log.d(TAG, "尝试使用dumpsys recents获取前台应用");
+        RootShell.Result result = RootShell.getInstance().exec("dumpsys activity recents | grep 'Recent #0' -A2");
+        if (result.getExitCode() < 0) {
+            Log.e(TAG, "使用recents dumpsys获取前台应用出错: " + result.getStderr());
+            return "";
+        }
+
+        for (String line : result.getStdout().split("\n")) {
+            Log.d(TAG, "近期任务信息: " + line);
+            if (line.contains(" packageName=")) {
+                String[] parts = line.trim().split("packageName=");
+                if (parts.length > 1) {
+                    String extractedPkg = parts[1].split(" ")[0];
+                    if (!packageFilterManager.isBlacklisted(extractedPkg)) {
+                        Log.d(TAG, "Recents dumpsys提取到候选包名: " + extractedPkg);
+                        return extractedPkg; // 找到非黑名单包
+                    } else {
+                        Log.d(TAG, "Recents dumpsys提取到的包名在黑名单中: " + extractedPkg);
                     }
                 }
             }
-            reader.close();
-            process.waitFor();
-
-            if (tempCandidate != null && !tempCandidate.isEmpty()) {
-                return tempCandidate;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "使用recents dumpsys获取前台应用出错: " + e.getMessage(), e);
         }
         return "";
     }
@@ -149,57 +132,38 @@ public class ShellCommandStrategy implements ProcessDetectionStrategy {
      * 使用 "dumpsys activity activities" 命令获取前台应用包名
      */
     private String getPackageNameUsingActivitiesDumpsys() {
-        try {
-            Log.d(TAG, "尝试使用dumpsys activities获取前台应用");
-            java.lang.Process process = Runtime.getRuntime().exec("su -c dumpsys activity activities | grep mResumedActivity");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line = reader.readLine(); // 此命令通常只关心第一行输出
-            String tempCandidate = null;
-            
-            if (line != null) {
-                Log.d(TAG, "已恢复活动信息: " + line);
-                if (line.contains(" ")) {
-                    String[] segments = line.split("\\s+");
-                    for (String segment : segments) {
-                        if (segment.contains("/") && segment.contains(".")) {
-                            String extractedPkg = segment.split("/")[0];
-                            if (!packageFilterManager.isBlacklisted(extractedPkg)) {
-                                tempCandidate = extractedPkg;
-                                Log.d(TAG, "Activities dumpsys提取到候选包名: " + tempCandidate);
-                                break;
-                            } else {
-                                Log.d(TAG, "Activities dumpsys提取到的包名在黑名单中: " + extractedPkg);
-                            }
+        Log.d(TAG, "尝试使用dumpsys activities获取前台应用");
+        RootShell.Result result = RootShell.getInstance().exec("dumpsys activity activities | grep mResumedActivity");
+        if (result.getExitCode() < 0) {
+            Log.e(TAG, "使用activities dumpsys获取前台应用出错: " + result.getStderr());
+            return "";
+        }
+
+        String line = result.getStdout().split("\n")[0]; // 此命令通常只关心第一行输出
+        if (!line.isEmpty()) {
+            Log.d(TAG, "已恢复活动信息: " + line);
+            if (line.contains(" ")) {
+                String[] segments = line.split("\\s+");
+                for (String segment : segments) {
+                    if (segment.contains("/") && segment.contains(".")) {
+                        String extractedPkg = segment.split("/")[0];
+                        if (!packageFilterManager.isBlacklisted(extractedPkg)) {
+                            Log.d(TAG, "Activities dumpsys提取到候选包名: " + extractedPkg);
+                            return extractedPkg;
+                        } else {
+                            Log.d(TAG, "Activities dumpsys提取到的包名在黑名单中: " + extractedPkg);
                         }
                     }
                 }
             }
-            reader.close();
-            process.waitFor();
-            
-            if (tempCandidate != null && !tempCandidate.isEmpty()) {
-                return tempCandidate;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "使用activities dumpsys获取前台应用出错: " + e.getMessage(), e);
         }
         return "";
     }
 
     /**
-     * 检查是否有ROOT权限
+     * 检查是否有ROOT权限，只读取缓存的结果，尚未确认时在后台检查并返回false
      */
     private boolean checkRootAccess() {
-        try {
-            java.lang.Process process = Runtime.getRuntime().exec("su -c id");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String output = reader.readLine();
-            reader.close();
-            process.waitFor();
-            return output != null && output.contains("uid=0");
-        } catch (Exception e) {
-            Log.e(TAG, "检查ROOT权限时出错: " + e.getMessage(), e);
-            return false;
-        }
+        return RootShell.getInstance().isRootAvailableCached();
     }
 } 
\ No newline at end of file
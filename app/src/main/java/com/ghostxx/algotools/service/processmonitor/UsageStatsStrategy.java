@@ -1,6 +1,7 @@
 package com.ghostxx.algotools.service.processmonitor;
 
 import android.app.AppOpsManager;
+import android.app.usage.UsageEvents;
 import android.app.usage.UsageStats;
 import android.app.usage.UsageStatsManager;
 import android.content.Context;
@@ -9,16 +10,29 @@ import android.os.Process;
 import android.util.Log;
 
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 /**
  * 使用UsageStats API检测前台应用的策略实现
+ * 基于UsageEvents增量查询：记录查询游标，每次只处理游标之后的新切换事件，
+ * 开销与新事件数量成正比，而不是与当天使用过的应用数量成正比。
  */
 public class UsageStatsStrategy implements ProcessDetectionStrategy {
     private static final String TAG = "UsageStatsStrategy";
+    // ACTIVITY_RESUMED（API 29前为MOVE_TO_FOREGROUND，取值相同）
+    private static final int EVENT_ACTIVITY_RESUMED = 1;
+    // 首次查询时回溯的时间范围
+    private static final long INITIAL_LOOKBACK_MS = 10 * 60 * 1000;
+    // 每次查询重新覆盖的时间窗口，用于容纳写入稍有延迟的事件
+    private static final long LATE_EVENT_WINDOW_MS = 2000;
+    
     private Context context;
     private PackageFilterManager packageFilterManager;
+    
+    // 增量查询状态
+    private final UsageEvents.Event event = new UsageEvents.Event();
+    private long queryCursor;
+    private String foregroundPackage = "";
+    private String lastReportedPackage = "";
 
     @Override
     public void init(Context context) {
@@ -27,50 +41,78 @@ public class UsageStatsStrategy implements ProcessDetectionStrategy {
     }
 
     @Override
-    public String getForegroundAppPackageName() {
+    public synchronized String getForegroundAppPackageName() {
         try {
-            UsageStatsManager usageStatsManager = (UsageStatsManager) context.getSystemService(Context.USAGE_STATS_SERVICE);
-            long currentTime = System.currentTimeMillis();
-            // 获取最近1分钟的应用使用情况
-            long startTime = currentTime - 60 * 1000;
-            
             // 检查是否有权限访问使用情况统计
             if (!hasUsageStatsPermission()) {
                 Log.d(TAG, "没有使用情况统计权限，无法使用UsageStats API");
                 return "";
             }
             
-            List<UsageStats> queryUsageStats = usageStatsManager.queryUsageStats(
-                    UsageStatsManager.INTERVAL_DAILY, startTime, currentTime);
+            UsageStatsManager usageStatsManager = (UsageStatsManager) context.getSystemService(Context.USAGE_STATS_SERVICE);
+            long currentTime = System.currentTimeMillis();
+            boolean firstPoll = queryCursor == 0;
+            long beginTime = firstPoll ? currentTime - INITIAL_LOOKBACK_MS : queryCursor;
             
-            if (queryUsageStats == null || queryUsageStats.isEmpty()) {
-                Log.d(TAG, "未获取到使用情况统计数据");
-                return "";
+            // 只处理游标之后的新事件
+            UsageEvents events = usageStatsManager.queryEvents(beginTime, currentTime);
+            int eventCount = 0;
+            while (events != null && events.hasNextEvent()) {
+                events.getNextEvent(event);
+                eventCount++;
+                if (event.getEventType() == EVENT_ACTIVITY_RESUMED) {
+                    foregroundPackage = event.getPackageName();
+                }
             }
+            // 保留一小段时间窗口，容纳写入稍有延迟的事件
+            queryCursor = Math.max(beginTime, currentTime - LATE_EVENT_WINDOW_MS);
             
-            // 找出最近使用的应用
-            SortedMap<Long, UsageStats> sortedMap = new TreeMap<>();
-            for (UsageStats usageStats : queryUsageStats) {
-                sortedMap.put(usageStats.getLastTimeUsed(), usageStats);
+            if (firstPoll && foregroundPackage.isEmpty()) {
+                // 回溯时间内没有切换事件，退回到按最近使用时间查找一次
+                foregroundPackage = queryMostRecentlyUsed(usageStatsManager, currentTime);
             }
             
-            if (!sortedMap.isEmpty()) {
-                UsageStats recentStats = sortedMap.get(sortedMap.lastKey());
-                if (recentStats != null) {
-                    String packageName = recentStats.getPackageName();
-                    if (!packageFilterManager.isBlacklisted(packageName)) {
-                        Log.d(TAG, "使用UsageStats找到前台应用: " + packageName);
-                        return packageName;
-                    } else {
-                        Log.d(TAG, "使用UsageStats找到的应用在黑名单中: " + packageName);
-                    }
-                }
+            if (!foregroundPackage.equals(lastReportedPackage)) {
+                Log.d(TAG, "使用UsageEvents找到前台应用: " + foregroundPackage + " (处理 " + eventCount + " 个事件)");
+                lastReportedPackage = foregroundPackage;
             }
+            
+            if (foregroundPackage.isEmpty()) {
+                return "";
+            }
+            if (packageFilterManager.isBlacklisted(foregroundPackage)) {
+                Log.d(TAG, "使用UsageEvents找到的应用在黑名单中: " + foregroundPackage);
+                return "";
+            }
+            return foregroundPackage;
         } catch (Exception e) {
-            Log.e(TAG, "使用UsageStats获取前台应用时出错: " + e.getMessage(), e);
+            Log.e(TAG, "使用UsageEvents获取前台应用时出错: " + e.getMessage(), e);
         }
         return "";
     }
+    
+    /**
+     * 按最近使用时间查找前台应用，仅在首次查询且没有切换事件时使用
+     */
+    private String queryMostRecentlyUsed(UsageStatsManager usageStatsManager, long currentTime) {
+        // 获取最近1分钟的应用使用情况
+        List<UsageStats> queryUsageStats = usageStatsManager.queryUsageStats(
+                UsageStatsManager.INTERVAL_DAILY, currentTime - 60 * 1000, currentTime);
+        
+        if (queryUsageStats == null || queryUsageStats.isEmpty()) {
+            Log.d(TAG, "未获取到使用情况统计数据");
+            return "";
+        }
+        
+        // 找出最近使用的应用
+        UsageStats recentStats = null;
+        for (UsageStats usageStats : queryUsageStats) {
+            if (recentStats == null || usageStats.getLastTimeUsed() > recentStats.getLastTimeUsed()) {
+                recentStats = usageStats;
+            }
+        }
+        return recentStats != null ? recentStats.getPackageName() : "";
+    }
 
     @Override
     public int getPriority() {
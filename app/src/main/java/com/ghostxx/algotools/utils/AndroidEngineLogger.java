@@ -0,0 +1,40 @@
+package com.ghostxx.algotools.utils;
+
+import android.util.Log;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+/**
+ * 把引擎模块的日志转发到logcat
+ */
+public final class AndroidEngineLogger implements EngineLog.Logger {
+    private static volatile boolean installed;
+
+    private AndroidEngineLogger() {
+    }
+
+    /**
+     * 安装为引擎日志输出，可重复调用
+     */
+    public static void install() {
+        if (!installed) {
+            EngineLog.setLogger(new AndroidEngineLogger());
+            installed = true;
+        }
+    }
+
+    @Override
+    public void d(String tag, String message) {
+        Log.d(tag, message);
+    }
+
+    @Override
+    public void w(String tag, String message, Throwable throwable) {
+        Log.w(tag, message, throwable);
+    }
+
+    @Override
+    public void e(String tag, String message, Throwable throwable) {
+        Log.e(tag, message, throwable);
+    }
+} 
\ No newline at end of file
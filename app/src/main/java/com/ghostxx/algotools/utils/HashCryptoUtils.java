@@ -2,20 +2,36 @@ package com.ghostxx.algotools.utils;
 
 import android.util.Log;
 
+import com.ghostxx.algotools.engine.hash.DigestTarget;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
 
 public class HashCryptoUtils {
     private static final String TAG = "HashCryptoUtils";
+    // 原生库是否加载成功，失败时哈希搜索改用纯Java实现
+    private static final boolean NATIVE_LOADED;
     
     static {
+        boolean loaded = false;
         try {
-        System.loadLibrary("algotools");
+            System.loadLibrary("algotools");
+            loaded = true;
             Log.i(TAG, "algotools loaded successfully");
         } catch (UnsatisfiedLinkError e) {
-            Log.e(TAG, "Failed to load algotools", e);
+            Log.e(TAG, "Failed to load algotools, falling back to Java hashing engine", e);
         }
+        NATIVE_LOADED = loaded;
+    }
+
+    /**
+     * 原生库是否可用
+     * 不可用时本类的native方法都会抛出 UnsatisfiedLinkError，调用方应改用纯Java实现
+     * @return 原生库加载成功返回true
+     */
+    public static boolean isNativeAvailable() {
+        return NATIVE_LOADED;
     }
 
     /**
@@ -46,15 +62,54 @@ public class HashCryptoUtils {
 
     /**
      * 在内存块中搜索哈希值对应的原文 (Native实现)
+     * 原生层只返回命中的位置，原文由调用方从数据块中按原始字节取出，不经过JNI的字符串转换，
+     * 不是合法UTF-8的原文也能原样保留
+     * @param session 会话句柄（见 {@link #createSearchSession(int)}），为0时不使用会话；
+     *                使用会话时已在同一会话的其他数据块中计算过哈希的候选字符串会被跳过
      * @param data 要搜索的数据块
      * @param dataLength 数据块的长度
      * @param hashValue 要查找的哈希值
-     * @param hashType 哈希类型（"MD5", "SHA-1", "SHA-256", "SHA-512"）
+     * @param hashType 哈希类型（"MD5", "SHA-1", "SHA-256", "SHA-512"），多个同长度类型用逗号分隔
      * @param featureString 特征字符串（可选，为空则不使用）
-     * @return 如果找到返回原文，否则返回null
+     * @param allMatches 是否返回数据块中的全部命中；为false时找到第一处即返回。
+     *                   为true时被会话去重跳过、但与本会话已命中的原文相同的副本也会返回
+     * @return 命中位置数组 [偏移, 长度, 偏移, 长度, ...]，没有命中时返回null
+     */
+    public static native int[] findHashMatches(long session, byte[] data, int dataLength, String hashValue,
+                                               String hashType, String featureString, boolean allMatches);
+
+    /**
+     * 创建原生搜索会话 (Native实现)
+     * 会话在一次搜索任务的所有数据块、所有转储之间共享，用完必须调用 {@link #releaseSearchSession(long)}
+     * @param maxDedupEntries 候选字符串去重集合的最大条目数，0表示不去重
+     * @return 会话句柄
+     */
+    public static native long createSearchSession(int maxDedupEntries);
+
+    /**
+     * 释放原生搜索会话 (Native实现)
+     * @param session 会话句柄
+     */
+    public static native void releaseSearchSession(long session);
+
+    /**
+     * 读取搜索会话的累计计数 (Native实现)
+     * 可以在搜索进行中从任意线程调用
+     * @param session 会话句柄
+     * @param counters 输出数组，下标见 SearchSession.COUNTER_*（[0]为已提取的候选字符串数，[1]为已计算的哈希数，
+     *                 其后为去重跳过数、各阶段耗时和字节数）
+     */
+    public static native void getSearchSessionCounters(long session, long[] counters);
+
+    /**
+     * 对文件的一段范围给出页缓存提示（posix_fadvise） (Native实现)
+     * @param path 文件路径
+     * @param offset 起始偏移
+     * @param length 字节数
+     * @param advice 提示类型，见 {@link NativeIoAdvisor}
+     * @return 是否成功
      */
-    public static native String findHashOriginal(byte[] data, int dataLength, String hashValue, 
-                                               String hashType, String featureString);
+    public static native boolean adviseFile(String path, long offset, long length, int advice);
 
     /**
      * 控制JNI层日志记录的启用状态。
@@ -67,48 +122,111 @@ public class HashCryptoUtils {
      * @param enable true则启用，false则禁用。
      */
     public static void enableJniLogging(boolean enable) {
+        if (!NATIVE_LOADED) {
+            return;
+        }
         setJniLoggingEnabled(enable);
         if (enable) {
             Log.d(TAG, "JNI logging in Java set to: " + enable);
         }
     }
     
-    // 修改正则表达式以匹配大小写十六进制字符
-    private static final Pattern HEX_PATTERN = Pattern.compile("^[0-9a-fA-F]+$");
+    // 支持的哈希类型，按摘要长度从短到长排列，同一长度中常用的类型在前，名称与原生层 kHashAlgorithms 一致
+    private static final String[] SUPPORTED_TYPES = {
+            "MD5", "SHA-1",
+            "SHA-224", "SHA3-224",
+            "SHA-256", "SM3", "SHA3-256", "KECCAK-256", "SHA-512/256",
+            "SHA-384", "SHA3-384",
+            "SHA-512", "SHA3-512"
+    };
+
+    /**
+     * 获取支持的哈希类型，按摘要长度从短到长排列
+     */
+    public static List<String> getSupportedTypes() {
+        return Arrays.asList(SUPPORTED_TYPES.clone());
+    }
 
     /**
      * 识别哈希字符串可能的类型
+     * 支持大小写十六进制、Base64和Base64URL编码的摘要，以及截断的摘要（如16位MD5）
      * @param hash 输入的哈希字符串
-     * @return 包含可能哈希类型的列表 (例如 ["MD5", "SHA-1"])，如果无法识别则为空列表
+     * @return 包含可能哈希类型的列表 (例如 ["MD5", "SHA-1"])，截断的摘要按摘要长度从短到长列出，
+     *         如果无法识别则为空列表
      */
     public static List<String> identifyHashType(String hash) {
         List<String> possibleTypes = new ArrayList<>();
-        if (hash == null || hash.isEmpty()) {
+        DigestTarget target = DigestTarget.tryParse(hash);
+        if (target == null) {
             return possibleTypes;
         }
-        
-        if (!HEX_PATTERN.matcher(hash).matches()) {
+
+        // 优先按完整长度的摘要识别
+        for (int i = 0; i < target.getFormCount(); i++) {
+            int length = target.getForm(i).length;
+            for (String type : SUPPORTED_TYPES) {
+                if (DigestTarget.digestLengthOf(type) == length && !possibleTypes.contains(type)) {
+                    possibleTypes.add(type);
+                }
+            }
+        }
+        if (!possibleTypes.isEmpty()) {
             return possibleTypes;
         }
 
-        int len = hash.length();
-        if (len == 32) {
-            possibleTypes.add("MD5");
+        // 截断的摘要：所有更长的摘要都可能
+        for (int i = 0; i < target.getFormCount(); i++) {
+            int length = target.getForm(i).length;
+            for (String type : SUPPORTED_TYPES) {
+                if (DigestTarget.digestLengthOf(type) > length && !possibleTypes.contains(type)) {
+                    possibleTypes.add(type);
+                }
+            }
         }
-        if (len == 40) {
-            possibleTypes.add("SHA-1");
+        return possibleTypes;
+    }
+
+    /**
+     * 把识别结果转换为搜索使用的哈希类型
+     * 与第一个类型摘要长度相同的类型用逗号连接（如 "SHA-256,SM3,SHA3-256,KECCAK-256,SHA-512/256"），
+     * 搜索时在一次提取中逐个尝试，不需要为每种算法重新扫描转储
+     * @param types {@link #identifyHashType(String)} 的结果
+     * @return 逗号分隔的哈希类型，列表为空时返回null
+     */
+    public static String toSearchHashType(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return null;
         }
-        if (len == 64) {
-            possibleTypes.add("SHA-256");
+        int length = DigestTarget.digestLengthOf(types.get(0));
+        StringBuilder searchType = new StringBuilder(types.get(0));
+        for (int i = 1; i < types.size(); i++) {
+            if (DigestTarget.digestLengthOf(types.get(i)) == length) {
+                searchType.append(',').append(types.get(i));
+            }
         }
-        if (len == 96) {
-            possibleTypes.add("SHA-384");
+        return searchType.toString();
+    }
+
+    /**
+     * 按转储中识别出的算法选择搜索使用的哈希类型
+     * 取识别结果中排名最高、且摘要长度与目标相符的算法，只搜索识别出的同长度算法；
+     * 截断的摘要也按识别结果选择长度，而不是默认最短的MD5。没有相符的算法时与
+     * {@link #toSearchHashType(List)} 相同。
+     * @param types {@link #identifyHashType(String)} 的结果
+     * @param detectedTypes 按排名排列的识别出的哈希类型（见 ConstantScanProcessor），可为null
+     * @return 逗号分隔的哈希类型，列表为空时返回null
+     */
+    public static String toSearchHashType(List<String> types, List<String> detectedTypes) {
+        if (detectedTypes == null || types == null) {
+            return toSearchHashType(types);
         }
-        if (len == 128) {
-            possibleTypes.add("SHA-512");
+        List<String> preferred = new ArrayList<>();
+        for (String type : detectedTypes) {
+            if (types.contains(type)) {
+                preferred.add(type);
+            }
         }
-        
-        return possibleTypes;
+        return toSearchHashType(preferred.isEmpty() ? types : preferred);
     }
 
-}
+} 
\ No newline at end of file
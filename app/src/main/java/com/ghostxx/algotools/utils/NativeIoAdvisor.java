@@ -0,0 +1,33 @@
+package com.ghostxx.algotools.utils;
+
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+
+import java.io.File;
+
+/**
+ * 通过原生层的 posix_fadvise 为引擎的预读流水线提供页缓存提示
+ */
+public final class NativeIoAdvisor implements FileProcessingEngine.IoAdvisor {
+    // 与原生层 FileAdvice 的取值一致
+    static final int ADVICE_WILL_NEED = 0;
+    static final int ADVICE_DONT_NEED = 1;
+
+    private static final NativeIoAdvisor INSTANCE = new NativeIoAdvisor();
+
+    private NativeIoAdvisor() {
+    }
+
+    /**
+     * 获取实例
+     * @return 原生库不可用时返回null（引擎不做提示）
+     */
+    public static NativeIoAdvisor getInstance() {
+        return HashCryptoUtils.isNativeAvailable() ? INSTANCE : null;
+    }
+
+    @Override
+    public void advise(File file, long offset, long length, Advice advice) {
+        HashCryptoUtils.adviseFile(file.getPath(), offset, length,
+                advice == Advice.WILL_NEED ? ADVICE_WILL_NEED : ADVICE_DONT_NEED);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,406 @@
+package com.ghostxx.algotools.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 进程表
+ * 一次遍历/proc得到所有进程的命令行、uid、启动时间和常驻内存，并按包名建立索引。
+ * 有ROOT权限时通过ROOT Shell执行随应用安装的 libproctable.so 扫描（可以看到所有进程），
+ * 否则在当前进程内通过JNI扫描；原生库加载失败时改用 ps 输出（没有启动时间，pid复用按命令行识别）。
+ * 缓存以pid和启动时间为键，刷新时只替换新出现、已退出或pid被复用的进程。
+ *
+ * 扫描只在一个后台刷新线程中进行，每次刷新后发布一份不可变的快照；按包名或PID查询
+ * （包括 :push、:remote 等子进程）直接读取最近的快照，不会阻塞调用线程。快照过期或查询未命中时
+ * 只是请求后台刷新，本次查询仍返回旧快照中的结果。
+ */
+public class ProcessTable {
+    private static final String TAG = "ProcessTable";
+
+    private static final String SCANNER_NAME = "libproctable.so";
+    private static final String TABLE_HEADER = "#PROCTABLE v1";
+    private static final String PS_COMMAND = "ps -A -o PID,UID,RSS,ARGS";
+    // 快照有效期，超过后查询时请求刷新
+    private static final long MAX_AGE_MS = 1000;
+    // 查询未命中时请求刷新的最小间隔
+    private static final long MIN_REFRESH_INTERVAL_MS = 200;
+
+    private static volatile ProcessTable instance;
+
+    private final String scannerPath;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ProcessTable-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 合并刷新请求，已有刷新排队或进行中时不再提交
+    private final AtomicBoolean refreshRunning = new AtomicBoolean(false);
+    // 以下两个索引只由刷新线程访问
+    private final Map<Integer, ProcessInfo> processesByPid = new HashMap<>();
+    private final Map<String, List<ProcessInfo>> processesByPackage = new HashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long lastRefreshTime;
+
+    private ProcessTable(Context context) {
+        this.scannerPath = context.getApplicationInfo().nativeLibraryDir + "/" + SCANNER_NAME;
+        requestRefresh();
+    }
+
+    /**
+     * 获取进程表实例，第一次获取时开始在后台扫描
+     */
+    public static ProcessTable getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ProcessTable.class) {
+                if (instance == null) {
+                    instance = new ProcessTable(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 获取包名对应的所有进程（包括 :push、:remote 等子进程）
+     * @param packageName 包名
+     * @return 最近快照中的进程列表，未找到返回空列表
+     */
+    public List<ProcessInfo> getProcesses(String packageName) {
+        if (packageName == null || packageName.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Snapshot current = currentSnapshot();
+        List<ProcessInfo> processes = current.byPackage.get(packageName);
+        if (processes == null) {
+            refreshIfOlderThan(MIN_REFRESH_INTERVAL_MS);
+            return Collections.emptyList();
+        }
+        return processes;
+    }
+
+    /**
+     * 获取包名对应的主进程PID，没有主进程时返回任一子进程的PID
+     * @param packageName 包名
+     * @return 进程PID，最近快照中未找到返回-1
+     */
+    public int getPid(String packageName) {
+        List<ProcessInfo> processes = getProcesses(packageName);
+        if (processes.isEmpty()) {
+            return -1;
+        }
+        for (ProcessInfo process : processes) {
+            if (process.isMainProcess()) {
+                return process.getPid();
+            }
+        }
+        return processes.get(0).getPid();
+    }
+
+    /**
+     * 根据PID获取进程信息
+     * @param pid 进程PID
+     * @return 最近快照中的进程信息，未找到返回null
+     */
+    public ProcessInfo getProcess(int pid) {
+        ProcessInfo process = currentSnapshot().byPid.get(pid);
+        if (process == null) {
+            refreshIfOlderThan(MIN_REFRESH_INTERVAL_MS);
+        }
+        return process;
+    }
+
+    /**
+     * 请求在后台重新扫描进程表，已有刷新在进行时忽略
+     * 前台应用切换等进程可能变化的时机调用，让随后的查询尽快看到新进程
+     */
+    public void requestRefresh() {
+        if (!refreshRunning.compareAndSet(false, true)) {
+            return;
+        }
+        lastRefreshTime = System.currentTimeMillis();
+        refresher.execute(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "刷新进程表时出错: " + e.getMessage(), e);
+            } finally {
+                lastRefreshTime = System.currentTimeMillis();
+                refreshRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * 获取最近的快照，过期时请求后台刷新
+     */
+    private Snapshot currentSnapshot() {
+        refreshIfOlderThan(MAX_AGE_MS);
+        return snapshot;
+    }
+
+    private void refreshIfOlderThan(long maxAgeMs) {
+        if (System.currentTimeMillis() - lastRefreshTime >= maxAgeMs) {
+            requestRefresh();
+        }
+    }
+
+    /**
+     * 扫描进程表并发布新的快照，只在刷新线程中调用
+     */
+    private void refresh() {
+        long startTime = System.nanoTime();
+        String table = scan();
+        if (table == null || !table.startsWith(TABLE_HEADER)) {
+            Log.w(TAG, "扫描进程表失败");
+            return;
+        }
+
+        int changed = apply(table);
+        snapshot = new Snapshot(processesByPid, processesByPackage);
+        Log.d(TAG, String.format("进程表已刷新: %d 个进程, %d 个变化, 耗时 %.2f ms",
+                processesByPid.size(), changed, (System.nanoTime() - startTime) / 1e6));
+    }
+
+    /**
+     * 扫描/proc，返回格式化的进程表文本
+     */
+    private String scan() {
+        RootShell rootShell = RootShell.getInstance();
+        // 使用缓存的ROOT状态，尚未确认时本次先用JNI扫描
+        if (new File(scannerPath).exists() && rootShell.isRootAvailableCached()) {
+            RootShell.Result result = rootShell.exec(scannerPath);
+            if (result.isSuccess()) {
+                return result.getStdout();
+            }
+            Log.w(TAG, "ROOT扫描进程表失败: " + result.getStderr());
+        }
+        // 原生库与哈希计算共用，由 HashCryptoUtils 负责加载
+        if (HashCryptoUtils.isNativeAvailable()) {
+            return scanNative();
+        }
+        return scanPs();
+    }
+
+    /**
+     * 原生库不可用时通过 ps 获取进程列表，转换为进程表格式（启动时间记为0）
+     * @return 格式化的进程表，失败返回null
+     */
+    private static String scanPs() {
+        // 有ROOT权限时通过ROOT Shell执行，否则以普通权限执行（只能看到部分进程）
+        String output = ToolsManager.runShellCommand(PS_COMMAND);
+        if (output.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder table = new StringBuilder(TABLE_HEADER).append('\n');
+        for (String line : output.split("\n")) {
+            // 格式: PID UID RSS ARGS，第一行为表头
+            String[] fields = line.trim().split("\\s+", 4);
+            if (fields.length < 4 || !Character.isDigit(fields[0].charAt(0))) {
+                continue;
+            }
+            table.append(fields[0]).append('\t').append(fields[1]).append("\t0\t")
+                    .append(fields[2]).append('\t').append(fields[3]).append('\n');
+        }
+        return table.toString();
+    }
+
+    /**
+     * 按扫描结果增量更新索引
+     * @return 新增、替换或移除的进程数
+     */
+    private int apply(String table) {
+        Set<Integer> seen = new HashSet<>();
+        int changed = 0;
+
+        int lineStart = table.indexOf('\n') + 1;
+        while (lineStart > 0 && lineStart < table.length()) {
+            int lineEnd = table.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = table.length();
+            }
+
+            try {
+                int t1 = table.indexOf('\t', lineStart);
+                int t2 = table.indexOf('\t', t1 + 1);
+                int t3 = table.indexOf('\t', t2 + 1);
+                int t4 = table.indexOf('\t', t3 + 1);
+                if (t1 > 0 && t4 > 0 && t4 < lineEnd) {
+                    int pid = Integer.parseInt(table.substring(lineStart, t1));
+                    long startTime = Long.parseLong(table.substring(t2 + 1, t3));
+                    long rssKb = Long.parseLong(table.substring(t3 + 1, t4));
+                    seen.add(pid);
+
+                    ProcessInfo existing = processesByPid.get(pid);
+                    // 启动时间相同且命令行未变才是同一个进程（ps输出没有启动时间）
+                    if (existing != null && existing.startTime == startTime
+                            && existing.cmdline.length() == lineEnd - t4 - 1
+                            && table.startsWith(existing.cmdline, t4 + 1)) {
+                        existing.rssKb = rssKb;
+                    } else {
+                        if (existing != null) {
+                            removeFromIndex(existing);
+                        }
+                        int uid = Integer.parseInt(table.substring(t1 + 1, t2));
+                        ProcessInfo info = new ProcessInfo(pid, uid, startTime, rssKb,
+                                table.substring(t4 + 1, lineEnd));
+                        processesByPid.put(pid, info);
+                        addToIndex(info);
+                        changed++;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "解析进程表行失败: " + table.substring(lineStart, lineEnd));
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        // 移除已经退出的进程
+        Iterator<Map.Entry<Integer, ProcessInfo>> it = processesByPid.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, ProcessInfo> entry = it.next();
+            if (!seen.contains(entry.getKey())) {
+                removeFromIndex(entry.getValue());
+                it.remove();
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private void addToIndex(ProcessInfo info) {
+        String packageName = info.getPackageName();
+        if (packageName.isEmpty()) {
+            return;
+        }
+        List<ProcessInfo> processes = processesByPackage.get(packageName);
+        if (processes == null) {
+            processes = new ArrayList<>(1);
+            processesByPackage.put(packageName, processes);
+        }
+        processes.add(info);
+    }
+
+    private void removeFromIndex(ProcessInfo info) {
+        List<ProcessInfo> processes = processesByPackage.get(info.getPackageName());
+        if (processes != null) {
+            processes.remove(info);
+            if (processes.isEmpty()) {
+                processesByPackage.remove(info.getPackageName());
+            }
+        }
+    }
+
+    /**
+     * 查询使用的不可变快照
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.<Integer, ProcessInfo>emptyMap(),
+                Collections.<String, List<ProcessInfo>>emptyMap());
+
+        final Map<Integer, ProcessInfo> byPid;
+        final Map<String, List<ProcessInfo>> byPackage;
+
+        Snapshot(Map<Integer, ProcessInfo> processesByPid, Map<String, List<ProcessInfo>> processesByPackage) {
+            this.byPid = new HashMap<>(processesByPid);
+            Map<String, List<ProcessInfo>> packages = new HashMap<>(processesByPackage.size() * 2);
+            for (Map.Entry<String, List<ProcessInfo>> entry : processesByPackage.entrySet()) {
+                packages.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+            this.byPackage = packages;
+        }
+    }
+
+    /**
+     * 在当前进程内扫描/proc (Native实现)
+     * @return 格式化的进程表，失败返回null
+     */
+    private static native String scanNative();
+
+    /**
+     * 进程信息
+     */
+    public static class ProcessInfo {
+        private final int pid;
+        private final int uid;
+        private final long startTime;
+        private final String cmdline;
+        private final String processName;
+        private final String packageName;
+        private volatile long rssKb;
+
+        ProcessInfo(int pid, int uid, long startTime, long rssKb, String cmdline) {
+            this.pid = pid;
+            this.uid = uid;
+            this.startTime = startTime;
+            this.rssKb = rssKb;
+            this.cmdline = cmdline;
+
+            int space = cmdline.indexOf(' ');
+            this.processName = space >= 0 ? cmdline.substring(0, space) : cmdline;
+            int colon = processName.indexOf(':');
+            this.packageName = colon >= 0 ? processName.substring(0, colon) : processName;
+        }
+
+        public int getPid() {
+            return pid;
+        }
+
+        public int getUid() {
+            return uid;
+        }
+
+        /**
+         * 获取进程启动时间（开机后的时钟滴答数）
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * 获取最近一次刷新时的常驻内存（KB）
+         */
+        public long getRssKb() {
+            return rssKb;
+        }
+
+        public String getCmdline() {
+            return cmdline;
+        }
+
+        /**
+         * 获取进程名，例如 com.example.app:push
+         */
+        public String getProcessName() {
+            return processName;
+        }
+
+        /**
+         * 获取进程名中的包名部分，例如 com.example.app
+         */
+        public String getPackageName() {
+            return packageName;
+        }
+
+        /**
+         * 是否为应用主进程（进程名与包名相同）
+         */
+        public boolean isMainProcess() {
+            return processName.equals(packageName);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,519 @@
+package com.ghostxx.algotools.utils;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 常驻ROOT Shell会话
+ * 整个应用共用一个长期存活的su进程，避免每条命令都重新启动su（每次50~300ms并唤醒Magisk守护进程）。
+ *
+ * 命令串行执行：任意线程都可以调用 {@link #exec}，但命令在Java侧由公平锁按提交顺序排队，
+ * 前一条命令结束后才写入下一条，常驻Shell中同一时间只有一条命令在执行，超时时间从命令开始执行时计算；
+ * 排队超时的命令只让自己失败，不会写入Shell。耗时很长的命令（如内存转储）应使用 {@link #execStandalone}
+ * 在独立的su进程中执行，不占用常驻Shell。
+ *
+ * 协议：每条命令在子shell中执行，标准输入重定向到/dev/null，执行完毕后分别向stdout和stderr
+ * 写入带会话令牌和命令编号的结束标记，stdout的标记中携带退出码。两个读取线程按标记切分出这条命令的输出，
+ * 两路标记都收到后唤醒调用方。
+ * 执行中的命令超时或su进程退出时，命令以失败返回，下一条命令会自动重新启动su。
+ */
+public final class RootShell {
+    private static final String TAG = "RootShell";
+
+    // 默认命令超时时间
+    public static final long DEFAULT_TIMEOUT_MS = 30 * 1000;
+    // su启动失败后的重试间隔，避免频繁弹出授权请求
+    private static final long RESPAWN_BACKOFF_MS = 2000;
+    // 无ROOT权限结果的缓存时间
+    private static final long ROOT_CHECK_RETRY_MS = 30 * 1000;
+
+    private static volatile RootShell instance;
+
+    private final Object lock = new Object();
+    // 常驻Shell同一时间只执行一条命令，公平锁保证按提交顺序执行
+    private final ReentrantLock commandLock = new ReentrantLock(true);
+    private final AtomicInteger nextCommandId = new AtomicInteger(0);
+    private final Map<Integer, PendingCommand> pendingCommands = new ConcurrentHashMap<>();
+
+    // 以下字段由lock保护
+    private Process process;
+    private Writer stdin;
+    private String token;
+    private int generation;
+    private long lastSpawnFailureTime;
+
+    private volatile boolean rootAvailable;
+    private volatile long lastRootCheckFailureTime;
+    private final AtomicBoolean rootProbeRunning = new AtomicBoolean(false);
+
+    private RootShell() {
+    }
+
+    /**
+     * 获取全局ROOT Shell会话
+     */
+    public static RootShell getInstance() {
+        if (instance == null) {
+            synchronized (RootShell.class) {
+                if (instance == null) {
+                    instance = new RootShell();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 以ROOT权限执行命令，使用默认超时时间
+     * @param command 完整的shell命令（可包含管道和重定向）
+     * @return 执行结果
+     */
+    public Result exec(String command) {
+        return exec(command, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * 以ROOT权限执行命令
+     * @param command 完整的shell命令（可包含管道和重定向）
+     * @param timeoutMs 超时时间（毫秒），从命令开始执行时计算，超时后su进程会被结束并在下次调用时重新启动；
+     *                  排队等待前一条命令的时间同样以此为上限，等待超时时只有本条命令失败
+     * @return 执行结果
+     */
+    public Result exec(String command, long timeoutMs) {
+        try {
+            if (!commandLock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                Log.w(TAG, "等待前一条命令超时 (" + timeoutMs + "ms)，命令未执行: " + command);
+                return Result.failure("ROOT Shell忙，命令未执行");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.failure("等待命令执行被中断");
+        }
+        try {
+            return execLocked(command, timeoutMs);
+        } finally {
+            commandLock.unlock();
+        }
+    }
+
+    /**
+     * 在独立的su进程中执行命令
+     * 用于耗时很长的命令（如内存转储），执行期间常驻Shell中的其他命令（如查找PID）照常执行，
+     * 超时也只结束这个su进程
+     * @param command 完整的shell命令（可包含管道和重定向）
+     * @param timeoutMs 超时时间（毫秒）
+     * @return 执行结果
+     */
+    public Result execStandalone(String command, long timeoutMs) {
+        Process standalone;
+        try {
+            standalone = Runtime.getRuntime().exec(new String[]{"su", "-c", command});
+        } catch (IOException e) {
+            Log.e(TAG, "启动su进程失败: " + e.getMessage());
+            return Result.failure("启动su进程失败: " + e.getMessage());
+        }
+        OutputCollector stdout = new OutputCollector(standalone.getInputStream(), "stdout");
+        OutputCollector stderr = new OutputCollector(standalone.getErrorStream(), "stderr");
+        try {
+            standalone.getOutputStream().close();
+            if (!standalone.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+                Log.w(TAG, "独立命令执行超时 (" + timeoutMs + "ms): " + command);
+                standalone.destroy();
+                return Result.failure("命令执行超时");
+            }
+            stdout.join(1000);
+            stderr.join(1000);
+            return new Result(standalone.exitValue(), stdout.getOutput(), stderr.getOutput());
+        } catch (IOException e) {
+            standalone.destroy();
+            return Result.failure("写入命令失败: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            standalone.destroy();
+            return Result.failure("等待命令执行被中断");
+        }
+    }
+
+    /**
+     * 在常驻Shell中执行命令，调用方持有commandLock
+     */
+    private Result execLocked(String command, long timeoutMs) {
+        int id;
+        PendingCommand pending;
+        Process owner;
+
+        synchronized (lock) {
+            if (!ensureStartedLocked()) {
+                return Result.failure("无法启动ROOT Shell");
+            }
+
+            id = nextCommandId.incrementAndGet();
+            pending = new PendingCommand(generation);
+            pendingCommands.put(id, pending);
+            owner = process;
+
+            String marker = token + "_" + id;
+            try {
+                stdin.write("(\n" + command + "\n) </dev/null\n"
+                        + "printf '\\n" + marker + ":%d\\n' $?\n"
+                        + "printf '\\n" + marker + ":0\\n' >&2\n");
+                stdin.flush();
+            } catch (IOException e) {
+                Log.e(TAG, "向ROOT Shell写入命令失败: " + e.getMessage());
+                pendingCommands.remove(id);
+                destroyLocked("写入命令失败");
+                return Result.failure("写入命令失败: " + e.getMessage());
+            }
+        }
+
+        try {
+            if (!pending.await(timeoutMs)) {
+                Log.w(TAG, "命令执行超时 (" + timeoutMs + "ms)，重启ROOT Shell: " + command);
+                synchronized (lock) {
+                    if (process == owner) {
+                        destroyLocked("命令超时");
+                    }
+                }
+                return Result.failure("命令执行超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingCommands.remove(id);
+            return Result.failure("等待命令执行被中断");
+        }
+
+        return pending.toResult();
+    }
+
+    /**
+     * 检查是否有ROOT权限
+     * 成功结果会一直缓存，失败结果在一段时间内不再重复检查
+     */
+    public boolean isRootAvailable() {
+        if (rootAvailable) {
+            return true;
+        }
+        if (System.currentTimeMillis() - lastRootCheckFailureTime < ROOT_CHECK_RETRY_MS) {
+            return false;
+        }
+
+        Result result = exec("id", 10 * 1000);
+        rootAvailable = result.isSuccess() && result.getStdout().contains("uid=0");
+        if (!rootAvailable) {
+            lastRootCheckFailureTime = System.currentTimeMillis();
+            Log.w(TAG, "没有ROOT权限: " + result.getStderr());
+        }
+        return rootAvailable;
+    }
+
+    /**
+     * 不等待地获取已知的ROOT状态
+     * 尚未检查过或失败结果已过期时在后台线程中检查，本次返回false，检查完成后的调用返回新的结果。
+     * 用于轮询线程等不能等待su授权或前一条命令的地方
+     * @return 是否已确认有ROOT权限
+     */
+    public boolean isRootAvailableCached() {
+        if (rootAvailable) {
+            return true;
+        }
+        if (System.currentTimeMillis() - lastRootCheckFailureTime >= ROOT_CHECK_RETRY_MS
+                && rootProbeRunning.compareAndSet(false, true)) {
+            Thread probe = new Thread(() -> {
+                try {
+                    isRootAvailable();
+                } finally {
+                    rootProbeRunning.set(false);
+                }
+            }, "RootShell-probe");
+            probe.setDaemon(true);
+            probe.start();
+        }
+        return false;
+    }
+
+    /**
+     * 关闭ROOT Shell，未完成的命令以失败返回
+     */
+    public void close() {
+        synchronized (lock) {
+            destroyLocked("ROOT Shell已关闭");
+        }
+    }
+
+    /**
+     * 确保su进程处于运行状态，必要时重新启动
+     */
+    private boolean ensureStartedLocked() {
+        if (process != null && process.isAlive()) {
+            return true;
+        }
+        if (process != null) {
+            destroyLocked("su进程已退出");
+        }
+        if (System.currentTimeMillis() - lastSpawnFailureTime < RESPAWN_BACKOFF_MS) {
+            return false;
+        }
+
+        try {
+            Process newProcess = Runtime.getRuntime().exec("su");
+            generation++;
+            process = newProcess;
+            stdin = new OutputStreamWriter(newProcess.getOutputStream(), StandardCharsets.UTF_8);
+            token = "__ALGOTOOLS_" + Long.toHexString(System.nanoTime()) + "_" + generation;
+
+            startReader(newProcess, newProcess.getInputStream(), true, generation, token);
+            startReader(newProcess, newProcess.getErrorStream(), false, generation, token);
+            Log.i(TAG, "ROOT Shell已启动 (第 " + generation + " 代)");
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "启动su进程失败: " + e.getMessage());
+            lastSpawnFailureTime = System.currentTimeMillis();
+            return false;
+        }
+    }
+
+    /**
+     * 结束当前su进程，并让该进程上所有未完成的命令失败返回
+     */
+    private void destroyLocked(String reason) {
+        if (process == null) {
+            return;
+        }
+        Log.w(TAG, "结束ROOT Shell: " + reason);
+        try {
+            stdin.close();
+        } catch (IOException ignored) {
+        }
+        process.destroy();
+        process = null;
+        stdin = null;
+        failPending(generation, reason);
+    }
+
+    /**
+     * 让指定代su进程上所有未完成的命令失败返回
+     */
+    private void failPending(int failedGeneration, String reason) {
+        Iterator<Map.Entry<Integer, PendingCommand>> it = pendingCommands.entrySet().iterator();
+        while (it.hasNext()) {
+            PendingCommand pending = it.next().getValue();
+            if (pending.generation == failedGeneration) {
+                it.remove();
+                pending.fail(reason);
+            }
+        }
+    }
+
+    /**
+     * 读取线程结束（su进程退出）时调用
+     */
+    private void onStreamClosed(Process owner) {
+        synchronized (lock) {
+            if (process == owner) {
+                destroyLocked("su进程输出流已关闭");
+            }
+        }
+    }
+
+    /**
+     * 启动输出读取线程，按结束标记把输出分配给对应的命令
+     */
+    private void startReader(Process owner, InputStream stream, boolean isStdout, int readerGeneration,
+                             String readerToken) {
+        Thread thread = new Thread(() -> {
+            String prefix = readerToken + "_";
+            StringBuilder buffer = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith(prefix)) {
+                        buffer.append(line).append('\n');
+                        continue;
+                    }
+
+                    int colon = line.indexOf(':', prefix.length());
+                    PendingCommand pending = null;
+                    int exitCode = 0;
+                    try {
+                        int id = Integer.parseInt(line.substring(prefix.length(), colon));
+                        exitCode = Integer.parseInt(line.substring(colon + 1).trim());
+                        pending = pendingCommands.get(id);
+                    } catch (RuntimeException e) {
+                        Log.w(TAG, "无法解析结束标记: " + line);
+                    }
+
+                    // 去掉结束标记前额外写入的换行符
+                    if (buffer.length() > 0) {
+                        buffer.setLength(buffer.length() - 1);
+                    }
+                    if (pending != null && pending.generation == readerGeneration) {
+                        if (isStdout) {
+                            pending.completeStdout(buffer.toString(), exitCode);
+                        } else {
+                            pending.completeStderr(buffer.toString());
+                        }
+                        if (pending.isDone()) {
+                            pendingCommands.values().remove(pending);
+                        }
+                    }
+                    buffer.setLength(0);
+                }
+            } catch (IOException e) {
+                Log.d(TAG, "ROOT Shell读取线程结束: " + e.getMessage());
+            }
+            onStreamClosed(owner);
+        }, "RootShell-" + (isStdout ? "stdout" : "stderr") + "-" + readerGeneration);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 收集独立su进程的一路输出
+     */
+    private static final class OutputCollector extends Thread {
+        private final InputStream stream;
+        private final StringBuilder output = new StringBuilder();
+
+        OutputCollector(InputStream stream, String name) {
+            super("RootShell-standalone-" + name);
+            this.stream = stream;
+            setDaemon(true);
+            start();
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    synchronized (output) {
+                        if (output.length() > 0) {
+                            output.append('\n');
+                        }
+                        output.append(line);
+                    }
+                }
+            } catch (IOException e) {
+                Log.d(TAG, "独立su进程输出读取结束: " + e.getMessage());
+            }
+        }
+
+        String getOutput() {
+            synchronized (output) {
+                return output.toString();
+            }
+        }
+    }
+
+    /**
+     * 等待输出的命令
+     */
+    private static final class PendingCommand {
+        private final int generation;
+        private final CountDownLatch latch = new CountDownLatch(2);
+        private volatile String stdout = "";
+        private volatile String stderr = "";
+        private volatile int exitCode = -1;
+        private volatile String failureReason;
+
+        PendingCommand(int generation) {
+            this.generation = generation;
+        }
+
+        void completeStdout(String output, int code) {
+            stdout = output;
+            exitCode = code;
+            latch.countDown();
+        }
+
+        void completeStderr(String output) {
+            stderr = output;
+            latch.countDown();
+        }
+
+        void fail(String reason) {
+            failureReason = reason;
+            while (latch.getCount() > 0) {
+                latch.countDown();
+            }
+        }
+
+        boolean isDone() {
+            return latch.getCount() == 0;
+        }
+
+        boolean await(long timeoutMs) throws InterruptedException {
+            return latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        Result toResult() {
+            if (failureReason != null) {
+                return Result.failure(failureReason);
+            }
+            return new Result(exitCode, stdout, stderr);
+        }
+    }
+
+    /**
+     * 命令执行结果
+     */
+    public static final class Result {
+        private final int exitCode;
+        private final String stdout;
+        private final String stderr;
+
+        Result(int exitCode, String stdout, String stderr) {
+            this.exitCode = exitCode;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+
+        static Result failure(String reason) {
+            return new Result(-1, "", reason);
+        }
+
+        /**
+         * 获取退出码，命令未能执行（超时、su不可用等）时为-1
+         */
+        public int getExitCode() {
+            return exitCode;
+        }
+
+        /**
+         * 获取标准输出
+         */
+        public String getStdout() {
+            return stdout;
+        }
+
+        /**
+         * 获取错误输出，命令未能执行时为失败原因
+         */
+        public String getStderr() {
+            return stderr;
+        }
+
+        /**
+         * 命令是否以退出码0结束
+         */
+        public boolean isSuccess() {
+            return exitCode == 0;
+        }
+    }
+} 
\ No newline at end of file
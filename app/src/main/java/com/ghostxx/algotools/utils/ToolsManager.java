@@ -17,6 +17,9 @@ public class ToolsManager {
     
     public static final String TAG = "ToolsManager";
     
+    // 内存转储命令的超时时间
+    private static final long DUMP_TIMEOUT_MS = 10 * 60 * 1000;
+    
     /**
      * 检查是否需要复制转储工具
      * @param context 上下文
@@ -26,16 +29,14 @@ public class ToolsManager {
         String toolName = "dumpmm";
         File target = new File("/data/local/tmp/" + toolName);
         if (target.exists()) {
-            try {
-                // 检查文件是否可执行
-                java.lang.Process p = Runtime.getRuntime().exec(new String[]{"su", "-c", "test -x /data/local/tmp/" + toolName});
-                int exitCode = p.waitFor();
-                if (exitCode == 0) {
-                    Log.i(TAG, "dumpmm工具已存在且可执行");
-                    return false;
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "检查dumpmm工具可执行性失败: " + e.getMessage());
+            // 检查文件是否可执行
+            RootShell.Result result = RootShell.getInstance().exec("test -x /data/local/tmp/" + toolName);
+            if (result.isSuccess()) {
+                Log.i(TAG, "dumpmm工具已存在且可执行");
+                return false;
+            }
+            if (result.getExitCode() < 0) {
+                Log.e(TAG, "检查dumpmm工具可执行性失败: " + result.getStderr());
             }
         }
         return true;
@@ -113,8 +114,7 @@ public class ToolsManager {
                 is.close();
                 // 2. 用 root 权限移动到 /data/local/tmp 并赋予 777
                 String cmd = "cp " + cacheFile.getAbsolutePath() + " /data/local/tmp/" + toolName + " && chmod 777 /data/local/tmp/" + toolName;
-                Process p = Runtime.getRuntime().exec(new String[]{"su", "-c", cmd});
-                int exitCode = p.waitFor();
+                int exitCode = RootShell.getInstance().exec(cmd).getExitCode();
                 if (exitCode == 0) {
                     Log.i(TAG, "成功复制dumpmm工具到/data/local/tmp并设置权限");
                 return true;
@@ -122,8 +122,7 @@ public class ToolsManager {
                     Log.e(TAG, "复制dumpmm工具失败，退出码: " + exitCode);
                     // 尝试使用cat命令作为备用方案
                     cmd = "cat " + cacheFile.getAbsolutePath() + " > /data/local/tmp/" + toolName + " && chmod 777 /data/local/tmp/" + toolName;
-                    p = Runtime.getRuntime().exec(new String[]{"su", "-c", cmd});
-                    exitCode = p.waitFor();
+                    exitCode = RootShell.getInstance().exec(cmd).getExitCode();
                     if (exitCode == 0) {
                         Log.i(TAG, "使用cat命令成功复制dumpmm工具");
                     return true;
@@ -157,7 +156,7 @@ public class ToolsManager {
                 pid = android.os.Process.myPid();
             } else {
                 // 获取指定包名的PID
-                pid = getPidByPackageName(packageName);
+                pid = getPidByPackageName(context, packageName);
                 if (pid <= 0) {
                     return "无法获取进程 " + packageName + " 的PID";
                 }
@@ -196,26 +195,19 @@ public class ToolsManager {
             }
             
             // 执行转储命令
-            String command = "su -c /data/local/tmp/dumpmm " + pid + " " + outputPath;
+            String command = "/data/local/tmp/dumpmm " + pid + " " + outputPath;
             Log.i(TAG, "执行内存转储命令: " + command);
             
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
+            // 转储可能持续数分钟，在独立的su进程中执行，不阻塞常驻Shell中的PID查找等命令
+            RootShell.Result result = RootShell.getInstance().execStandalone(command, DUMP_TIMEOUT_MS);
+            int exitCode = result.getExitCode();
             
             if (exitCode == 0) {
                 Log.i(TAG, "内存转储成功，输出文件: " + outputPath);
                 return "内存转储成功: " + outputPath;
             } else {
-                // 读取错误输出
-                BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-                StringBuilder errorOutput = new StringBuilder();
-                String line;
-                while ((line = errorReader.readLine()) != null) {
-                    errorOutput.append(line).append("\n");
-                }
-                
-                Log.e(TAG, "内存转储失败，退出码: " + exitCode + ", 错误: " + errorOutput.toString());
-                return "内存转储失败: " + errorOutput.toString();
+                Log.e(TAG, "内存转储失败，退出码: " + exitCode + ", 错误: " + result.getStderr());
+                return "内存转储失败: " + result.getStderr();
             }
         } catch (Exception e) {
             Log.e(TAG, "内存转储过程出错: " + e.getMessage(), e);
@@ -223,88 +215,140 @@ public class ToolsManager {
         }
     }
     
+    /**
+     * 统计进程可读内存区域的数量（即dumpmm会转储的区域数）
+     * @param pid 进程PID
+     * @return 可读区域数量，获取失败返回-1
+     */
+    public static int countReadableRegions(int pid) {
+        if (pid <= 0) {
+            return -1;
+        }
+        String output = runShellCommand("grep -cE '^[0-9a-f]+-[0-9a-f]+ r' /proc/" + pid + "/maps").trim();
+        try {
+            return Integer.parseInt(output);
+        } catch (NumberFormatException e) {
+            Log.w(TAG, "解析内存区域数量失败: " + output);
+            return -1;
+        }
+    }
+
+    /**
+     * 读取进程的可读内存区域（/proc/pid/maps 中权限以r开头的行，即dumpmm会转储的区域）
+     * @param pid 进程PID
+     * @return maps格式的文本，获取失败返回空字符串
+     */
+    public static String readReadableRegions(int pid) {
+        if (pid <= 0) {
+            return "";
+        }
+        String output = runShellCommand("grep -E '^[0-9a-f]+-[0-9a-f]+ r' /proc/" + pid + "/maps");
+        return output != null ? output : "";
+    }
+
     /**
      * 执行shell命令并返回输出结果
      * @param command 要执行的命令
      * @return 命令执行结果
      */
     public static String runShellCommand(String command) {
+        Log.d(TAG, "执行Shell命令: " + command);
+        
+        // 命令统一通过常驻ROOT Shell执行，去掉调用方自带的su前缀
+        if (command.startsWith("su -c ")) {
+            command = command.substring("su -c ".length());
+        } else if (command.startsWith("su ")) {
+            command = command.substring("su ".length());
+        }
+        
+        String result;
+        RootShell rootShell = RootShell.getInstance();
+        if (rootShell.isRootAvailable()) {
+            RootShell.Result shellResult = rootShell.exec(command);
+            if (!shellResult.getStderr().isEmpty()) {
+                Log.w(TAG, "Shell命令错误输出: " + shellResult.getStderr());
+            }
+            if (shellResult.getExitCode() != 0) {
+                Log.w(TAG, "Shell命令执行结束，退出码: " + shellResult.getExitCode());
+            }
+            result = shellResult.getStdout();
+        } else {
+            // 没有ROOT权限时尝试以普通权限执行
+            Log.w(TAG, "ROOT Shell不可用，尝试不使用su执行");
+            result = runUnprivilegedCommand(command);
+        }
+        
+        if (result.length() > 500) {
+            Log.d(TAG, "Shell命令输出 (截断): " + result.substring(0, 500) + "...");
+        } else {
+            Log.d(TAG, "Shell命令输出: " + result);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * 以普通权限执行shell命令并返回标准输出
+     * @param command 要执行的命令
+     * @return 命令执行结果
+     */
+    private static String runUnprivilegedCommand(String command) {
         StringBuilder output = new StringBuilder();
         Process process = null;
-        BufferedReader reader = null;
-        BufferedReader errorReader = null;
         
         try {
-            Log.d(TAG, "执行Shell命令: " + command);
-            
-            // 先尝试直接执行
-            try {
-                if (command.startsWith("su ") || command.startsWith("su -c ")) {
-                    process = Runtime.getRuntime().exec(command);
-                } else {
-                    process = Runtime.getRuntime().exec(new String[]{"su", "-c", command});
-                }
-            } catch (Exception e) {
-                // 如果失败，尝试不使用su执行
-                Log.w(TAG, "使用su执行命令失败: " + e.getMessage() + "，尝试不使用su执行");
-                process = Runtime.getRuntime().exec(command);
-            }
+            process = Runtime.getRuntime().exec(new String[]{"sh", "-c", command});
+            process.getOutputStream().close();
             
             // 读取标准输出
-            reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append("\n");
+                }
             }
             
             // 也读取错误输出
-            errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-            while ((line = errorReader.readLine()) != null) {
-                Log.w(TAG, "Shell命令错误输出: " + line);
-            }
-            
-            // 等待命令执行完毕
-            try {
-                int exitCode = process.waitFor();
-                if (exitCode != 0) {
-                    Log.w(TAG, "Shell命令执行结束，退出码: " + exitCode);
+            try (BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+                String line;
+                while ((line = errorReader.readLine()) != null) {
+                    Log.w(TAG, "Shell命令错误输出: " + line);
                 }
-            } catch (InterruptedException e) {
-                Log.e(TAG, "等待Shell命令执行被中断: " + e.getMessage());
             }
             
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                Log.w(TAG, "Shell命令执行结束，退出码: " + exitCode);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.e(TAG, "等待Shell命令执行被中断: " + e.getMessage());
         } catch (Exception e) {
             Log.e(TAG, "执行Shell命令出错: " + e.getMessage(), e);
             output.append("错误: ").append(e.getMessage());
         } finally {
-            // 关闭所有资源
-            try {
-                if (reader != null) reader.close();
-                if (errorReader != null) errorReader.close();
-                if (process != null) process.destroy();
-            } catch (IOException e) {
-                Log.e(TAG, "关闭Shell命令资源出错: " + e.getMessage());
+            if (process != null) {
+                process.destroy();
             }
         }
         
-        String result = output.toString();
-        if (result.length() > 500) {
-            Log.d(TAG, "Shell命令输出 (截断): " + result.substring(0, 500) + "...");
-        } else {
-            Log.d(TAG, "Shell命令输出: " + result);
-        }
-        
-        return result;
+        return output.toString();
     }
     
     /**
      * 根据包名获取进程PID
+     * @param context 上下文
      * @param packageName 应用包名
      * @return 进程PID，如果未找到返回-1
      */
-    private static int getPidByPackageName(String packageName) {
+    private static int getPidByPackageName(Context context, String packageName) {
+        int pid = ProcessTable.getInstance(context).getPid(packageName);
+        if (pid > 0) {
+            return pid;
+        }
+        
         try {
-            // 先使用ps -A命令查找
+            // 进程表中没有时再使用ps -A命令查找
             String psOutput = runShellCommand("ps -A | grep " + packageName);
             if (psOutput == null || psOutput.trim().isEmpty()) {
                 // 尝试不带-A参数
@@ -327,29 +371,6 @@ public class ToolsManager {
                     }
                 }
             }
-            
-            // 如果ps命令无法获取，尝试读取/proc目录
-            String cmdOutput = runShellCommand("ls -l /proc | grep -E '[0-9]+' | grep -v self");
-            String[] lines = cmdOutput.split("\n");
-            
-            for (String line : lines) {
-                String[] parts = line.trim().split("\\s+");
-                if (parts.length >= 8) {
-                    try {
-                        String dirName = parts[parts.length-1];
-                        if (dirName.matches("\\d+")) {
-                            int pid = Integer.parseInt(dirName);
-                            // 读取进程的cmdline文件获取包名
-                            String cmdlineOutput = runShellCommand("cat /proc/" + pid + "/cmdline");
-                            if (cmdlineOutput != null && cmdlineOutput.trim().contains(packageName)) {
-                                return pid;
-                            }
-                        }
-                    } catch (Exception e) {
-                        // 忽略解析错误
-                    }
-                }
-            }
         } catch (Exception e) {
             Log.e(TAG, "获取进程PID出错: " + e.getMessage(), e);
         }
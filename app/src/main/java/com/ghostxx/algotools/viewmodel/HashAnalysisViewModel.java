@@ -10,6 +10,14 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.ghostxx.algotools.domain.entity.HashSearchOptions;
+import com.ghostxx.algotools.domain.entity.ScanMetrics;
+import com.ghostxx.algotools.domain.entity.ScanProgress;
+import com.ghostxx.algotools.engine.fingerprint.AlgorithmFingerprint;
+import com.ghostxx.algotools.engine.fingerprint.ConstantHit;
+import com.ghostxx.algotools.engine.hash.DigestPair;
+import com.ghostxx.algotools.engine.hash.MatchRecord;
+import com.ghostxx.algotools.engine.keys.KeyMaterial;
 import com.ghostxx.algotools.model.AnalysisResult;
 import com.ghostxx.algotools.repository.HashRepository;
 import com.ghostxx.algotools.utils.HashCryptoUtils;
@@ -19,12 +27,16 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 哈希分析的ViewModel，负责处理与UI无关的业务逻辑
  */
 public class HashAnalysisViewModel extends AndroidViewModel {
     private static final String TAG = "HashAnalysisViewModel";
+    // 全部命中模式下结果中最多列出的副本数
+    private static final int MAX_REPORTED_MATCHES = 50;
     
     private final ExecutorService executorService;
     private final Handler mainHandler;
@@ -35,6 +47,7 @@ public class HashAnalysisViewModel extends AndroidViewModel {
     private final MutableLiveData<AnalysisResult> analysisResult = new MutableLiveData<>();
     private final MutableLiveData<String> statusMessage = new MutableLiveData<>();
     private final MutableLiveData<Integer> progressPercent = new MutableLiveData<>(0);
+    private final MutableLiveData<ScanProgress> scanProgress = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> lastFoundPlaintext = new MutableLiveData<>();
     
@@ -45,14 +58,37 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         hashRepository = new HashRepository(application);
         
         // 设置初始状态消息
-        statusMessage.setValue("请输入哈希值并点击分析按钮\n\n支持: MD5, SHA-1, SHA-256, SHA-384, SHA-512");
+        statusMessage.setValue("请输入哈希值并点击分析按钮\n\n支持: MD5, SHA-1, SHA-2, SHA-3, Keccak-256, SM3 及对应的HMAC");
     }
     
     /**
      * 启动哈希分析过程
      */
-    @SuppressLint("DefaultLocale")
     public void analyzeHash(String hashToAnalyze, String featureString) {
+        analyzeHash(hashToAnalyze, featureString, HashSearchOptions.plain());
+    }
+    
+    /**
+     * 按搜索选项启动分析过程
+     * @param hashToAnalyze 目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param options 搜索选项
+     */
+    public void analyzeHash(String hashToAnalyze, String featureString, HashSearchOptions options) {
+        analyzeHash(hashToAnalyze, featureString, options, false);
+    }
+    
+    /**
+     * 按搜索选项启动分析过程
+     * @param hashToAnalyze 目标值（哈希或HMAC）
+     * @param featureString 特征字符串（可选）
+     * @param options 搜索选项
+     * @param allMatches 是否查找原文的全部副本；为true时扫描完整个转储，找到第一处后立即显示，
+     *                   结果列出每一处副本的偏移、虚拟地址和所在内存区域
+     */
+    @SuppressLint("DefaultLocale")
+    public void analyzeHash(String hashToAnalyze, String featureString, HashSearchOptions options,
+                            boolean allMatches) {
         // 防止重复分析
         if (isAnalyzing.get()) {
             statusMessage.setValue("正在分析中，请稍候...");
@@ -65,8 +101,19 @@ public class HashAnalysisViewModel extends AndroidViewModel {
             return;
         }
         
+        // HMAC模式需要已知的消息或密钥
+        if (options == null) {
+            options = HashSearchOptions.plain();
+        }
+        if (options.isHmac() && options.getHmacKnownValue().isEmpty()) {
+            statusMessage.setValue("请输入HMAC的已知" + (options.getMode() == HashSearchOptions.Mode.HMAC_KNOWN_KEY
+                    ? "密钥" : "消息"));
+            return;
+        }
+        
         // 处理哈希值
-        hashToAnalyze = hashToAnalyze.trim().toLowerCase();
+        // 不转换大小写：Base64编码的目标区分大小写，十六进制在解码时不区分大小写
+        hashToAnalyze = hashToAnalyze.trim();
         
         // 识别哈希类型
         List<String> identifiedTypes = HashCryptoUtils.identifyHashType(hashToAnalyze);
@@ -81,13 +128,17 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         isAnalyzing.set(true);
         isLoading.setValue(true);
         progressPercent.setValue(0);
+        scanProgress.setValue(null);
         
-        String hashType = identifiedTypes.isEmpty() ? "MD5" : identifiedTypes.get(0);
-        statusMessage.setValue(String.format("%s\n准备在内存中查找原文...\n哈希类型: %s", 
-                                          statusInfo.toString(), hashType));
+        // 同长度的多种算法在一次扫描中一起尝试
+        String hashType = identifiedTypes.isEmpty() ? "MD5" : HashCryptoUtils.toSearchHashType(identifiedTypes);
+        String typeLabel = options.getResultType(hashType);
+        statusMessage.setValue(String.format("%s\n准备在内存中查找原文...\n哈希类型: %s\n搜索模式: %s", 
+                                          statusInfo.toString(), typeLabel, options.getDescription()));
         
         // 执行分析
         String finalHashToAnalyze = hashToAnalyze;
+        HashSearchOptions finalOptions = options;
         executorService.execute(() -> {
             try {
                 File dumpFile = hashRepository.getDumpFile();
@@ -95,45 +146,84 @@ public class HashAnalysisViewModel extends AndroidViewModel {
                     throw new IllegalStateException("未找到内存转储文件或文件为空，请先转储");
                 }
                 
+                // 识别过该转储的算法常量时，只搜索识别出的算法
+                String searchType = identifiedTypes.isEmpty() ? hashType : HashCryptoUtils.toSearchHashType(
+                        identifiedTypes, hashRepository.getDetectedHashTypes(dumpFile));
+                String searchLabel = finalOptions.getResultType(searchType);
+                if (!searchType.equals(hashType)) {
+                    statusMessage.postValue(String.format("%s\n准备在内存中查找原文...\n哈希类型: %s（按算法常量识别结果）\n搜索模式: %s",
+                            statusInfo.toString(), searchLabel, finalOptions.getDescription()));
+                }
+                
                 // 开始搜索
                 long startTime = System.currentTimeMillis();
-                String result = hashRepository.searchPlaintext(
-                    dumpFile,
-                        finalHashToAnalyze,
-                    featureString, 
-                    identifiedTypes.isEmpty() ? "MD5" : identifiedTypes.get(0),
-                    (current, total) -> {
-                        int percent = (int) ((current * 100) / total);
-                        // 避免过于频繁的更新，只在进度变化时更新
-                        if (percent != progressPercent.getValue()) {
-                            mainHandler.post(() -> progressPercent.setValue(percent));
-                        }
+                HashRepository.ProgressCallback progressCallback = new HashRepository.ProgressCallback() {
+                    @Override
+                    public void onProgressUpdate(long current, long total) {
+                        // 百分比由 onScanProgress 一并发布
                     }
-                );
+                    
+                    @Override
+                    public void onScanProgress(ScanProgress progress) {
+                        // 仓库已按10Hz节流，postValue在主线程处理前会合并多次更新
+                        progressPercent.postValue(progress.getPercent());
+                        scanProgress.postValue(progress);
+                    }
+                };
+                String result;
+                List<MatchRecord> records = null;
+                if (allMatches) {
+                    // 每处命中在工作线程中报告，第一处立即显示，之后只更新计数
+                    AtomicInteger matchCount = new AtomicInteger();
+                    AtomicReference<MatchRecord> firstMatch = new AtomicReference<>();
+                    records = hashRepository.searchAllMatches(dumpFile, finalHashToAnalyze, featureString,
+                            searchType, finalOptions, record -> {
+                                int count = matchCount.incrementAndGet();
+                                if (firstMatch.compareAndSet(null, record)) {
+                                    lastFoundPlaintext.postValue(record.getText());
+                                }
+                                statusMessage.postValue(String.format("已找到原文 %d 处，继续查找其他副本...\n↓↓↓↓↓↓↓↓\n %s",
+                                        count, firstMatch.get().getText()));
+                            }, progressCallback);
+                    result = records.isEmpty() ? null : records.get(0).getText();
+                } else {
+                    result = hashRepository.searchPlaintext(dumpFile, finalHashToAnalyze, featureString, searchType,
+                            finalOptions, progressCallback);
+                }
                 
                 long timeSpent = System.currentTimeMillis() - startTime;
+                ScanMetrics metrics = hashRepository.getLastMetrics();
+                String metricsSummary = formatMetrics(metrics);
                 
                 // 处理结果
                 if (result != null && !result.isEmpty()) {
                     // 保存原文到单独的LiveData中，用于复制
                     lastFoundPlaintext.postValue(result);
+                    String matchedType = hashRepository.getLastMatchedHashType();
+                    String matchedLabel = matchedType != null ? finalOptions.getResultType(matchedType) : searchLabel;
                     
+                    MatchRecord match = hashRepository.getLastMatch();
+                    String matchReport = records != null ? buildMatchReport(records)
+                            : match != null && !match.isValidUtf8() ? "原文不是合法的UTF-8，无效字节显示为替换字符\n" : "";
                     mainHandler.post(() -> {
                         // 设置分析结果
-                        analysisResult.setValue(new AnalysisResult(true, result, timeSpent));
+                        analysisResult.setValue(new AnalysisResult(true, result, timeSpent).withMetrics(metrics));
                         
                         // 设置状态消息，包含分析信息但不包含原文
-                        statusMessage.setValue(String.format("哈希类型: %s\n↓↓↓↓↓↓↓↓\n %s\n处理用时: %.2f秒", 
-                            identifiedTypes.isEmpty() ? "MD5" : identifiedTypes.get(0),
+                        statusMessage.setValue(String.format("哈希类型: %s\n↓↓↓↓↓↓↓↓\n %s\n%s处理用时: %.2f秒%s", 
+                            matchedLabel,
                             result,
-                            timeSpent / 1000.0));
+                            matchReport,
+                            timeSpent / 1000.0,
+                            metricsSummary));
                     });
                 } else {
                     mainHandler.post(() -> {
-                        analysisResult.setValue(new AnalysisResult(false, null, timeSpent));
-                        statusMessage.setValue(String.format("未找到匹配的原文。\n哈希类型: %s\n处理用时: %.2f秒", 
-                            identifiedTypes.isEmpty() ? "MD5" : identifiedTypes.get(0),
-                            timeSpent / 1000.0));
+                        analysisResult.setValue(new AnalysisResult(false, null, timeSpent).withMetrics(metrics));
+                        statusMessage.setValue(String.format("未找到匹配的原文。\n哈希类型: %s\n处理用时: %.2f秒%s", 
+                            searchLabel,
+                            timeSpent / 1000.0,
+                            metricsSummary));
                     });
                 }
             } catch (Exception e) {
@@ -150,6 +240,281 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         });
     }
     
+    /**
+     * 生成扫描指标的摘要：扫描速度、计算的哈希数和耗时最长的阶段，没有指标时返回空字符串
+     */
+    @SuppressLint("DefaultLocale")
+    private static String formatMetrics(ScanMetrics metrics) {
+        if (metrics == null || metrics.getWallTimeNanos() <= 0) {
+            return "";
+        }
+        double mbPerSecond = metrics.getBytesScanned() / (1024.0 * 1024.0) / (metrics.getWallTimeNanos() / 1e9);
+        return String.format("\n扫描速度: %.1f MB/s，计算哈希 %d 次，主要耗时: %s",
+                mbPerSecond, metrics.getHashesComputed(), metrics.getDominantStage());
+    }
+    
+    /**
+     * 生成全部命中的报告：每处副本的偏移、虚拟地址和所在内存区域
+     */
+    @SuppressLint("DefaultLocale")
+    private String buildMatchReport(List<MatchRecord> records) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("共找到 %d 处副本:\n", records.size()));
+        String firstText = records.get(0).getText();
+        int shown = Math.min(records.size(), MAX_REPORTED_MATCHES);
+        for (int i = 0; i < shown; i++) {
+            MatchRecord record = records.get(i);
+            report.append(String.format("%d. 偏移 0x%x", i + 1, record.getOffset()));
+            if (record.getAddress() >= 0) {
+                report.append(String.format(" 地址 0x%x", record.getAddress()));
+            }
+            if (record.getRegion() != null) {
+                report.append(" ").append(record.getRegion());
+            }
+            if (!record.isValidUtf8()) {
+                report.append(" (非UTF-8)");
+            }
+            if (!record.getText().equals(firstText)) {
+                report.append("\n   ").append(record.getText());
+            }
+            report.append('\n');
+        }
+        if (records.size() > shown) {
+            report.append(String.format("... 另有 %d 处未列出\n", records.size() - shown));
+        }
+        return report.toString();
+    }
+    
+    /**
+     * 自动破解：把转储中找到的所有十六进制摘要与转储自身的字符串连接
+     * 不需要输入哈希值，结果列出所有找到的摘要和原文
+     */
+    @SuppressLint("DefaultLocale")
+    public void autoCrack() {
+        if (isAnalyzing.get()) {
+            statusMessage.setValue("正在分析中，请稍候...");
+            return;
+        }
+        
+        isAnalyzing.set(true);
+        isLoading.setValue(true);
+        progressPercent.setValue(0);
+        scanProgress.setValue(null);
+        statusMessage.setValue("自动破解：先收集转储中的十六进制摘要，再用转储中的字符串计算哈希...");
+        
+        executorService.execute(() -> {
+            try {
+                File dumpFile = hashRepository.getDumpFile();
+                if (dumpFile == null) {
+                    throw new IllegalStateException("未找到内存转储文件或文件为空，请先转储");
+                }
+                
+                long startTime = System.currentTimeMillis();
+                List<DigestPair> pairs = hashRepository.autoCrack(dumpFile, new HashRepository.ProgressCallback() {
+                    @Override
+                    public void onProgressUpdate(long current, long total) {
+                        // 百分比由 onScanProgress 一并发布
+                    }
+                    
+                    @Override
+                    public void onScanProgress(ScanProgress progress) {
+                        progressPercent.postValue(progress.getPercent());
+                        scanProgress.postValue(progress);
+                    }
+                });
+                long timeSpent = System.currentTimeMillis() - startTime;
+                
+                StringBuilder report = new StringBuilder();
+                StringBuilder plaintexts = new StringBuilder();
+                for (DigestPair pair : pairs) {
+                    report.append(pair.getHashType()).append(": ").append(pair.getDigestHex())
+                            .append("\n↓ ").append(pair.getPlaintext()).append("\n\n");
+                    plaintexts.append(pair.getHashType()).append('\t').append(pair.getDigestHex())
+                            .append('\t').append(pair.getPlaintext()).append('\n');
+                }
+                if (!pairs.isEmpty()) {
+                    lastFoundPlaintext.postValue(plaintexts.toString());
+                }
+                
+                mainHandler.post(() -> {
+                    analysisResult.setValue(new AnalysisResult(!pairs.isEmpty(),
+                            pairs.isEmpty() ? null : plaintexts.toString(), timeSpent));
+                    statusMessage.setValue(pairs.isEmpty()
+                            ? String.format("自动破解完成，未找到摘要对应的原文。\n处理用时: %.2f秒", timeSpent / 1000.0)
+                            : String.format("自动破解找到 %d 个原文:\n\n%s处理用时: %.2f秒",
+                                    pairs.size(), report, timeSpent / 1000.0));
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> statusMessage.setValue("错误: " + e.getMessage()));
+            } finally {
+                isAnalyzing.set(false);
+                mainHandler.post(() -> {
+                    isLoading.setValue(false);
+                    progressPercent.setValue(0);
+                });
+            }
+        });
+    }
+    
+    /**
+     * 通过常量表识别转储中使用的算法
+     * 结果按得分排序，列出每种算法命中的特征和位置；识别出哈希算法后，查找原文时只搜索这些算法
+     */
+    @SuppressLint("DefaultLocale")
+    public void detectAlgorithms() {
+        if (isAnalyzing.get()) {
+            statusMessage.setValue("正在分析中，请稍候...");
+            return;
+        }
+        
+        isAnalyzing.set(true);
+        isLoading.setValue(true);
+        progressPercent.setValue(0);
+        scanProgress.setValue(null);
+        statusMessage.setValue("正在扫描转储中的算法常量（MD5/SHA/SM3/AES/SM4/CRC等）...");
+        
+        executorService.execute(() -> {
+            try {
+                File dumpFile = hashRepository.getDumpFile();
+                if (dumpFile == null) {
+                    throw new IllegalStateException("未找到内存转储文件或文件为空，请先转储");
+                }
+                
+                long startTime = System.currentTimeMillis();
+                List<AlgorithmFingerprint> fingerprints = hashRepository.detectAlgorithms(dumpFile,
+                        new HashRepository.ProgressCallback() {
+                            @Override
+                            public void onProgressUpdate(long current, long total) {
+                                // 百分比由 onScanProgress 一并发布
+                            }
+                            
+                            @Override
+                            public void onScanProgress(ScanProgress progress) {
+                                progressPercent.postValue(progress.getPercent());
+                                scanProgress.postValue(progress);
+                            }
+                        });
+                long timeSpent = System.currentTimeMillis() - startTime;
+                
+                StringBuilder report = new StringBuilder();
+                StringBuilder names = new StringBuilder();
+                for (AlgorithmFingerprint fingerprint : fingerprints) {
+                    report.append(String.format("%s  得分 %d（%d 个特征，%d 处命中）\n",
+                            fingerprint.getAlgorithm().getDisplayName(), fingerprint.getScore(),
+                            fingerprint.getSignatureCount(), fingerprint.getHitCount()));
+                    // 每种算法只列出前几处命中
+                    List<ConstantHit> hits = fingerprint.getHits();
+                    for (int i = 0; i < Math.min(3, hits.size()); i++) {
+                        ConstantHit hit = hits.get(i);
+                        report.append(String.format("  0x%x  %s%s\n", hit.getOffset(), hit.getSignatureName(),
+                                hit.getByteOrder() != null ? " (" + hit.getByteOrder() + ")" : ""));
+                    }
+                    report.append('\n');
+                    names.append(fingerprint.getAlgorithm().getDisplayName()).append('\n');
+                }
+                List<String> hashTypes = hashRepository.getDetectedHashTypes(dumpFile);
+                if (hashTypes != null && !hashTypes.isEmpty()) {
+                    report.append("查找原文时只搜索: ").append(String.join(", ", hashTypes)).append('\n');
+                }
+                if (!fingerprints.isEmpty()) {
+                    lastFoundPlaintext.postValue(names.toString());
+                }
+                
+                mainHandler.post(() -> {
+                    analysisResult.setValue(new AnalysisResult(!fingerprints.isEmpty(),
+                            fingerprints.isEmpty() ? null : names.toString(), timeSpent));
+                    statusMessage.setValue(fingerprints.isEmpty()
+                            ? String.format("未找到已知的算法常量。\n处理用时: %.2f秒", timeSpent / 1000.0)
+                            : String.format("识别出 %d 种算法:\n\n%s处理用时: %.2f秒",
+                                    fingerprints.size(), report, timeSpent / 1000.0));
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> statusMessage.setValue("错误: " + e.getMessage()));
+            } finally {
+                isAnalyzing.set(false);
+                mainHandler.post(() -> {
+                    isLoading.setValue(false);
+                    progressPercent.setValue(0);
+                });
+            }
+        });
+    }
+    
+    /**
+     * 扫描转储中的密钥材料（AES轮密钥、RSA/EC私钥、PEM私钥）
+     * 不需要输入哈希值，复制内容为每行一个密钥的制表符分隔文本
+     */
+    @SuppressLint("DefaultLocale")
+    public void scanKeys() {
+        if (isAnalyzing.get()) {
+            statusMessage.setValue("正在分析中，请稍候...");
+            return;
+        }
+        
+        isAnalyzing.set(true);
+        isLoading.setValue(true);
+        progressPercent.setValue(0);
+        scanProgress.setValue(null);
+        statusMessage.setValue("正在扫描转储中的AES轮密钥和RSA/EC私钥...");
+        
+        executorService.execute(() -> {
+            try {
+                File dumpFile = hashRepository.getDumpFile();
+                if (dumpFile == null) {
+                    throw new IllegalStateException("未找到内存转储文件或文件为空，请先转储");
+                }
+                
+                long startTime = System.currentTimeMillis();
+                List<KeyMaterial> keys = hashRepository.scanKeys(dumpFile, new HashRepository.ProgressCallback() {
+                    @Override
+                    public void onProgressUpdate(long current, long total) {
+                        // 百分比由 onScanProgress 一并发布
+                    }
+                    
+                    @Override
+                    public void onScanProgress(ScanProgress progress) {
+                        progressPercent.postValue(progress.getPercent());
+                        scanProgress.postValue(progress);
+                    }
+                });
+                long timeSpent = System.currentTimeMillis() - startTime;
+                
+                StringBuilder report = new StringBuilder();
+                StringBuilder keyLines = new StringBuilder();
+                for (KeyMaterial key : keys) {
+                    report.append(String.format("0x%x  %s  (%d 字节)\n", key.getOffset(), key.getDescription(),
+                            key.getLength()));
+                    keyLines.append(key.getType()).append('\t').append(String.format("0x%x", key.getOffset()))
+                            .append('\t').append(key.getKeyHex()).append('\n');
+                    if (key.isAesKey()) {
+                        report.append("↓ ").append(key.getKeyHex()).append('\n');
+                    }
+                    report.append('\n');
+                }
+                if (!keys.isEmpty()) {
+                    lastFoundPlaintext.postValue(keyLines.toString());
+                }
+                
+                mainHandler.post(() -> {
+                    analysisResult.setValue(new AnalysisResult(!keys.isEmpty(),
+                            keys.isEmpty() ? null : keyLines.toString(), timeSpent));
+                    statusMessage.setValue(keys.isEmpty()
+                            ? String.format("密钥扫描完成，未找到密钥材料。\n处理用时: %.2f秒", timeSpent / 1000.0)
+                            : String.format("找到 %d 个密钥:\n\n%s处理用时: %.2f秒",
+                                    keys.size(), report, timeSpent / 1000.0));
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> statusMessage.setValue("错误: " + e.getMessage()));
+            } finally {
+                isAnalyzing.set(false);
+                mainHandler.post(() -> {
+                    isLoading.setValue(false);
+                    progressPercent.setValue(0);
+                });
+            }
+        });
+    }
+    
     /**
      * 构建初始状态信息
      */
@@ -160,6 +525,8 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         } else {
             status.append("当前CPU核心数: ").append(HashCryptoUtils.getAvailableProcessors()).append("\n");
             status.append("当前线程数: ").append(HashCryptoUtils.getThreadCount()).append("\n");
+            status.append("哈希引擎: ").append(HashCryptoUtils.isNativeAvailable() ? "原生" : "Java(原生库不可用)")
+                    .append("\n");
         }
         return status;
     }
@@ -168,16 +535,10 @@ public class HashAnalysisViewModel extends AndroidViewModel {
      * 检查是否可以分析该哈希类型
      */
     private boolean canCrackHash(String hash, List<String> types, StringBuilder status) {
-        boolean canCrackMD5 = types.contains("MD5") && hash.length() == 32;
-        boolean canCrackSHA1 = types.contains("SHA-1") && hash.length() == 40;
-        boolean canCrackSHA256 = types.contains("SHA-256") && hash.length() == 64;
-        boolean canCrackSHA384 = types.contains("SHA-384") && hash.length() == 96;
-        boolean canCrackSHA512 = types.contains("SHA-512") && hash.length() == 128;
-
-        if (!canCrackMD5 && !canCrackSHA1 && !canCrackSHA256 && !canCrackSHA384 && !canCrackSHA512) {
-            status.append(types.isEmpty() ? 
-                "当前仅支持MD5, SHA-1, SHA-256, SHA-384和SHA-512原文查找。" :
-                "\n注意: 当前仅支持MD5, SHA-1, SHA-256, SHA-384和SHA-512原文查找。");
+        // 识别结果已包含十六进制、Base64和截断的摘要
+        if (types.isEmpty()) {
+            status.append("当前仅支持MD5, SHA-1, SHA-2, SHA-3, Keccak-256和SM3原文查找"
+                    + "（十六进制、Base64或截断的摘要）。");
             return false;
         }
         return true;
@@ -209,6 +570,13 @@ public class HashAnalysisViewModel extends AndroidViewModel {
         return progressPercent;
     }
     
+    /**
+     * 获取扫描进度详情（吞吐量、候选数、哈希速度、预计剩余时间）
+     */
+    public LiveData<ScanProgress> getScanProgress() {
+        return scanProgress;
+    }
+    
     public LiveData<Boolean> getIsLoading() {
         return isLoading;
     }
@@ -0,0 +1,190 @@
+package com.ghostxx.algotools.engine;
+
+import com.ghostxx.algotools.engine.synthetic.SyntheticDumpGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件处理引擎基准测试
+ * 在合成的内存转储文件上测量不同块大小、重叠区域、线程数、读取方式和处理器类型下处理整个文件的耗时。
+ * 每次操作处理 dumpSizeMb 大小的文件，吞吐量(MB/s) = dumpSizeMb / 每次操作的秒数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileProcessingEngineBenchmark {
+
+    @Param({"64"})
+    public int dumpSizeMb;
+
+    @Param({"1024", "4096", "16384"})
+    public int chunkSizeKb;
+
+    @Param({"0", "128"})
+    public int overlapKb;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    /**
+     * MMAP: 工作线程各自映射数据块；READ_AHEAD: 读取线程顺序读取到缓冲池
+     */
+    @Param({"MMAP", "READ_AHEAD"})
+    public String ioMode;
+
+    /**
+     * noop: 只测I/O和调度；scan: 逐字节扫描可打印字符；extract-md5: 提取候选字符串并计算MD5
+     */
+    @Param({"noop", "scan", "extract-md5"})
+    public String processor;
+
+    private File dumpFile;
+    private FileProcessingEngine engine;
+    private FileChunkProcessor chunkProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dumpFile = File.createTempFile("engine-bench", ".bin");
+        new SyntheticDumpGenerator()
+                .setSize((long) dumpSizeMb * 1024 * 1024)
+                .setBinaryRatio(0.2)
+                .setLengthDistribution(SyntheticDumpGenerator.LengthDistribution.MIXED)
+                .setDuplicateRate(0.3)
+                .setSeed(20240601L)
+                .generate(dumpFile);
+
+        engine = new FileProcessingEngine()
+                .setChunkSize(chunkSizeKb * 1024)
+                .setOverlapSize(overlapKb * 1024)
+                .setThreadCount(threads)
+                .setIoMode(FileProcessingEngine.IoMode.valueOf(ioMode));
+        chunkProcessor = createProcessor(processor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dumpFile != null && !dumpFile.delete()) {
+            dumpFile.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public String processFile() throws IOException {
+        return engine.processFile(dumpFile, chunkProcessor, null);
+    }
+
+    private static FileChunkProcessor createProcessor(String type) {
+        switch (type) {
+            case "noop":
+                return new NoopProcessor();
+            case "scan":
+                return new PrintableScanProcessor();
+            case "extract-md5":
+                return new ExtractMd5Processor();
+            default:
+                throw new IllegalArgumentException("未知的处理器类型: " + type);
+        }
+    }
+
+    private static boolean isPrintable(int c) {
+        return (c >= 32 && c <= 126) || c == 9 || c == 10 || c == 13 || c >= 128;
+    }
+
+    /**
+     * 不做任何处理
+     */
+    static final class NoopProcessor implements FileChunkProcessor {
+        @Override
+        public String processChunk(byte[] data, int dataSize) {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "noop";
+        }
+    }
+
+    /**
+     * 逐字节统计可打印字符，模拟候选提取的扫描开销
+     */
+    static final class PrintableScanProcessor implements FileChunkProcessor {
+        @Override
+        public String processChunk(byte[] data, int dataSize) {
+            int printable = 0;
+            for (int i = 0; i < dataSize; i++) {
+                if (isPrintable(data[i] & 0xFF)) {
+                    printable++;
+                }
+            }
+            return printable < 0 ? "" : null;
+        }
+
+        @Override
+        public String getName() {
+            return "scan";
+        }
+    }
+
+    /**
+     * 提取长度不小于2的可打印字符串并计算MD5，目标哈希不存在，因此会处理完整个文件
+     */
+    static final class ExtractMd5Processor implements FileChunkProcessor {
+        private static final byte[] MISSING_DIGEST = new byte[16];
+
+        private final ThreadLocal<MessageDigest> digests = new ThreadLocal<MessageDigest>() {
+            @Override
+            protected MessageDigest initialValue() {
+                try {
+                    return MessageDigest.getInstance("MD5");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        @Override
+        public String processChunk(byte[] data, int dataSize) {
+            MessageDigest md5 = digests.get();
+            int start = -1;
+            for (int i = 0; i <= dataSize; i++) {
+                boolean printable = i < dataSize && isPrintable(data[i] & 0xFF);
+                if (printable) {
+                    if (start < 0) {
+                        start = i;
+                    }
+                } else if (start >= 0) {
+                    if (i - start >= 2) {
+                        md5.update(data, start, i - start);
+                        if (Arrays.equals(md5.digest(), MISSING_DIGEST)) {
+                            return new String(data, start, i - start);
+                        }
+                    }
+                    start = -1;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "extract-md5";
+        }
+    }
+} 
\ No newline at end of file
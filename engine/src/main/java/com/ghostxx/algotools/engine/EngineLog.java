@@ -0,0 +1,76 @@
+package com.ghostxx.algotools.engine;
+
+/**
+ * 引擎日志
+ * 引擎模块不依赖Android，日志通过可替换的 {@link Logger} 输出。
+ * 默认实现丢弃调试日志，警告和错误输出到标准错误；应用启动时安装转发到logcat的实现。
+ */
+public final class EngineLog {
+
+    /**
+     * 日志输出接口
+     */
+    public interface Logger {
+        void d(String tag, String message);
+
+        void w(String tag, String message, Throwable throwable);
+
+        void e(String tag, String message, Throwable throwable);
+    }
+
+    private static final Logger STDERR_LOGGER = new Logger() {
+        @Override
+        public void d(String tag, String message) {
+        }
+
+        @Override
+        public void w(String tag, String message, Throwable throwable) {
+            print("W", tag, message, throwable);
+        }
+
+        @Override
+        public void e(String tag, String message, Throwable throwable) {
+            print("E", tag, message, throwable);
+        }
+
+        private void print(String level, String tag, String message, Throwable throwable) {
+            System.err.println(level + "/" + tag + ": " + message);
+            if (throwable != null) {
+                throwable.printStackTrace();
+            }
+        }
+    };
+
+    private static volatile Logger logger = STDERR_LOGGER;
+
+    private EngineLog() {
+    }
+
+    /**
+     * 设置日志输出实现
+     * @param newLogger 日志实现，为null时恢复默认的标准错误输出
+     */
+    public static void setLogger(Logger newLogger) {
+        logger = newLogger != null ? newLogger : STDERR_LOGGER;
+    }
+
+    public static void d(String tag, String message) {
+        logger.d(tag, message);
+    }
+
+    public static void w(String tag, String message) {
+        logger.w(tag, message, null);
+    }
+
+    public static void w(String tag, String message, Throwable throwable) {
+        logger.w(tag, message, throwable);
+    }
+
+    public static void e(String tag, String message) {
+        logger.e(tag, message, null);
+    }
+
+    public static void e(String tag, String message, Throwable throwable) {
+        logger.e(tag, message, throwable);
+    }
+} 
\ No newline at end of file
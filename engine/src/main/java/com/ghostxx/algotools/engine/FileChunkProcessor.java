@@ -0,0 +1,84 @@
+package com.ghostxx.algotools.engine;
+
+import com.ghostxx.algotools.engine.hash.MatchRecord;
+
+/**
+ * 文件块处理器接口
+ * 定义数据块处理的标准行为。
+ * 数据数组的长度可能大于有效数据大小，且在 processChunk 返回后会被引擎重用于其他数据块，
+ * 处理器只能读取前 dataSize 个字节，需要保留的内容必须复制。
+ */
+public interface FileChunkProcessor {
+    /**
+     * 处理数据块
+     * @param data 数据字节数组
+     * @param dataSize 有效数据大小
+     * @return 处理结果，如果未找到结果则返回null
+     */
+    String processChunk(byte[] data, int dataSize);
+    
+    /**
+     * 处理数据块，并提供数据块在文件中的位置
+     * 需要记录命中位置的处理器覆盖此方法，默认忽略位置信息
+     * @param data 数据字节数组
+     * @param dataSize 有效数据大小
+     * @param fileIndex 文件在输入列表中的下标
+     * @param fileOffset data[0] 在文件中的偏移（包含与上一块的重叠区域）
+     * @return 处理结果，如果未找到结果则返回null
+     */
+    default String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        return processChunk(data, dataSize);
+    }
+    
+    /**
+     * 处理数据块，返回结果及产生它的命中记录
+     * 引擎通过此方法处理数据块。向 {@link com.ghostxx.algotools.engine.hash.MatchStream} 报告命中的处理器覆盖此方法，
+     * 把返回的原文对应的那条记录交给引擎，调用方不必再按文本查找记录；默认调用带位置的 processChunk，结果不带记录
+     * @param data 数据字节数组
+     * @param dataSize 有效数据大小
+     * @param fileIndex 文件在输入列表中的下标
+     * @param fileOffset data[0] 在文件中的偏移（包含与上一块的重叠区域）
+     * @return 处理结果，如果未找到结果则返回null
+     */
+    default ChunkResult processChunkResult(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        String result = processChunk(data, dataSize, fileIndex, fileOffset);
+        return result != null ? new ChunkResult(result, null) : null;
+    }
+    
+    /**
+     * 获取块处理器的名称（用于日志）
+     * @return 处理器名称
+     */
+    String getName();
+    
+    /**
+     * 数据块的处理结果
+     */
+    final class ChunkResult {
+        private final String result;
+        private final MatchRecord record;
+        
+        /**
+         * @param result 处理结果
+         * @param record 产生结果的命中记录，没有时为null
+         */
+        public ChunkResult(String result, MatchRecord record) {
+            this.result = result;
+            this.record = record;
+        }
+        
+        /**
+         * 获取处理结果
+         */
+        public String getResult() {
+            return result;
+        }
+        
+        /**
+         * 获取产生结果的命中记录，处理器没有报告命中时为null
+         */
+        public MatchRecord getRecord() {
+            return record;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,880 @@
+package com.ghostxx.algotools.engine;
+
+import com.ghostxx.algotools.engine.hash.MatchRecord;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文件处理引擎
+ * 提供高效的文件读取和处理功能，支持多线程并行处理大文件，
+ * 也支持在同一个线程池中并行处理多个文件。
+ * 数据块有两种读取方式（{@link IoMode}）：工作线程各自内存映射并复制数据块，
+ * 或由一个读取线程按顺序大块读取到可重用的缓冲区中，领先于工作线程（预读流水线），
+ * 后者用于FUSE等缺页代价高的存储，读取与处理互不阻塞。
+ * 引擎只依赖JDK，日志通过 {@link EngineLog} 输出，可以脱离Android在桌面JVM上运行和调优
+ */
+public class FileProcessingEngine {
+    private static final String TAG = "FileProcessingEngine";
+    
+    // 默认配置
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024; // 4MB
+    private static final int DEFAULT_OVERLAP_SIZE = 128 * 1024; // 128KB
+    private static final int DEFAULT_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+    // 最大线程数限制，核心数更多的设备上允许使用所有核心
+    private static final int MAX_THREADS = Math.max(8, DEFAULT_THREAD_COUNT);
+    // 预读流水线中除每个工作线程一个缓冲区之外，读取线程最多领先的块数
+    private static final int READ_AHEAD_DEPTH = 2;
+    
+    // 可配置参数
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int overlapSize = DEFAULT_OVERLAP_SIZE;
+    private int threadCount = Math.min(DEFAULT_THREAD_COUNT, MAX_THREADS);
+    private IoMode ioMode = IoMode.AUTO;
+    private IoAdvisor ioAdvisor;
+    private volatile ChunkListener chunkListener;
+    // 实际并发的线程数，0表示与threadCount相同；处理过程中可由 setActiveThreadCount 调整
+    private volatile int activeThreadCount;
+    
+    // 运行时状态
+    private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
+    private final AtomicLong processedBytes = new AtomicLong(0);
+    private final AtomicBoolean resultFound = new AtomicBoolean(false);
+    private final Map<Thread, WorkerStats> workerStats = new ConcurrentHashMap<>();
+    private volatile RunStats lastRunStats;
+    private volatile WorkerStats readerStats;
+    private volatile ThreadPoolExecutor runningExecutor;
+    
+    /**
+     * 设置块大小（字节）
+     * @param chunkSize 块大小
+     * @return this (链式调用)
+     */
+    public FileProcessingEngine setChunkSize(int chunkSize) {
+        if (chunkSize > 0) {
+            this.chunkSize = chunkSize;
+        }
+        return this;
+    }
+    
+    /**
+     * 设置重叠区域大小（字节）
+     * @param overlapSize 重叠区域大小
+     * @return this (链式调用)
+     */
+    public FileProcessingEngine setOverlapSize(int overlapSize) {
+        if (overlapSize >= 0 && overlapSize < chunkSize) {
+            this.overlapSize = overlapSize;
+        }
+        return this;
+    }
+    
+    /**
+     * 设置线程数
+     * @param threadCount 线程数
+     * @return this (链式调用)
+     */
+    public FileProcessingEngine setThreadCount(int threadCount) {
+        if (threadCount > 0) {
+            this.threadCount = Math.min(threadCount, MAX_THREADS);
+        }
+        return this;
+    }
+    
+    /**
+     * 获取块大小（字节）
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * 获取线程数，即处理过程中可以使用的最大并发数
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+    
+    /**
+     * 设置实际并发的线程数
+     * 可以在处理过程中从任意线程调用，立即调整正在运行的线程池：
+     * 增加时为排队的数据块启动新线程，减少时多出的线程处理完当前块后退出
+     * @param count 线程数，限制在1到 {@link #getThreadCount()} 之间
+     */
+    public void setActiveThreadCount(int count) {
+        int active = Math.max(1, Math.min(count, threadCount));
+        activeThreadCount = active;
+        ThreadPoolExecutor executor = runningExecutor;
+        if (executor != null) {
+            resizePool(executor, active);
+        }
+    }
+    
+    /**
+     * 获取实际并发的线程数
+     */
+    public int getActiveThreadCount() {
+        int active = activeThreadCount;
+        return active > 0 ? Math.min(active, threadCount) : threadCount;
+    }
+    
+    /**
+     * 设置数据块监听器（可选），每处理完一个数据块在工作线程中调用，用于在运行中测量吞吐量
+     * @return this (链式调用)
+     */
+    public FileProcessingEngine setChunkListener(ChunkListener chunkListener) {
+        this.chunkListener = chunkListener;
+        return this;
+    }
+    
+    /**
+     * 设置数据块的读取方式
+     * @param ioMode 读取方式，默认按文件所在的文件系统自动选择
+     * @return this (链式调用)
+     */
+    public FileProcessingEngine setIoMode(IoMode ioMode) {
+        if (ioMode != null) {
+            this.ioMode = ioMode;
+        }
+        return this;
+    }
+    
+    /**
+     * 设置页缓存提示（可选），预读流水线通过它让内核提前读入下一块、丢弃已读入缓冲区的页
+     * @param ioAdvisor 页缓存提示，为null时不提示
+     * @return this (链式调用)
+     */
+    public FileProcessingEngine setIoAdvisor(IoAdvisor ioAdvisor) {
+        this.ioAdvisor = ioAdvisor;
+        return this;
+    }
+    
+    /**
+     * 请求取消操作
+     */
+    public void cancelOperation() {
+        cancelRequested.set(true);
+    }
+    
+    /**
+     * 最近一次处理是否被取消
+     * 需要连续执行多遍处理的调用方在每一遍之后检查，取消后不再开始下一遍
+     */
+    public boolean isCancelled() {
+        return cancelRequested.get();
+    }
+    
+    /**
+     * 重置状态
+     */
+    private void resetState() {
+        cancelRequested.set(false);
+        processedBytes.set(0);
+        resultFound.set(false);
+        workerStats.clear();
+        readerStats = null;
+    }
+    
+    /**
+     * 获取最近一次处理的运行统计（I/O耗时、处理耗时、每个线程的忙碌/空闲时间）
+     * @return 运行统计，尚未处理过文件时返回null
+     */
+    public RunStats getLastRunStats() {
+        return lastRunStats;
+    }
+    
+    /**
+     * 处理文件
+     * @param file 要处理的文件
+     * @param processor 块处理器
+     * @param progressCallback 进度回调
+     * @return 处理结果，如果未找到则返回null
+     * @throws IOException 如果文件处理出错
+     */
+    public String processFile(File file, FileChunkProcessor processor, ProgressCallback progressCallback) 
+            throws IOException {
+        FileResult fileResult = processFiles(Collections.singletonList(file), processor, progressCallback);
+        return fileResult != null ? fileResult.getResult() : null;
+    }
+    
+    /**
+     * 并行处理多个文件
+     * 所有文件的数据块提交到同一个线程池，任一块得到结果后其余任务尽快停止。
+     * 进度按所有文件的总字节数汇报。返回前等待所有工作线程结束，返回后块处理器不会再被调用。
+     * @param files 要处理的文件列表
+     * @param processor 块处理器（在所有文件之间共享，必须线程安全）
+     * @param progressCallback 进度回调
+     * @return 处理结果及其来源文件，如果未找到则返回null
+     * @throws IOException 如果文件处理出错
+     */
+    public FileResult processFiles(List<File> files, FileChunkProcessor processor, 
+                                   ProgressCallback progressCallback) throws IOException {
+        resetState();
+        
+        long totalSize = 0;
+        for (File file : files) {
+            totalSize += file.length();
+        }
+        EngineLog.d(TAG, String.format("开始处理 %d 个文件 (总大小: %.2f MB), 使用 %d 个线程",
+                files.size(), totalSize / (1024.0 * 1024.0), threadCount));
+        
+        long startNanos = System.nanoTime();
+        int activeThreads = getActiveThreadCount();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(activeThreads, activeThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        runningExecutor = executor;
+        CompletionService<FileResult> completionService = new ExecutorCompletionService<>(executor);
+        List<FileChannel> channels = new ArrayList<>();
+        List<ReadAheadFile> readAheadFiles = new ArrayList<>();
+        Thread reader = null;
+        int submitted = 0;
+        
+        try {
+            // 为每个文件打开通道并提交所有块处理任务
+            for (int fileIndex = 0; fileIndex < files.size(); fileIndex++) {
+                File file = files.get(fileIndex);
+                long fileSize = file.length();
+                if (fileSize <= 0) {
+                    continue;
+                }
+                
+                FileChannel channel = new FileInputStream(file).getChannel();
+                channels.add(channel);
+                
+                int totalChunks = (int) ((fileSize + chunkSize - 1) / chunkSize);
+                IoMode mode = resolveIoMode(file);
+                EngineLog.d(TAG, "文件 " + file.getName() + " 分为 " + totalChunks + " 个块进行处理，读取方式: " + mode);
+                
+                if (mode == IoMode.READ_AHEAD) {
+                    // 由读取线程按顺序读取并提交
+                    readAheadFiles.add(new ReadAheadFile(fileIndex, file, channel, fileSize, totalChunks));
+                    submitted += totalChunks;
+                    continue;
+                }
+                for (int i = 0; i < totalChunks; i++) {
+                    completionService.submit(createChunkTask(fileIndex, file, channel, fileSize, i,
+                            totalSize, processor, progressCallback));
+                    submitted++;
+                }
+            }
+            if (!readAheadFiles.isEmpty()) {
+                reader = startReader(readAheadFiles, completionService, totalSize, processor, progressCallback);
+            }
+            
+            // 按完成顺序收集结果，找到第一个结果后立即返回
+            for (int i = 0; i < submitted; i++) {
+                if (cancelRequested.get()) {
+                    break;
+                }
+                try {
+                    FileResult chunkResult = completionService.take().get();
+                    if (chunkResult != null) {
+                        return chunkResult;
+                    }
+                } catch (ExecutionException e) {
+                    EngineLog.e(TAG, "等待任务完成时出错", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            
+            return null;
+            
+        } finally {
+            // 先停止读取线程，它可能正等待工作线程归还缓冲区
+            boolean interrupted = false;
+            if (reader != null) {
+                reader.interrupt();
+                while (reader.isAlive()) {
+                    try {
+                        reader.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            // 关闭线程池，等所有工作线程退出后才返回：块处理器可能仍在不响应中断的原生代码中
+            // 使用调用方的资源（如原生搜索会话），调用方在返回后就会释放这些资源
+            runningExecutor = null;
+            executor.shutdownNow();
+            interrupted |= awaitTermination(executor);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (FileChannel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    EngineLog.w(TAG, "关闭文件通道失败", e);
+                }
+            }
+            lastRunStats = new RunStats(System.nanoTime() - startNanos, processedBytes.get(),
+                    new ArrayList<>(workerStats.values()), readerStats);
+        }
+    }
+    
+    /**
+     * 等待线程池中的所有任务结束，不设超时，等待期间被中断时继续等待
+     * @return 等待期间是否被中断，由调用方恢复中断状态
+     */
+    private static boolean awaitTermination(ThreadPoolExecutor executor) {
+        boolean interrupted = false;
+        boolean logged = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    return interrupted;
+                }
+                if (!logged) {
+                    EngineLog.w(TAG, "等待工作线程处理完当前数据块");
+                    logged = true;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+    
+    /**
+     * 创建单个数据块的处理任务
+     */
+    private Callable<FileResult> createChunkTask(int fileIndex, File file, FileChannel channel, long fileSize,
+                                                 int chunkIndex, long totalSize, FileChunkProcessor processor,
+                                                 ProgressCallback progressCallback) {
+        long position = (long) chunkIndex * chunkSize;
+        int currentChunkSize = (int) Math.min(chunkSize, fileSize - position);
+        
+        return () -> {
+            if (cancelRequested.get() || resultFound.get()) {
+                return null; // 已经取消或找到结果
+            }
+            
+            WorkerStats stats = currentWorkerStats();
+            long taskStart = System.nanoTime();
+            
+            try {
+                // 计算实际处理范围（包括重叠）
+                long actualPosition = Math.max(0, position - (chunkIndex > 0 ? overlapSize : 0));
+                long endPosition = Math.min(fileSize, position + currentChunkSize);
+                int actualSize = (int) (endPosition - actualPosition);
+                
+                // 映射当前块
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY, actualPosition, actualSize);
+                
+                // 读取数据
+                // 映射在缓冲区被GC回收时释放，每块分配的数组本身就会触发GC，不必逐块显式请求
+                byte[] data = new byte[actualSize];
+                buffer.get(data);
+                
+                stats.ioNanos += System.nanoTime() - taskStart;
+                return processData(stats, fileIndex, file, data, actualSize, actualPosition, currentChunkSize,
+                        totalSize, processor, progressCallback);
+            } catch (Exception e) {
+                EngineLog.e(TAG, "处理文件 " + file.getName() + " 的块 " + chunkIndex + " 时出错", e);
+                return null;
+            } finally {
+                stats.busyNanos += System.nanoTime() - taskStart;
+            }
+        };
+    }
+    
+    /**
+     * 创建预读数据块的处理任务，数据已由读取线程读入缓冲区，处理完后把缓冲区归还给缓冲池
+     */
+    private Callable<FileResult> createBufferTask(ReadAheadFile source, int chunkIndex, byte[] data, int dataSize,
+                                                  long dataPosition, int chunkBytes, long totalSize,
+                                                  FileChunkProcessor processor, ProgressCallback progressCallback,
+                                                  BlockingQueue<byte[]> pool) {
+        return () -> {
+            try {
+                if (cancelRequested.get() || resultFound.get()) {
+                    return null;
+                }
+                WorkerStats stats = currentWorkerStats();
+                long taskStart = System.nanoTime();
+                try {
+                    return processData(stats, source.fileIndex, source.file, data, dataSize, dataPosition,
+                            chunkBytes, totalSize, processor, progressCallback);
+                } catch (Exception e) {
+                    EngineLog.e(TAG, "处理文件 " + source.file.getName() + " 的块 " + chunkIndex + " 时出错", e);
+                    return null;
+                } finally {
+                    stats.busyNanos += System.nanoTime() - taskStart;
+                }
+            } finally {
+                pool.offer(data);
+            }
+        };
+    }
+    
+    /**
+     * 获取当前工作线程的统计
+     */
+    private WorkerStats currentWorkerStats() {
+        WorkerStats stats = workerStats.get(Thread.currentThread());
+        if (stats == null) {
+            stats = new WorkerStats(Thread.currentThread().getName());
+            workerStats.put(Thread.currentThread(), stats);
+        }
+        return stats;
+    }
+    
+    /**
+     * 把读入的数据交给块处理器，更新进度
+     * @param chunkBytes 块本身的字节数（不含重叠区域），用于计算进度
+     * @return 找到的结果，未找到或其他块已找到时返回null
+     */
+    private FileResult processData(WorkerStats stats, int fileIndex, File file, byte[] data, int dataSize,
+                                   long dataPosition, int chunkBytes, long totalSize, FileChunkProcessor processor,
+                                   ProgressCallback progressCallback) {
+        // 处理数据
+        long processStart = System.nanoTime();
+        FileChunkProcessor.ChunkResult chunkResult = processor.processChunkResult(data, dataSize, fileIndex,
+                dataPosition);
+        long processNanos = System.nanoTime() - processStart;
+        stats.processNanos += processNanos;
+        stats.chunks++;
+        ChunkListener listener = chunkListener;
+        if (listener != null) {
+            listener.onChunkProcessed(chunkBytes, processNanos);
+        }
+        
+        // 更新进度
+        long processed = processedBytes.addAndGet(chunkBytes);
+        if (progressCallback != null) {
+            progressCallback.onProgressUpdate(Math.min(processed, totalSize), totalSize);
+        }
+        
+        // 如果找到结果，标记并返回
+        if (chunkResult != null && resultFound.compareAndSet(false, true)) {
+            return new FileResult(fileIndex, file, chunkResult.getResult(), chunkResult.getRecord());
+        }
+        return null;
+    }
+    
+    /**
+     * 调整线程池大小，增加时先调大最大值，减少时先调小核心数，保证核心数不超过最大值
+     */
+    private static void resizePool(ThreadPoolExecutor executor, int size) {
+        synchronized (executor) {
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+    }
+    
+    /**
+     * 按设置和文件所在的文件系统确定读取方式
+     */
+    private IoMode resolveIoMode(File file) {
+        if (ioMode != IoMode.AUTO) {
+            return ioMode;
+        }
+        return StorageProbe.isSlowStorage(file) ? IoMode.READ_AHEAD : IoMode.MMAP;
+    }
+    
+    /**
+     * 启动预读线程
+     * 读取线程按文件和块的顺序把数据读入缓冲池中的缓冲区并提交处理任务，缓冲池满时等待工作线程归还。
+     * 缓冲区最多为线程数加 {@link #READ_AHEAD_DEPTH} 个，按需分配，在一次处理的所有块之间重用。
+     * 每个块都会提交一个任务（已取消或已找到结果时提交空任务），收集结果时按总块数计数。
+     */
+    private Thread startReader(List<ReadAheadFile> files, CompletionService<FileResult> completionService,
+                               long totalSize, FileChunkProcessor processor, ProgressCallback progressCallback) {
+        long largestFile = 0;
+        for (ReadAheadFile file : files) {
+            largestFile = Math.max(largestFile, file.fileSize);
+        }
+        int bufferSize = (int) Math.min((long) chunkSize + overlapSize, largestFile);
+        int maxBuffers = threadCount + READ_AHEAD_DEPTH;
+        BlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(maxBuffers);
+        int totalChunks = 0;
+        for (ReadAheadFile file : files) {
+            totalChunks += file.totalChunks;
+        }
+        int chunksToRead = totalChunks;
+        WorkerStats stats = new WorkerStats("ReadAhead");
+        readerStats = stats;
+        
+        Thread reader = new Thread(() -> {
+            int allocated = 0;
+            int readerSubmitted = 0;
+            try {
+                for (ReadAheadFile source : files) {
+                    for (int i = 0; i < source.totalChunks; i++) {
+                        if (cancelRequested.get() || resultFound.get()) {
+                            completionService.submit(() -> null);
+                            readerSubmitted++;
+                            continue;
+                        }
+                        long position = (long) i * chunkSize;
+                        int currentChunkSize = (int) Math.min(chunkSize, source.fileSize - position);
+                        long actualPosition = Math.max(0, position - (i > 0 ? overlapSize : 0));
+                        long endPosition = Math.min(source.fileSize, position + currentChunkSize);
+                        int actualSize = (int) (endPosition - actualPosition);
+                        
+                        // 优先重用归还的缓冲区，未达上限时分配新的，否则等待
+                        byte[] buffer = pool.poll();
+                        if (buffer == null) {
+                            if (allocated < maxBuffers) {
+                                buffer = new byte[bufferSize];
+                                allocated++;
+                            } else {
+                                buffer = pool.take();
+                            }
+                        }
+                        
+                        long readStart = System.nanoTime();
+                        try {
+                            readFully(source.channel, buffer, actualPosition, actualSize);
+                        } catch (IOException e) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                // 处理已结束，读取被中断（通道随之关闭）
+                                return;
+                            }
+                            EngineLog.e(TAG, "读取文件 " + source.file.getName() + " 的块 " + i + " 时出错", e);
+                            pool.offer(buffer);
+                            completionService.submit(() -> null);
+                            readerSubmitted++;
+                            continue;
+                        }
+                        stats.ioNanos += System.nanoTime() - readStart;
+                        stats.chunks++;
+                        
+                        // 让内核提前读入下一块；本块已在缓冲区中，除与下一块重叠的部分外不再需要页缓存
+                        advise(source.file, endPosition, chunkSize, IoAdvisor.Advice.WILL_NEED);
+                        advise(source.file, actualPosition, Math.max(0, endPosition - overlapSize - actualPosition),
+                                IoAdvisor.Advice.DONT_NEED);
+                        
+                        completionService.submit(createBufferTask(source, i, buffer, actualSize, actualPosition,
+                                currentChunkSize, totalSize, processor, progressCallback, pool));
+                        readerSubmitted++;
+                    }
+                }
+            } catch (InterruptedException | RejectedExecutionException e) {
+                // 处理已结束（找到结果、取消或出错），不再读取
+            } catch (RuntimeException | OutOfMemoryError e) {
+                // 为剩余的块提交空任务，避免收集结果时一直等待
+                EngineLog.e(TAG, "预读线程出错", e);
+                try {
+                    for (; readerSubmitted < chunksToRead; readerSubmitted++) {
+                        completionService.submit(() -> null);
+                    }
+                } catch (RejectedExecutionException ignored) {
+                    // 处理已结束
+                }
+            } finally {
+                stats.busyNanos = stats.ioNanos;
+            }
+        }, "FileEngine-ReadAhead");
+        reader.setDaemon(true);
+        reader.start();
+        return reader;
+    }
+    
+    /**
+     * 从指定位置读满缓冲区的前 length 个字节
+     */
+    private static void readFully(FileChannel channel, byte[] buffer, long position, int length) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer, 0, length);
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                throw new IOException("文件在读取过程中变短: 位置 " + (position + target.position()));
+            }
+        }
+    }
+    
+    private void advise(File file, long offset, long length, IoAdvisor.Advice advice) {
+        IoAdvisor advisor = ioAdvisor;
+        if (advisor == null || length <= 0) {
+            return;
+        }
+        try {
+            advisor.advise(file, offset, length, advice);
+        } catch (RuntimeException e) {
+            EngineLog.w(TAG, "页缓存提示失败", e);
+        }
+    }
+    
+    /**
+     * 由读取线程读取的文件
+     */
+    private static final class ReadAheadFile {
+        final int fileIndex;
+        final File file;
+        final FileChannel channel;
+        final long fileSize;
+        final int totalChunks;
+        
+        ReadAheadFile(int fileIndex, File file, FileChannel channel, long fileSize, int totalChunks) {
+            this.fileIndex = fileIndex;
+            this.file = file;
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.totalChunks = totalChunks;
+        }
+    }
+    
+    /**
+     * 文件处理结果
+     * 记录结果来自输入列表中的哪个文件，以及产生结果的命中记录
+     */
+    public static class FileResult {
+        private final int fileIndex;
+        private final File file;
+        private final String result;
+        private final MatchRecord record;
+        
+        public FileResult(int fileIndex, File file, String result) {
+            this(fileIndex, file, result, null);
+        }
+        
+        public FileResult(int fileIndex, File file, String result, MatchRecord record) {
+            this.fileIndex = fileIndex;
+            this.file = file;
+            this.result = result;
+            this.record = record;
+        }
+        
+        /**
+         * 获取来源文件在输入列表中的下标
+         */
+        public int getFileIndex() {
+            return fileIndex;
+        }
+        
+        /**
+         * 获取来源文件
+         */
+        public File getFile() {
+            return file;
+        }
+        
+        /**
+         * 获取处理结果
+         */
+        public String getResult() {
+            return result;
+        }
+        
+        /**
+         * 获取产生结果的命中记录，其中有原文的原始字节和命中的哈希类型
+         * @return 命中记录，处理器没有报告命中时为null
+         */
+        public MatchRecord getMatchRecord() {
+            return record;
+        }
+    }
+    
+    /**
+     * 单个工作线程的统计
+     * 字段只由所属线程写入，processFiles 等所有工作线程和预读线程结束后才生成 {@link RunStats}；
+     * 字段声明为volatile，处理过程中从其他线程读取也能看到最新的值
+     */
+    public static class WorkerStats {
+        private final String threadName;
+        private volatile long busyNanos;
+        private volatile long ioNanos;
+        private volatile long processNanos;
+        private volatile int chunks;
+        
+        WorkerStats(String threadName) {
+            this.threadName = threadName;
+        }
+        
+        public String getThreadName() {
+            return threadName;
+        }
+        
+        /**
+         * 获取执行块任务的总时间（纳秒）
+         */
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+        
+        /**
+         * 获取映射和复制数据的时间（纳秒）
+         */
+        public long getIoNanos() {
+            return ioNanos;
+        }
+        
+        /**
+         * 获取块处理器的执行时间（纳秒）
+         */
+        public long getProcessNanos() {
+            return processNanos;
+        }
+        
+        /**
+         * 获取处理的块数
+         */
+        public int getChunks() {
+            return chunks;
+        }
+    }
+    
+    /**
+     * 一次处理的运行统计
+     */
+    public static class RunStats {
+        private final long wallNanos;
+        private final long bytesProcessed;
+        private final List<WorkerStats> workers;
+        private final WorkerStats reader;
+        
+        RunStats(long wallNanos, long bytesProcessed, List<WorkerStats> workers, WorkerStats reader) {
+            this.wallNanos = wallNanos;
+            this.bytesProcessed = bytesProcessed;
+            this.workers = Collections.unmodifiableList(workers);
+            this.reader = reader;
+        }
+        
+        /**
+         * 获取从提交任务到线程池结束的总时间（纳秒）
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+        
+        /**
+         * 获取已处理的字节数（不含重叠区域）
+         */
+        public long getBytesProcessed() {
+            return bytesProcessed;
+        }
+        
+        /**
+         * 获取每个工作线程的统计
+         */
+        public List<WorkerStats> getWorkers() {
+            return workers;
+        }
+        
+        /**
+         * 获取预读线程的统计（读取的块数和读取耗时）
+         * @return 预读线程的统计，没有文件使用预读流水线时返回null
+         */
+        public WorkerStats getReader() {
+            return reader;
+        }
+        
+        /**
+         * 获取所有线程映射、复制和读取数据的总时间（纳秒），包括预读线程
+         */
+        public long getIoNanos() {
+            long total = reader != null ? reader.ioNanos : 0;
+            for (WorkerStats worker : workers) {
+                total += worker.ioNanos;
+            }
+            return total;
+        }
+        
+        /**
+         * 获取所有线程执行块处理器的总时间（纳秒）
+         */
+        public long getProcessNanos() {
+            long total = 0;
+            for (WorkerStats worker : workers) {
+                total += worker.processNanos;
+            }
+            return total;
+        }
+        
+        /**
+         * 获取处理的总块数
+         */
+        public int getChunks() {
+            int total = 0;
+            for (WorkerStats worker : workers) {
+                total += worker.chunks;
+            }
+            return total;
+        }
+    }
+    
+    /**
+     * 数据块监听器
+     */
+    public interface ChunkListener {
+        /**
+         * 处理完一个数据块，在工作线程中调用，实现必须线程安全且尽快返回
+         * @param chunkBytes 块本身的字节数（不含重叠区域）
+         * @param processNanos 块处理器的执行时间（纳秒）
+         */
+        void onChunkProcessed(int chunkBytes, long processNanos);
+    }
+    
+    /**
+     * 数据块的读取方式
+     */
+    public enum IoMode {
+        /** 按文件所在的文件系统自动选择：FUSE和网络文件系统使用预读流水线，其余使用内存映射 */
+        AUTO,
+        /** 工作线程各自内存映射数据块并复制 */
+        MMAP,
+        /** 读取线程按顺序大块读取到可重用的缓冲区，领先于工作线程 */
+        READ_AHEAD
+    }
+    
+    /**
+     * 页缓存提示接口
+     * 纯Java无法调用 posix_fadvise，由应用通过原生实现提供；提示只是建议，失败时忽略即可
+     */
+    public interface IoAdvisor {
+        /**
+         * 提示类型
+         */
+        enum Advice {
+            /** 即将读取，内核可以提前异步读入页缓存 */
+            WILL_NEED,
+            /** 不再需要，内核可以丢弃对应的页缓存 */
+            DONT_NEED
+        }
+        
+        /**
+         * 对文件的一段范围给出提示，由读取线程调用
+         * @param file 文件
+         * @param offset 起始偏移
+         * @param length 字节数
+         * @param advice 提示类型
+         */
+        void advise(File file, long offset, long length, Advice advice);
+    }
+    
+    /**
+     * 进度回调接口
+     */
+    public interface ProgressCallback {
+        void onProgressUpdate(long current, long total);
+    }
+} 
\ No newline at end of file
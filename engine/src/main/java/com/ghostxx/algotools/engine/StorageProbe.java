@@ -0,0 +1,123 @@
+package com.ghostxx.algotools.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 存储类型探测
+ * 按 /proc/self/mounts 找到文件所在的挂载点及其文件系统类型。
+ * Android 11起外部存储（/sdcard）经过用户态的FUSE守护进程，内存映射后每次缺页都是一次FUSE往返，
+ * 比大块顺序读取慢得多；网络文件系统也是如此。引擎在这类存储上改用预读流水线（见 {@link FileProcessingEngine.IoMode}）。
+ */
+public final class StorageProbe {
+    private static final String TAG = "StorageProbe";
+    private static final String MOUNTS_FILE = "/proc/self/mounts";
+    // 缺页读取代价高的文件系统，"fuse." 开头的子类型（如 fuse.sshfs）也算在内
+    private static final Set<String> SLOW_TYPES = new HashSet<>(Arrays.asList(
+            "fuse", "fuseblk", "9p", "virtiofs", "nfs", "nfs4", "cifs", "smb3"));
+
+    private StorageProbe() {
+    }
+
+    /**
+     * 文件是否位于缺页读取代价高的存储上
+     * @return 是否应使用预读流水线，无法确定文件系统时返回false
+     */
+    public static boolean isSlowStorage(File file) {
+        String type = filesystemType(file);
+        return type != null && isSlowType(type);
+    }
+
+    /**
+     * 获取文件所在的文件系统类型
+     * @return 类型（如 "ext4"、"f2fs"、"fuse"），无法读取挂载表时返回null
+     */
+    public static String filesystemType(File file) {
+        List<String> mounts;
+        try {
+            mounts = Files.readAllLines(Paths.get(MOUNTS_FILE), StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            EngineLog.d(TAG, "无法读取挂载表: " + e.getMessage());
+            return null;
+        }
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException e) {
+            path = file.getAbsolutePath();
+        }
+        return filesystemType(path, mounts);
+    }
+
+    /**
+     * 在挂载表中查找路径所在的文件系统类型（取最长的匹配挂载点，后挂载的覆盖先挂载的）
+     * @param path 规范化的绝对路径
+     * @param mounts 挂载表的各行，格式: 设备 挂载点 类型 选项 0 0
+     * @return 类型，没有匹配的挂载点时返回null
+     */
+    static String filesystemType(String path, List<String> mounts) {
+        String type = null;
+        int bestLength = -1;
+        for (String line : mounts) {
+            String[] fields = line.split(" ");
+            if (fields.length < 3) {
+                continue;
+            }
+            String mountPoint = unescape(fields[1]);
+            if (mountPoint.length() >= bestLength && isUnder(path, mountPoint)) {
+                bestLength = mountPoint.length();
+                type = fields[2];
+            }
+        }
+        return type;
+    }
+
+    static boolean isSlowType(String type) {
+        return SLOW_TYPES.contains(type) || type.startsWith("fuse.");
+    }
+
+    private static boolean isUnder(String path, String mountPoint) {
+        if (mountPoint.equals("/")) {
+            return path.startsWith("/");
+        }
+        return path.startsWith(mountPoint)
+                && (path.length() == mountPoint.length() || path.charAt(mountPoint.length()) == '/');
+    }
+
+    /**
+     * 还原挂载表中转义的空白字符（空格写作 \040，制表符写作 \011 等）
+     */
+    private static String unescape(String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder builder = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 3 < field.length() && isOctal(field, i + 1)) {
+                builder.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isOctal(String text, int start) {
+        for (int i = start; i < start + 3; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '7') {
+                return false;
+            }
+        }
+        return true;
+    }
+} 
\ No newline at end of file
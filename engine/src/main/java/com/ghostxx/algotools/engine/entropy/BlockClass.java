@@ -0,0 +1,32 @@
+package com.ghostxx.algotools.engine.entropy;
+
+/**
+ * 数据块的分类
+ * 序号即保存在熵图中的字节值，调整顺序会使已保存的熵图失效（需要同时提高 {@link EntropyMap} 的版本号）。
+ */
+public enum BlockClass {
+    /** 尚未分类 */
+    UNKNOWN,
+    /** 可能包含文本，需要提取候选 */
+    TEXT,
+    /** 全部为同一个字节，或可作为候选的字节少于2个（如填零的内存区） */
+    SPARSE,
+    /** 高熵且没有较长的ASCII可打印序列（压缩、加密或随机数据） */
+    RANDOM;
+
+    private static final BlockClass[] VALUES = values();
+
+    /**
+     * 是否可以跳过，不提取候选
+     */
+    public boolean isSkippable() {
+        return this == SPARSE || this == RANDOM;
+    }
+
+    /**
+     * 按保存的字节值获取分类，无法识别时返回 {@link #UNKNOWN}
+     */
+    static BlockClass fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : UNKNOWN;
+    }
+} 
\ No newline at end of file
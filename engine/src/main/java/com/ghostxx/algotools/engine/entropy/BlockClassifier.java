@@ -0,0 +1,130 @@
+package com.ghostxx.algotools.engine.entropy;
+
+import java.util.Arrays;
+
+/**
+ * 数据块分类器
+ * 统计块内的字节直方图，计算香农熵（比特/字节）和可打印字节比例，判断块中是否可能有有意义的文本。
+ *
+ * 直方图按字节下标交错写入4个子直方图，相邻字节的计数互不依赖，避免同一计数器的连续读改写
+ * 拖慢循环（这是不使用SIMD指令时直方图的常用写法）。熵只在直方图上计算，n*log2(n) 预先制表。
+ * 只有熵达到阈值的块才再扫描一遍查找ASCII可打印序列，普通数据不需要第二遍。
+ *
+ * 分类器持有直方图缓冲，不是线程安全的，每个线程使用自己的实例。
+ */
+public final class BlockClassifier {
+    /** 分类的块大小 */
+    public static final int BLOCK_SIZE = 4096;
+    /** 不低于该熵（比特/字节）的块视为压缩、加密或随机数据；UTF-8中文文本约为5~6 */
+    static final double RANDOM_ENTROPY = 7.2;
+    /** 随机数据中ASCII可打印字节约占37%，文本块远高于此 */
+    static final double RANDOM_MAX_PRINTABLE_RATIO = 0.5;
+    /** 高熵块中出现这么长的ASCII可打印序列时仍保留（随机数据中每块出现的概率约为2%） */
+    static final int MIN_TEXT_RUN = 12;
+
+    // n * log2(n)，n 为 0..BLOCK_SIZE
+    private static final double[] N_LOG2_N = new double[BLOCK_SIZE + 1];
+
+    // ASCII可打印字节（不含制表符等控制字符）为1，其余为0
+    private static final byte[] ASCII_PRINTABLE = new byte[256];
+
+    static {
+        for (int b = 32; b <= 126; b++) {
+            ASCII_PRINTABLE[b] = 1;
+        }
+        for (int n = 1; n <= BLOCK_SIZE; n++) {
+            N_LOG2_N[n] = n * (Math.log(n) / Math.log(2));
+        }
+    }
+
+    private final int[] counts = new int[4 * 256];
+    private double lastEntropy;
+    private double lastPrintableRatio;
+
+    /**
+     * 对一个块分类
+     * @param data 数据
+     * @param offset 块起始位置
+     * @param length 块长度，不超过 {@link #BLOCK_SIZE}
+     * @return 分类
+     */
+    public BlockClass classify(byte[] data, int offset, int length) {
+        if (length <= 0) {
+            return BlockClass.SPARSE;
+        }
+        int[] counts = this.counts;
+        Arrays.fill(counts, 0);
+        int end = offset + length;
+        int i = offset;
+        for (; i + 4 <= end; i += 4) {
+            counts[data[i] & 0xFF]++;
+            counts[256 | (data[i + 1] & 0xFF)]++;
+            counts[512 | (data[i + 2] & 0xFF)]++;
+            counts[768 | (data[i + 3] & 0xFF)]++;
+        }
+        for (; i < end; i++) {
+            counts[data[i] & 0xFF]++;
+        }
+
+        // 合并子直方图，同时统计熵、可打印字节和可作为候选的字节
+        double sum = 0;
+        int printable = 0;
+        int eligible = 0;
+        int maxCount = 0;
+        for (int b = 0; b < 256; b++) {
+            int c = counts[b] + counts[256 | b] + counts[512 | b] + counts[768 | b];
+            if (c == 0) {
+                continue;
+            }
+            sum += N_LOG2_N[c];
+            if (c > maxCount) {
+                maxCount = c;
+            }
+            boolean ascii = (b >= 32 && b <= 126) || b == 9 || b == 10 || b == 13;
+            if (ascii) {
+                printable += c;
+            }
+            if (ascii || b >= 128) {
+                eligible += c;
+            }
+        }
+        lastEntropy = N_LOG2_N[length] / length - sum / length;
+        lastPrintableRatio = (double) printable / length;
+
+        if (maxCount == length || eligible < 2) {
+            return BlockClass.SPARSE;
+        }
+        if (lastEntropy >= RANDOM_ENTROPY && lastPrintableRatio < RANDOM_MAX_PRINTABLE_RATIO
+                && !hasAsciiRun(data, offset, end)) {
+            return BlockClass.RANDOM;
+        }
+        return BlockClass.TEXT;
+    }
+
+    /**
+     * 获取最近一次分类的块的熵（比特/字节）
+     */
+    public double getLastEntropy() {
+        return lastEntropy;
+    }
+
+    /**
+     * 获取最近一次分类的块中ASCII可打印字节（含制表符、换行、回车）的比例
+     */
+    public double getLastPrintableRatio() {
+        return lastPrintableRatio;
+    }
+
+    private static boolean hasAsciiRun(byte[] data, int start, int end) {
+        // 随机数据中字节是否可打印无规律可循，用乘法代替分支清零计数，避免分支预测失败
+        byte[] printable = ASCII_PRINTABLE;
+        int run = 0;
+        for (int i = start; i < end; i++) {
+            run = (run + 1) * printable[data[i] & 0xFF];
+            if (run >= MIN_TEXT_RUN) {
+                return true;
+            }
+        }
+        return false;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.ghostxx.algotools.engine.entropy;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 熵图预筛选处理器
+ * 包装一个候选搜索处理器：按 {@link EntropyMap} 跳过不可能包含有意义文本的4KB块（填零区域、压缩/加密数据），
+ * 只把其余的块交给被包装的处理器提取候选。熵图中没有的块在这里分类并记录，搜索结束后由
+ * {@link #saveMaps()} 保存，之后对同一个转储的搜索直接使用。
+ *
+ * 数据块中有被跳过的块时，其余连续的部分逐段交给被包装的处理器，每段都带有它在文件中的偏移，
+ * 命中记录的位置不受影响；特征字符串的预检查也随之按段进行。
+ * 跨越段边界的候选字符串不会被截断：保留的段向后延伸到被跳过块中紧接着的候选字节（可打印或不小于0x80）为止，
+ * 下一段从被跳过块末尾那串候选字节的开头开始。
+ * 不能包装 KeyScanProcessor 这类需要高熵数据的处理器。
+ */
+public class EntropyFilterProcessor implements FileChunkProcessor {
+    private static final String TAG = "EntropyFilter";
+    // 原生层提取候选时的字节规则：可打印ASCII、制表符、换行、回车和不小于0x80的字节
+    private static final boolean[] CANDIDATE_BYTES = new boolean[256];
+
+    static {
+        for (int c = 0; c < 256; c++) {
+            CANDIDATE_BYTES[c] = (c >= 32 && c <= 126) || c == 9 || c == 10 || c == 13 || c >= 128;
+        }
+    }
+
+    private final FileChunkProcessor delegate;
+    private final List<EntropyMap> maps;
+    private final AtomicLong bytesSkipped = new AtomicLong();
+    private final AtomicLong blocksClassified = new AtomicLong();
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker();
+        }
+    };
+
+    /**
+     * @param delegate 被包装的处理器
+     * @param files 要处理的文件，与引擎的输入列表一致，用于读取各文件的熵图
+     */
+    public EntropyFilterProcessor(FileChunkProcessor delegate, List<File> files) {
+        this.delegate = delegate;
+        this.maps = new ArrayList<>(files.size());
+        for (File file : files) {
+            maps.add(EntropyMap.forFile(file));
+        }
+    }
+
+    /**
+     * 每个工作线程的分类器和分段缓冲
+     */
+    private static final class Worker {
+        final BlockClassifier classifier = new BlockClassifier();
+        byte[] buffer = new byte[0];
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        return delegate.processChunk(data, dataSize);
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        ChunkResult result = processChunkResult(data, dataSize, fileIndex, fileOffset);
+        return result != null ? result.getResult() : null;
+    }
+
+    @Override
+    public ChunkResult processChunkResult(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        if (fileIndex < 0 || fileIndex >= maps.size()) {
+            return delegate.processChunkResult(data, dataSize, fileIndex, fileOffset);
+        }
+        EntropyMap map = maps.get(fileIndex);
+        Worker worker = workers.get();
+        int blockSize = BlockClassifier.BLOCK_SIZE;
+
+        // 只处理完整落在数据块内的块，首尾不完整的部分保留
+        boolean skippedAny = false;
+        int segmentStart = 0;
+        // 上一个被跳过块的起点，下一段向前回退时不越过它
+        int segmentFloor = 0;
+        long chunkEnd = fileOffset + dataSize;
+        for (long block = (fileOffset + blockSize - 1) / blockSize;
+             block < map.getBlockCount() && (block + 1) * blockSize <= chunkEnd; block++) {
+            int start = (int) (block * blockSize - fileOffset);
+            BlockClass blockClass = map.get((int) block);
+            if (blockClass == BlockClass.UNKNOWN) {
+                blockClass = worker.classifier.classify(data, start, blockSize);
+                map.set((int) block, blockClass);
+                blocksClassified.incrementAndGet();
+            }
+            if (!blockClass.isSkippable()) {
+                continue;
+            }
+            skippedAny = true;
+            bytesSkipped.addAndGet(blockSize);
+            if (start > segmentStart) {
+                int from = extendBackward(data, segmentStart, segmentFloor);
+                int to = extendForward(data, start, start + blockSize);
+                ChunkResult result = processSegment(worker, data, from, to, fileIndex, fileOffset);
+                if (result != null) {
+                    return result;
+                }
+            }
+            segmentStart = start + blockSize;
+            segmentFloor = start;
+        }
+
+        if (!skippedAny) {
+            return delegate.processChunkResult(data, dataSize, fileIndex, fileOffset);
+        }
+        return dataSize > segmentStart
+                ? processSegment(worker, data, extendBackward(data, segmentStart, segmentFloor), dataSize,
+                fileIndex, fileOffset) : null;
+    }
+
+    /**
+     * 段在被跳过块之前结束时，向后延伸到跨入该块的候选字节串的末尾
+     * @param end 段的结束位置（被跳过块的起点）
+     * @param limit 被跳过块的终点
+     */
+    private static int extendForward(byte[] data, int end, int limit) {
+        if (end == 0 || !CANDIDATE_BYTES[data[end - 1] & 0xFF]) {
+            return end;
+        }
+        while (end < limit && CANDIDATE_BYTES[data[end] & 0xFF]) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 段紧接在被跳过块之后开始时，向前回退到该块末尾候选字节串的开头
+     * @param start 段的起始位置（被跳过块的终点）
+     * @param floor 被跳过块的起点
+     */
+    private static int extendBackward(byte[] data, int start, int floor) {
+        while (start > floor && CANDIDATE_BYTES[data[start - 1] & 0xFF]) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * 把保留的一段复制到线程的缓冲中交给被包装的处理器，并传入该段在文件中的偏移
+     */
+    private ChunkResult processSegment(Worker worker, byte[] data, int start, int end, int fileIndex,
+                                       long fileOffset) {
+        int length = end - start;
+        if (worker.buffer.length < length) {
+            worker.buffer = new byte[Math.max(length, BlockClassifier.BLOCK_SIZE * 16)];
+        }
+        System.arraycopy(data, start, worker.buffer, 0, length);
+        return delegate.processChunkResult(worker.buffer, length, fileIndex, fileOffset + start);
+    }
+
+    /**
+     * 获取跳过的字节数（与上一块的重叠区域中的块可能被计入两次）
+     */
+    public long getBytesSkipped() {
+        return bytesSkipped.get();
+    }
+
+    /**
+     * 保存本次新分类的熵图
+     */
+    public void saveMaps() {
+        if (blocksClassified.get() > 0) {
+            EngineLog.d(TAG, "本次分类 " + blocksClassified.get() + " 块，跳过 " + bytesSkipped.get() + " 字节");
+        }
+        for (EntropyMap map : maps) {
+            map.save();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+} 
\ No newline at end of file
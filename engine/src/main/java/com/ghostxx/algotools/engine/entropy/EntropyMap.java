@@ -0,0 +1,168 @@
+package com.ghostxx.algotools.engine.entropy;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * 转储文件的熵图
+ * 按 {@link BlockClassifier#BLOCK_SIZE} 分块记录每块的分类（{@link BlockClass}），保存在转储旁的
+ * {@value #FILE_SUFFIX} 文件中，之后对同一个转储的搜索直接读取分类，不再重新统计。
+ * 搜索提前找到结果时只有已扫描的块被分类，其余块保持 {@link BlockClass#UNKNOWN}，下次搜索时补全。
+ *
+ * 文件格式（大端）：
+ * <pre>
+ * int   MAGIC
+ * int   VERSION
+ * int   块大小
+ * long  转储文件长度
+ * long  转储文件修改时间
+ * byte[块数]  每块的分类
+ * </pre>
+ * 转储的长度或修改时间与记录不符时丢弃旧的熵图。
+ */
+public final class EntropyMap {
+    private static final String TAG = "EntropyMap";
+    /** 熵图文件的后缀，附加在转储文件名之后 */
+    public static final String FILE_SUFFIX = ".entropy";
+    private static final int MAGIC = 0x454e544d; // "ENTM"
+    private static final int VERSION = 1;
+
+    private final File dumpFile;
+    private final long fileLength;
+    private final long lastModified;
+    private final byte[] classes;
+    private volatile boolean dirty;
+
+    private EntropyMap(File dumpFile, long fileLength, long lastModified, byte[] classes) {
+        this.dumpFile = dumpFile;
+        this.fileLength = fileLength;
+        this.lastModified = lastModified;
+        this.classes = classes;
+    }
+
+    /**
+     * 获取转储的熵图，有有效的熵图文件时读取，否则返回全部未分类的熵图
+     * @param dumpFile 转储文件
+     */
+    public static EntropyMap forFile(File dumpFile) {
+        long length = dumpFile.length();
+        long lastModified = dumpFile.lastModified();
+        EntropyMap loaded = load(dumpFile, length, lastModified);
+        if (loaded != null) {
+            return loaded;
+        }
+        return new EntropyMap(dumpFile, length, lastModified, new byte[blockCountOf(length)]);
+    }
+
+    /**
+     * 获取熵图文件
+     */
+    public static File sidecarOf(File dumpFile) {
+        return new File(dumpFile.getPath() + FILE_SUFFIX);
+    }
+
+    private static int blockCountOf(long length) {
+        return (int) ((length + BlockClassifier.BLOCK_SIZE - 1) / BlockClassifier.BLOCK_SIZE);
+    }
+
+    private static EntropyMap load(File dumpFile, long length, long lastModified) {
+        File sidecar = sidecarOf(dumpFile);
+        if (!sidecar.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != BlockClassifier.BLOCK_SIZE
+                    || in.readLong() != length || in.readLong() != lastModified) {
+                EngineLog.d(TAG, "熵图与转储不符，重新统计: " + sidecar);
+                return null;
+            }
+            byte[] classes = new byte[blockCountOf(length)];
+            in.readFully(classes);
+            return new EntropyMap(dumpFile, length, lastModified, classes);
+        } catch (IOException e) {
+            EngineLog.w(TAG, "读取熵图失败: " + sidecar + ", " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 获取块数
+     */
+    public int getBlockCount() {
+        return classes.length;
+    }
+
+    /**
+     * 获取块的分类
+     * @param block 块下标（文件偏移 / {@link BlockClassifier#BLOCK_SIZE}）
+     */
+    public BlockClass get(int block) {
+        return BlockClass.fromCode(classes[block]);
+    }
+
+    /**
+     * 记录块的分类
+     * 不同线程只会写入相同的值（重叠区域中的块由两个数据块各分类一次），不需要同步
+     */
+    public void set(int block, BlockClass blockClass) {
+        classes[block] = (byte) blockClass.ordinal();
+        dirty = true;
+    }
+
+    /**
+     * 统计某一分类的块数
+     */
+    public int count(BlockClass blockClass) {
+        int count = 0;
+        for (byte c : classes) {
+            if (c == blockClass.ordinal()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 有新分类的块时写入熵图文件
+     * 先写入临时文件再重命名，写入失败不影响搜索
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        File sidecar = sidecarOf(dumpFile);
+        File tmpFile = new File(sidecar.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(BlockClassifier.BLOCK_SIZE);
+            out.writeLong(fileLength);
+            out.writeLong(lastModified);
+            out.write(classes);
+        } catch (IOException e) {
+            EngineLog.w(TAG, "写入熵图失败: " + sidecar + ", " + e.getMessage());
+            tmpFile.delete();
+            return;
+        }
+        if (!tmpFile.renameTo(sidecar)) {
+            // 部分平台上重命名不能覆盖已有文件
+            sidecar.delete();
+            if (!tmpFile.renameTo(sidecar)) {
+                EngineLog.w(TAG, "写入熵图失败: " + sidecar);
+                tmpFile.delete();
+                return;
+            }
+        }
+        dirty = false;
+        EngineLog.d(TAG, "已保存熵图: " + sidecar + "，可跳过 " + (count(BlockClass.SPARSE) + count(BlockClass.RANDOM))
+                + "/" + classes.length + " 块");
+    }
+} 
\ No newline at end of file
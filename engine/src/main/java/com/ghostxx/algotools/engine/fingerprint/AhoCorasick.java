@@ -0,0 +1,128 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+import java.util.Arrays;
+
+/**
+ * 字节级Aho-Corasick多模式匹配自动机
+ * 构造时把失败链接展开为完整的状态转移表（每个状态256项），扫描时每个字节只需一次查表，
+ * 与模式数量无关。模式总长度为几千字节时转移表约为1MB。
+ * 表项保存左移8位后的下一状态，可直接与下一个字节相或作为下标；有输出的状态取反保存，
+ * 扫描循环只需检查符号位，不用再查一张表。
+ */
+final class AhoCorasick {
+
+    /**
+     * 匹配回调
+     */
+    interface MatchListener {
+        /**
+         * @param patternIndex 模式下标
+         * @param start 匹配在数据中的起始位置
+         */
+        void onMatch(int patternIndex, int start);
+    }
+
+    private final int[] patternLengths;
+    // 状态转移表：transitions[(state << 8) | byte] = 下一状态 << 8，该状态或其后缀状态有输出时取反
+    private final int[] transitions;
+    // 在该状态结束的模式下标，没有时为-1
+    private final int[] output;
+    // 沿失败链接找到的下一个有输出的状态，没有时为-1
+    private final int[] outputLink;
+
+    AhoCorasick(byte[][] patterns) {
+        patternLengths = new int[patterns.length];
+        int maxStates = 1;
+        for (int i = 0; i < patterns.length; i++) {
+            patternLengths[i] = patterns[i].length;
+            maxStates += patterns[i].length;
+        }
+
+        // 构建字典树，未定义的转移为-1
+        int[] trie = new int[maxStates << 8];
+        Arrays.fill(trie, -1);
+        int[] out = new int[maxStates];
+        Arrays.fill(out, -1);
+        int stateCount = 1;
+        for (int i = 0; i < patterns.length; i++) {
+            int state = 0;
+            for (byte b : patterns[i]) {
+                int index = (state << 8) | (b & 0xFF);
+                if (trie[index] < 0) {
+                    trie[index] = stateCount++;
+                }
+                state = trie[index];
+            }
+            out[state] = i;
+        }
+
+        // 按宽度优先顺序计算失败链接，并把缺失的转移替换为失败状态的转移
+        int[] fail = new int[stateCount];
+        int[] link = new int[stateCount];
+        Arrays.fill(link, -1);
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < 256; c++) {
+            int next = trie[c];
+            if (next < 0) {
+                trie[c] = 0;
+            } else {
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int c = 0; c < 256; c++) {
+                int index = (state << 8) | c;
+                int next = trie[index];
+                int fallback = trie[(fail[state] << 8) | c];
+                if (next < 0) {
+                    trie[index] = fallback;
+                } else {
+                    fail[next] = fallback;
+                    link[next] = out[fallback] >= 0 ? fallback : link[fallback];
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        this.output = Arrays.copyOf(out, stateCount);
+        this.outputLink = link;
+        this.transitions = new int[stateCount << 8];
+        for (int i = 0; i < transitions.length; i++) {
+            int next = trie[i];
+            transitions[i] = output[next] >= 0 || outputLink[next] >= 0 ? ~(next << 8) : next << 8;
+        }
+    }
+
+    /**
+     * 获取状态数
+     */
+    int getStateCount() {
+        return output.length;
+    }
+
+    /**
+     * 扫描数据，每个匹配回调一次
+     * @param data 数据
+     * @param dataSize 有效数据长度
+     * @param listener 匹配回调
+     */
+    void scan(byte[] data, int dataSize, MatchListener listener) {
+        int[] transitions = this.transitions;
+        int base = 0;
+        for (int i = 0; i < dataSize; i++) {
+            base = transitions[base | (data[i] & 0xFF)];
+            if (base < 0) {
+                base = ~base;
+                int state = base >>> 8;
+                for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                    int pattern = output[s];
+                    listener.onMatch(pattern, i - patternLengths[pattern] + 1);
+                }
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一种算法的识别结果
+ * 得分为命中的不同特征的权重之和：同一特征重复出现不加分，避免一张被多次映射的表压过其他算法。
+ */
+public final class AlgorithmFingerprint {
+    private final CryptoAlgorithm algorithm;
+    private final int score;
+    private final int signatureCount;
+    private final int hitCount;
+    private final List<ConstantHit> hits;
+
+    AlgorithmFingerprint(CryptoAlgorithm algorithm, int score, int signatureCount, int hitCount,
+                         List<ConstantHit> hits) {
+        this.algorithm = algorithm;
+        this.score = score;
+        this.signatureCount = signatureCount;
+        this.hitCount = hitCount;
+        this.hits = Collections.unmodifiableList(hits);
+    }
+
+    public CryptoAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 获取得分
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * 获取命中的不同特征数（同一常量表的两种字节序算作两个特征）
+     */
+    public int getSignatureCount() {
+        return signatureCount;
+    }
+
+    /**
+     * 获取总命中次数
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 获取命中位置，按文件、偏移排序，最多保留 {@link ConstantScanProcessor#MAX_HITS_PER_ALGORITHM} 个
+     */
+    public List<ConstantHit> getHits() {
+        return hits;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm.getDisplayName() + " score=" + score + " signatures=" + signatureCount + " hits=" + hitCount;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+/**
+ * 常量特征在转储中的一次命中
+ */
+public final class ConstantHit implements Comparable<ConstantHit> {
+    final ConstantSignature signature;
+    private final CryptoAlgorithm algorithm;
+    private final String signatureName;
+    private final String byteOrder;
+    private final int fileIndex;
+    private final long offset;
+    private final int length;
+
+    ConstantHit(ConstantSignature signature, int fileIndex, long offset) {
+        this.signature = signature;
+        this.algorithm = signature.algorithm;
+        this.signatureName = signature.name;
+        this.byteOrder = signature.byteOrder;
+        this.fileIndex = fileIndex;
+        this.offset = offset;
+        this.length = signature.pattern.length;
+    }
+
+    public CryptoAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 获取特征名称，如 "SHA-256 K[0..3]"
+     */
+    public String getSignatureName() {
+        return signatureName;
+    }
+
+    /**
+     * 获取常量的字节序（"LE"或"BE"），按字节保存的常量为null
+     */
+    public String getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * 获取所在文件在输入列表中的下标
+     */
+    public int getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * 获取在文件中的偏移
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 获取匹配的字节数
+     */
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int compareTo(ConstantHit other) {
+        if (fileIndex != other.fileIndex) {
+            return Integer.compare(fileIndex, other.fileIndex);
+        }
+        if (offset != other.offset) {
+            return Long.compare(offset, other.offset);
+        }
+        return Integer.compare(signature.id, other.signature.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConstantHit)) {
+            return false;
+        }
+        ConstantHit other = (ConstantHit) o;
+        return fileIndex == other.fileIndex && offset == other.offset && signature == other.signature;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * fileIndex + Long.hashCode(offset)) * 31 + signature.id;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d@0x%x %s%s", fileIndex, offset, signatureName,
+                byteOrder != null ? " (" + byteOrder + ")" : "");
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 算法常量识别处理器
+ * 用一个Aho-Corasick自动机（{@link AhoCorasick}）在一次扫描中匹配所有已知的常量表特征
+ * （MD5 T表、SHA-1/SHA-2的K常量和初始值、AES/SM4 S盒、SM3常量、CRC表、Base64字母表等），
+ * 汇总为按得分排序的算法列表，可在破解之前确定目标使用的哈希算法。
+ * 处理器从不返回结果，引擎会扫描完所有数据块，结果由 {@link #getFingerprints()} 获取。
+ *
+ * 命中按特征计数、按算法保留：大量重复的常见内容（Base64字母表、MD5/SHA-1初始值）只占用自己算法的名额，
+ * 不会挤掉罕见但关键的特征（SHA-256 K常量、SM3常量）；每种算法保留文件中最靠前的命中位置，与线程调度无关。
+ */
+public class ConstantScanProcessor implements FileChunkProcessor {
+    private static final String TAG = "ConstantScan";
+    /** 每种算法最多保留的命中位置 */
+    public static final int MAX_HITS_PER_ALGORITHM = 64;
+    // 每个特征最多按位置去重计数的命中数，超过后只累加计数（重叠区域中的命中可能被计两次）
+    private static final int MAX_COUNTED_HITS_PER_SIGNATURE = 10000;
+
+    private static final AhoCorasick AUTOMATON;
+
+    static {
+        List<ConstantSignature> signatures = ConstantSignature.all();
+        byte[][] patterns = new byte[signatures.size()][];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = signatures.get(i).pattern;
+        }
+        AUTOMATON = new AhoCorasick(patterns);
+    }
+
+    private final List<ConstantSignature> signatures = ConstantSignature.all();
+    // 每个特征已计数的命中位置（文件下标在高16位，偏移在低48位），用于排除与上一块重叠区域中的重复命中
+    private final List<Set<Long>> signatureLocations = new ArrayList<>();
+    private final AtomicIntegerArray signatureHitCounts = new AtomicIntegerArray(signatures.size());
+    // 每种算法保留的命中，按文件和偏移排序，只保留最靠前的 MAX_HITS_PER_ALGORITHM 个，访问时锁住各自的集合
+    private final Map<CryptoAlgorithm, TreeSet<ConstantHit>> keptHits = new EnumMap<>(CryptoAlgorithm.class);
+
+    public ConstantScanProcessor() {
+        for (int i = 0; i < signatures.size(); i++) {
+            signatureLocations.add(ConcurrentHashMap.<Long>newKeySet());
+        }
+        for (CryptoAlgorithm algorithm : CryptoAlgorithm.values()) {
+            keptHits.put(algorithm, new TreeSet<ConstantHit>());
+        }
+        EngineLog.d(TAG, "常量特征 " + ConstantSignature.all().size() + " 个，自动机状态 "
+                + AUTOMATON.getStateCount() + " 个");
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        return processChunk(data, dataSize, 0, 0);
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        // 与上一块重叠区域中的命中会被两个数据块各发现一次，按文件和偏移去重
+        AUTOMATON.scan(data, dataSize, (patternIndex, start) -> recordHit(patternIndex, fileIndex, fileOffset + start));
+        return null;
+    }
+
+    private void recordHit(int patternIndex, int fileIndex, long offset) {
+        Set<Long> locations = signatureLocations.get(patternIndex);
+        Long location = ((long) fileIndex << 48) | (offset & 0xFFFFFFFFFFFFL);
+        boolean duplicate = locations.size() < MAX_COUNTED_HITS_PER_SIGNATURE
+                ? !locations.add(location) : locations.contains(location);
+        if (duplicate) {
+            return;
+        }
+        signatureHitCounts.incrementAndGet(patternIndex);
+
+        ConstantSignature signature = signatures.get(patternIndex);
+        TreeSet<ConstantHit> kept = keptHits.get(signature.algorithm);
+        synchronized (kept) {
+            if (kept.size() < MAX_HITS_PER_ALGORITHM) {
+                kept.add(new ConstantHit(signature, fileIndex, offset));
+                return;
+            }
+            ConstantHit hit = new ConstantHit(signature, fileIndex, offset);
+            if (hit.compareTo(kept.last()) < 0 && kept.add(hit)) {
+                kept.pollLast();
+            }
+        }
+    }
+
+    /**
+     * 获取识别出的算法，按得分从高到低排序
+     */
+    public List<AlgorithmFingerprint> getFingerprints() {
+        // 得分按命中过的不同特征计算，命中次数为各特征的计数之和
+        Map<CryptoAlgorithm, int[]> totals = new EnumMap<>(CryptoAlgorithm.class);
+        for (ConstantSignature signature : signatures) {
+            int count = signatureHitCounts.get(signature.id);
+            if (count == 0) {
+                continue;
+            }
+            int[] total = totals.get(signature.algorithm);
+            if (total == null) {
+                // 得分、特征数、命中数
+                total = new int[3];
+                totals.put(signature.algorithm, total);
+            }
+            total[0] += signature.weight;
+            total[1]++;
+            total[2] += count;
+        }
+
+        List<AlgorithmFingerprint> fingerprints = new ArrayList<>();
+        for (Map.Entry<CryptoAlgorithm, int[]> entry : totals.entrySet()) {
+            TreeSet<ConstantHit> kept = keptHits.get(entry.getKey());
+            List<ConstantHit> hits;
+            synchronized (kept) {
+                hits = new ArrayList<>(kept);
+            }
+            int[] total = entry.getValue();
+            fingerprints.add(new AlgorithmFingerprint(entry.getKey(), total[0], total[1], total[2], hits));
+        }
+        // 得分相同时命中次数多的在前，其次按枚举顺序（哈希算法在前）
+        Collections.sort(fingerprints, (a, b) -> {
+            if (a.getScore() != b.getScore()) {
+                return Integer.compare(b.getScore(), a.getScore());
+            }
+            if (a.getHitCount() != b.getHitCount()) {
+                return Integer.compare(b.getHitCount(), a.getHitCount());
+            }
+            return a.getAlgorithm().compareTo(b.getAlgorithm());
+        });
+        return fingerprints;
+    }
+
+    /**
+     * 按识别结果的排名列出哈希类型，用于选择搜索原文时尝试的算法
+     * @param fingerprints {@link #getFingerprints()} 的结果
+     * @return 哈希类型，排名靠前的算法的类型在前
+     */
+    public static List<String> toHashTypes(List<AlgorithmFingerprint> fingerprints) {
+        List<String> types = new ArrayList<>();
+        for (AlgorithmFingerprint fingerprint : fingerprints) {
+            for (String type : fingerprint.getAlgorithm().getHashTypes()) {
+                if (!types.contains(type)) {
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * 获取超过每种算法的保留上限而未保留位置的命中数
+     */
+    public int getDroppedHits() {
+        int dropped = 0;
+        for (ConstantSignature signature : signatures) {
+            dropped += signatureHitCounts.get(signature.id);
+        }
+        for (TreeSet<ConstantHit> kept : keptHits.values()) {
+            synchronized (kept) {
+                dropped -= kept.size();
+            }
+        }
+        return dropped;
+    }
+
+    @Override
+    public String getName() {
+        return "ConstantScan";
+    }
+} 
\ No newline at end of file
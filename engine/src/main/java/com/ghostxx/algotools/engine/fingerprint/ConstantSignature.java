@@ -0,0 +1,175 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 算法常量特征
+ * 每个特征是常量表中的一段连续字节（通常为表头的16字节），按uint32/uint64数组保存的常量
+ * 分别生成小端和大端两种字节序的特征。只取一段而不是整张表，使自动机保持较小，同时足以排除随机命中。
+ */
+final class ConstantSignature {
+    /** 整张常量表的片段，误报概率最低 */
+    static final int WEIGHT_TABLE = 3;
+    /** 初始值等较短的常量 */
+    static final int WEIGHT_CONSTANT = 2;
+    /** 普通程序中也常见的内容，如Base64字母表 */
+    static final int WEIGHT_COMMON = 1;
+
+    private static final List<ConstantSignature> ALL = Collections.unmodifiableList(build());
+
+    final int id;
+    final CryptoAlgorithm algorithm;
+    final String name;
+    final String byteOrder;
+    final int weight;
+    final byte[] pattern;
+
+    private ConstantSignature(int id, CryptoAlgorithm algorithm, String name, String byteOrder, int weight,
+                              byte[] pattern) {
+        this.id = id;
+        this.algorithm = algorithm;
+        this.name = name;
+        this.byteOrder = byteOrder;
+        this.weight = weight;
+        this.pattern = pattern;
+    }
+
+    /**
+     * 获取所有特征，下标与 {@link #id} 一致
+     */
+    static List<ConstantSignature> all() {
+        return ALL;
+    }
+
+    private static List<ConstantSignature> build() {
+        List<ConstantSignature> list = new ArrayList<>();
+        words32(list, CryptoAlgorithm.MD5, "MD5 T[0..3]", WEIGHT_TABLE,
+                0xd76aa478, 0xe8c7b756, 0x242070db, 0xc1bdceee);
+        words32(list, CryptoAlgorithm.MD5, "MD5 T[32..35]", WEIGHT_TABLE,
+                0xfffa3942, 0x8771f681, 0x6d9d6122, 0xfde5380c);
+        words32(list, CryptoAlgorithm.SHA1, "SHA-1 K", WEIGHT_TABLE,
+                0x5a827999, 0x6ed9eba1, 0x8f1bbcdc, 0xca62c1d6);
+        words32(list, CryptoAlgorithm.SHA1, "SHA-1 IV", WEIGHT_CONSTANT,
+                0x67452301, 0xefcdab89, 0x98badcfe, 0x10325476, 0xc3d2e1f0);
+        words32(list, CryptoAlgorithm.SHA256, "SHA-256 K[0..3]", WEIGHT_TABLE,
+                0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5);
+        words32(list, CryptoAlgorithm.SHA256, "SHA-256 K[60..63]", WEIGHT_TABLE,
+                0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2);
+        words32(list, CryptoAlgorithm.SHA256, "SHA-256 IV", WEIGHT_CONSTANT,
+                0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a);
+        words32(list, CryptoAlgorithm.SHA256, "SHA-224 IV", WEIGHT_CONSTANT,
+                0xc1059ed8, 0x367cd507, 0x3070dd17, 0xf70e5939);
+        words64(list, CryptoAlgorithm.SHA512, "SHA-512 K[0..1]", WEIGHT_TABLE,
+                0x428a2f98d728ae22L, 0x7137449123ef65cdL);
+        words64(list, CryptoAlgorithm.SHA512, "SHA-512 K[78..79]", WEIGHT_TABLE,
+                0x5fcb6fab3ad6faecL, 0x6c44198c4a475817L);
+        words64(list, CryptoAlgorithm.SHA512, "SHA-512 IV", WEIGHT_CONSTANT,
+                0x6a09e667f3bcc908L, 0xbb67ae8584caa73bL);
+        words64(list, CryptoAlgorithm.SHA512, "SHA-384 IV", WEIGHT_CONSTANT,
+                0xcbbb9d5dc1059ed8L, 0x629a292a367cd507L);
+        words64(list, CryptoAlgorithm.SHA512, "SHA-512/256 IV", WEIGHT_CONSTANT,
+                0x22312194fc2bf72cL, 0x9f555fa3c84c64c2L);
+        words32(list, CryptoAlgorithm.SM3, "SM3 IV", WEIGHT_CONSTANT,
+                0x7380166f, 0x4914b2b9, 0x172442d7, 0xda8a0600);
+        words32(list, CryptoAlgorithm.SM3, "SM3 T<<<j", WEIGHT_TABLE,
+                0x79cc4519, 0xf3988a32, 0xe7311465, 0xce6228cb);
+        words64(list, CryptoAlgorithm.KECCAK, "Keccak RC[1..2]", WEIGHT_TABLE,
+                0x0000000000008082L, 0x800000000000808aL);
+        words64(list, CryptoAlgorithm.KECCAK, "Keccak RC[3..4]", WEIGHT_TABLE,
+                0x8000000080008000L, 0x000000000000808bL);
+        bytes(list, CryptoAlgorithm.AES, "AES S-box", WEIGHT_TABLE, "637c777bf26b6fc53001672bfed7ab76");
+        bytes(list, CryptoAlgorithm.AES, "AES 逆S-box", WEIGHT_TABLE, "52096ad53036a538bf40a39e81f3d7fb");
+        words32(list, CryptoAlgorithm.AES, "AES Te0", WEIGHT_TABLE,
+                0xc66363a5, 0xf87c7c84, 0xee777799, 0xf67b7b8d);
+        words32(list, CryptoAlgorithm.AES, "AES Td0", WEIGHT_TABLE,
+                0x51f4a750, 0x7e416553, 0x1a17a4c3, 0x3a275e96);
+        bytes(list, CryptoAlgorithm.SM4, "SM4 S-box", WEIGHT_TABLE, "d690e9fecce13db716b614c228fb2c05");
+        words32(list, CryptoAlgorithm.SM4, "SM4 FK", WEIGHT_CONSTANT,
+                0xa3b1bac6, 0x56aa3350, 0x677d9197, 0xb27022dc);
+        words32(list, CryptoAlgorithm.SM4, "SM4 CK", WEIGHT_TABLE,
+                0x00070e15, 0x1c232a31, 0x383f464d, 0x545b6269);
+        bytes(list, CryptoAlgorithm.DES, "DES S1", WEIGHT_TABLE, "0e040d01020f0b08030a060c05090007");
+        words32(list, CryptoAlgorithm.DES, "DES SP1", WEIGHT_TABLE,
+                0x01010400, 0x00000000, 0x00010000, 0x01010404);
+        words32(list, CryptoAlgorithm.BLOWFISH, "Blowfish P", WEIGHT_TABLE,
+                0x243f6a88, 0x85a308d3, 0x13198a2e, 0x03707344);
+        words32(list, CryptoAlgorithm.BLOWFISH, "Blowfish S0", WEIGHT_TABLE,
+                0xd1310ba6, 0x98dfb5ac, 0x2ffd72db, 0xd01adfb7);
+        ascii(list, CryptoAlgorithm.CHACHA, "expand 32-byte k", WEIGHT_CONSTANT);
+        ascii(list, CryptoAlgorithm.CHACHA, "expand 16-byte k", WEIGHT_CONSTANT);
+        words32(list, CryptoAlgorithm.CRC32, "CRC32 表", WEIGHT_TABLE,
+                0x77073096, 0xee0e612c, 0x990951ba, 0x076dc419);
+        words32(list, CryptoAlgorithm.CRC32C, "CRC32C 表", WEIGHT_TABLE,
+                0xf26b8303, 0xe13b70f7, 0x1350f3f4, 0xc79a971f);
+        words16(list, CryptoAlgorithm.CRC16, "CRC16-CCITT 表", WEIGHT_TABLE,
+                0x1021, 0x2042, 0x3063, 0x4084, 0x50a5, 0x60c6, 0x70e7, 0x8108);
+        words16(list, CryptoAlgorithm.CRC16, "CRC16-IBM 表", WEIGHT_TABLE,
+                0xc0c1, 0xc181, 0x0140, 0xc301, 0x03c0, 0x0280, 0xc241, 0xc601);
+        ascii(list, CryptoAlgorithm.BASE64, "wxyz0123456789+/", WEIGHT_COMMON);
+        ascii(list, CryptoAlgorithm.BASE64, "wxyz0123456789-_", WEIGHT_COMMON);
+        return list;
+    }
+
+    private static void add(List<ConstantSignature> list, CryptoAlgorithm algorithm, String name, String byteOrder,
+                            int weight, byte[] pattern) {
+        list.add(new ConstantSignature(list.size(), algorithm, name, byteOrder, weight, pattern));
+    }
+
+    private static void words16(List<ConstantSignature> list, CryptoAlgorithm algorithm, String name, int weight,
+                                int... words) {
+        byte[] le = new byte[words.length * 2];
+        byte[] be = new byte[words.length * 2];
+        for (int i = 0; i < words.length; i++) {
+            le[i * 2] = (byte) words[i];
+            le[i * 2 + 1] = (byte) (words[i] >>> 8);
+            be[i * 2] = (byte) (words[i] >>> 8);
+            be[i * 2 + 1] = (byte) words[i];
+        }
+        add(list, algorithm, name, "LE", weight, le);
+        add(list, algorithm, name, "BE", weight, be);
+    }
+
+    private static void words32(List<ConstantSignature> list, CryptoAlgorithm algorithm, String name, int weight,
+                                int... words) {
+        byte[] le = new byte[words.length * 4];
+        byte[] be = new byte[words.length * 4];
+        for (int i = 0; i < words.length; i++) {
+            for (int b = 0; b < 4; b++) {
+                le[i * 4 + b] = (byte) (words[i] >>> (8 * b));
+                be[i * 4 + b] = (byte) (words[i] >>> (24 - 8 * b));
+            }
+        }
+        add(list, algorithm, name, "LE", weight, le);
+        add(list, algorithm, name, "BE", weight, be);
+    }
+
+    private static void words64(List<ConstantSignature> list, CryptoAlgorithm algorithm, String name, int weight,
+                                long... words) {
+        byte[] le = new byte[words.length * 8];
+        byte[] be = new byte[words.length * 8];
+        for (int i = 0; i < words.length; i++) {
+            for (int b = 0; b < 8; b++) {
+                le[i * 8 + b] = (byte) (words[i] >>> (8 * b));
+                be[i * 8 + b] = (byte) (words[i] >>> (56 - 8 * b));
+            }
+        }
+        add(list, algorithm, name, "LE", weight, le);
+        add(list, algorithm, name, "BE", weight, be);
+    }
+
+    private static void bytes(List<ConstantSignature> list, CryptoAlgorithm algorithm, String name, int weight,
+                              String hex) {
+        byte[] pattern = new byte[hex.length() / 2];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        add(list, algorithm, name, null, weight, pattern);
+    }
+
+    private static void ascii(List<ConstantSignature> list, CryptoAlgorithm algorithm, String text, int weight) {
+        add(list, algorithm, "\"" + text + "\"", null, weight, text.getBytes(StandardCharsets.US_ASCII));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 可通过常量表识别的算法
+ * 同一组常量被多种变体共用时（如SHA-256和SHA-224的K常量）归为一个算法族，
+ * {@link #getHashTypes()} 列出可直接用于原文搜索的哈希类型。
+ */
+public enum CryptoAlgorithm {
+    MD5("MD5", "MD5"),
+    SHA1("SHA-1", "SHA-1"),
+    SHA256("SHA-256/224", "SHA-256", "SHA-224"),
+    SHA512("SHA-512/384", "SHA-512", "SHA-384", "SHA-512/256"),
+    SM3("SM3", "SM3"),
+    KECCAK("SHA-3/Keccak", "SHA3-256", "KECCAK-256", "SHA3-224", "SHA3-384", "SHA3-512"),
+    AES("AES"),
+    SM4("SM4"),
+    DES("DES"),
+    BLOWFISH("Blowfish"),
+    CHACHA("ChaCha20/Salsa20"),
+    CRC32("CRC32"),
+    CRC32C("CRC32C"),
+    CRC16("CRC16"),
+    BASE64("Base64");
+
+    private final String displayName;
+    private final List<String> hashTypes;
+
+    CryptoAlgorithm(String displayName, String... hashTypes) {
+        this.displayName = displayName;
+        this.hashTypes = Collections.unmodifiableList(Arrays.asList(hashTypes));
+    }
+
+    /**
+     * 获取显示名称
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * 获取对应的哈希类型（与HashSupport中的名称一致），不是哈希算法时为空列表
+     */
+    public List<String> getHashTypes() {
+        return hashTypes;
+    }
+
+    /**
+     * 是否为可搜索原文的哈希算法
+     */
+    public boolean isHash() {
+        return !hashTypes.isEmpty();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * Merkle–Damgård结构摘要的公共部分
+ * 负责输入缓冲、按分组调用压缩函数以及 0x80 + 0 + 大端长度 的填充，子类只实现压缩函数和输出。
+ * 用于平台未提供的算法（如SM3、SHA-512/256），支持克隆以便复用中间状态。
+ */
+abstract class BlockDigest extends MessageDigest implements Cloneable {
+    private final int blockSize;
+    private final int lengthFieldSize;
+    private final int digestLength;
+    private byte[] buffer;
+    private int bufferLength;
+    private long byteCount;
+
+    /**
+     * @param algorithm 算法名称
+     * @param blockSize 分组长度（字节）
+     * @param lengthFieldSize 填充中长度字段的字节数（64字节分组为8，128字节分组为16）
+     * @param digestLength 摘要长度（字节）
+     */
+    BlockDigest(String algorithm, int blockSize, int lengthFieldSize, int digestLength) {
+        super(algorithm);
+        this.blockSize = blockSize;
+        this.lengthFieldSize = lengthFieldSize;
+        this.digestLength = digestLength;
+        this.buffer = new byte[blockSize];
+    }
+
+    /**
+     * 压缩一个分组
+     */
+    abstract void compress(byte[] block, int offset);
+
+    /**
+     * 恢复初始状态
+     */
+    abstract void resetState();
+
+    /**
+     * 把状态按大端序写出 digestLength 个字节
+     */
+    abstract void writeDigest(byte[] out, int offset);
+
+    @Override
+    protected int engineGetDigestLength() {
+        return digestLength;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        buffer[bufferLength++] = input;
+        byteCount++;
+        if (bufferLength == blockSize) {
+            compress(buffer, 0);
+            bufferLength = 0;
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int length) {
+        byteCount += length;
+        if (bufferLength > 0) {
+            int fill = Math.min(length, blockSize - bufferLength);
+            System.arraycopy(input, offset, buffer, bufferLength, fill);
+            bufferLength += fill;
+            offset += fill;
+            length -= fill;
+            if (bufferLength < blockSize) {
+                return;
+            }
+            compress(buffer, 0);
+            bufferLength = 0;
+        }
+        // 完整的分组直接从输入压缩，不经过缓冲区
+        while (length >= blockSize) {
+            compress(input, offset);
+            offset += blockSize;
+            length -= blockSize;
+        }
+        System.arraycopy(input, offset, buffer, 0, length);
+        bufferLength = length;
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        byte[] out = new byte[digestLength];
+        finish(out, 0);
+        return out;
+    }
+
+    @Override
+    protected int engineDigest(byte[] buf, int offset, int len) throws DigestException {
+        if (len < digestLength) {
+            throw new DigestException("输出缓冲区长度不足: " + len);
+        }
+        finish(buf, offset);
+        return digestLength;
+    }
+
+    private void finish(byte[] out, int offset) {
+        long bitLength = byteCount << 3;
+        buffer[bufferLength++] = (byte) 0x80;
+        if (bufferLength > blockSize - lengthFieldSize) {
+            fillZero(bufferLength, blockSize);
+            compress(buffer, 0);
+            bufferLength = 0;
+        }
+        // 长度字段的高位对候选字符串总是0
+        fillZero(bufferLength, blockSize - 8);
+        for (int i = 0; i < 8; i++) {
+            buffer[blockSize - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+        compress(buffer, 0);
+        writeDigest(out, offset);
+        engineReset();
+    }
+
+    private void fillZero(int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer[i] = 0;
+        }
+    }
+
+    @Override
+    protected void engineReset() {
+        resetState();
+        bufferLength = 0;
+        byteCount = 0;
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        BlockDigest copy = (BlockDigest) super.clone();
+        copy.buffer = buffer.clone();
+        return copy;
+    }
+
+    static int readIntBE(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    static void writeIntBE(int value, byte[] out, int offset) {
+        out[offset] = (byte) (value >>> 24);
+        out[offset + 1] = (byte) (value >>> 16);
+        out[offset + 2] = (byte) (value >>> 8);
+        out[offset + 3] = (byte) value;
+    }
+
+    static long readLongBE(byte[] data, int offset) {
+        return ((long) readIntBE(data, offset) << 32) | (readIntBE(data, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    static void writeLongBE(long value, byte[] out, int offset) {
+        writeIntBE((int) (value >>> 32), out, offset);
+        writeIntBE((int) value, out, offset + 4);
+    }
+} 
\ No newline at end of file
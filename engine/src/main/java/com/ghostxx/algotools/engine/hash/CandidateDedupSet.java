@@ -0,0 +1,115 @@
+package com.ghostxx.algotools.engine.hash;
+
+/**
+ * 候选字符串去重集合
+ * 与原生层的 CandidateDedupSet 相同：按64位指纹记录已经计算过哈希的候选字符串，
+ * 按指纹分片加锁，每个分片是开放寻址表，总容量有上限，达到上限后只查询不再记录（只影响去重效果，不影响正确性）。
+ */
+final class CandidateDedupSet {
+    private static final int SHARD_COUNT = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final class Shard {
+        long[] slots;
+        int size;
+    }
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final int maxSlotsPerShard;
+
+    CandidateDedupSet(int maxEntries) {
+        // 负载因子上限为1/2，因此每个分片的槽位数为其条目上限的两倍
+        long perShard = (long) maxEntries / SHARD_COUNT * 2;
+        int slots = INITIAL_CAPACITY;
+        while (slots < perShard && slots < (1 << 30)) {
+            slots <<= 1;
+        }
+        maxSlotsPerShard = slots;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * FNV-1a 再经过 murmur3 的 fmix64 混合，与原生层的指纹一致（0保留为空槽位）
+     */
+    static long fingerprint(byte[] data, int offset, int length) {
+        long h = 0xcbf29ce484222325L ^ length;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h ^= data[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * 记录候选字符串的指纹
+     * @return 首次出现返回true（需要计算哈希），已出现过返回false
+     */
+    boolean insert(long fingerprint) {
+        // 低6位选择分片，其余位决定分片内的位置
+        Shard shard = shards[(int) (fingerprint & (SHARD_COUNT - 1))];
+        synchronized (shard) {
+            if ((shard.size + 1) * 2 > capacityOf(shard) && !grow(shard)) {
+                // 分片已满：只查询不再记录
+                return shard.slots == null || !contains(shard.slots, fingerprint);
+            }
+            long[] slots = shard.slots;
+            int mask = slots.length - 1;
+            int pos = (int) (fingerprint >>> 6) & mask;
+            while (slots[pos] != 0) {
+                if (slots[pos] == fingerprint) {
+                    return false;
+                }
+                pos = (pos + 1) & mask;
+            }
+            slots[pos] = fingerprint;
+            shard.size++;
+            return true;
+        }
+    }
+
+    private static int capacityOf(Shard shard) {
+        return shard.slots == null ? 0 : shard.slots.length;
+    }
+
+    private static boolean contains(long[] slots, long fingerprint) {
+        int mask = slots.length - 1;
+        int pos = (int) (fingerprint >>> 6) & mask;
+        while (slots[pos] != 0) {
+            if (slots[pos] == fingerprint) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    private boolean grow(Shard shard) {
+        int newCapacity = shard.slots == null ? INITIAL_CAPACITY : shard.slots.length * 2;
+        if (newCapacity > maxSlotsPerShard) {
+            return false;
+        }
+        long[] newSlots = new long[newCapacity];
+        int mask = newCapacity - 1;
+        if (shard.slots != null) {
+            for (long fp : shard.slots) {
+                if (fp == 0) {
+                    continue;
+                }
+                int pos = (int) (fp >>> 6) & mask;
+                while (newSlots[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                newSlots[pos] = fp;
+            }
+        }
+        shard.slots = newSlots;
+        return true;
+    }
+} 
\ No newline at end of file
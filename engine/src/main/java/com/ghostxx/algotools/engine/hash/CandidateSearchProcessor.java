@@ -0,0 +1,203 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 候选字符串搜索处理器基类
+ * 负责与原生层一致的公共流程：可选的特征字符串预检查，提取长度不小于2的可打印字节序列
+ * （ASCII可打印字符、制表符、换行、回车以及所有不小于0x80的字节），会话内去重，以及分阶段计数。
+ * 子类通过 {@link Matcher} 决定一个候选是否命中。
+ *
+ * 每个工作线程持有自己的候选区间缓冲和匹配器，候选直接以数据块数组中的区间传给匹配器，不创建字符串。
+ * 设置了 {@link MatchStream} 时，命中连同文件偏移和原始字节报告给命中流；全部命中模式下继续处理剩余候选且不返回结果。
+ */
+abstract class CandidateSearchProcessor implements FileChunkProcessor {
+    private static final int MIN_CANDIDATE_LENGTH = 2;
+
+    private final String tag;
+    private final byte[] featureBytes;
+    private final JavaSearchSession session;
+    private volatile MatchStream matchStream;
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker(createMatcher());
+        }
+    };
+
+    /**
+     * 每个工作线程一个的候选匹配器
+     */
+    abstract static class Matcher {
+        // 本数据块中复用中间状态的次数，由基类在每个数据块结束后读取并清零
+        int midstateHits;
+        // 最近一次命中的哈希类型，由子类在 matches 返回true时设置
+        String matchedType;
+
+        /**
+         * 判断候选区间是否命中
+         */
+        abstract boolean matches(byte[] data, int start, int length);
+    }
+
+    /**
+     * @param tag 日志标签
+     * @param featureString 特征字符串（可选，为空则不使用）
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    CandidateSearchProcessor(String tag, String featureString, JavaSearchSession session) {
+        this.tag = tag;
+        this.featureBytes = featureString != null && !featureString.isEmpty()
+                ? featureString.getBytes(StandardCharsets.UTF_8) : null;
+        this.session = session;
+    }
+
+    /**
+     * 为工作线程创建匹配器，在该线程第一次处理数据块时调用
+     */
+    abstract Matcher createMatcher();
+
+    /**
+     * 设置命中流，之后的命中都报告给它
+     * @param matchStream 命中流，为null时只返回第一个命中的原文
+     */
+    public void setMatchStream(MatchStream matchStream) {
+        this.matchStream = matchStream;
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        return processChunk(data, dataSize, -1, -1);
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        ChunkResult result = processChunkResult(data, dataSize, fileIndex, fileOffset);
+        return result != null ? result.getResult() : null;
+    }
+
+    @Override
+    public ChunkResult processChunkResult(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        if (session != null) {
+            session.bytesSearched.addAndGet(dataSize);
+        }
+
+        // 如果提供了特征字符串，先检查数据是否包含该字符串
+        if (featureBytes != null) {
+            long featureStart = System.nanoTime();
+            boolean containsFeature = HashSupport.indexOf(data, dataSize, featureBytes) >= 0;
+            if (session != null) {
+                session.featureSearchNanos.addAndGet(System.nanoTime() - featureStart);
+                if (!containsFeature) {
+                    session.bytesSkippedByFeature.addAndGet(dataSize);
+                }
+            }
+            if (!containsFeature) {
+                return null;
+            }
+        }
+
+        Worker worker = workers.get();
+        Matcher matcher = worker.matcher;
+        long extractStart = System.nanoTime();
+        int count = worker.extract(data, dataSize);
+        long hashStart = System.nanoTime();
+
+        CandidateDedupSet dedupSet = session != null ? session.getDedupSet() : null;
+        MatchStream stream = matchStream;
+        boolean allMatches = stream != null && stream.isAllMatches();
+        ChunkResult result = null;
+        int skipped = 0;
+        int hashed = 0;
+        for (int i = 0; i < count; i++) {
+            int start = worker.starts[i];
+            int length = worker.lengths[i];
+            // 已在其他数据块或转储中计算过的文本直接跳过
+            if (dedupSet != null && !dedupSet.insert(CandidateDedupSet.fingerprint(data, start, length))) {
+                skipped++;
+                // 全部命中模式下，已命中原文的其他副本也要报告
+                if (allMatches) {
+                    stream.reportCopy(fileIndex, offsetOf(fileOffset, start), data, start, length);
+                }
+                continue;
+            }
+            hashed++;
+            if (matcher.matches(data, start, length)) {
+                MatchRecord record = stream != null
+                        ? stream.report(fileIndex, offsetOf(fileOffset, start), data, start, length,
+                                matcher.matchedType)
+                        : null;
+                if (allMatches) {
+                    continue;
+                }
+                String text = new String(data, start, length, StandardCharsets.UTF_8);
+                EngineLog.d(tag, "找到匹配的原文: " + text);
+                result = new ChunkResult(text, record);
+                break;
+            }
+        }
+
+        if (session != null) {
+            session.extractNanos.addAndGet(hashStart - extractStart);
+            session.hashNanos.addAndGet(System.nanoTime() - hashStart);
+            session.candidates.addAndGet(count);
+            session.hashesComputed.addAndGet(hashed);
+            session.dedupSkipped.addAndGet(skipped);
+            session.midstateHits.addAndGet(matcher.midstateHits);
+        }
+        matcher.midstateHits = 0;
+        return result;
+    }
+
+    private static long offsetOf(long fileOffset, int start) {
+        return fileOffset >= 0 ? fileOffset + start : -1;
+    }
+
+    /**
+     * 每个工作线程的候选区间缓冲
+     */
+    private static final class Worker {
+        final Matcher matcher;
+        int[] starts = new int[4096];
+        int[] lengths = new int[4096];
+
+        Worker(Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        /**
+         * 提取可打印字节序列，区间写入 starts/lengths
+         * @return 候选数量
+         */
+        int extract(byte[] data, int dataSize) {
+            int count = 0;
+            int start = -1;
+            for (int i = 0; i <= dataSize; i++) {
+                if (i < dataSize) {
+                    int c = data[i] & 0xFF;
+                    if ((c >= 32 && c <= 126) || c == 9 || c == 10 || c == 13 || c >= 128) {
+                        if (start < 0) {
+                            start = i;
+                        }
+                        continue;
+                    }
+                }
+                if (start >= 0 && i - start >= MIN_CANDIDATE_LENGTH) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        lengths = Arrays.copyOf(lengths, count * 2);
+                    }
+                    starts[count] = start;
+                    lengths[count] = i - start;
+                    count++;
+                }
+                start = -1;
+            }
+            return count;
+        }
+    }
+} 
\ No newline at end of file
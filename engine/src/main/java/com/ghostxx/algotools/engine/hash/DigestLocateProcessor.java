@@ -0,0 +1,182 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 摘要定位处理器（反向搜索）
+ * 已知原文时计算一次摘要，在转储中同时查找它的原始字节、小写/大写十六进制、Base64和Base64URL形式，
+ * 记录每一次出现的文件偏移和前后的上下文，用于沿指针找到签名代码使用的缓冲区。
+ *
+ * 所有形式在一次扫描中匹配：以相邻两个字节为下标查预先构造的位图表，得到可能从该位置开始的形式，
+ * 只对这些形式逐字节确认。不含任何形式开头两字节的位置只需一次查表。
+ * 处理器从不返回结果，引擎会扫描完所有数据块，命中由 {@link #getOccurrences()} 获取。
+ */
+public class DigestLocateProcessor implements FileChunkProcessor {
+    private static final String TAG = "DigestLocate";
+    // 命中位置前后各保留的上下文字节数
+    private static final int CONTEXT_BYTES = 48;
+    // 最多记录的命中数，防止摘要出现在大量重复结构中时占用过多内存
+    private static final int MAX_OCCURRENCES = 10000;
+
+    private final String hashType;
+    private final byte[] digest;
+    private final byte[][] patterns;
+    private final DigestOccurrence.Form[] forms;
+    // 以前两个字节为下标，值为可能从此处开始的形式的位掩码
+    private final byte[] prefilter = new byte[1 << 16];
+    private final Set<DigestOccurrence> occurrences =
+            Collections.newSetFromMap(new ConcurrentHashMap<DigestOccurrence, Boolean>());
+    private final AtomicInteger droppedOccurrences = new AtomicInteger();
+
+    /**
+     * @param plaintext 已知的原文（按UTF-8编码）
+     * @param hashType 哈希类型（如MD5、SHA-256、SM3）
+     */
+    public DigestLocateProcessor(String plaintext, String hashType) {
+        this(plaintext.getBytes(StandardCharsets.UTF_8), hashType);
+    }
+
+    /**
+     * @param message 已知的原文字节
+     * @param hashType 哈希类型（如MD5、SHA-256、SM3）
+     */
+    public DigestLocateProcessor(byte[] message, String hashType) {
+        this.hashType = hashType.toUpperCase(Locale.ROOT);
+        this.digest = HashSupport.newDigest(this.hashType).digest(message);
+
+        List<byte[]> patternList = new ArrayList<>();
+        List<DigestOccurrence.Form> formList = new ArrayList<>();
+        addPattern(patternList, formList, digest, DigestOccurrence.Form.RAW);
+        byte[] hex = toHex(digest, "0123456789abcdef");
+        addPattern(patternList, formList, hex, DigestOccurrence.Form.HEX_LOWER);
+        addPattern(patternList, formList, toHex(digest, "0123456789ABCDEF"), DigestOccurrence.Form.HEX_UPPER);
+        // 不含填充，这样带填充和省略填充的Base64都能找到
+        addPattern(patternList, formList, Base64.getEncoder().withoutPadding().encode(digest),
+                DigestOccurrence.Form.BASE64);
+        addPattern(patternList, formList, Base64.getUrlEncoder().withoutPadding().encode(digest),
+                DigestOccurrence.Form.BASE64URL);
+        this.patterns = patternList.toArray(new byte[0][]);
+        this.forms = formList.toArray(new DigestOccurrence.Form[0]);
+
+        for (int i = 0; i < patterns.length; i++) {
+            int key = ((patterns[i][0] & 0xFF) << 8) | (patterns[i][1] & 0xFF);
+            prefilter[key] |= (byte) (1 << i);
+        }
+        EngineLog.d(TAG, "定位 " + this.hashType + " 摘要 " + new String(hex, StandardCharsets.US_ASCII)
+                + "，共 " + patterns.length + " 种形式");
+    }
+
+    private static byte[] toHex(byte[] bytes, String digits) {
+        byte[] hex = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = (byte) digits.charAt((bytes[i] >> 4) & 0xF);
+            hex[i * 2 + 1] = (byte) digits.charAt(bytes[i] & 0xF);
+        }
+        return hex;
+    }
+
+    /**
+     * 添加一种形式，与已有形式相同时跳过（如全为数字的十六进制大小写相同）
+     */
+    private static void addPattern(List<byte[]> patterns, List<DigestOccurrence.Form> forms, byte[] pattern,
+                                   DigestOccurrence.Form form) {
+        for (byte[] existing : patterns) {
+            if (Arrays.equals(existing, pattern)) {
+                return;
+            }
+        }
+        patterns.add(pattern);
+        forms.add(form);
+    }
+
+    /**
+     * 获取计算得到的摘要
+     */
+    public byte[] getDigest() {
+        return digest.clone();
+    }
+
+    /**
+     * 获取所有命中，按文件、偏移排序
+     */
+    public List<DigestOccurrence> getOccurrences() {
+        List<DigestOccurrence> sorted = new ArrayList<>(occurrences);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 获取超过记录上限而未记录的命中数
+     */
+    public int getDroppedOccurrences() {
+        return droppedOccurrences.get();
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        return processChunk(data, dataSize, 0, 0);
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        byte[] prefilter = this.prefilter;
+        int last = dataSize - 1;
+        int key = 0;
+        if (dataSize > 0) {
+            key = data[0] & 0xFF;
+        }
+        for (int i = 0; i < last; i++) {
+            key = ((key << 8) | (data[i + 1] & 0xFF)) & 0xFFFF;
+            int mask = prefilter[key];
+            if (mask == 0) {
+                continue;
+            }
+            for (int p = 0; p < patterns.length; p++) {
+                if ((mask & (1 << p)) == 0) {
+                    continue;
+                }
+                byte[] pattern = patterns[p];
+                if (i + pattern.length <= dataSize && HashSupport.regionEquals(data, i, pattern, 0, pattern.length)) {
+                    record(data, dataSize, i, p, fileIndex, fileOffset);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 记录一次命中
+     * 与上一块重叠区域中的命中会被两个数据块各发现一次，按文件和偏移去重
+     */
+    private void record(byte[] data, int dataSize, int position, int patternIndex, int fileIndex, long fileOffset) {
+        if (occurrences.size() >= MAX_OCCURRENCES) {
+            droppedOccurrences.incrementAndGet();
+            return;
+        }
+        int contextStart = Math.max(0, position - CONTEXT_BYTES);
+        int contextEnd = Math.min(dataSize, position + patterns[patternIndex].length + CONTEXT_BYTES);
+        DigestOccurrence occurrence = new DigestOccurrence(fileIndex, fileOffset + position, forms[patternIndex],
+                patterns[patternIndex].length, Arrays.copyOfRange(data, contextStart, contextEnd),
+                fileOffset + contextStart);
+        if (occurrences.add(occurrence)) {
+            EngineLog.d(TAG, "找到摘要: " + occurrence);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "DigestLocate-" + hashType;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 摘要在转储中的一次出现
+ * 记录所在文件、文件内偏移、出现的形式以及前后的上下文字节，用于沿指针找到签名代码使用的缓冲区。
+ */
+public final class DigestOccurrence implements Comparable<DigestOccurrence> {
+
+    /**
+     * 摘要在内存中的形式
+     */
+    public enum Form {
+        /** 原始字节 */
+        RAW,
+        /** 小写十六进制 */
+        HEX_LOWER,
+        /** 大写十六进制 */
+        HEX_UPPER,
+        /** Base64（不含结尾的填充） */
+        BASE64,
+        /** Base64URL（不含结尾的填充） */
+        BASE64URL
+    }
+
+    private final int fileIndex;
+    private final long offset;
+    private final Form form;
+    private final int length;
+    private final byte[] context;
+    private final long contextOffset;
+
+    DigestOccurrence(int fileIndex, long offset, Form form, int length, byte[] context, long contextOffset) {
+        this.fileIndex = fileIndex;
+        this.offset = offset;
+        this.form = form;
+        this.length = length;
+        this.context = context;
+        this.contextOffset = contextOffset;
+    }
+
+    /**
+     * 获取所在文件在输入列表中的下标
+     */
+    public int getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * 获取在文件中的偏移
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public Form getForm() {
+        return form;
+    }
+
+    /**
+     * 获取匹配的字节数
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 获取命中位置前后的上下文字节（包含命中的内容）
+     */
+    public byte[] getContext() {
+        return context.clone();
+    }
+
+    /**
+     * 获取上下文第一个字节在文件中的偏移
+     */
+    public long getContextOffset() {
+        return contextOffset;
+    }
+
+    /**
+     * 上下文的可读形式，不可打印的字节显示为'.'
+     */
+    public String getContextPreview() {
+        byte[] preview = new byte[context.length];
+        for (int i = 0; i < context.length; i++) {
+            int c = context[i] & 0xFF;
+            preview[i] = c >= 32 && c <= 126 ? context[i] : (byte) '.';
+        }
+        return new String(preview, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public int compareTo(DigestOccurrence other) {
+        if (fileIndex != other.fileIndex) {
+            return Integer.compare(fileIndex, other.fileIndex);
+        }
+        if (offset != other.offset) {
+            return Long.compare(offset, other.offset);
+        }
+        return form.compareTo(other.form);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DigestOccurrence)) {
+            return false;
+        }
+        DigestOccurrence other = (DigestOccurrence) o;
+        return fileIndex == other.fileIndex && offset == other.offset && form == other.form;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * fileIndex + Long.hashCode(offset)) * 31 + form.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d@0x%x %s: %s", fileIndex, offset, form, getContextPreview());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.ghostxx.algotools.engine.hash;
+
+/**
+ * 自连接搜索找到的一对摘要和原文
+ */
+public final class DigestPair {
+    private final String hashType;
+    private final String digestHex;
+    private final String plaintext;
+
+    DigestPair(String hashType, String digestHex, String plaintext) {
+        this.hashType = hashType;
+        this.digestHex = digestHex;
+        this.plaintext = plaintext;
+    }
+
+    public String getHashType() {
+        return hashType;
+    }
+
+    /**
+     * 获取摘要的小写十六进制
+     */
+    public String getDigestHex() {
+        return digestHex;
+    }
+
+    public String getPlaintext() {
+        return plaintext;
+    }
+
+    @Override
+    public String toString() {
+        return hashType + "(" + plaintext + ") = " + digestHex;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 摘要查找表
+ * 以摘要前8个字节为键的开放寻址哈希表，构造后只读，可以被所有工作线程同时查询，查询不分配对象。
+ * 不同长度的摘要放在同一张表中，命中时再比较完整的摘要。
+ */
+final class DigestTable {
+    private final long[] keys;
+    private final byte[][] digests;
+    private final int mask;
+    private final int size;
+    // 下标为摘要长度，表中存在该长度的摘要时为true
+    private final boolean[] lengths = new boolean[65];
+
+    /**
+     * @param values 摘要（长度8到64字节，不含重复）
+     */
+    DigestTable(Collection<byte[]> values) {
+        int capacity = Integer.highestOneBit(Math.max(16, values.size() * 2)) * 2;
+        this.keys = new long[capacity];
+        this.digests = new byte[capacity][];
+        this.mask = capacity - 1;
+        this.size = values.size();
+        for (byte[] digest : values) {
+            long key = keyOf(digest);
+            int slot = slotOf(key);
+            while (digests[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            digests[slot] = digest;
+            lengths[digest.length] = true;
+        }
+    }
+
+    private static long keyOf(byte[] digest) {
+        return BlockDigest.readLongBE(digest, 0);
+    }
+
+    private int slotOf(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key >>> 32) & mask;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 表中是否有该长度的摘要
+     */
+    boolean hasLength(int length) {
+        return length < lengths.length && lengths[length];
+    }
+
+    /**
+     * 查找摘要
+     * @return 表中相同的摘要，不存在时返回null
+     */
+    byte[] find(byte[] digest) {
+        long key = keyOf(digest);
+        int slot = slotOf(key);
+        byte[] candidate;
+        while ((candidate = digests[slot]) != null) {
+            if (keys[slot] == key && Arrays.equals(candidate, digest)) {
+                return candidate;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+} 
\ No newline at end of file
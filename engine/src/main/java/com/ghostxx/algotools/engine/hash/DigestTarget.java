@@ -0,0 +1,227 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 目标摘要
+ * 把输入的目标值解码为二进制，支持大小写十六进制、Base64 和 Base64URL（填充可省略）。
+ * 同一个字符串可能同时是合法的十六进制和Base64（例如全由数字组成），此时保留所有解码结果：
+ * 候选的摘要只计算一次，再与每一种解码结果比较，不需要按编码重复计算。
+ *
+ * 解码结果短于摘要时视为截断的摘要，与摘要开头或正中间的同长区间比较
+ * （如16位MD5是32位十六进制MD5中间的16个字符）。
+ */
+public final class DigestTarget {
+    /** 截断摘要的最小字节数，更短的目标误匹配概率过高 */
+    public static final int MIN_TRUNCATED_LENGTH = 8;
+    private static final int MAX_DIGEST_LENGTH = 64;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 目标值的编码
+     */
+    public enum Encoding {
+        HEX,
+        BASE64,
+        BASE64URL
+    }
+
+    private final byte[][] forms;
+    private final Encoding[] encodings;
+
+    private DigestTarget(List<byte[]> forms, List<Encoding> encodings) {
+        this.forms = forms.toArray(new byte[0][]);
+        this.encodings = encodings.toArray(new Encoding[0]);
+    }
+
+    /**
+     * 解码目标值
+     * @param text 十六进制、Base64或Base64URL编码的摘要
+     * @throws IllegalArgumentException 不是任何一种支持的编码
+     */
+    public static DigestTarget parse(String text) {
+        DigestTarget target = tryParse(text);
+        if (target == null) {
+            throw new IllegalArgumentException("无效的哈希值: " + text);
+        }
+        return target;
+    }
+
+    /**
+     * 解码目标值
+     * @return 解码结果，不是任何一种支持的编码时返回null
+     */
+    public static DigestTarget tryParse(String text) {
+        if (text == null) {
+            return null;
+        }
+        text = text.trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        List<byte[]> forms = new ArrayList<>();
+        List<Encoding> encodings = new ArrayList<>();
+        addForm(forms, encodings, decodeHex(text), Encoding.HEX);
+        addForm(forms, encodings, decodeBase64(text, false), Encoding.BASE64);
+        addForm(forms, encodings, decodeBase64(text, true), Encoding.BASE64URL);
+        return forms.isEmpty() ? null : new DigestTarget(forms, encodings);
+    }
+
+    private static void addForm(List<byte[]> forms, List<Encoding> encodings, byte[] form, Encoding encoding) {
+        if (form == null || form.length < MIN_TRUNCATED_LENGTH || form.length > MAX_DIGEST_LENGTH) {
+            return;
+        }
+        for (byte[] existing : forms) {
+            if (Arrays.equals(existing, form)) {
+                return;
+            }
+        }
+        forms.add(form);
+        encodings.add(encoding);
+    }
+
+    private static byte[] decodeHex(String text) {
+        if (text.length() % 2 != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[text.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(text.charAt(i * 2), 16);
+            int low = Character.digit(text.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    private static byte[] decodeBase64(String text, boolean urlSafe) {
+        if (text.length() % 4 == 1) {
+            return null;
+        }
+        try {
+            return (urlSafe ? Base64.getUrlDecoder() : Base64.getDecoder())
+                    .decode(text.getBytes(StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取哈希算法的摘要长度（字节）
+     * @return 摘要长度，不支持的算法返回-1
+     */
+    public static int digestLengthOf(String hashType) {
+        switch (hashType.toUpperCase(Locale.ROOT)) {
+            case "MD5":
+                return 16;
+            case "SHA-1":
+                return 20;
+            case "SHA-224":
+            case "SHA3-224":
+                return 28;
+            case "SHA-256":
+            case "SHA-512/256":
+            case "SHA3-256":
+            case "KECCAK-256":
+            case "SM3":
+                return 32;
+            case "SHA-384":
+            case "SHA3-384":
+                return 48;
+            case "SHA-512":
+            case "SHA3-512":
+                return 64;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 获取解码结果的数量
+     */
+    public int getFormCount() {
+        return forms.length;
+    }
+
+    /**
+     * 获取第 index 种解码结果
+     */
+    public byte[] getForm(int index) {
+        return forms[index].clone();
+    }
+
+    /**
+     * 获取第 index 种解码结果的编码
+     */
+    public Encoding getEncoding(int index) {
+        return encodings[index];
+    }
+
+    /**
+     * 检查是否有解码结果可以和指定长度的摘要比较（等长或截断）
+     */
+    public boolean isComparableWith(int digestLength) {
+        for (byte[] form : forms) {
+            if (form.length <= digestLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取可交给只比较完整十六进制摘要的实现（如原生层）的目标值
+     * @param digestLength 摘要长度
+     * @return 小写十六进制，只有唯一一种与该摘要长度可比较的解码结果并且等长时返回，否则返回null
+     */
+    public String toFullLengthHex(int digestLength) {
+        byte[] full = null;
+        for (byte[] form : forms) {
+            if (form.length > digestLength) {
+                continue;
+            }
+            if (form.length < digestLength || full != null) {
+                return null;
+            }
+            full = form;
+        }
+        if (full == null) {
+            return null;
+        }
+        char[] hex = new char[full.length * 2];
+        for (int i = 0; i < full.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(full[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[full[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * 比较摘要与目标的每一种解码结果
+     * @param digest 候选的摘要
+     */
+    public boolean matches(byte[] digest) {
+        for (byte[] form : forms) {
+            if (form.length == digest.length) {
+                if (Arrays.equals(form, digest)) {
+                    return true;
+                }
+            } else if (form.length < digest.length) {
+                // 截断的摘要：取开头或正中间的同长区间
+                if (HashSupport.regionEquals(form, 0, digest, 0, form.length)
+                        || HashSupport.regionEquals(form, 0, digest, (digest.length - form.length) / 2, form.length)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.ghostxx.algotools.engine.hash;
+
+/**
+ * 摘要变换
+ * 描述目标值经过几轮哈希得到，例如 md5(md5(x)) 是两轮、内层输出编码为小写十六进制。
+ * 第一轮的输入是候选字符串（连同前缀和后缀），之后每一轮的输入是上一轮摘要按内层编码得到的字节。
+ */
+public final class DigestTransform {
+    private static final DigestTransform NONE = new DigestTransform(1, InnerEncoding.HEX_LOWER);
+    private static final byte[] LOWER_DIGITS = "0123456789abcdef".getBytes();
+    private static final byte[] UPPER_DIGITS = "0123456789ABCDEF".getBytes();
+
+    /**
+     * 内层摘要作为下一轮输入时的编码
+     */
+    public enum InnerEncoding {
+        /** 小写十六进制，如 PHP 的 md5(md5($x)) */
+        HEX_LOWER,
+        /** 大写十六进制 */
+        HEX_UPPER,
+        /** 原始字节，如 sha256(sha256(x)) */
+        RAW
+    }
+
+    private final int rounds;
+    private final InnerEncoding innerEncoding;
+
+    private DigestTransform(int rounds, InnerEncoding innerEncoding) {
+        this.rounds = rounds;
+        this.innerEncoding = innerEncoding;
+    }
+
+    /**
+     * 只计算一轮哈希
+     */
+    public static DigestTransform none() {
+        return NONE;
+    }
+
+    /**
+     * 多轮嵌套哈希
+     * @param rounds 哈希轮数，不小于1
+     * @param innerEncoding 内层摘要的编码
+     */
+    public static DigestTransform nested(int rounds, InnerEncoding innerEncoding) {
+        if (rounds < 1) {
+            throw new IllegalArgumentException("哈希轮数必须不小于1: " + rounds);
+        }
+        if (rounds == 1) {
+            return NONE;
+        }
+        return new DigestTransform(rounds, innerEncoding != null ? innerEncoding : InnerEncoding.HEX_LOWER);
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public InnerEncoding getInnerEncoding() {
+        return innerEncoding;
+    }
+
+    /**
+     * 是否只有一轮哈希
+     */
+    public boolean isNone() {
+        return rounds == 1;
+    }
+
+    /**
+     * 获取内层摘要编码后的长度
+     */
+    int encodedLength(int digestLength) {
+        return innerEncoding == InnerEncoding.RAW ? digestLength : digestLength * 2;
+    }
+
+    /**
+     * 按内层编码写入下一轮的输入
+     * @param digest 上一轮的摘要
+     * @param out 长度为 {@link #encodedLength(int)} 的缓冲区
+     */
+    void encode(byte[] digest, byte[] out) {
+        if (innerEncoding == InnerEncoding.RAW) {
+            System.arraycopy(digest, 0, out, 0, digest.length);
+            return;
+        }
+        byte[] digits = innerEncoding == InnerEncoding.HEX_UPPER ? UPPER_DIGITS : LOWER_DIGITS;
+        for (int i = 0; i < digest.length; i++) {
+            out[i * 2] = digits[(digest[i] >> 4) & 0xF];
+            out[i * 2 + 1] = digits[digest[i] & 0xF];
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 哈希搜索的公共工具方法
+ */
+final class HashSupport {
+    private static final String TAG = "HashSupport";
+
+    private HashSupport() {
+    }
+
+    /**
+     * 获取哈希算法的分组长度（字节），SHA-3/Keccak 为吸收速率
+     */
+    static int blockSizeOf(String hashType) {
+        switch (hashType) {
+            case "SHA-384":
+            case "SHA-512":
+            case "SHA-512/256":
+                return 128;
+            case "SHA3-224":
+                return 144;
+            case "SHA3-256":
+            case "KECCAK-256":
+                return 136;
+            case "SHA3-384":
+                return 104;
+            case "SHA3-512":
+                return 72;
+            default:
+                return 64;
+        }
+    }
+
+    /**
+     * 创建摘要对象，优先使用平台实现，平台不提供时（如较早的Android版本没有SHA-3，任何平台都没有SM3和Keccak-256）
+     * 使用引擎内置的实现
+     */
+    static MessageDigest newDigest(String hashType) {
+        try {
+            return MessageDigest.getInstance(hashType);
+        } catch (NoSuchAlgorithmException e) {
+            MessageDigest builtIn = newBuiltInDigest(hashType);
+            if (builtIn == null) {
+                throw new IllegalArgumentException("不支持的哈希类型: " + hashType, e);
+            }
+            return builtIn;
+        }
+    }
+
+    private static MessageDigest newBuiltInDigest(String hashType) {
+        switch (hashType) {
+            case "SM3":
+                return new Sm3Digest();
+            case "SHA-512/256":
+                return new Sha512FamilyDigest(hashType, Sha512FamilyDigest.SHA512_256_INITIAL_VALUES, 32);
+            case "SHA3-224":
+                return new KeccakDigest(hashType, 28, KeccakDigest.SHA3_PADDING);
+            case "SHA3-256":
+                return new KeccakDigest(hashType, 32, KeccakDigest.SHA3_PADDING);
+            case "SHA3-384":
+                return new KeccakDigest(hashType, 48, KeccakDigest.SHA3_PADDING);
+            case "SHA3-512":
+                return new KeccakDigest(hashType, 64, KeccakDigest.SHA3_PADDING);
+            case "KECCAK-256":
+                return new KeccakDigest(hashType, 32, KeccakDigest.KECCAK_PADDING);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 检查 MessageDigest 实现是否支持克隆中间状态
+     */
+    static boolean isCloneable(MessageDigest digest) {
+        try {
+            digest.clone();
+            return true;
+        } catch (CloneNotSupportedException e) {
+            EngineLog.w(TAG, digest.getAlgorithm() + " 不支持克隆，不使用中间状态缓存");
+            return false;
+        }
+    }
+
+    static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 结束哈希计算，结果写入 output（长度必须等于摘要长度），不分配新数组
+     */
+    static void finish(MessageDigest digest, byte[] output) {
+        try {
+            digest.digest(output, 0, output.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 在数据中查找字节序列
+     * @return 首次出现的位置，不存在返回-1
+     */
+    static int indexOf(byte[] data, int dataSize, byte[] pattern) {
+        byte first = pattern[0];
+        int last = dataSize - pattern.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            if (data[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 比较两个数组中长度相同的区间
+     */
+    static boolean regionEquals(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+} 
\ No newline at end of file
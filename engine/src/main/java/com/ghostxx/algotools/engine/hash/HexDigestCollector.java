@@ -0,0 +1,101 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 收集转储中的十六进制摘要
+ * 查找长度为32/40/56/64/96/128的完整十六进制串（前后都不是十六进制字符），
+ * 对应MD5、SHA-1、SHA-224、SHA-256及同长度算法、SHA-384、SHA-512的摘要。
+ * 大小写不同的同一摘要只保留一份。
+ */
+final class HexDigestCollector implements FileChunkProcessor {
+    private static final String TAG = "HexDigestCollector";
+    private static final boolean[] HEX = new boolean[256];
+    private static final boolean[] DIGEST_HEX_LENGTHS = new boolean[129];
+
+    static {
+        for (int c = '0'; c <= '9'; c++) {
+            HEX[c] = true;
+        }
+        for (int c = 'a'; c <= 'f'; c++) {
+            HEX[c] = true;
+            HEX[c - 'a' + 'A'] = true;
+        }
+        for (int length : new int[]{32, 40, 56, 64, 96, 128}) {
+            DIGEST_HEX_LENGTHS[length] = true;
+        }
+    }
+
+    private final int maxDigests;
+    private final Set<String> digests = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    /**
+     * @param maxDigests 最多收集的摘要数
+     */
+    HexDigestCollector(int maxDigests) {
+        this.maxDigests = maxDigests;
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        boolean[] hex = HEX;
+        int i = 0;
+        while (i < dataSize) {
+            if (!hex[data[i] & 0xFF]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < dataSize && hex[data[i] & 0xFF]) {
+                i++;
+            }
+            int length = i - start;
+            if (length < DIGEST_HEX_LENGTHS.length && DIGEST_HEX_LENGTHS[length]) {
+                add(new String(data, start, length, StandardCharsets.US_ASCII));
+            }
+        }
+        return null;
+    }
+
+    private void add(String hexDigest) {
+        if (digests.size() >= maxDigests) {
+            dropped.incrementAndGet();
+            return;
+        }
+        digests.add(hexDigest.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 用收集到的摘要构造查找表
+     */
+    DigestTable buildTable() {
+        if (dropped.get() > 0) {
+            EngineLog.w(TAG, "摘要数超过上限 " + maxDigests + "，忽略 " + dropped.get() + " 个");
+        }
+        List<byte[]> values = new ArrayList<>(digests.size());
+        for (String hexDigest : digests) {
+            byte[] digest = new byte[hexDigest.length() / 2];
+            for (int i = 0; i < digest.length; i++) {
+                digest[i] = (byte) Integer.parseInt(hexDigest.substring(i * 2, i * 2 + 2), 16);
+            }
+            values.add(digest);
+        }
+        EngineLog.d(TAG, "收集到 " + values.size() + " 个十六进制摘要");
+        return new DigestTable(values);
+    }
+
+    @Override
+    public String getName() {
+        return "HexDigestCollector";
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * HMAC搜索处理器
+ * 目标值是 HMAC-MD5/SHA-1/SHA-2/SHA-3/SM3 的输出时使用：
+ * 已知消息时把转储中的每个候选字符串当作密钥尝试，已知密钥时把每个候选字符串当作消息尝试。
+ *
+ * HMAC(K, m) = H((K' ^ opad) || H((K' ^ ipad) || m))，其中 K' 是补零到分组长度的密钥。
+ * 已知密钥时，吸收 K'^ipad 和 K'^opad 两个分组后的中间状态在任务开始时计算一次，
+ * 每个候选只克隆这两个状态并计算消息分组和外层的一个分组；
+ * 已知消息时，每个候选密钥的内外层填充分组只构造一次，写入线程复用的缓冲区，不分配新数组。
+ * 目标值可以是十六进制、Base64或截断的HMAC，见 {@link DigestTarget}。
+ */
+public class HmacSearchProcessor extends CandidateSearchProcessor {
+    private static final String TAG = "HmacSearch";
+    private static final byte IPAD = 0x36;
+    private static final byte OPAD = 0x5c;
+
+    /**
+     * 已知的一方
+     */
+    public enum Mode {
+        /** 已知消息，候选字符串作为密钥 */
+        KNOWN_MESSAGE,
+        /** 已知密钥，候选字符串作为消息 */
+        KNOWN_KEY
+    }
+
+    private final String hashType;
+    private final DigestTarget target;
+    private final int blockSize;
+    private final Mode mode;
+    private final byte[] known;
+    // 已知密钥时的内外层中间状态，只读，每个工作线程各自克隆一份
+    private final MessageDigest innerState;
+    private final MessageDigest outerState;
+
+    /**
+     * @param hexHmac 目标HMAC的十六进制字符串（不区分大小写）
+     * @param hashType 底层哈希类型（如MD5、SHA-256、SM3），逗号分隔的列表只使用第一种
+     * @param mode 已知消息还是已知密钥
+     * @param knownValue 已知的消息或密钥（按UTF-8编码）
+     * @param featureString 特征字符串（可选，为空则不使用）
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    public HmacSearchProcessor(String hexHmac, String hashType, Mode mode, String knownValue,
+                               String featureString, JavaSearchSession session) {
+        this(DigestTarget.parse(hexHmac), hashType, mode, knownValue, featureString, session);
+    }
+
+    /**
+     * @param target 解码后的目标HMAC
+     * @param hashType 底层哈希类型（如MD5、SHA-256、SM3），逗号分隔的列表只使用第一种
+     * @param mode 已知消息还是已知密钥
+     * @param knownValue 已知的消息或密钥（按UTF-8编码）
+     * @param featureString 特征字符串（可选，为空则不使用）
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    public HmacSearchProcessor(DigestTarget target, String hashType, Mode mode, String knownValue,
+                               String featureString, JavaSearchSession session) {
+        super(TAG, featureString, session);
+        if (mode == null || knownValue == null) {
+            throw new IllegalArgumentException("HMAC搜索需要指定已知的消息或密钥");
+        }
+        // 识别出多种同长度的类型时只使用第一种
+        this.hashType = hashType.toUpperCase(Locale.ROOT).split(",")[0].trim();
+        this.target = target;
+        this.blockSize = HashSupport.blockSizeOf(this.hashType);
+        this.mode = mode;
+        this.known = knownValue.getBytes(StandardCharsets.UTF_8);
+
+        MessageDigest digest = HashSupport.newDigest(this.hashType);
+        if (!target.isComparableWith(digest.getDigestLength())) {
+            EngineLog.w(TAG, "HMAC长度与类型不符: " + this.hashType);
+        }
+        if (mode == Mode.KNOWN_KEY) {
+            byte[] pad = new byte[blockSize];
+            byte[] key = known.length > blockSize ? digest.digest(known) : known;
+            innerState = padState(digest, key, key.length, IPAD, pad);
+            outerState = padState(HashSupport.newDigest(this.hashType), key, key.length, OPAD, pad);
+        } else {
+            innerState = null;
+            outerState = null;
+        }
+    }
+
+    /**
+     * 计算吸收 (K' ^ padByte) 分组后的状态
+     */
+    private MessageDigest padState(MessageDigest digest, byte[] key, int keyLength, byte padByte, byte[] pad) {
+        fillPad(pad, key, 0, keyLength, padByte);
+        digest.reset();
+        digest.update(pad, 0, blockSize);
+        return digest;
+    }
+
+    private static void fillPad(byte[] pad, byte[] key, int keyOffset, int keyLength, byte padByte) {
+        for (int i = 0; i < keyLength; i++) {
+            pad[i] = (byte) (key[keyOffset + i] ^ padByte);
+        }
+        Arrays.fill(pad, keyLength, pad.length, padByte);
+    }
+
+    @Override
+    Matcher createMatcher() {
+        Matcher matcher = mode == Mode.KNOWN_KEY ? new MessageMatcher() : new KeyMatcher();
+        matcher.matchedType = hashType;
+        return matcher;
+    }
+
+    @Override
+    public String getName() {
+        return "HmacSearch-" + hashType + "-" + mode;
+    }
+
+    /**
+     * 已知密钥：候选作为消息
+     */
+    private final class MessageMatcher extends Matcher {
+        final MessageDigest inner;
+        final MessageDigest outer;
+        final byte[] innerOutput;
+        final byte[] output;
+
+        MessageMatcher() {
+            inner = HashSupport.cloneDigest(innerState);
+            outer = HashSupport.cloneDigest(outerState);
+            innerOutput = new byte[inner.getDigestLength()];
+            output = new byte[outer.getDigestLength()];
+        }
+
+        @Override
+        boolean matches(byte[] data, int start, int length) {
+            MessageDigest innerCopy = HashSupport.cloneDigest(inner);
+            innerCopy.update(data, start, length);
+            HashSupport.finish(innerCopy, innerOutput);
+
+            MessageDigest outerCopy = HashSupport.cloneDigest(outer);
+            outerCopy.update(innerOutput);
+            HashSupport.finish(outerCopy, output);
+            midstateHits++;
+            return target.matches(output);
+        }
+    }
+
+    /**
+     * 已知消息：候选作为密钥
+     */
+    private final class KeyMatcher extends Matcher {
+        final MessageDigest digest = HashSupport.newDigest(hashType);
+        final byte[] pad = new byte[blockSize];
+        final byte[] hashedKey = new byte[digest.getDigestLength()];
+        final byte[] innerOutput = new byte[digest.getDigestLength()];
+        final byte[] output = new byte[digest.getDigestLength()];
+
+        @Override
+        boolean matches(byte[] data, int start, int length) {
+            byte[] key = data;
+            int keyOffset = start;
+            int keyLength = length;
+            // 长于分组的密钥先做一次哈希
+            if (length > blockSize) {
+                digest.update(data, start, length);
+                HashSupport.finish(digest, hashedKey);
+                key = hashedKey;
+                keyOffset = 0;
+                keyLength = hashedKey.length;
+            }
+
+            fillPad(pad, key, keyOffset, keyLength, IPAD);
+            digest.update(pad, 0, blockSize);
+            digest.update(known);
+            HashSupport.finish(digest, innerOutput);
+
+            // 外层填充由内层填充逐字节异或 (ipad ^ opad) 得到，不再读取密钥
+            for (int i = 0; i < blockSize; i++) {
+                pad[i] ^= IPAD ^ OPAD;
+            }
+            digest.update(pad, 0, blockSize);
+            digest.update(innerOutput);
+            HashSupport.finish(digest, output);
+            return target.matches(output);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 纯Java哈希搜索处理器
+ * 与原生层 findHashOriginalInMemory 的搜索语义一致：可选的特征字符串预检查，提取可打印字节序列，
+ * 去重后逐个计算哈希并与目标比较。原生库不可用时作为后备实现，也作为对比原生实现的基准。
+ *
+ * 长于一个分组的候选按首个分组缓存吸收后的中间状态，同一前缀再次出现时克隆该状态，只计算剩余的分组。
+ * 指定固定前缀时（如 md5(salt + x)），吸收前缀后的状态在构造时计算一次，每个候选克隆该状态，
+ * 前缀中的完整分组不会重复计算；固定后缀在候选之后追加。
+ *
+ * 目标值由 {@link DigestTarget} 解码为二进制（十六进制、Base64、截断的摘要），
+ * 嵌套哈希（如 md5(md5(x))）由 {@link DigestTransform} 描述，每个候选的摘要只计算一次再与目标的所有解码结果比较。
+ * 哈希类型可以是逗号分隔的列表（如 "SHA-256,SM3,SHA3-256"），同一次提取中每个候选依次尝试所有类型，
+ * 每种类型各自维护前缀状态和首块缓存。
+ * 多线程并行由 {@link com.ghostxx.algotools.engine.FileProcessingEngine} 按数据块调度。
+ */
+public class JavaHashSearchProcessor extends CandidateSearchProcessor {
+    private static final String TAG = "JavaHashSearch";
+    // 每个线程缓存的首块中间状态数
+    private static final int MIDSTATE_CACHE_SIZE = 64;
+
+    private final String hashType;
+    private final DigestTarget target;
+    private final DigestTransform transform;
+    private final byte[] suffix;
+    private final Algorithm[] algorithms;
+
+    /**
+     * @param hexHash 目标哈希的十六进制字符串（不区分大小写）
+     * @param hashType 哈希类型，多个类型用逗号分隔
+     * @param featureString 特征字符串（可选，为空则不使用）
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    public JavaHashSearchProcessor(String hexHash, String hashType, String featureString, JavaSearchSession session) {
+        this(hexHash, hashType, null, null, featureString, session);
+    }
+
+    /**
+     * @param hexHash 目标哈希的十六进制字符串（不区分大小写）
+     * @param hashType 哈希类型，多个类型用逗号分隔
+     * @param prefix 拼接在候选字符串前的文本（可选，按UTF-8编码）
+     * @param suffix 拼接在候选字符串后的文本（可选，按UTF-8编码）
+     * @param featureString 特征字符串（可选，为空则不使用）
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    public JavaHashSearchProcessor(String hexHash, String hashType, String prefix, String suffix,
+                                   String featureString, JavaSearchSession session) {
+        this(DigestTarget.parse(hexHash), hashType, prefix, suffix, DigestTransform.none(), featureString, session);
+    }
+
+    /**
+     * @param target 解码后的目标值
+     * @param hashType 哈希类型，多个类型用逗号分隔（MD5、SHA-1、SHA-224、SHA-256、SHA-384、SHA-512、
+     *                 SHA-512/256、SM3、SHA3-224/256/384/512、KECCAK-256）
+     * @param prefix 拼接在候选字符串前的文本（可选，按UTF-8编码）
+     * @param suffix 拼接在候选字符串后的文本（可选，按UTF-8编码）
+     * @param transform 嵌套哈希变换，前缀和后缀只作用于第一轮
+     * @param featureString 特征字符串（可选，为空则不使用）
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    public JavaHashSearchProcessor(DigestTarget target, String hashType, String prefix, String suffix,
+                                   DigestTransform transform, String featureString, JavaSearchSession session) {
+        super(TAG, featureString, session);
+        this.hashType = hashType.toUpperCase(Locale.ROOT);
+        this.target = target;
+        this.transform = transform != null ? transform : DigestTransform.none();
+        this.suffix = toBytes(suffix);
+
+        String[] types = this.hashType.split(",");
+        byte[] prefixBytes = toBytes(prefix);
+        this.algorithms = new Algorithm[types.length];
+        for (int i = 0; i < types.length; i++) {
+            algorithms[i] = new Algorithm(types[i].trim(), prefixBytes);
+        }
+    }
+
+    private static byte[] toBytes(String text) {
+        return text != null && !text.isEmpty() ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    Matcher createMatcher() {
+        if (algorithms.length == 1) {
+            return new DigestMatcher(algorithms[0]);
+        }
+        DigestMatcher[] matchers = new DigestMatcher[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            matchers[i] = new DigestMatcher(algorithms[i]);
+        }
+        return new MultiMatcher(matchers);
+    }
+
+    /**
+     * 确定命中的原文对应哪种哈希类型
+     * @param text 搜索得到的原文
+     * @return 哈希类型，都不匹配时返回null
+     */
+    public String findMatchingType(String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        return findMatchingType(data, 0, data.length);
+    }
+
+    /**
+     * 确定命中的原始字节对应哪种哈希类型，原文不是合法UTF-8时使用
+     * @param data 数据
+     * @param start 原文的起始位置
+     * @param length 原文的字节数
+     * @return 哈希类型，都不匹配时返回null
+     */
+    public String findMatchingType(byte[] data, int start, int length) {
+        for (Algorithm algorithm : algorithms) {
+            if (new DigestMatcher(algorithm).matches(data, start, length)) {
+                return algorithm.hashType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 一种哈希类型的只读参数，所有工作线程共享
+     */
+    private final class Algorithm {
+        final String hashType;
+        final int blockSize;
+        // 吸收前缀后的中间状态，每个工作线程各自克隆一份；没有前缀时为null
+        final MessageDigest prefixState;
+        // 前缀状态不可克隆时逐个候选重新吸收的前缀
+        final byte[] prefix;
+
+        Algorithm(String hashType, byte[] prefixBytes) {
+            this.hashType = hashType;
+            this.blockSize = HashSupport.blockSizeOf(hashType);
+            MessageDigest prototype = HashSupport.newDigest(hashType);
+            if (!target.isComparableWith(prototype.getDigestLength())) {
+                EngineLog.w(TAG, "目标值长度与哈希类型不符: " + hashType);
+            }
+            if (prefixBytes != null && HashSupport.isCloneable(prototype)) {
+                prototype.update(prefixBytes);
+                this.prefixState = prototype;
+                this.prefix = null;
+            } else {
+                this.prefixState = null;
+                this.prefix = prefixBytes;
+            }
+        }
+    }
+
+    /**
+     * 依次尝试多种哈希类型
+     */
+    private static final class MultiMatcher extends Matcher {
+        final DigestMatcher[] matchers;
+
+        MultiMatcher(DigestMatcher[] matchers) {
+            this.matchers = matchers;
+        }
+
+        @Override
+        boolean matches(byte[] data, int start, int length) {
+            boolean matched = false;
+            for (DigestMatcher matcher : matchers) {
+                if (matcher.matches(data, start, length)) {
+                    matched = true;
+                    matchedType = matcher.matchedType;
+                    break;
+                }
+            }
+            for (DigestMatcher matcher : matchers) {
+                midstateHits += matcher.midstateHits;
+                matcher.midstateHits = 0;
+            }
+            return matched;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return transform.isNone() ? "JavaHashSearch-" + hashType
+                : "JavaHashSearch-" + hashType + "x" + transform.getRounds();
+    }
+
+    /**
+     * 计算候选的哈希并与目标比较
+     * 首块中间状态缓存：同一槽位第一次出现只记录指纹，第二次出现才保存状态，避免为不重复的前缀克隆
+     */
+    private final class DigestMatcher extends Matcher {
+        final MessageDigest digest;
+        final int blockSize;
+        final byte[] prefix;
+        final byte[] output;
+        final boolean cloneable;
+        final MessageDigest prefixed;
+        final byte[] inner;
+        final long[] cachedFingerprints = new long[MIDSTATE_CACHE_SIZE];
+        final byte[][] cachedBlocks = new byte[MIDSTATE_CACHE_SIZE][];
+        final MessageDigest[] cachedStates = new MessageDigest[MIDSTATE_CACHE_SIZE];
+
+        DigestMatcher(Algorithm algorithm) {
+            this.digest = HashSupport.newDigest(algorithm.hashType);
+            this.blockSize = algorithm.blockSize;
+            this.prefix = algorithm.prefix;
+            this.output = new byte[digest.getDigestLength()];
+            this.cloneable = HashSupport.isCloneable(digest);
+            this.prefixed = algorithm.prefixState != null ? HashSupport.cloneDigest(algorithm.prefixState) : null;
+            this.inner = transform.isNone() ? null : new byte[transform.encodedLength(output.length)];
+            this.matchedType = algorithm.hashType;
+        }
+
+        @Override
+        boolean matches(byte[] data, int start, int length) {
+            MessageDigest state = absorb(data, start, length);
+            if (suffix != null) {
+                state.update(suffix);
+            }
+            HashSupport.finish(state, output);
+            // 嵌套哈希：上一轮的摘要编码后作为下一轮的输入
+            for (int round = 1; round < transform.getRounds(); round++) {
+                transform.encode(output, inner);
+                digest.update(inner);
+                HashSupport.finish(digest, output);
+            }
+            return target.matches(output);
+        }
+
+        /**
+         * 吸收前缀和候选
+         * @return 待追加后缀并结束计算的摘要对象
+         */
+        private MessageDigest absorb(byte[] data, int start, int length) {
+            if (prefixed != null) {
+                MessageDigest copy = HashSupport.cloneDigest(prefixed);
+                copy.update(data, start, length);
+                midstateHits++;
+                return copy;
+            }
+            if (prefix != null) {
+                digest.update(prefix);
+                digest.update(data, start, length);
+                return digest;
+            }
+            if (!cloneable || length <= blockSize) {
+                digest.update(data, start, length);
+                return digest;
+            }
+
+            long fingerprint = CandidateDedupSet.fingerprint(data, start, blockSize);
+            int slot = (int) (fingerprint & (MIDSTATE_CACHE_SIZE - 1));
+            if (cachedFingerprints[slot] != fingerprint) {
+                cachedFingerprints[slot] = fingerprint;
+                cachedStates[slot] = null;
+                digest.update(data, start, length);
+                return digest;
+            }
+
+            MessageDigest state = cachedStates[slot];
+            if (state != null && HashSupport.regionEquals(cachedBlocks[slot], 0, data, start, blockSize)) {
+                MessageDigest copy = HashSupport.cloneDigest(state);
+                copy.update(data, start + blockSize, length - blockSize);
+                midstateHits++;
+                return copy;
+            }
+
+            // 第二次遇到该前缀：保存吸收首块后的状态
+            digest.update(data, start, blockSize);
+            cachedStates[slot] = HashSupport.cloneDigest(digest);
+            cachedBlocks[slot] = Arrays.copyOfRange(data, start, start + blockSize);
+            digest.update(data, start + blockSize, length - blockSize);
+            return digest;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 纯Java搜索会话
+ * 对应原生层的 SearchSession：一次搜索任务（可能跨多个转储）共用一个会话，
+ * 会话内的候选去重集合和分阶段计数在所有数据块、所有工作线程之间共享。
+ * 计数可以在搜索进行中从任意线程读取。
+ */
+public class JavaSearchSession {
+    private final CandidateDedupSet dedupSet;
+
+    final AtomicLong candidates = new AtomicLong();
+    final AtomicLong hashesComputed = new AtomicLong();
+    final AtomicLong dedupSkipped = new AtomicLong();
+    final AtomicLong midstateHits = new AtomicLong();
+    final AtomicLong featureSearchNanos = new AtomicLong();
+    final AtomicLong extractNanos = new AtomicLong();
+    final AtomicLong hashNanos = new AtomicLong();
+    final AtomicLong bytesSearched = new AtomicLong();
+    final AtomicLong bytesSkippedByFeature = new AtomicLong();
+
+    /**
+     * @param maxDedupEntries 去重集合的最大条目数，0表示不去重
+     */
+    public JavaSearchSession(int maxDedupEntries) {
+        this.dedupSet = maxDedupEntries > 0 ? new CandidateDedupSet(maxDedupEntries) : null;
+    }
+
+    CandidateDedupSet getDedupSet() {
+        return dedupSet;
+    }
+
+    /**
+     * 获取已提取的候选字符串数
+     */
+    public long getCandidates() {
+        return candidates.get();
+    }
+
+    /**
+     * 获取已计算的哈希数
+     */
+    public long getHashesComputed() {
+        return hashesComputed.get();
+    }
+
+    /**
+     * 获取去重跳过的候选数
+     */
+    public long getDedupSkipped() {
+        return dedupSkipped.get();
+    }
+
+    /**
+     * 获取复用首块中间状态的哈希次数
+     */
+    public long getMidstateHits() {
+        return midstateHits.get();
+    }
+
+    /**
+     * 获取特征字符串搜索耗时（纳秒）
+     */
+    public long getFeatureSearchNanos() {
+        return featureSearchNanos.get();
+    }
+
+    /**
+     * 获取可打印字符串提取耗时（纳秒）
+     */
+    public long getExtractNanos() {
+        return extractNanos.get();
+    }
+
+    /**
+     * 获取去重与哈希计算耗时（纳秒）
+     */
+    public long getHashNanos() {
+        return hashNanos.get();
+    }
+
+    /**
+     * 获取已搜索的字节数
+     */
+    public long getBytesSearched() {
+        return bytesSearched.get();
+    }
+
+    /**
+     * 获取因不含特征字符串而跳过的字节数
+     */
+    public long getBytesSkippedByFeature() {
+        return bytesSkippedByFeature.get();
+    }
+} 
\ No newline at end of file
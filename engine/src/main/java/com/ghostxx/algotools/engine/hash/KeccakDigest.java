@@ -0,0 +1,187 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * SHA-3（FIPS 202）和原始Keccak（以太坊使用的Keccak-256）
+ * 两者使用同一个Keccak-f[1600]置换，只有填充的域分隔字节不同，与原生层 sha3.h 的实现一致。
+ * 平台未提供对应算法时使用。
+ */
+final class KeccakDigest extends MessageDigest implements Cloneable {
+    /** SHA-3 的域分隔字节 */
+    static final byte SHA3_PADDING = 0x06;
+    /** 原始Keccak的域分隔字节 */
+    static final byte KECCAK_PADDING = 0x01;
+
+    private static final long[] ROUND_CONSTANTS = {
+            0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+            0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+            0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+            0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+    private static final int[] RHO = {
+            1, 3, 6, 10, 15, 21, 28, 36, 45, 55, 2, 14, 27, 41, 56, 8, 25, 43, 62, 18, 39, 61, 20, 44
+    };
+    private static final int[] PI = {
+            10, 7, 11, 17, 18, 3, 5, 16, 8, 21, 24, 4, 15, 23, 19, 13, 12, 2, 20, 14, 22, 9, 6, 1
+    };
+
+    private final int digestLength;
+    private final int rate;
+    private final byte padding;
+    private long[] state = new long[25];
+    private byte[] buffer;
+    private int bufferLength;
+
+    /**
+     * @param algorithm 算法名称
+     * @param digestLength 摘要长度（字节）
+     * @param padding 域分隔字节，{@link #SHA3_PADDING} 或 {@link #KECCAK_PADDING}
+     */
+    KeccakDigest(String algorithm, int digestLength, byte padding) {
+        super(algorithm);
+        this.digestLength = digestLength;
+        this.rate = 200 - 2 * digestLength;
+        this.padding = padding;
+        this.buffer = new byte[rate];
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return digestLength;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        buffer[bufferLength++] = input;
+        if (bufferLength == rate) {
+            absorb(buffer, 0);
+            bufferLength = 0;
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int length) {
+        if (bufferLength > 0) {
+            int fill = Math.min(length, rate - bufferLength);
+            System.arraycopy(input, offset, buffer, bufferLength, fill);
+            bufferLength += fill;
+            offset += fill;
+            length -= fill;
+            if (bufferLength < rate) {
+                return;
+            }
+            absorb(buffer, 0);
+            bufferLength = 0;
+        }
+        while (length >= rate) {
+            absorb(input, offset);
+            offset += rate;
+            length -= rate;
+        }
+        System.arraycopy(input, offset, buffer, 0, length);
+        bufferLength = length;
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        byte[] out = new byte[digestLength];
+        finish(out, 0);
+        return out;
+    }
+
+    @Override
+    protected int engineDigest(byte[] buf, int offset, int len) throws DigestException {
+        if (len < digestLength) {
+            throw new DigestException("输出缓冲区长度不足: " + len);
+        }
+        finish(buf, offset);
+        return digestLength;
+    }
+
+    private void finish(byte[] out, int offset) {
+        // 最后一个分组：剩余数据 + 域分隔字节 ... 0x80
+        for (int i = bufferLength; i < rate; i++) {
+            buffer[i] = 0;
+        }
+        buffer[bufferLength] ^= padding;
+        buffer[rate - 1] ^= (byte) 0x80;
+        absorb(buffer, 0);
+        // 摘要长度都小于速率，挤出一次即可
+        for (int i = 0; i < digestLength; i++) {
+            out[offset + i] = (byte) (state[i >>> 3] >>> (8 * (i & 7)));
+        }
+        engineReset();
+    }
+
+    private void absorb(byte[] block, int offset) {
+        for (int i = 0; i < rate / 8; i++) {
+            int p = offset + i * 8;
+            state[i] ^= (block[p] & 0xFFL) | (block[p + 1] & 0xFFL) << 8 | (block[p + 2] & 0xFFL) << 16
+                    | (block[p + 3] & 0xFFL) << 24 | (block[p + 4] & 0xFFL) << 32 | (block[p + 5] & 0xFFL) << 40
+                    | (block[p + 6] & 0xFFL) << 48 | (block[p + 7] & 0xFFL) << 56;
+        }
+        permute(state);
+    }
+
+    private static void permute(long[] a) {
+        for (int round = 0; round < 24; round++) {
+            // theta
+            long c0 = a[0] ^ a[5] ^ a[10] ^ a[15] ^ a[20];
+            long c1 = a[1] ^ a[6] ^ a[11] ^ a[16] ^ a[21];
+            long c2 = a[2] ^ a[7] ^ a[12] ^ a[17] ^ a[22];
+            long c3 = a[3] ^ a[8] ^ a[13] ^ a[18] ^ a[23];
+            long c4 = a[4] ^ a[9] ^ a[14] ^ a[19] ^ a[24];
+            long d0 = c4 ^ Long.rotateLeft(c1, 1);
+            long d1 = c0 ^ Long.rotateLeft(c2, 1);
+            long d2 = c1 ^ Long.rotateLeft(c3, 1);
+            long d3 = c2 ^ Long.rotateLeft(c4, 1);
+            long d4 = c3 ^ Long.rotateLeft(c0, 1);
+            for (int y = 0; y < 25; y += 5) {
+                a[y] ^= d0;
+                a[y + 1] ^= d1;
+                a[y + 2] ^= d2;
+                a[y + 3] ^= d3;
+                a[y + 4] ^= d4;
+            }
+            // rho 和 pi
+            long current = a[1];
+            for (int i = 0; i < 24; i++) {
+                int j = PI[i];
+                long next = a[j];
+                a[j] = Long.rotateLeft(current, RHO[i]);
+                current = next;
+            }
+            // chi
+            for (int y = 0; y < 25; y += 5) {
+                long a0 = a[y], a1 = a[y + 1], a2 = a[y + 2], a3 = a[y + 3], a4 = a[y + 4];
+                a[y] = a0 ^ (~a1 & a2);
+                a[y + 1] = a1 ^ (~a2 & a3);
+                a[y + 2] = a2 ^ (~a3 & a4);
+                a[y + 3] = a3 ^ (~a4 & a0);
+                a[y + 4] = a4 ^ (~a0 & a1);
+            }
+            // iota
+            a[0] ^= ROUND_CONSTANTS[round];
+        }
+    }
+
+    @Override
+    protected void engineReset() {
+        for (int i = 0; i < 25; i++) {
+            state[i] = 0;
+        }
+        bufferLength = 0;
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        KeccakDigest copy = (KeccakDigest) super.clone();
+        copy.state = state.clone();
+        copy.buffer = buffer.clone();
+        return copy;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.ghostxx.algotools.engine.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 原文搜索的一次命中
+ * 记录命中的原始字节及其在转储中的位置。原文保留原始字节，不经过原生层的字符串转换，
+ * 不是合法UTF-8的原文也不会被改写或丢弃，需要显示时由 {@link #getText()} 按UTF-8解码（无效字节显示为替换字符）。
+ */
+public final class MatchRecord implements Comparable<MatchRecord> {
+    private final int fileIndex;
+    private final long offset;
+    private final byte[] bytes;
+    private final String hashType;
+    private final String target;
+    private final long address;
+    private final String region;
+
+    MatchRecord(int fileIndex, long offset, byte[] bytes, String hashType, String target, long address,
+                String region) {
+        this.fileIndex = fileIndex;
+        this.offset = offset;
+        this.bytes = bytes;
+        this.hashType = hashType;
+        this.target = target;
+        this.address = address;
+        this.region = region;
+    }
+
+    /**
+     * 获取所在文件在输入列表中的下标
+     */
+    public int getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * 获取原文在文件中的偏移，处理器不知道数据块位置时为-1
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 获取原文的原始字节
+     */
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * 获取原文的字节数
+     */
+    public int getLength() {
+        return bytes.length;
+    }
+
+    /**
+     * 获取原文按UTF-8解码的文本
+     */
+    public String getText() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 原文是否为合法的UTF-8
+     */
+    public boolean isValidUtf8() {
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes));
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取命中的哈希类型
+     */
+    public String getHashType() {
+        return hashType;
+    }
+
+    /**
+     * 获取命中的目标值（用户输入的哈希或HMAC）
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * 获取原文在进程中的虚拟地址，转储没有区域表时为-1
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * 获取原文所在的内存区域（如 "7f12340000-7f12380000 rw-p [anon:libc_malloc]"），转储没有区域表时为null
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    @Override
+    public int compareTo(MatchRecord other) {
+        if (fileIndex != other.fileIndex) {
+            return Integer.compare(fileIndex, other.fileIndex);
+        }
+        return Long.compare(offset, other.offset);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d@0x%x %s: %s", fileIndex, offset, hashType, getText());
+    }
+} 
\ No newline at end of file
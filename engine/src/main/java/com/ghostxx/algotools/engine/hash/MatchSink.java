@@ -0,0 +1,14 @@
+package com.ghostxx.algotools.engine.hash;
+
+/**
+ * 命中记录的接收方
+ * 由工作线程在找到命中时立即调用，可能被多个线程并发调用，实现必须线程安全且尽快返回
+ * （例如只把记录投递到主线程）。
+ */
+public interface MatchSink {
+    /**
+     * 找到一处命中
+     * @param record 命中记录，同一文件偏移只报告一次
+     */
+    void onMatch(MatchRecord record);
+} 
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.region.RegionMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 原文搜索的命中流
+ * 搜索处理器找到命中时调用 {@link #report}，命中立即转换为 {@link MatchRecord} 交给 {@link MatchSink}，
+ * 界面不必等扫描结束就能显示第一处命中。
+ *
+ * 两种模式：
+ * <ul>
+ *   <li>首个命中：处理器报告命中后照常返回原文，引擎停止扫描</li>
+ *   <li>全部命中：处理器报告后继续处理剩余候选且不返回结果，引擎扫描完所有数据块，得到原文的每一处副本</li>
+ * </ul>
+ * 同一原文的其他副本会被会话去重跳过，处理器对被跳过的候选调用 {@link #reportCopy}，
+ * 与已命中的原文相同时按副本报告。去重与命中并发发生时（两个线程同时处理同一原文，后者在前者算完哈希前被跳过），
+ * 该副本可能漏报；与块之间的重叠区域一样，同一文件偏移只报告一次。
+ */
+public final class MatchStream {
+    private static final String TAG = "MatchStream";
+    /** 最多保留的命中记录数，超过后仍交给接收方但不再保留 */
+    static final int MAX_RECORDS = 10000;
+
+    private final String target;
+    private final boolean allMatches;
+    private final MatchSink sink;
+    private volatile List<RegionMap> regionMaps = Collections.emptyList();
+    // 全部命中模式下已报告的位置：文件下标在高16位，偏移在低48位
+    private final Set<Long> reportedLocations = ConcurrentHashMap.newKeySet();
+    // 首个命中模式下每个位置的记录，块之间的重叠区域让两个工作线程命中同一位置时返回同一条记录；
+    // 首个命中模式下引擎很快停止，记录只有几条
+    private final ConcurrentHashMap<Long, MatchRecord> firstHitRecords = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<MatchRecord> records = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger recordCount = new AtomicInteger();
+    private final AtomicInteger droppedCount = new AtomicInteger();
+    // 已命中的不同原文，用于识别被去重跳过的副本；通常只有一两个
+    private final List<KnownMatch> knownMatches = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param target 目标值（用户输入的哈希或HMAC），写入每条记录
+     * @param allMatches 是否查找全部命中
+     * @param sink 命中的接收方（可选）
+     */
+    public MatchStream(String target, boolean allMatches, MatchSink sink) {
+        this.target = target;
+        this.allMatches = allMatches;
+        this.sink = sink;
+    }
+
+    private static final class KnownMatch {
+        final byte[] bytes;
+        final String hashType;
+
+        KnownMatch(byte[] bytes, String hashType) {
+            this.bytes = bytes;
+            this.hashType = hashType;
+        }
+    }
+
+    /**
+     * 设置各文件的区域表，用于把文件偏移换算为虚拟地址和所在区域
+     * @param regionMaps 与引擎的输入列表一一对应，没有区域表的文件为null
+     * @return this (链式调用)
+     */
+    public MatchStream setRegionMaps(List<RegionMap> regionMaps) {
+        this.regionMaps = regionMaps != null ? new ArrayList<>(regionMaps) : Collections.<RegionMap>emptyList();
+        return this;
+    }
+
+    /**
+     * 是否查找全部命中
+     */
+    public boolean isAllMatches() {
+        return allMatches;
+    }
+
+    /**
+     * 报告一处命中
+     * @param fileIndex 文件在输入列表中的下标
+     * @param offset 原文在文件中的偏移，未知时为-1
+     * @param data 数据
+     * @param start 原文在数据中的起始位置
+     * @param length 原文的字节数
+     * @param hashType 命中的哈希类型
+     * @return 该位置的命中记录。同一位置已报告过时，首个命中模式下返回已有的记录，全部命中模式下返回null
+     */
+    public MatchRecord report(int fileIndex, long offset, byte[] data, int start, int length, String hashType) {
+        boolean located = offset >= 0;
+        long key = located ? locationKey(fileIndex, offset) : 0;
+        if (allMatches && located && !reportedLocations.add(key)) {
+            return null;
+        }
+        MatchRecord existing = !allMatches && located ? firstHitRecords.get(key) : null;
+        if (existing != null) {
+            return existing;
+        }
+        byte[] bytes = new byte[length];
+        System.arraycopy(data, start, bytes, 0, length);
+
+        long address = -1;
+        String region = null;
+        RegionMap regionMap = offset >= 0 && fileIndex >= 0 && fileIndex < regionMaps.size()
+                ? regionMaps.get(fileIndex) : null;
+        RegionMap.Region found = regionMap != null ? regionMap.find(offset) : null;
+        if (found != null) {
+            address = found.toAddress(offset);
+            region = found.toString();
+        }
+
+        MatchRecord record = new MatchRecord(fileIndex, offset, bytes, hashType, target, address, region);
+        if (!allMatches && located) {
+            existing = firstHitRecords.putIfAbsent(key, record);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        if (findKnown(data, start, length) == null) {
+            synchronized (knownMatches) {
+                if (findKnown(data, start, length) == null) {
+                    knownMatches.add(new KnownMatch(bytes, hashType));
+                }
+            }
+        }
+        if (recordCount.incrementAndGet() <= MAX_RECORDS) {
+            records.add(record);
+        } else {
+            droppedCount.incrementAndGet();
+        }
+        if (sink != null) {
+            try {
+                sink.onMatch(record);
+            } catch (RuntimeException e) {
+                EngineLog.w(TAG, "命中接收方出错", e);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * 被会话去重跳过的候选与已命中的原文相同时，按副本报告
+     * 只在全部命中模式下有意义；还没有命中时只检查一次列表是否为空
+     * @return 是否为已命中原文的副本
+     */
+    public boolean reportCopy(int fileIndex, long offset, byte[] data, int start, int length) {
+        if (knownMatches.isEmpty()) {
+            return false;
+        }
+        KnownMatch known = findKnown(data, start, length);
+        if (known == null) {
+            return false;
+        }
+        report(fileIndex, offset, data, start, length, known.hashType);
+        return true;
+    }
+
+    private KnownMatch findKnown(byte[] data, int start, int length) {
+        for (KnownMatch known : knownMatches) {
+            if (known.bytes.length == length && HashSupport.regionEquals(known.bytes, 0, data, start, length)) {
+                return known;
+            }
+        }
+        return null;
+    }
+
+    private static long locationKey(int fileIndex, long offset) {
+        return ((long) fileIndex << 48) | (offset & 0xFFFFFFFFFFFFL);
+    }
+
+    /**
+     * 获取保留的命中记录，按文件和偏移排序
+     */
+    public List<MatchRecord> getRecords() {
+        List<MatchRecord> sorted = new ArrayList<>(records);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 获取命中总数（含超过上限未保留的）
+     */
+    public int getMatchCount() {
+        return recordCount.get();
+    }
+
+    /**
+     * 获取超过上限未保留的命中数
+     */
+    public int getDroppedCount() {
+        return droppedCount.get();
+    }
+} 
\ No newline at end of file
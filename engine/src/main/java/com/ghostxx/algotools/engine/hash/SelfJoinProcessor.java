@@ -0,0 +1,98 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自连接处理器
+ * 每个候选字符串用摘要表中出现过的长度对应的所有算法计算一次，在 {@link DigestTable} 中查找，
+ * 记录所有命中的摘要和原文。匹配器从不报告命中，引擎会扫描完所有数据块。
+ */
+final class SelfJoinProcessor extends CandidateSearchProcessor {
+    private static final String TAG = "SelfJoin";
+
+    private final DigestTable table;
+    private final String[] hashTypes;
+    // 以算法和摘要为键，同一摘要只记录第一次找到的原文
+    private final ConcurrentHashMap<String, DigestPair> pairs = new ConcurrentHashMap<>();
+
+    /**
+     * @param table 转储中收集到的摘要
+     * @param hashTypes 要尝试的哈希类型，摘要表中没有对应长度的类型会被跳过
+     * @param session 搜索会话（可选），用于跨数据块去重和统计
+     */
+    SelfJoinProcessor(DigestTable table, List<String> hashTypes, JavaSearchSession session) {
+        super(TAG, null, session);
+        this.table = table;
+        List<String> usable = new ArrayList<>();
+        for (String hashType : hashTypes) {
+            if (table.hasLength(DigestTarget.digestLengthOf(hashType))) {
+                usable.add(hashType);
+            }
+        }
+        this.hashTypes = usable.toArray(new String[0]);
+        EngineLog.d(TAG, "自连接使用的哈希类型: " + usable);
+    }
+
+    boolean hasHashTypes() {
+        return hashTypes.length > 0;
+    }
+
+    /**
+     * 获取找到的所有摘要和原文
+     */
+    List<DigestPair> getPairs() {
+        return new ArrayList<>(pairs.values());
+    }
+
+    @Override
+    Matcher createMatcher() {
+        return new JoinMatcher();
+    }
+
+    @Override
+    public String getName() {
+        return "SelfJoin";
+    }
+
+    private final class JoinMatcher extends Matcher {
+        final MessageDigest[] digests = new MessageDigest[hashTypes.length];
+        final byte[][] outputs = new byte[hashTypes.length][];
+
+        JoinMatcher() {
+            for (int i = 0; i < hashTypes.length; i++) {
+                digests[i] = HashSupport.newDigest(hashTypes[i]);
+                outputs[i] = new byte[digests[i].getDigestLength()];
+            }
+        }
+
+        @Override
+        boolean matches(byte[] data, int start, int length) {
+            for (int i = 0; i < digests.length; i++) {
+                digests[i].update(data, start, length);
+                HashSupport.finish(digests[i], outputs[i]);
+                byte[] found = table.find(outputs[i]);
+                if (found != null) {
+                    record(hashTypes[i], found, new String(data, start, length, StandardCharsets.UTF_8));
+                }
+            }
+            return false;
+        }
+    }
+
+    private void record(String hashType, byte[] digest, String plaintext) {
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        DigestPair pair = new DigestPair(hashType, hex.toString(), plaintext);
+        if (pairs.putIfAbsent(hashType + ":" + pair.getDigestHex(), pair) == null) {
+            EngineLog.d(TAG, "找到: " + pair);
+        }
+    }
+} 
\ No newline at end of file
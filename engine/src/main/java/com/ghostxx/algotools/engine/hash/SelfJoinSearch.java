@@ -0,0 +1,97 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 自动破解：转储中的摘要与转储自身的字符串连接
+ * 签名类应用的转储中往往同时有计算出的十六进制摘要和产生它们的原文。
+ * 第一遍只扫描十六进制串，收集所有可能是摘要的值（见 {@link HexDigestCollector}），这一遍不计算哈希；
+ * 第二遍并行提取候选字符串，每个候选用摘要表中出现过的长度对应的算法各计算一次并查表，
+ * 报告所有找到的摘要和原文，不需要把摘要逐个粘贴到哈希分析界面。
+ */
+public final class SelfJoinSearch {
+    private static final String TAG = "SelfJoinSearch";
+    /** 最多收集的摘要数 */
+    public static final int MAX_DIGESTS = 1 << 20;
+
+    private final List<String> hashTypes;
+    private volatile int digestCount;
+
+    /**
+     * @param hashTypes 要尝试的哈希类型（如MD5、SHA-256、SM3），同长度的多种算法都会尝试
+     */
+    public SelfJoinSearch(List<String> hashTypes) {
+        this.hashTypes = new ArrayList<>(hashTypes);
+    }
+
+    /**
+     * @param hashTypes 要尝试的哈希类型
+     */
+    public SelfJoinSearch(String... hashTypes) {
+        this(Arrays.asList(hashTypes));
+    }
+
+    /**
+     * 获取最近一次搜索收集到的摘要数
+     */
+    public int getDigestCount() {
+        return digestCount;
+    }
+
+    /**
+     * 在转储中执行自连接
+     * @param engine 文件处理引擎，两遍扫描都使用它的线程池配置
+     * @param files 转储文件
+     * @param session 搜索会话（可选），用于第二遍的候选去重和统计
+     * @param progressCallback 进度回调（可选），两遍扫描合计报告，总量为文件总大小的两倍
+     * @return 找到的摘要和原文，按哈希类型和原文排序；取消时返回已找到的部分
+     * @throws IOException 如果文件处理出错
+     */
+    public List<DigestPair> run(FileProcessingEngine engine, List<File> files, JavaSearchSession session,
+                                FileProcessingEngine.ProgressCallback progressCallback) throws IOException {
+        HexDigestCollector collector = new HexDigestCollector(MAX_DIGESTS);
+        engine.processFiles(files, collector, passProgress(progressCallback, 0));
+        if (engine.isCancelled()) {
+            return Collections.emptyList();
+        }
+        DigestTable table = collector.buildTable();
+        digestCount = table.size();
+        if (table.size() == 0) {
+            EngineLog.d(TAG, "转储中没有十六进制摘要");
+            return Collections.emptyList();
+        }
+
+        SelfJoinProcessor processor = new SelfJoinProcessor(table, hashTypes, session);
+        if (!processor.hasHashTypes()) {
+            return Collections.emptyList();
+        }
+        engine.processFiles(files, processor, passProgress(progressCallback, 1));
+
+        List<DigestPair> pairs = processor.getPairs();
+        Collections.sort(pairs, (a, b) -> {
+            int byType = Integer.compare(hashTypes.indexOf(a.getHashType()), hashTypes.indexOf(b.getHashType()));
+            return byType != 0 ? byType : a.getPlaintext().compareTo(b.getPlaintext());
+        });
+        EngineLog.d(TAG, "在 " + table.size() + " 个摘要中找到 " + pairs.size() + " 个原文");
+        return pairs;
+    }
+
+    /**
+     * 把单遍扫描的进度换算为两遍合计的进度
+     */
+    private static FileProcessingEngine.ProgressCallback passProgress(
+            FileProcessingEngine.ProgressCallback callback, int pass) {
+        if (callback == null) {
+            return null;
+        }
+        return (current, total) -> callback.onProgressUpdate(pass * total + current, 2 * total);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.ghostxx.algotools.engine.hash;
+
+/**
+ * SM3 密码杂凑算法（GB/T 32905-2016）
+ * 与原生层 sm3.h 的实现一致，平台未提供SM3时使用。
+ */
+final class Sm3Digest extends BlockDigest {
+    private static final int[] INITIAL_VALUES = {
+            0x7380166f, 0x4914b2b9, 0x172442d7, 0xda8a0600,
+            0xa96f30bc, 0x163138aa, 0xe38dee4d, 0xb0fb0e4e
+    };
+    // 每轮循环移位后的常量 T_j <<< j
+    private static final int[] ROUND_CONSTANTS = new int[64];
+
+    static {
+        for (int j = 0; j < 64; j++) {
+            ROUND_CONSTANTS[j] = Integer.rotateLeft(j < 16 ? 0x79cc4519 : 0x7a879d8a, j);
+        }
+    }
+
+    private int[] state = INITIAL_VALUES.clone();
+    private int[] w = new int[68];
+
+    Sm3Digest() {
+        super("SM3", 64, 8, 32);
+    }
+
+    @Override
+    void compress(byte[] block, int offset) {
+        int[] w = this.w;
+        for (int j = 0; j < 16; j++) {
+            w[j] = readIntBE(block, offset + j * 4);
+        }
+        for (int j = 16; j < 68; j++) {
+            w[j] = p1(w[j - 16] ^ w[j - 9] ^ Integer.rotateLeft(w[j - 3], 15))
+                    ^ Integer.rotateLeft(w[j - 13], 7) ^ w[j - 6];
+        }
+
+        int a = state[0], b = state[1], c = state[2], d = state[3];
+        int e = state[4], f = state[5], g = state[6], h = state[7];
+        for (int j = 0; j < 64; j++) {
+            int a12 = Integer.rotateLeft(a, 12);
+            int ss1 = Integer.rotateLeft(a12 + e + ROUND_CONSTANTS[j], 7);
+            int ss2 = ss1 ^ a12;
+            int ff = j < 16 ? a ^ b ^ c : (a & b) | (a & c) | (b & c);
+            int gg = j < 16 ? e ^ f ^ g : (e & f) | (~e & g);
+            int tt1 = ff + d + ss2 + (w[j] ^ w[j + 4]);
+            int tt2 = gg + h + ss1 + w[j];
+            d = c;
+            c = Integer.rotateLeft(b, 9);
+            b = a;
+            a = tt1;
+            h = g;
+            g = Integer.rotateLeft(f, 19);
+            f = e;
+            e = tt2 ^ Integer.rotateLeft(tt2, 9) ^ Integer.rotateLeft(tt2, 17);
+        }
+        state[0] ^= a;
+        state[1] ^= b;
+        state[2] ^= c;
+        state[3] ^= d;
+        state[4] ^= e;
+        state[5] ^= f;
+        state[6] ^= g;
+        state[7] ^= h;
+    }
+
+    private static int p1(int x) {
+        return x ^ Integer.rotateLeft(x, 15) ^ Integer.rotateLeft(x, 23);
+    }
+
+    @Override
+    void resetState() {
+        System.arraycopy(INITIAL_VALUES, 0, state, 0, 8);
+    }
+
+    @Override
+    void writeDigest(byte[] out, int offset) {
+        for (int i = 0; i < 8; i++) {
+            writeIntBE(state[i], out, offset + i * 4);
+        }
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        Sm3Digest copy = (Sm3Digest) super.clone();
+        copy.state = state.clone();
+        copy.w = new int[68];
+        return copy;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.ghostxx.algotools.engine.keys;
+
+/**
+ * AES密钥扩展的识别
+ * 按FIPS-197的密钥扩展递推关系逐字验证：w[i] = w[i-Nk] ^ temp，
+ * temp 在 i % Nk == 0 时为 SubWord(RotWord(w[i-1])) ^ Rcon，AES-256 在 i % Nk == 4 时为 SubWord(w[i-1])，
+ * 其余为 w[i-1]。字按大端（FIPS-197的字节顺序）和小端（OpenSSL、Java等以uint32保存轮密钥的实现）两种顺序尝试。
+ */
+final class AesKeySchedule {
+    private static final int[] SBOX = new int[256];
+    private static final int[] RCON = {0x01, 0x02, 0x04, 0x08, 0x10, 0x20, 0x40, 0x80, 0x1b, 0x36};
+
+    static {
+        // 由GF(2^8)上的乘法逆和仿射变换生成S盒
+        int p = 1;
+        int q = 1;
+        do {
+            p = p ^ ((p << 1) & 0xFF) ^ ((p & 0x80) != 0 ? 0x1B : 0);
+            q ^= q << 1;
+            q ^= q << 2;
+            q ^= q << 4;
+            q &= 0xFF;
+            if ((q & 0x80) != 0) {
+                q ^= 0x09;
+            }
+            int x = q ^ rotl8(q, 1) ^ rotl8(q, 2) ^ rotl8(q, 3) ^ rotl8(q, 4);
+            SBOX[p] = (x ^ 0x63) & 0xFF;
+        } while (p != 1);
+        SBOX[0] = 0x63;
+    }
+
+    private AesKeySchedule() {
+    }
+
+    private static int rotl8(int x, int shift) {
+        return ((x << shift) | (x >>> (8 - shift))) & 0xFF;
+    }
+
+    /**
+     * 获取密钥扩展的总字节数
+     * @param nk 密钥的字数（4、6、8）
+     */
+    static int scheduleLength(int nk) {
+        return 4 * 4 * (nk + 7);
+    }
+
+    /**
+     * 验证完整的密钥扩展
+     * @param bigEndian 字是否按大端保存
+     */
+    static boolean verify(byte[] data, int offset, int nk, boolean bigEndian) {
+        int words = 4 * (nk + 7);
+        int previous = readWord(data, offset + 4 * (nk - 1), bigEndian);
+        for (int i = nk; i < words; i++) {
+            int temp = previous;
+            if (i % nk == 0) {
+                temp = subWord(Integer.rotateLeft(temp, 8)) ^ (RCON[i / nk - 1] << 24);
+            } else if (nk == 8 && i % nk == 4) {
+                temp = subWord(temp);
+            }
+            int expected = readWord(data, offset + 4 * (i - nk), bigEndian) ^ temp;
+            if (readWord(data, offset + 4 * i, bigEndian) != expected) {
+                return false;
+            }
+            previous = expected;
+        }
+        return true;
+    }
+
+    /**
+     * 取出原始密钥，按FIPS-197的字节顺序
+     */
+    static byte[] extractKey(byte[] data, int offset, int nk, boolean bigEndian) {
+        byte[] key = new byte[4 * nk];
+        for (int i = 0; i < nk; i++) {
+            int word = readWord(data, offset + 4 * i, bigEndian);
+            key[4 * i] = (byte) (word >>> 24);
+            key[4 * i + 1] = (byte) (word >>> 16);
+            key[4 * i + 2] = (byte) (word >>> 8);
+            key[4 * i + 3] = (byte) word;
+        }
+        return key;
+    }
+
+    private static int subWord(int word) {
+        return SBOX[word >>> 24] << 24 | SBOX[(word >>> 16) & 0xFF] << 16
+                | SBOX[(word >>> 8) & 0xFF] << 8 | SBOX[word & 0xFF];
+    }
+
+    private static int readWord(byte[] data, int offset, boolean bigEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        int b2 = data[offset + 2] & 0xFF;
+        int b3 = data[offset + 3] & 0xFF;
+        return bigEndian ? b0 << 24 | b1 << 16 | b2 << 8 | b3 : b3 << 24 | b2 << 16 | b1 << 8 | b0;
+    }
+} 
\ No newline at end of file
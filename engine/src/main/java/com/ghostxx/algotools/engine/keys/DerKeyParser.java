@@ -0,0 +1,207 @@
+package com.ghostxx.algotools.engine.keys;
+
+/**
+ * DER编码私钥的识别
+ * 从 SEQUENCE { INTEGER 版本号, ... } 开始按结构完整解析，只有所有元素的长度都与外层SEQUENCE吻合才认为是私钥：
+ * <ul>
+ *     <li>PKCS#1 RSA私钥：版本0，之后是9个INTEGER（n, e, d, p, q, dp, dq, qinv）</li>
+ *     <li>SEC1 EC私钥：版本1，OCTET STRING私钥标量，可选的[0]曲线参数和[1]公钥</li>
+ *     <li>PKCS#8私钥：版本0或1，AlgorithmIdentifier SEQUENCE，OCTET STRING包装的私钥</li>
+ * </ul>
+ */
+final class DerKeyParser {
+    private static final int TAG_INTEGER = 0x02;
+    private static final int TAG_OCTET_STRING = 0x04;
+    private static final int TAG_OID = 0x06;
+    private static final int TAG_SEQUENCE = 0x30;
+    private static final byte[] OID_RSA = {0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01, 0x01, 0x01};
+    private static final byte[] OID_EC = {0x2A, (byte) 0x86, 0x48, (byte) 0xCE, 0x3D, 0x02, 0x01};
+    private static final byte[] OID_ED25519 = {0x2B, 0x65, 0x70};
+    // 外层SEQUENCE的最大长度，超过的不是私钥
+    private static final int MAX_KEY_LENGTH = 16 * 1024;
+
+    /**
+     * 一次解析的结果
+     */
+    static final class Result {
+        final KeyMaterial.Type type;
+        final int start;
+        final int length;
+        final String description;
+
+        Result(KeyMaterial.Type type, int start, int length, String description) {
+            this.type = type;
+            this.start = start;
+            this.length = length;
+            this.description = description;
+        }
+    }
+
+    // 解析游标：当前元素的内容起点和长度
+    private final byte[] data;
+    private final int limit;
+    private int contentStart;
+    private int contentLength;
+
+    private DerKeyParser(byte[] data, int limit) {
+        this.data = data;
+        this.limit = limit;
+    }
+
+    /**
+     * 以版本号 INTEGER（02 01 0v）的位置为锚点，向前查找外层SEQUENCE的头部并解析
+     * @param versionOffset 版本号INTEGER的偏移
+     * @return 解析结果，不是私钥时返回null
+     */
+    static Result parseAtVersion(byte[] data, int dataSize, int versionOffset) {
+        DerKeyParser parser = new DerKeyParser(data, dataSize);
+        // 外层长度的三种编码：30 LL、30 81 LL、30 82 HH LL
+        for (int headerLength = 2; headerLength <= 4; headerLength++) {
+            int start = versionOffset - headerLength;
+            if (start < 0 || (data[start] & 0xFF) != TAG_SEQUENCE) {
+                continue;
+            }
+            Result result = parser.parseKey(start);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private Result parseKey(int start) {
+        if (!readElement(start, TAG_SEQUENCE) || contentLength > MAX_KEY_LENGTH) {
+            return null;
+        }
+        int end = contentStart + contentLength;
+        int keyLength = end - start;
+        int pos = contentStart;
+        if (!readElement(pos, TAG_INTEGER) || contentLength != 1) {
+            return null;
+        }
+        int version = data[contentStart];
+        pos = contentStart + 1;
+
+        if (version == 1 && readElement(pos, TAG_OCTET_STRING)) {
+            return parseEcKey(start, pos, end, keyLength);
+        }
+        if (readElement(pos, TAG_SEQUENCE)) {
+            return parsePkcs8Key(start, pos, end, keyLength);
+        }
+        if (version == 0) {
+            return parseRsaKey(start, pos, end, keyLength);
+        }
+        return null;
+    }
+
+    private Result parseRsaKey(int start, int pos, int end, int keyLength) {
+        int modulusBits = 0;
+        for (int i = 0; i < 8; i++) {
+            if (!readElement(pos, TAG_INTEGER) || contentStart + contentLength > end) {
+                return null;
+            }
+            if (i == 0) {
+                // 模数至少512位，去掉符号位的前导0
+                int length = contentLength - (data[contentStart] == 0 ? 1 : 0);
+                if (length < 64) {
+                    return null;
+                }
+                modulusBits = length * 8;
+            }
+            pos = contentStart + contentLength;
+        }
+        if (pos != end) {
+            return null;
+        }
+        return new Result(KeyMaterial.Type.RSA_PRIVATE_KEY, start, keyLength, "RSA " + modulusBits + "位 (PKCS#1)");
+    }
+
+    private Result parseEcKey(int start, int pos, int end, int keyLength) {
+        // 私钥标量：P-224到P-521
+        if (contentLength < 24 || contentLength > 66 || contentStart + contentLength > end) {
+            return null;
+        }
+        int scalarBits = contentLength * 8;
+        pos = contentStart + contentLength;
+        // 可选的 [0] 曲线参数和 [1] 公钥
+        for (int tag = 0xA0; tag <= 0xA1 && pos < end; tag++) {
+            if (readElement(pos, tag)) {
+                pos = contentStart + contentLength;
+            }
+        }
+        if (pos != end) {
+            return null;
+        }
+        return new Result(KeyMaterial.Type.EC_PRIVATE_KEY, start, keyLength, "EC " + scalarBits + "位 (SEC1)");
+    }
+
+    private Result parsePkcs8Key(int start, int pos, int end, int keyLength) {
+        int algorithmEnd = contentStart + contentLength;
+        if (algorithmEnd > end || !readElement(contentStart, TAG_OID) || contentStart + contentLength > algorithmEnd) {
+            return null;
+        }
+        String algorithm;
+        if (oidEquals(OID_RSA)) {
+            algorithm = "RSA";
+        } else if (oidEquals(OID_EC)) {
+            algorithm = "EC";
+        } else if (oidEquals(OID_ED25519)) {
+            algorithm = "Ed25519";
+        } else {
+            algorithm = "未知算法";
+        }
+        if (!readElement(algorithmEnd, TAG_OCTET_STRING) || contentStart + contentLength > end) {
+            return null;
+        }
+        return new Result(KeyMaterial.Type.PKCS8_PRIVATE_KEY, start, keyLength, algorithm + " (PKCS#8)");
+    }
+
+    private boolean oidEquals(byte[] oid) {
+        if (contentLength != oid.length) {
+            return false;
+        }
+        for (int i = 0; i < oid.length; i++) {
+            if (data[contentStart + i] != oid[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取指定标签的元素头部，成功时设置 contentStart 和 contentLength
+     * @return 标签相符、长度编码合法且内容没有越过数据末尾时返回true
+     */
+    private boolean readElement(int pos, int tag) {
+        if (pos + 2 > limit || (data[pos] & 0xFF) != tag) {
+            return false;
+        }
+        int first = data[pos + 1] & 0xFF;
+        int length;
+        int headerLength;
+        if (first < 0x80) {
+            length = first;
+            headerLength = 2;
+        } else if (first == 0x81 && pos + 3 <= limit) {
+            length = data[pos + 2] & 0xFF;
+            headerLength = 3;
+            if (length < 0x80) {
+                return false;
+            }
+        } else if (first == 0x82 && pos + 4 <= limit) {
+            length = (data[pos + 2] & 0xFF) << 8 | (data[pos + 3] & 0xFF);
+            headerLength = 4;
+            if (length < 0x100) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        if (pos + headerLength + length > limit) {
+            return false;
+        }
+        contentStart = pos + headerLength;
+        contentLength = length;
+        return true;
+    }
+} 
\ No newline at end of file
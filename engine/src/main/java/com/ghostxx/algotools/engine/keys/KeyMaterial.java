@@ -0,0 +1,134 @@
+package com.ghostxx.algotools.engine.keys;
+
+/**
+ * 在转储中找到的密钥材料
+ */
+public final class KeyMaterial implements Comparable<KeyMaterial> {
+
+    /**
+     * 密钥类型
+     */
+    public enum Type {
+        /** 展开的AES-128密钥（11个轮密钥） */
+        AES_128,
+        /** 展开的AES-192密钥（13个轮密钥） */
+        AES_192,
+        /** 展开的AES-256密钥（15个轮密钥） */
+        AES_256,
+        /** DER编码的PKCS#1 RSA私钥 */
+        RSA_PRIVATE_KEY,
+        /** DER编码的SEC1 EC私钥 */
+        EC_PRIVATE_KEY,
+        /** DER编码的PKCS#8私钥 */
+        PKCS8_PRIVATE_KEY,
+        /** PEM编码的私钥 */
+        PEM_PRIVATE_KEY
+    }
+
+    private final Type type;
+    private final int fileIndex;
+    private final long offset;
+    private final byte[] keyBytes;
+    private final int length;
+    private final String description;
+
+    KeyMaterial(Type type, int fileIndex, long offset, byte[] keyBytes, int length, String description) {
+        this.type = type;
+        this.fileIndex = fileIndex;
+        this.offset = offset;
+        this.keyBytes = keyBytes;
+        this.length = length;
+        this.description = description;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 是否为AES密钥（密钥字节为原始密钥，而不是编码后的私钥）
+     */
+    public boolean isAesKey() {
+        return type == Type.AES_128 || type == Type.AES_192 || type == Type.AES_256;
+    }
+
+    /**
+     * 获取所在文件在输入列表中的下标
+     */
+    public int getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * 获取在文件中的偏移
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 获取密钥字节
+     * AES为原始密钥（按FIPS-197的字节顺序），DER私钥为完整的DER编码，PEM私钥为PEM文本
+     */
+    public byte[] getKeyBytes() {
+        return keyBytes.clone();
+    }
+
+    /**
+     * 获取在转储中占用的字节数（AES为整个密钥扩展）
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 获取说明，如密钥长度、字节序或PEM标签
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 获取密钥字节的小写十六进制
+     */
+    public String getKeyHex() {
+        StringBuilder hex = new StringBuilder(keyBytes.length * 2);
+        for (byte b : keyBytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    @Override
+    public int compareTo(KeyMaterial other) {
+        if (fileIndex != other.fileIndex) {
+            return Integer.compare(fileIndex, other.fileIndex);
+        }
+        if (offset != other.offset) {
+            return Long.compare(offset, other.offset);
+        }
+        return type.compareTo(other.type);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeyMaterial)) {
+            return false;
+        }
+        KeyMaterial other = (KeyMaterial) o;
+        return type == other.type && fileIndex == other.fileIndex && offset == other.offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * fileIndex + Long.hashCode(offset)) * 31 + type.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d@0x%x %s (%s)", fileIndex, offset, type, description);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,229 @@
+package com.ghostxx.algotools.engine.keys;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密钥材料扫描处理器
+ * 在转储中查找展开的AES-128/192/256密钥（见 {@link AesKeySchedule}）、
+ * DER编码的RSA/EC/PKCS#8私钥（见 {@link DerKeyParser}）以及PEM编码的私钥，记录密钥字节和文件偏移。
+ *
+ * 每个位置先经过只需几次比较的预筛选，只有通过的位置才做完整验证，整体接近顺序扫描的速度：
+ * <ul>
+ *     <li>AES：只检查4字节对齐的位置（轮密钥以uint32数组保存），
+ *         预筛选比较一个不经过S盒的派生字 w[Nk+1] == w[1] ^ w[Nk]，与字节序无关</li>
+ *     <li>DER：以版本号 INTEGER 的三个字节 02 01 00 / 02 01 01 为锚点</li>
+ *     <li>PEM：以 "-----BEGIN " 为锚点，标签须以 "PRIVATE KEY" 结尾</li>
+ * </ul>
+ * 处理器从不返回结果，引擎会扫描完所有数据块，结果由 {@link #getKeys()} 获取。
+ */
+public class KeyScanProcessor implements FileChunkProcessor {
+    private static final String TAG = "KeyScan";
+    private static final int[] AES_KEY_WORDS = {4, 6, 8};
+    private static final KeyMaterial.Type[] AES_TYPES = {
+            KeyMaterial.Type.AES_128, KeyMaterial.Type.AES_192, KeyMaterial.Type.AES_256
+    };
+    private static final byte[] PEM_BEGIN = "-----BEGIN ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PEM_END = "-----END ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PEM_PRIVATE_KEY = "PRIVATE KEY-----".getBytes(StandardCharsets.US_ASCII);
+    // PEM标签的最大长度，如 "ENCRYPTED PRIVATE KEY"
+    private static final int MAX_PEM_LABEL = 32;
+    // PEM块的最大长度
+    private static final int MAX_PEM_LENGTH = 16 * 1024;
+    // 最多记录的密钥数
+    private static final int MAX_KEYS = 10000;
+
+    private final Set<KeyMaterial> keys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger droppedKeys = new AtomicInteger();
+
+    /**
+     * 获取找到的所有密钥，按文件、偏移排序
+     */
+    public List<KeyMaterial> getKeys() {
+        List<KeyMaterial> sorted = new ArrayList<>(keys);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 获取超过记录上限而未记录的密钥数
+     */
+    public int getDroppedKeys() {
+        return droppedKeys.get();
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        return processChunk(data, dataSize, 0, 0);
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        scanAes(data, dataSize, fileIndex, fileOffset);
+        scanAnchors(data, dataSize, fileIndex, fileOffset);
+        return null;
+    }
+
+    /**
+     * 查找展开的AES密钥，按文件偏移4字节对齐
+     * 预筛选检查第一个不经过S盒的派生字 w[Nk+1] == w[1] ^ w[Nk]（Nk = 4、6、8），按位异或与字节序无关，
+     * 随机数据通过的概率为 2^-32。w[1]..w[9] 保存在局部变量中滑动，每前进一个字只读入一个新字。
+     */
+    private void scanAes(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        int first = (int) ((4 - (fileOffset & 3)) & 3);
+        int end = dataSize - AesKeySchedule.scheduleLength(AES_KEY_WORDS[0]);
+        if (first > end) {
+            return;
+        }
+        int w1 = readWord(data, first + 4);
+        int w2 = readWord(data, first + 8);
+        int w3 = readWord(data, first + 12);
+        int w4 = readWord(data, first + 16);
+        int w5 = readWord(data, first + 20);
+        int w6 = readWord(data, first + 24);
+        int w7 = readWord(data, first + 28);
+        int w8 = readWord(data, first + 32);
+        int w9 = readWord(data, first + 36);
+        for (int i = first; i <= end; i += 4) {
+            if (w5 == (w1 ^ w4)) {
+                verifyAes(data, dataSize, i, 0, fileIndex, fileOffset);
+            }
+            if (w7 == (w1 ^ w6)) {
+                verifyAes(data, dataSize, i, 1, fileIndex, fileOffset);
+            }
+            if (w9 == (w1 ^ w8)) {
+                verifyAes(data, dataSize, i, 2, fileIndex, fileOffset);
+            }
+            w1 = w2;
+            w2 = w3;
+            w3 = w4;
+            w4 = w5;
+            w5 = w6;
+            w6 = w7;
+            w7 = w8;
+            w8 = w9;
+            // i + 4 <= end 时 i + 44 之前的数据都在范围内
+            w9 = i + 4 <= end ? readWord(data, i + 40) : 0;
+        }
+    }
+
+    private void verifyAes(byte[] data, int dataSize, int offset, int sizeIndex, int fileIndex, long fileOffset) {
+        int nk = AES_KEY_WORDS[sizeIndex];
+        int length = AesKeySchedule.scheduleLength(nk);
+        if (offset + length > dataSize) {
+            return;
+        }
+        for (int order = 0; order < 2; order++) {
+            boolean bigEndian = order == 0;
+            if (AesKeySchedule.verify(data, offset, nk, bigEndian)) {
+                record(new KeyMaterial(AES_TYPES[sizeIndex], fileIndex, fileOffset + offset,
+                        AesKeySchedule.extractKey(data, offset, nk, bigEndian), length,
+                        "AES-" + nk * 32 + (bigEndian ? " 大端轮密钥" : " 小端轮密钥")));
+                return;
+            }
+        }
+    }
+
+    private static int readWord(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8
+                | (data[offset + 2] & 0xFF) << 16 | (data[offset + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * 查找DER和PEM编码的私钥
+     */
+    private void scanAnchors(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+        int last = dataSize - 3;
+        for (int i = 0; i < last; i++) {
+            byte b = data[i];
+            if (b == 0x02) {
+                if (data[i + 1] == 0x01 && (data[i + 2] == 0x00 || data[i + 2] == 0x01)) {
+                    DerKeyParser.Result result = DerKeyParser.parseAtVersion(data, dataSize, i);
+                    if (result != null) {
+                        record(new KeyMaterial(result.type, fileIndex, fileOffset + result.start,
+                                Arrays.copyOfRange(data, result.start, result.start + result.length), result.length,
+                                result.description));
+                    }
+                }
+            } else if (b == '-' && regionMatches(data, dataSize, i, PEM_BEGIN)) {
+                scanPem(data, dataSize, i, fileIndex, fileOffset);
+            }
+        }
+    }
+
+    private void scanPem(byte[] data, int dataSize, int start, int fileIndex, long fileOffset) {
+        // 标签：BEGIN 之后到 "PRIVATE KEY-----" 结束
+        int labelStart = start + PEM_BEGIN.length;
+        int labelEnd = indexOf(data, Math.min(dataSize, labelStart + MAX_PEM_LABEL + PEM_PRIVATE_KEY.length),
+                labelStart, PEM_PRIVATE_KEY);
+        if (labelEnd < 0) {
+            return;
+        }
+        int end = indexOf(data, Math.min(dataSize, start + MAX_PEM_LENGTH), labelEnd, PEM_END);
+        if (end < 0) {
+            return;
+        }
+        int close = indexOf(data, Math.min(dataSize, end + PEM_END.length + MAX_PEM_LABEL + 16),
+                end + PEM_END.length, "-----".getBytes(StandardCharsets.US_ASCII));
+        if (close < 0) {
+            return;
+        }
+        int length = close + 5 - start;
+        String label = new String(data, labelStart, labelEnd + PEM_PRIVATE_KEY.length - 5 - labelStart,
+                StandardCharsets.US_ASCII);
+        record(new KeyMaterial(KeyMaterial.Type.PEM_PRIVATE_KEY, fileIndex, fileOffset + start,
+                Arrays.copyOfRange(data, start, start + length), length, label));
+    }
+
+    private static boolean regionMatches(byte[] data, int dataSize, int offset, byte[] pattern) {
+        if (offset + pattern.length > dataSize) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (data[offset + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在 [from, limit) 中查找字节序列
+     * @return 首次出现的位置，不存在返回-1
+     */
+    private static int indexOf(byte[] data, int limit, int from, byte[] pattern) {
+        for (int i = from; i + pattern.length <= limit; i++) {
+            if (data[i] == pattern[0] && regionMatches(data, limit, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 记录一个密钥，重叠区域中的密钥按文件、偏移和类型去重
+     */
+    private void record(KeyMaterial key) {
+        if (keys.size() >= MAX_KEYS) {
+            droppedKeys.incrementAndGet();
+            return;
+        }
+        if (keys.add(key)) {
+            EngineLog.d(TAG, "找到密钥: " + key);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "KeyScan";
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.ghostxx.algotools.engine.region;
+
+import com.ghostxx.algotools.engine.EngineLog;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 转储的内存区域表
+ * 转储时把进程 /proc/pid/maps 中的可读区域保存在转储旁的 {@value #FILE_SUFFIX} 文件中，
+ * dumpmm 按该顺序依次写入每个可读区域，因此各区域大小的累加值就是区域在转储文件中的起始偏移，
+ * 命中的文件偏移可以换算回虚拟地址和所在的映射（如 [anon:libc_malloc]、某个so或dex）。
+ *
+ * 区域表在转储前读取，转储期间进程新映射或释放的区域会使其后的偏移错位；
+ * 区域总大小与转储长度不符时 {@link #isExact()} 返回false，调用方应把换算结果视为近似值。
+ */
+public final class RegionMap {
+    private static final String TAG = "RegionMap";
+    /** 区域表文件的后缀，附加在转储文件名之后 */
+    public static final String FILE_SUFFIX = ".maps";
+
+    private final List<Region> regions;
+    private final boolean exact;
+
+    private RegionMap(List<Region> regions, boolean exact) {
+        this.regions = Collections.unmodifiableList(regions);
+        this.exact = exact;
+    }
+
+    /**
+     * 一个可读的内存区域
+     */
+    public static final class Region {
+        private final long start;
+        private final long end;
+        private final String permissions;
+        private final String name;
+        private final long dumpOffset;
+
+        Region(long start, long end, String permissions, String name, long dumpOffset) {
+            this.start = start;
+            this.end = end;
+            this.permissions = permissions;
+            this.name = name;
+            this.dumpOffset = dumpOffset;
+        }
+
+        /**
+         * 获取起始虚拟地址
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * 获取结束虚拟地址（不含）
+         */
+        public long getEnd() {
+            return end;
+        }
+
+        public long getSize() {
+            return end - start;
+        }
+
+        /**
+         * 获取权限，如 "rw-p"
+         */
+        public String getPermissions() {
+            return permissions;
+        }
+
+        /**
+         * 获取映射的名称（文件路径或 [heap]、[anon:...] 等），匿名映射为空字符串
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 获取区域在转储文件中的起始偏移
+         */
+        public long getDumpOffset() {
+            return dumpOffset;
+        }
+
+        /**
+         * 把转储文件中的偏移换算为虚拟地址
+         */
+        public long toAddress(long fileOffset) {
+            return start + (fileOffset - dumpOffset);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%x-%x %s %s", start, end, permissions, name.isEmpty() ? "[anon]" : name);
+        }
+    }
+
+    /**
+     * 解析 /proc/pid/maps 格式的文本，只保留可读区域
+     * @param mapsText maps文本（可以只包含可读区域）
+     * @param dumpLength 转储文件长度，用于检查区域表是否与转储一致，未知时传-1
+     */
+    public static RegionMap parse(String mapsText, long dumpLength) {
+        List<Region> regions = new ArrayList<>();
+        long dumpOffset = 0;
+        for (String line : mapsText.split("\n")) {
+            // 格式: start-end perms offset dev inode [path]
+            String[] fields = line.trim().split("\\s+", 6);
+            if (fields.length < 5 || fields[1].isEmpty() || fields[1].charAt(0) != 'r') {
+                continue;
+            }
+            int dash = fields[0].indexOf('-');
+            if (dash <= 0) {
+                continue;
+            }
+            long start;
+            long end;
+            try {
+                start = Long.parseUnsignedLong(fields[0].substring(0, dash), 16);
+                end = Long.parseUnsignedLong(fields[0].substring(dash + 1), 16);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (end <= start) {
+                continue;
+            }
+            String name = fields.length > 5 ? fields[5].trim() : "";
+            regions.add(new Region(start, end, fields[1], name, dumpOffset));
+            dumpOffset += end - start;
+        }
+        boolean exact = dumpLength < 0 || dumpOffset == dumpLength;
+        if (!exact) {
+            EngineLog.w(TAG, "区域总大小 " + dumpOffset + " 与转储长度 " + dumpLength + " 不符，地址换算为近似值");
+        }
+        return new RegionMap(regions, exact);
+    }
+
+    /**
+     * 读取转储的区域表
+     * @return 区域表，转储没有区域表文件或读取失败时返回null
+     */
+    public static RegionMap forDump(File dumpFile) {
+        File sidecar = sidecarOf(dumpFile);
+        if (!sidecar.isFile()) {
+            return null;
+        }
+        try {
+            String text = new String(Files.readAllBytes(sidecar.toPath()), StandardCharsets.UTF_8);
+            return parse(text, dumpFile.length());
+        } catch (IOException e) {
+            EngineLog.w(TAG, "读取区域表失败: " + sidecar + ", " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 把转储时读取的maps文本保存为转储的区域表文件
+     * @return 是否保存成功
+     */
+    public static boolean save(File dumpFile, String mapsText) {
+        File sidecar = sidecarOf(dumpFile);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(sidecar), StandardCharsets.UTF_8)) {
+            writer.write(mapsText);
+            return true;
+        } catch (IOException e) {
+            EngineLog.w(TAG, "保存区域表失败: " + sidecar + ", " + e.getMessage());
+            sidecar.delete();
+            return false;
+        }
+    }
+
+    /**
+     * 获取区域表文件
+     */
+    public static File sidecarOf(File dumpFile) {
+        return new File(dumpFile.getPath() + FILE_SUFFIX);
+    }
+
+    /**
+     * 查找转储文件偏移所在的区域
+     * @return 所在区域，偏移超出所有区域时返回null
+     */
+    public Region find(long fileOffset) {
+        int low = 0;
+        int high = regions.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Region region = regions.get(mid);
+            if (fileOffset < region.dumpOffset) {
+                high = mid - 1;
+            } else if (fileOffset >= region.dumpOffset + region.getSize()) {
+                low = mid + 1;
+            } else {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取所有可读区域，按在转储中的顺序排列
+     */
+    public List<Region> getRegions() {
+        return regions;
+    }
+
+    /**
+     * 区域总大小是否与转储长度一致
+     */
+    public boolean isExact() {
+        return exact;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,312 @@
+package com.ghostxx.algotools.engine.tuning;
+
+import com.ghostxx.algotools.engine.EngineLog;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 扫描吞吐量调优器
+ * 一次扫描开始时按 {@link TuningProfile} 设置块大小和线程数，扫描过程中按时间窗口测量吞吐量并调整并发：
+ * <ol>
+ *   <li>丢弃第一个窗口（JIT预热、页缓存未命中）</li>
+ *   <li>以当前线程数测得基准吞吐量，然后逐个增加线程，吞吐量提升超过 {@value #MIN_GAIN_PERCENT}% 才保留</li>
+ *   <li>第一次增加就没有提升时尝试减少线程，吞吐量不低于原来的 {@value #KEEP_FEWER_PERCENT}% 时保留较少的线程</li>
+ * </ol>
+ * 设备发热时（{@link #onThermalStatus(int)}，取值与 PowerManager 的 THERMAL_STATUS_* 一致）立即降低并发，
+ * 避免长时间扫描触发降频后吞吐量骤降；降温后恢复调好的线程数。
+ * 扫描结束时由 {@link #finish} 把调好的线程数和本次块大小的吞吐量记录到调优参数中，发热降频过的扫描不记录。
+ *
+ * 块大小在一次扫描中固定（数据块在开始时全部提交），在多次扫描之间由 {@link TuningProfile#nextChunkSize} 调整。
+ *
+ * 工作线程只把块的字节数累加到原子计数中；窗口结束时由第一个发现的工作线程认领并评估，其余线程直接返回。
+ * 试探的状态在this锁内更新，调整引擎线程数（会获取线程池的锁）在锁外进行，工作线程不会等在调优器上。
+ */
+public final class ThroughputTuner implements FileProcessingEngine.ChunkListener {
+    private static final String TAG = "ThroughputTuner";
+
+    /** 与 PowerManager.THERMAL_STATUS_MODERATE 一致 */
+    public static final int THERMAL_MODERATE = 2;
+    /** 与 PowerManager.THERMAL_STATUS_SEVERE 一致 */
+    public static final int THERMAL_SEVERE = 3;
+    /** 与 PowerManager.THERMAL_STATUS_CRITICAL 一致 */
+    public static final int THERMAL_CRITICAL = 4;
+
+    // 测量窗口的最短时间
+    private static final long WINDOW_NANOS = 500_000_000L;
+    static final int MIN_GAIN_PERCENT = 5;
+    static final int KEEP_FEWER_PERCENT = 97;
+    // 记录块大小吞吐量所需的最短扫描时间和最少块数，太短的扫描主要反映启动开销
+    private static final long MIN_RECORD_NANOS = 2_000_000_000L;
+    private static final int MIN_RECORD_CHUNKS = 8;
+
+    private enum Phase { WARMUP, BASELINE, PROBE_UP, PROBE_DOWN, SETTLED }
+
+    private final FileProcessingEngine engine;
+    private final TuningProfile profile;
+    private final int chunkSize;
+    private final boolean measureChunkSize;
+    private final int initialThreads;
+
+    // 当前窗口，由工作线程无锁更新
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicLong windowBytes = new AtomicLong();
+    private final AtomicInteger windowChunks = new AtomicInteger();
+    // 是否有工作线程正在评估窗口
+    private final AtomicBoolean evaluating = new AtomicBoolean();
+    // 希望的线程数，在锁外应用到引擎
+    private volatile int desiredThreads;
+
+    // 以下字段只在持有this锁时修改；phase 在工作线程中无锁读取，用于试探结束后直接返回
+    private volatile Phase phase = Phase.WARMUP;
+    private int bestThreads;
+    private double bestThroughput;
+    private boolean probedDown;
+    private int thermalStatus;
+    private boolean throttled;
+    private boolean finished;
+
+    private ThroughputTuner(FileProcessingEngine engine, TuningProfile profile, int chunkSize,
+                            boolean measureChunkSize) {
+        this.engine = engine;
+        this.profile = profile;
+        this.chunkSize = chunkSize;
+        this.measureChunkSize = measureChunkSize;
+        this.initialThreads = Math.max(1, Math.min(profile.getThreadCount(), engine.getThreadCount()));
+        this.bestThreads = initialThreads;
+        this.desiredThreads = initialThreads;
+    }
+
+    /**
+     * 为下一次扫描配置引擎并开始调优
+     * @param engine 文件处理引擎，其线程数（{@link FileProcessingEngine#getThreadCount()}）是并发的上限
+     * @param profile 调优参数
+     * @param maxChunkSize 内存允许的最大块大小
+     * @param measureChunkSize 是否试探并记录块大小的吞吐量；块内处理代价不同的扫描（如密钥扫描与原文搜索）
+     *                         得到的吞吐量不可比较，只应由同一种扫描测量，其他扫描使用已测得最好的块大小
+     * @return 调优器，扫描结束后必须调用 {@link #finish}
+     */
+    public static ThroughputTuner start(FileProcessingEngine engine, TuningProfile profile, int maxChunkSize,
+                                        boolean measureChunkSize) {
+        int chunkSize = measureChunkSize ? profile.nextChunkSize(maxChunkSize) : profile.bestChunkSize(maxChunkSize);
+        engine.setChunkSize(chunkSize);
+        ThroughputTuner tuner = new ThroughputTuner(engine, profile, chunkSize, measureChunkSize);
+        engine.setActiveThreadCount(tuner.initialThreads);
+        engine.setChunkListener(tuner);
+        EngineLog.d(TAG, "开始调优: 块大小 " + (chunkSize >> 10) + "KB, 线程 " + tuner.initialThreads + "/"
+                + engine.getThreadCount());
+        return tuner;
+    }
+
+    @Override
+    public void onChunkProcessed(int chunkBytes, long processNanos) {
+        long now = System.nanoTime();
+        windowStart.compareAndSet(0, now);
+        windowBytes.addAndGet(chunkBytes);
+        int chunks = windowChunks.incrementAndGet();
+        if (phase == Phase.SETTLED || now - windowStart.get() < WINDOW_NANOS
+                || chunks < engine.getActiveThreadCount()) {
+            return;
+        }
+        // 同一个窗口只由一个工作线程评估
+        if (!evaluating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long elapsed = now - windowStart.get();
+            // 认领前窗口可能刚被其他线程评估并重新开始
+            if (elapsed < WINDOW_NANOS || windowChunks.get() < engine.getActiveThreadCount()) {
+                return;
+            }
+            double throughput = windowBytes.getAndSet(0) * 1e9 / elapsed;
+            windowChunks.set(0);
+            windowStart.set(now);
+            boolean changed;
+            synchronized (this) {
+                changed = evaluate(throughput);
+            }
+            if (changed) {
+                applyThreads();
+            }
+        } finally {
+            evaluating.set(false);
+        }
+    }
+
+    /**
+     * 按一个窗口的吞吐量推进试探
+     * @return 希望的线程数是否改变
+     */
+    private boolean evaluate(double throughput) {
+        if (finished || phase == Phase.SETTLED) {
+            return false;
+        }
+        int before = desiredThreads;
+        int current = engine.getActiveThreadCount();
+        switch (phase) {
+            case WARMUP:
+                phase = Phase.BASELINE;
+                break;
+            case BASELINE:
+                bestThreads = current;
+                bestThroughput = throughput;
+                probeUpOrDown(current);
+                break;
+            case PROBE_UP:
+                if (throughput > bestThroughput * (100 + MIN_GAIN_PERCENT) / 100) {
+                    bestThreads = current;
+                    bestThroughput = throughput;
+                    probeUpOrDown(current);
+                } else if (bestThreads == initialThreads && bestThreads > 1 && !probedDown) {
+                    probe(bestThreads - 1, Phase.PROBE_DOWN);
+                } else {
+                    settle();
+                }
+                break;
+            case PROBE_DOWN:
+                if (throughput >= bestThroughput * KEEP_FEWER_PERCENT / 100) {
+                    bestThreads = current;
+                    bestThroughput = Math.max(bestThroughput, throughput);
+                    if (current > 1) {
+                        probe(current - 1, Phase.PROBE_DOWN);
+                    } else {
+                        settle();
+                    }
+                } else {
+                    settle();
+                }
+                break;
+            default:
+                break;
+        }
+        return desiredThreads != before;
+    }
+
+    /**
+     * 把希望的线程数应用到引擎，在锁外调用
+     * 多个线程同时应用时可能先写入较旧的值，应用后再检查一次，直到引擎的线程数与最新的希望值一致
+     */
+    private void applyThreads() {
+        int target;
+        do {
+            target = desiredThreads;
+            engine.setActiveThreadCount(target);
+        } while (desiredThreads != target);
+    }
+
+    /**
+     * 设备温度状态变化
+     * @param status 与 PowerManager.THERMAL_STATUS_* 一致：0正常、1轻微、2中等、3严重、4及以上危急
+     */
+    public void onThermalStatus(int status) {
+        synchronized (this) {
+            // 扫描结束后仍可能收到已排队的温度通知
+            if (finished || status == thermalStatus) {
+                return;
+            }
+            thermalStatus = status;
+            if (status >= THERMAL_MODERATE) {
+                throttled = true;
+                // 降温前不再试探
+                phase = Phase.SETTLED;
+            }
+            desiredThreads = Math.min(bestThreads, thermalCap());
+            EngineLog.d(TAG, "温度状态 " + status + "，线程调整为 " + desiredThreads);
+        }
+        applyThreads();
+    }
+
+    /**
+     * 扫描结束，停止调优并记录结果
+     * @param runStats 本次扫描的运行统计，可以为null
+     * @param completed 扫描是否完整结束（未取消），未完整结束的扫描不记录块大小的吞吐量
+     */
+    public void finish(FileProcessingEngine.RunStats runStats, boolean completed) {
+        engine.setChunkListener(null);
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            // 扫描在试探中途结束时不把试探的线程数留给下一次处理
+            desiredThreads = Math.min(bestThreads, thermalCap());
+        }
+        applyThreads();
+        record(runStats, completed);
+    }
+
+    /**
+     * 把调好的线程数和本次块大小的吞吐量记录到调优参数中
+     */
+    private synchronized void record(FileProcessingEngine.RunStats runStats, boolean completed) {
+        if (throttled) {
+            EngineLog.d(TAG, "本次扫描因发热降低过并发，不记录调优结果");
+            return;
+        }
+        double perThread = 0;
+        if (measureChunkSize && completed && runStats != null && runStats.getWallNanos() >= MIN_RECORD_NANOS
+                && runStats.getChunks() >= MIN_RECORD_CHUNKS) {
+            long busyNanos = 0;
+            for (FileProcessingEngine.WorkerStats worker : runStats.getWorkers()) {
+                busyNanos += worker.getBusyNanos();
+            }
+            perThread = busyNanos > 0 ? runStats.getBytesProcessed() * 1e9 / busyNanos : 0;
+        }
+        int tunedThreads = phase == Phase.SETTLED ? bestThreads : 0;
+        profile.record(chunkSize, perThread, tunedThreads);
+        EngineLog.d(TAG, "调优结果: " + profile.serialize());
+    }
+
+    /**
+     * 获取当前认为最好的线程数
+     */
+    public synchronized int getBestThreads() {
+        return bestThreads;
+    }
+
+    private void probeUpOrDown(int current) {
+        if (current < limit()) {
+            probe(current + 1, Phase.PROBE_UP);
+        } else if (current == initialThreads && current > 1 && !probedDown) {
+            probe(current - 1, Phase.PROBE_DOWN);
+        } else {
+            settle();
+        }
+    }
+
+    private void probe(int threads, Phase next) {
+        if (next == Phase.PROBE_DOWN) {
+            probedDown = true;
+        }
+        phase = next;
+        desiredThreads = threads;
+    }
+
+    private void settle() {
+        phase = Phase.SETTLED;
+        desiredThreads = Math.min(bestThreads, thermalCap());
+        EngineLog.d(TAG, String.format("并发调优完成: %d 个线程, %.1f MB/s", bestThreads,
+                bestThroughput / (1024.0 * 1024.0)));
+    }
+
+    private int limit() {
+        return Math.min(engine.getThreadCount(), thermalCap());
+    }
+
+    /**
+     * 按温度状态限制的线程数：中等时减少四分之一，严重时减半，危急时只用一个线程
+     */
+    private int thermalCap() {
+        int base = Math.max(bestThreads, 1);
+        if (thermalStatus >= THERMAL_CRITICAL) {
+            return 1;
+        } else if (thermalStatus >= THERMAL_SEVERE) {
+            return Math.max(1, base / 2);
+        } else if (thermalStatus >= THERMAL_MODERATE) {
+            return Math.max(1, Math.min(base - 1, base * 3 / 4));
+        }
+        return Integer.MAX_VALUE;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.ghostxx.algotools.engine.tuning;
+
+import java.util.Locale;
+
+/**
+ * 引擎调优参数
+ * 记录一台设备上调好的线程数、块大小以及每种候选块大小测得的吞吐量，由应用按设备型号持久化
+ * （{@link #serialize()} / {@link #parse(String, int)}）。
+ *
+ * 块大小的吞吐量按每个忙碌线程计算（已处理字节数 / 所有工作线程的忙碌时间），
+ * 与当次使用的线程数基本无关，只反映映射/读取开销、重叠区域和块内处理的效率；
+ * 多次扫描的测量值做指数平滑，减少不同转储内容带来的波动。
+ */
+public final class TuningProfile {
+    /** 候选的块大小 */
+    static final int[] CHUNK_SIZES = {1 << 20, 2 << 20, 4 << 20, 8 << 20};
+    /** 没有测量值时使用的块大小 */
+    static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+    // 吞吐量指数平滑系数
+    private static final double SMOOTHING = 0.3;
+
+    private int threadCount;
+    private int chunkSize;
+    private int scans;
+    // 每种候选块大小的平滑吞吐量（字节/秒/线程），0表示尚未测量
+    private final double[] chunkThroughput = new double[CHUNK_SIZES.length];
+
+    private TuningProfile(int threadCount, int chunkSize) {
+        this.threadCount = threadCount;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 创建没有测量值的默认参数
+     * @param cores CPU核心数，默认保留一个核心给UI线程
+     */
+    public static TuningProfile defaults(int cores) {
+        return new TuningProfile(Math.max(1, cores - 1), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 解析 {@link #serialize()} 的结果
+     * @param text 保存的文本，为null或格式不对时返回默认参数
+     * @param cores CPU核心数
+     */
+    public static TuningProfile parse(String text, int cores) {
+        TuningProfile profile = defaults(cores);
+        if (text == null || text.isEmpty()) {
+            return profile;
+        }
+        try {
+            for (String field : text.split(";")) {
+                int eq = field.indexOf('=');
+                if (eq <= 0) {
+                    continue;
+                }
+                String key = field.substring(0, eq);
+                String value = field.substring(eq + 1);
+                switch (key) {
+                    case "threads":
+                        profile.threadCount = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "chunk":
+                        int chunk = Integer.parseInt(value);
+                        profile.chunkSize = candidateIndex(chunk) >= 0 ? chunk : DEFAULT_CHUNK_SIZE;
+                        break;
+                    case "scans":
+                        profile.scans = Integer.parseInt(value);
+                        break;
+                    case "tp":
+                        for (String entry : value.split(",")) {
+                            int colon = entry.indexOf(':');
+                            int index = colon > 0 ? candidateIndex(Integer.parseInt(entry.substring(0, colon))) : -1;
+                            if (index >= 0) {
+                                profile.chunkThroughput[index] = Double.parseDouble(entry.substring(colon + 1));
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return defaults(cores);
+        }
+        return profile;
+    }
+
+    /**
+     * 序列化为一行文本
+     */
+    public synchronized String serialize() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("threads=").append(threadCount)
+                .append(";chunk=").append(chunkSize)
+                .append(";scans=").append(scans)
+                .append(";tp=");
+        boolean first = true;
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            if (chunkThroughput[i] > 0) {
+                if (!first) {
+                    builder.append(',');
+                }
+                builder.append(CHUNK_SIZES[i]).append(':').append(String.format(Locale.US, "%.0f", chunkThroughput[i]));
+                first = false;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 获取调好的线程数
+     */
+    public synchronized int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * 获取测得吞吐量最高的块大小
+     */
+    public synchronized int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 获取已记录的扫描次数
+     */
+    public synchronized int getScans() {
+        return scans;
+    }
+
+    /**
+     * 选择下一次扫描使用的块大小
+     * 当前最好的块大小的相邻候选（一半或两倍）还没有测量过时先试探相邻候选，否则使用最好的块大小，
+     * 相当于跨多次扫描做一次爬山。
+     * @param maxChunkSize 内存允许的最大块大小
+     */
+    public synchronized int nextChunkSize(int maxChunkSize) {
+        int best = candidateIndex(chunkSize);
+        for (int neighbor : new int[]{best + 1, best - 1}) {
+            if (neighbor >= 0 && neighbor < CHUNK_SIZES.length && chunkThroughput[neighbor] <= 0
+                    && CHUNK_SIZES[neighbor] <= maxChunkSize) {
+                return CHUNK_SIZES[neighbor];
+            }
+        }
+        return bestChunkSize(maxChunkSize);
+    }
+
+    /**
+     * 获取内存允许范围内吞吐量最高的块大小，不做试探
+     * @param maxChunkSize 内存允许的最大块大小
+     */
+    public synchronized int bestChunkSize(int maxChunkSize) {
+        int size = chunkSize;
+        while (size > maxChunkSize && candidateIndex(size) > 0) {
+            size = CHUNK_SIZES[candidateIndex(size) - 1];
+        }
+        return size;
+    }
+
+    /**
+     * 记录一次扫描的结果
+     * @param usedChunkSize 本次使用的块大小
+     * @param bytesPerBusySecond 每个忙碌线程的吞吐量（字节/秒），不大于0时不记录
+     * @param tunedThreads 运行中调好的线程数，不大于0时不更新
+     */
+    public synchronized void record(int usedChunkSize, double bytesPerBusySecond, int tunedThreads) {
+        if (tunedThreads > 0) {
+            threadCount = tunedThreads;
+        }
+        int index = candidateIndex(usedChunkSize);
+        if (index < 0 || bytesPerBusySecond <= 0) {
+            return;
+        }
+        scans++;
+        double previous = chunkThroughput[index];
+        chunkThroughput[index] = previous > 0
+                ? previous + SMOOTHING * (bytesPerBusySecond - previous) : bytesPerBusySecond;
+        int best = candidateIndex(chunkSize);
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            if (chunkThroughput[i] > 0 && (best < 0 || chunkThroughput[best] <= 0
+                    || chunkThroughput[i] > chunkThroughput[best])) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            chunkSize = CHUNK_SIZES[best];
+        }
+    }
+
+    private static int candidateIndex(int size) {
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            if (CHUNK_SIZES[i] == size) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return serialize();
+    }
+} 
\ No newline at end of file
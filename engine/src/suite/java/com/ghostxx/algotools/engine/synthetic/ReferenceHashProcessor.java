@@ -0,0 +1,110 @@
+package com.ghostxx.algotools.engine.synthetic;
+
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 参考哈希搜索处理器
+ * 用JDK的MessageDigest实现与原生层相同的搜索语义：提取长度不小于2的可打印字节序列
+ * （ASCII可打印字符、制表符、换行、回车以及所有不小于0x80的字节），逐个计算哈希并与目标比较。
+ * 不追求速度，作为回归测试在桌面JVM上的正确性基准。
+ */
+public class ReferenceHashProcessor implements FileChunkProcessor {
+    private static final int MIN_CANDIDATE_LENGTH = 2;
+
+    private final String algorithm;
+    private final byte[] targetDigest;
+    private final ThreadLocal<MessageDigest> digests;
+
+    /**
+     * @param hashType 哈希类型（MD5、SHA-1、SHA-256、SHA-384、SHA-512）
+     * @param hexHash 目标哈希的十六进制字符串
+     */
+    public ReferenceHashProcessor(String hashType, String hexHash) {
+        this.algorithm = hashType.toUpperCase(Locale.ROOT);
+        this.targetDigest = parseHex(hexHash);
+        // 提前检查算法是否可用
+        newDigest(algorithm);
+        this.digests = new ThreadLocal<MessageDigest>() {
+            @Override
+            protected MessageDigest initialValue() {
+                return newDigest(algorithm);
+            }
+        };
+    }
+
+    @Override
+    public String processChunk(byte[] data, int dataSize) {
+        MessageDigest digest = digests.get();
+        int start = -1;
+        for (int i = 0; i <= dataSize; i++) {
+            if (i < dataSize && isPrintable(data[i] & 0xFF)) {
+                if (start < 0) {
+                    start = i;
+                }
+                continue;
+            }
+            if (start >= 0 && i - start >= MIN_CANDIDATE_LENGTH) {
+                digest.update(data, start, i - start);
+                if (Arrays.equals(digest.digest(), targetDigest)) {
+                    return new String(data, start, i - start, StandardCharsets.UTF_8);
+                }
+            }
+            start = -1;
+        }
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return "Reference-" + algorithm;
+    }
+
+    /**
+     * 是否为原生层提取规则中的可打印字节
+     */
+    static boolean isPrintable(int c) {
+        return (c >= 32 && c <= 126) || c == 9 || c == 10 || c == 13 || c >= 128;
+    }
+
+    /**
+     * 计算文本的十六进制哈希，用于为埋入的原文生成搜索目标
+     */
+    public static String hexDigest(String hashType, String text) {
+        byte[] digest = newDigest(hashType.toUpperCase(Locale.ROOT)).digest(text.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("不支持的哈希类型: " + algorithm, e);
+        }
+    }
+
+    private static byte[] parseHex(String hex) {
+        if (hex == null || hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("无效的哈希值: " + hex);
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("无效的哈希值: " + hex);
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+} 
\ No newline at end of file
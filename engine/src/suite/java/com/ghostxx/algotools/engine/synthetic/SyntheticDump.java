@@ -0,0 +1,67 @@
+package com.ghostxx.algotools.engine.synthetic;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 合成内存转储
+ * 记录生成参数和埋入原文的实际偏移
+ */
+public class SyntheticDump {
+    private final File file;
+    private final long size;
+    private final long seed;
+    private final List<PlantedSecret> plantedSecrets;
+
+    SyntheticDump(File file, long size, long seed, List<PlantedSecret> plantedSecrets) {
+        this.file = file;
+        this.size = size;
+        this.seed = seed;
+        this.plantedSecrets = Collections.unmodifiableList(new ArrayList<>(plantedSecrets));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 获取埋入的原文，按偏移升序
+     */
+    public List<PlantedSecret> getPlantedSecrets() {
+        return plantedSecrets;
+    }
+
+    /**
+     * 埋入的原文
+     */
+    public static class PlantedSecret {
+        private final String text;
+        private final long offset;
+
+        PlantedSecret(String text, long offset) {
+            this.text = text;
+            this.offset = offset;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * 获取原文第一个字节在转储中的偏移
+         */
+        public long getOffset() {
+            return offset;
+        }
+    }
+} 
\ No newline at end of file
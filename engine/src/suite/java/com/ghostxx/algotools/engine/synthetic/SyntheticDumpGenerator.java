@@ -0,0 +1,315 @@
+package com.ghostxx.algotools.engine.synthetic;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成内存转储生成器
+ * 按给定的大小、二进制占比、字符串长度分布和重复率生成模拟内存转储，并在指定偏移处埋入已知原文。
+ * 相同的参数和种子总是生成逐字节相同的文件，可以作为引擎改动前后对比正确性和速度的固定语料。
+ *
+ * 可打印字符串之间用不可打印字节（0x00和控制字符）分隔，与原生层的提取规则一致，
+ * 因此埋入的原文会被完整地提取为一个候选字符串。
+ */
+public class SyntheticDumpGenerator {
+
+    /**
+     * 可打印字符串的长度分布
+     */
+    public enum LengthDistribution {
+        /** 2~8字节，类似标识符、短标记 */
+        SHORT(100, 0, 0),
+        /** 8~32字节，类似令牌、键名 */
+        MEDIUM(0, 100, 0),
+        /** 32~256字节，类似URL、JSON片段 */
+        LONG(0, 0, 100),
+        /** 70%短、25%中、5%长，接近真实堆内存 */
+        MIXED(70, 25, 5);
+
+        private final int shortWeight;
+        private final int mediumWeight;
+        private final int longWeight;
+
+        LengthDistribution(int shortWeight, int mediumWeight, int longWeight) {
+            this.shortWeight = shortWeight;
+            this.mediumWeight = mediumWeight;
+            this.longWeight = longWeight;
+        }
+
+        int sample(Random random) {
+            int pick = random.nextInt(shortWeight + mediumWeight + longWeight);
+            if (pick < shortWeight) {
+                return 2 + random.nextInt(7);
+            }
+            if (pick < shortWeight + mediumWeight) {
+                return 8 + random.nextInt(25);
+            }
+            return 32 + random.nextInt(225);
+        }
+    }
+
+    private static final byte[] ALPHABET = ("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"
+            + "0123456789_-.,:;/=?&%+@#{}[]\"' ").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CJK_SAMPLE = "用户令牌密钥签名时间戳设备标识会话".getBytes(StandardCharsets.UTF_8);
+    // 重复字符串池的最大容量
+    private static final int DUPLICATE_POOL_SIZE = 4096;
+    // 写入缓冲区大小
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private long size = 64L * 1024 * 1024;
+    private double binaryRatio = 0.5;
+    private LengthDistribution lengthDistribution = LengthDistribution.MIXED;
+    private double duplicateRate = 0.2;
+    private double multiByteRate = 0.05;
+    private long seed = 1;
+    private final List<PlantRequest> plantRequests = new ArrayList<>();
+
+    /**
+     * 设置转储大小（字节）
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator setSize(long size) {
+        if (size > 0) {
+            this.size = size;
+        }
+        return this;
+    }
+
+    /**
+     * 设置二进制（不可打印）字节的目标占比，范围 [0, 0.99]
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator setBinaryRatio(double binaryRatio) {
+        this.binaryRatio = Math.max(0, Math.min(0.99, binaryRatio));
+        return this;
+    }
+
+    /**
+     * 设置可打印字符串的长度分布
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator setLengthDistribution(LengthDistribution lengthDistribution) {
+        if (lengthDistribution != null) {
+            this.lengthDistribution = lengthDistribution;
+        }
+        return this;
+    }
+
+    /**
+     * 设置字符串重复率：每个字符串以该概率取自之前生成过的字符串，范围 [0, 1]
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator setDuplicateRate(double duplicateRate) {
+        this.duplicateRate = Math.max(0, Math.min(1, duplicateRate));
+        return this;
+    }
+
+    /**
+     * 设置包含UTF-8多字节字符的字符串占比，范围 [0, 1]
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator setMultiByteRate(double multiByteRate) {
+        this.multiByteRate = Math.max(0, Math.min(1, multiByteRate));
+        return this;
+    }
+
+    /**
+     * 设置随机种子
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * 在指定偏移处埋入原文
+     * 若与前一个埋入的原文重叠，会紧接在前一个原文之后写入，实际偏移记录在生成结果中
+     * @param text 原文（不能包含不可打印字符）
+     * @param offset 目标偏移
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator plantSecret(String text, long offset) {
+        plantRequests.add(new PlantRequest(text.getBytes(StandardCharsets.UTF_8), offset));
+        return this;
+    }
+
+    /**
+     * 在按比例计算的偏移处埋入原文
+     * @param text 原文
+     * @param relativeOffset 相对位置，范围 [0, 1)
+     * @return this (链式调用)
+     */
+    public SyntheticDumpGenerator plantSecretAt(String text, double relativeOffset) {
+        return plantSecret(text, (long) (size * Math.max(0, Math.min(0.999, relativeOffset))));
+    }
+
+    /**
+     * 生成转储文件
+     * @param file 输出文件，已存在时覆盖
+     * @return 生成结果，包含埋入原文的实际偏移
+     */
+    public SyntheticDump generate(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)) {
+            return new SyntheticDump(file, size, seed, write(out));
+        }
+    }
+
+    /**
+     * 复用之前用相同参数生成的转储文件
+     * 只重放生成过程以计算埋入原文的偏移，不重写文件
+     * @param file 已生成的转储文件
+     * @return 生成结果；文件不存在或大小不符时返回null
+     */
+    public SyntheticDump reuse(File file) throws IOException {
+        if (!file.isFile() || file.length() != size) {
+            return null;
+        }
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        return new SyntheticDump(file, size, seed, write(discard));
+    }
+
+    private List<SyntheticDump.PlantedSecret> write(OutputStream out) throws IOException {
+        List<PlantRequest> pending = new ArrayList<>(plantRequests);
+        Collections.sort(pending);
+        for (PlantRequest request : pending) {
+            if (request.offset + request.text.length + 1 > size) {
+                throw new IllegalArgumentException("原文超出转储范围: offset=" + request.offset);
+            }
+        }
+
+        Random random = new Random(seed);
+        List<byte[]> duplicatePool = new ArrayList<>();
+        List<SyntheticDump.PlantedSecret> planted = new ArrayList<>();
+        int nextPlant = 0;
+
+        long position = 0;
+        while (position < size) {
+            PlantRequest request = nextPlant < pending.size() ? pending.get(nextPlant) : null;
+
+            // 到达埋入位置时写入原文（此前写入的总是分隔字节），其后再写一个分隔字节
+            if (request != null && request.offset <= position) {
+                if (position + request.text.length + 1 > size) {
+                    throw new IllegalArgumentException("原文超出转储范围: offset=" + position);
+                }
+                planted.add(new SyntheticDump.PlantedSecret(
+                        new String(request.text, StandardCharsets.UTF_8), position));
+                out.write(request.text);
+                position += request.text.length;
+                out.write(0);
+                position++;
+                nextPlant++;
+                continue;
+            }
+
+            // 到下一个埋入位置（或文件末尾）之前可用的空间，字符串之后至少要留一个分隔字节
+            long limit = (request != null ? request.offset : size) - position;
+            byte[] text = nextString(random, duplicatePool);
+            if (text.length + 1 > limit) {
+                writeGap(out, random, limit);
+                position += limit;
+                continue;
+            }
+            out.write(text);
+            position += text.length;
+
+            long gap = Math.max(1, Math.min(gapLength(random, text.length), limit - text.length));
+            writeGap(out, random, gap);
+            position += gap;
+        }
+
+        if (nextPlant < pending.size()) {
+            throw new IllegalStateException("未能埋入全部原文");
+        }
+        return planted;
+    }
+
+    /**
+     * 生成下一个可打印字符串，按重复率复用已生成的字符串
+     */
+    private byte[] nextString(Random random, List<byte[]> duplicatePool) {
+        if (!duplicatePool.isEmpty() && random.nextDouble() < duplicateRate) {
+            return duplicatePool.get(random.nextInt(duplicatePool.size()));
+        }
+
+        int length = lengthDistribution.sample(random);
+        byte[] text = new byte[length];
+        int pos = 0;
+        boolean multiByte = random.nextDouble() < multiByteRate;
+        while (pos < length) {
+            // 插入完整的3字节汉字
+            if (multiByte && pos + 3 <= length && random.nextInt(3) == 0) {
+                int index = random.nextInt(CJK_SAMPLE.length / 3) * 3;
+                System.arraycopy(CJK_SAMPLE, index, text, pos, 3);
+                pos += 3;
+            } else {
+                text[pos++] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+        }
+
+        if (duplicatePool.size() < DUPLICATE_POOL_SIZE) {
+            duplicatePool.add(text);
+        } else {
+            duplicatePool.set(random.nextInt(DUPLICATE_POOL_SIZE), text);
+        }
+        return text;
+    }
+
+    /**
+     * 计算字符串之后的分隔长度，使二进制字节的期望占比等于目标值
+     */
+    private long gapLength(Random random, int textLength) {
+        double mean = textLength * binaryRatio / (1 - binaryRatio);
+        // 在均值的 [0.5, 1.5] 倍之间均匀取值
+        return Math.max(1, Math.round(mean * (0.5 + random.nextDouble())));
+    }
+
+    /**
+     * 写入不可打印字节：大部分为0，其余为不会被当作文本的控制字符
+     */
+    private static void writeGap(OutputStream out, Random random, long length) throws IOException {
+        for (long i = 0; i < length; i++) {
+            int value = random.nextInt(10);
+            if (value < 6) {
+                out.write(0);
+            } else {
+                int control = 1 + random.nextInt(30); // 1~30
+                if (control == 9 || control == 10 || control == 13) {
+                    control = 0;
+                }
+                out.write(control);
+            }
+        }
+    }
+
+    private static final class PlantRequest implements Comparable<PlantRequest> {
+        final byte[] text;
+        final long offset;
+
+        PlantRequest(byte[] text, long offset) {
+            this.text = text;
+            this.offset = offset;
+        }
+
+        @Override
+        public int compareTo(PlantRequest other) {
+            return Long.compare(offset, other.offset);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,377 @@
+package com.ghostxx.algotools.engine.synthetic;
+
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+import com.ghostxx.algotools.engine.hash.JavaHashSearchProcessor;
+import com.ghostxx.algotools.engine.hash.JavaSearchSession;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 端到端吞吐量回归测试
+ * 在固定种子生成的合成转储上运行完整的哈希搜索（与分析用例相同的引擎参数），
+ * 记录每个用例的耗时、吞吐量(MB/s)和首次命中时间，并检查埋入的原文是否都能找到。
+ *
+ * 每个用例先预热一次，再重复运行取最快的一次，减少JIT和页缓存带来的波动。
+ *
+ * 用法: ThroughputSuite [--quick] [--size-mb=64] [--repeat=3] [--processor=java|reference] [--dir=语料目录]
+ *                       [--io=auto|mmap|readahead] [--out=results.csv] [--baseline=baseline.csv] [--tolerance=0.15]
+ * 找不到埋入的原文，或完整扫描的吞吐量比基线下降超过容差时以非零状态退出。
+ */
+public class ThroughputSuite {
+
+    /**
+     * 处理器工厂，用于替换被测的搜索实现
+     */
+    public interface ProcessorFactory {
+        FileChunkProcessor create(String hashType, String hexHash);
+    }
+
+    // 与应用中分析用例使用的引擎参数保持一致
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int OVERLAP_SIZE = 128 * 1024;
+    private static final String[] HASH_TYPES = {"MD5", "SHA-256"};
+    private static final String[] SECRETS = {
+            "token=7f3a9c1e-user-session", "appSecret_K9x2LmQp", "sign:1718000000:设备标识"};
+    private static final double[] SECRET_POSITIONS = {0.10, 0.50, 0.95};
+    // 不存在于任何转储中的原文，用于测量完整扫描
+    private static final String MISSING_TEXT = "not-in-any-synthetic-dump";
+    // 与应用中搜索会话的默认去重上限一致
+    private static final int DEDUP_ENTRIES = 4 * 1024 * 1024;
+    private static final String CSV_HEADER = "profile,hash,case,found,wall_ms,bytes,mb_per_s,first_match_ms";
+
+    /**
+     * 语料配置
+     */
+    private static final class Profile {
+        final String name;
+        final double binaryRatio;
+        final SyntheticDumpGenerator.LengthDistribution distribution;
+        final double duplicateRate;
+
+        Profile(String name, double binaryRatio, SyntheticDumpGenerator.LengthDistribution distribution,
+                double duplicateRate) {
+            this.name = name;
+            this.binaryRatio = binaryRatio;
+            this.distribution = distribution;
+            this.duplicateRate = duplicateRate;
+        }
+    }
+
+    private static final Profile[] PROFILES = {
+            new Profile("text-heavy", 0.2, SyntheticDumpGenerator.LengthDistribution.MIXED, 0.3),
+            new Profile("binary-heavy", 0.8, SyntheticDumpGenerator.LengthDistribution.SHORT, 0.1),
+            new Profile("long-strings", 0.3, SyntheticDumpGenerator.LengthDistribution.LONG, 0),
+            new Profile("high-dup", 0.3, SyntheticDumpGenerator.LengthDistribution.MIXED, 0.8),
+    };
+
+    /**
+     * 单个用例的结果
+     */
+    public static final class CaseResult {
+        final String profile;
+        final String hashType;
+        final String caseName;
+        final boolean found;
+        final double wallMs;
+        final long bytes;
+        final double megabytesPerSecond;
+        final double firstMatchMs;
+
+        CaseResult(String profile, String hashType, String caseName, boolean found, double wallMs, long bytes,
+                   double megabytesPerSecond, double firstMatchMs) {
+            this.profile = profile;
+            this.hashType = hashType;
+            this.caseName = caseName;
+            this.found = found;
+            this.wallMs = wallMs;
+            this.bytes = bytes;
+            this.megabytesPerSecond = megabytesPerSecond;
+            this.firstMatchMs = firstMatchMs;
+        }
+
+        String key() {
+            return profile + "," + hashType + "," + caseName;
+        }
+
+        String toCsv() {
+            return String.format(Locale.US, "%s,%b,%.1f,%d,%.2f,%.1f",
+                    key(), found, wallMs, bytes, megabytesPerSecond, firstMatchMs);
+        }
+    }
+
+    private final long dumpSize;
+    private final File corpusDir;
+    private final ProcessorFactory processorFactory;
+    private final int repeat;
+    private final int threadCount;
+    private FileProcessingEngine.IoMode ioMode = FileProcessingEngine.IoMode.AUTO;
+
+    public ThroughputSuite(long dumpSize, File corpusDir, ProcessorFactory processorFactory, int repeat) {
+        this.dumpSize = dumpSize;
+        this.corpusDir = corpusDir;
+        this.processorFactory = processorFactory;
+        this.repeat = Math.max(1, repeat);
+        this.threadCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+    }
+
+    /**
+     * 设置引擎的读取方式，用于比较内存映射和预读流水线
+     * @return this (链式调用)
+     */
+    public ThroughputSuite setIoMode(FileProcessingEngine.IoMode ioMode) {
+        this.ioMode = ioMode;
+        return this;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long sizeMb = 64;
+        int repeat = 3;
+        String processorType = "java";
+        FileProcessingEngine.IoMode ioMode = FileProcessingEngine.IoMode.AUTO;
+        File dir = new File(System.getProperty("java.io.tmpdir"), "algotools-corpus");
+        File out = null;
+        File baseline = null;
+        double tolerance = 0.15;
+        for (String arg : args) {
+            if (arg.equals("--quick")) {
+                sizeMb = 8;
+            } else if (arg.startsWith("--size-mb=")) {
+                sizeMb = Long.parseLong(arg.substring("--size-mb=".length()));
+            } else if (arg.startsWith("--repeat=")) {
+                repeat = Integer.parseInt(arg.substring("--repeat=".length()));
+            } else if (arg.startsWith("--processor=")) {
+                processorType = arg.substring("--processor=".length());
+            } else if (arg.startsWith("--io=")) {
+                ioMode = parseIoMode(arg.substring("--io=".length()));
+            } else if (arg.startsWith("--dir=")) {
+                dir = new File(arg.substring("--dir=".length()));
+            } else if (arg.startsWith("--out=")) {
+                out = new File(arg.substring("--out=".length()));
+            } else if (arg.startsWith("--baseline=")) {
+                baseline = new File(arg.substring("--baseline=".length()));
+            } else if (arg.startsWith("--tolerance=")) {
+                tolerance = Double.parseDouble(arg.substring("--tolerance=".length()));
+            } else {
+                System.err.println("未知参数: " + arg);
+                System.exit(2);
+            }
+        }
+
+        ThroughputSuite suite = new ThroughputSuite(sizeMb * 1024 * 1024, dir, createFactory(processorType), repeat)
+                .setIoMode(ioMode);
+        List<CaseResult> results = suite.run();
+
+        System.out.println(CSV_HEADER);
+        for (CaseResult result : results) {
+            System.out.println(result.toCsv());
+        }
+        if (out != null) {
+            writeCsv(out, results);
+        }
+
+        int failures = 0;
+        for (CaseResult result : results) {
+            if (result.found == result.caseName.equals("miss")) {
+                System.err.println("正确性失败: " + result.key());
+                failures++;
+            }
+        }
+        if (baseline != null) {
+            failures += compareWithBaseline(results, readCsv(baseline), tolerance);
+        }
+        if (failures > 0) {
+            System.err.println("失败用例数: " + failures);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 创建处理器工厂
+     * @param type java: 纯Java搜索引擎（带会话去重）；reference: 不做任何优化的参考实现
+     */
+    private static FileProcessingEngine.IoMode parseIoMode(String mode) {
+        switch (mode) {
+            case "auto":
+                return FileProcessingEngine.IoMode.AUTO;
+            case "mmap":
+                return FileProcessingEngine.IoMode.MMAP;
+            case "readahead":
+                return FileProcessingEngine.IoMode.READ_AHEAD;
+            default:
+                throw new IllegalArgumentException("未知的读取方式: " + mode);
+        }
+    }
+
+    private static ProcessorFactory createFactory(String type) {
+        switch (type) {
+            case "java":
+                return new ProcessorFactory() {
+                    @Override
+                    public FileChunkProcessor create(String hashType, String hexHash) {
+                        return new JavaHashSearchProcessor(hexHash, hashType, null,
+                                new JavaSearchSession(DEDUP_ENTRIES));
+                    }
+                };
+            case "reference":
+                return new ProcessorFactory() {
+                    @Override
+                    public FileChunkProcessor create(String hashType, String hexHash) {
+                        return new ReferenceHashProcessor(hashType, hexHash);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("未知的处理器类型: " + type);
+        }
+    }
+
+    /**
+     * 运行全部语料和哈希类型的用例
+     */
+    public List<CaseResult> run() throws IOException {
+        if (!corpusDir.isDirectory() && !corpusDir.mkdirs()) {
+            throw new IOException("无法创建语料目录: " + corpusDir);
+        }
+        List<CaseResult> results = new ArrayList<>();
+        boolean warmedUp = false;
+        for (Profile profile : PROFILES) {
+            SyntheticDump dump = prepareDump(profile);
+            if (!warmedUp) {
+                // 整体预热：让提取和哈希的热点代码在第一个用例之前完成编译
+                for (String hashType : HASH_TYPES) {
+                    runCase(dump, profile.name, hashType, "warmup", MISSING_TEXT);
+                }
+                warmedUp = true;
+            }
+            for (String hashType : HASH_TYPES) {
+                for (int i = 0; i < dump.getPlantedSecrets().size(); i++) {
+                    SyntheticDump.PlantedSecret secret = dump.getPlantedSecrets().get(i);
+                    results.add(runCase(dump, profile.name, hashType, "hit@" + Math.round(SECRET_POSITIONS[i] * 100),
+                            secret.getText()));
+                }
+                results.add(runCase(dump, profile.name, hashType, "miss", MISSING_TEXT));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 生成语料，同名文件大小一致时直接复用（生成结果由参数和种子唯一确定）
+     */
+    private SyntheticDump prepareDump(Profile profile) throws IOException {
+        File file = new File(corpusDir, profile.name + "-" + (dumpSize >> 20) + "mb.bin");
+        SyntheticDumpGenerator generator = new SyntheticDumpGenerator()
+                .setSize(dumpSize)
+                .setBinaryRatio(profile.binaryRatio)
+                .setLengthDistribution(profile.distribution)
+                .setDuplicateRate(profile.duplicateRate)
+                .setSeed(profile.name.hashCode());
+        for (int i = 0; i < SECRETS.length; i++) {
+            generator.plantSecretAt(SECRETS[i], SECRET_POSITIONS[i]);
+        }
+        SyntheticDump dump = generator.reuse(file);
+        return dump != null ? dump : generator.generate(file);
+    }
+
+    private CaseResult runCase(SyntheticDump dump, String profile, String hashType, String caseName, String text)
+            throws IOException {
+        String hexHash = ReferenceHashProcessor.hexDigest(hashType, text);
+        FileProcessingEngine engine = new FileProcessingEngine()
+                .setChunkSize(CHUNK_SIZE)
+                .setOverlapSize(OVERLAP_SIZE)
+                .setThreadCount(threadCount)
+                .setIoMode(ioMode);
+
+        // 预热一次，不计入结果；每次运行都创建新的处理器，避免会话去重状态影响下一次运行
+        engine.processFile(dump.getFile(), processorFactory.create(hashType, hexHash), null);
+
+        boolean found = true;
+        long bestNanos = Long.MAX_VALUE;
+        long bytes = dump.getSize();
+        for (int i = 0; i < repeat; i++) {
+            FileChunkProcessor processor = processorFactory.create(hashType, hexHash);
+            long start = System.nanoTime();
+            String result = engine.processFile(dump.getFile(), processor, null);
+            long wallNanos = System.nanoTime() - start;
+            found &= text.equals(result);
+            if (wallNanos < bestNanos) {
+                bestNanos = wallNanos;
+                FileProcessingEngine.RunStats stats = engine.getLastRunStats();
+                if (stats != null) {
+                    bytes = stats.getBytesProcessed();
+                }
+            }
+        }
+
+        double wallMs = bestNanos / 1e6;
+        double megabytesPerSecond = bestNanos > 0 ? (bytes / (1024.0 * 1024.0)) / (bestNanos / 1e9) : 0;
+        return new CaseResult(profile, hashType, caseName, found, wallMs, bytes, megabytesPerSecond,
+                found ? wallMs : -1);
+    }
+
+    /**
+     * 与基线比较吞吐量，返回回归的用例数
+     * 只比较完整扫描（miss）用例：命中用例提前结束，耗时很短，波动远大于容差
+     */
+    private static int compareWithBaseline(List<CaseResult> results, Map<String, Double> baseline, double tolerance) {
+        int regressions = 0;
+        for (CaseResult result : results) {
+            if (!result.caseName.equals("miss")) {
+                continue;
+            }
+            Double previous = baseline.get(result.key());
+            if (previous == null || previous <= 0) {
+                continue;
+            }
+            double change = result.megabytesPerSecond / previous - 1;
+            if (change < -tolerance) {
+                System.err.println(String.format(Locale.US, "性能回归: %s %.2f -> %.2f MB/s (%.1f%%)",
+                        result.key(), previous, result.megabytesPerSecond, change * 100));
+                regressions++;
+            }
+        }
+        return regressions;
+    }
+
+    private static void writeCsv(File file, List<CaseResult> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.println(CSV_HEADER);
+            for (CaseResult result : results) {
+                writer.println(result.toCsv());
+            }
+        }
+    }
+
+    /**
+     * 读取结果CSV，返回 用例键 -> MB/s
+     */
+    private static Map<String, Double> readCsv(File file) throws IOException {
+        Map<String, Double> values = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < 7 || line.startsWith("profile,")) {
+                    continue;
+                }
+                values.put(fields[0] + "," + fields[1] + "," + fields[2], Double.parseDouble(fields[6]));
+            }
+        }
+        return values;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.ghostxx.algotools.engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 数据块和重叠区域的边界，内存映射和预读流水线两种读取方式结果应一致
+ */
+@RunWith(Parameterized.class)
+public class FileProcessingEngineTest {
+    private static final int CHUNK_SIZE = 4096;
+    private static final int OVERLAP_SIZE = 256;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> ioModes() {
+        return Arrays.asList(new Object[][]{
+                {FileProcessingEngine.IoMode.MMAP},
+                {FileProcessingEngine.IoMode.READ_AHEAD},
+        });
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final FileProcessingEngine.IoMode ioMode;
+
+    public FileProcessingEngineTest(FileProcessingEngine.IoMode ioMode) {
+        this.ioMode = ioMode;
+    }
+
+    private FileProcessingEngine newEngine() {
+        return new FileProcessingEngine().setChunkSize(CHUNK_SIZE).setOverlapSize(OVERLAP_SIZE).setThreadCount(3)
+                .setIoMode(ioMode);
+    }
+
+    @Test
+    public void chunksCoverEachFileWithOverlap() throws Exception {
+        // 第一个文件末尾是不完整的块，第二个文件比一个块还小，第三个文件正好是块大小的整数倍
+        byte[][] contents = {pattern(CHUNK_SIZE * 5 + 123, 1), pattern(100, 2), pattern(CHUNK_SIZE * 2, 3)};
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < contents.length; i++) {
+            files.add(write("file" + i, contents[i]));
+        }
+        RecordingProcessor processor = new RecordingProcessor(contents);
+        AtomicLong maxProgress = new AtomicLong();
+
+        FileProcessingEngine engine = newEngine();
+        assertNull(engine.processFiles(files, processor,
+                (current, total) -> maxProgress.accumulateAndGet(current, Math::max)));
+
+        assertTrue(processor.errors.toString(), processor.errors.isEmpty());
+        long totalSize = 0;
+        for (int i = 0; i < contents.length; i++) {
+            int size = contents[i].length;
+            totalSize += size;
+            int chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                long start = Math.max(0, (long) chunk * CHUNK_SIZE - (chunk > 0 ? OVERLAP_SIZE : 0));
+                long end = Math.min(size, (long) (chunk + 1) * CHUNK_SIZE);
+                assertEquals("文件 " + i + " 的块 " + chunk, Integer.valueOf((int) (end - start)),
+                        processor.chunks.remove(i + ":" + start));
+            }
+        }
+        assertTrue("多余的块: " + processor.chunks, processor.chunks.isEmpty());
+        assertEquals(totalSize, maxProgress.get());
+        assertEquals(totalSize, engine.getLastRunStats().getBytesProcessed());
+    }
+
+    @Test
+    public void textSpanningAChunkBoundaryIsFoundInTheOverlap() throws Exception {
+        byte[] content = new byte[CHUNK_SIZE * 3];
+        byte[] needle = "needle-across-boundary".getBytes(StandardCharsets.US_ASCII);
+        int needleOffset = CHUNK_SIZE * 2 - needle.length / 2;
+        System.arraycopy(needle, 0, content, needleOffset, needle.length);
+        List<File> files = Arrays.asList(write("empty", new byte[CHUNK_SIZE]), write("dump", content));
+
+        FileProcessingEngine.FileResult result = newEngine().processFiles(files, new FileChunkProcessor() {
+            @Override
+            public String processChunk(byte[] data, int dataSize) {
+                return null;
+            }
+
+            @Override
+            public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+                int index = indexOf(data, dataSize, needle);
+                return index >= 0 ? fileIndex + "@" + (fileOffset + index) : null;
+            }
+
+            @Override
+            public String getName() {
+                return "Needle";
+            }
+        }, null);
+
+        assertNotNull(result);
+        assertEquals(1, result.getFileIndex());
+        assertEquals(files.get(1), result.getFile());
+        assertEquals("1@" + needleOffset, result.getResult());
+        assertNull(result.getMatchRecord());
+    }
+
+    @Test
+    public void processorIsNotCalledAfterProcessFilesReturns() throws Exception {
+        byte[] content = pattern(CHUNK_SIZE * 64, 4);
+        File file = write("dump", content);
+        AtomicLong calls = new AtomicLong();
+        FileChunkProcessor processor = new FileChunkProcessor() {
+            @Override
+            public String processChunk(byte[] data, int dataSize) {
+                return null;
+            }
+
+            @Override
+            public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+                calls.incrementAndGet();
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return fileOffset >= CHUNK_SIZE * 8 ? "found" : null;
+            }
+
+            @Override
+            public String getName() {
+                return "Slow";
+            }
+        };
+
+        assertNotNull(newEngine().processFiles(Arrays.asList(file), processor, null));
+        long returned = calls.get();
+        Thread.sleep(50);
+        assertEquals(returned, calls.get());
+    }
+
+    private File write(String name, byte[] content) throws IOException {
+        File file = folder.newFile(name);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+        return file;
+    }
+
+    private static byte[] pattern(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31 + (i >>> 8) + seed);
+        }
+        return data;
+    }
+
+    private static int indexOf(byte[] data, int dataSize, byte[] needle) {
+        outer:
+        for (int i = 0; i + needle.length <= dataSize; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (data[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 记录每个数据块的位置和大小，并检查内容与文件一致
+     */
+    private static final class RecordingProcessor implements FileChunkProcessor {
+        final byte[][] contents;
+        final ConcurrentHashMap<String, Integer> chunks = new ConcurrentHashMap<>();
+        final List<String> errors = new CopyOnWriteArrayList<>();
+
+        RecordingProcessor(byte[][] contents) {
+            this.contents = contents;
+        }
+
+        @Override
+        public String processChunk(byte[] data, int dataSize) {
+            errors.add("调用了不带位置的 processChunk");
+            return null;
+        }
+
+        @Override
+        public String processChunk(byte[] data, int dataSize, int fileIndex, long fileOffset) {
+            byte[] expected = Arrays.copyOfRange(contents[fileIndex], (int) fileOffset, (int) fileOffset + dataSize);
+            try {
+                assertArrayEquals(expected, Arrays.copyOf(data, dataSize));
+            } catch (AssertionError e) {
+                errors.add(fileIndex + ":" + fileOffset + " 内容不符");
+            }
+            if (chunks.put(fileIndex + ":" + fileOffset, dataSize) != null) {
+                errors.add(fileIndex + ":" + fileOffset + " 处理了两次");
+            }
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "Recording";
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.ghostxx.algotools.engine.fingerprint;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConstantScanProcessorTest {
+
+    @Test
+    public void automatonReportsOverlappingAndNestedPatterns() {
+        byte[][] patterns = {ascii("he"), ascii("she"), ascii("his"), ascii("hers")};
+        AhoCorasick automaton = new AhoCorasick(patterns);
+        List<String> matches = new ArrayList<>();
+        byte[] data = ascii("ushers");
+        automaton.scan(data, data.length, (pattern, start) -> matches.add(pattern + "@" + start));
+        assertEquals(3, matches.size());
+        assertTrue(matches.contains("1@1"));
+        assertTrue(matches.contains("0@2"));
+        assertTrue(matches.contains("3@2"));
+    }
+
+    @Test
+    public void automatonStopsAtDataSize() {
+        AhoCorasick automaton = new AhoCorasick(new byte[][]{ascii("abc")});
+        List<Integer> starts = new ArrayList<>();
+        byte[] data = ascii("xxabc");
+        automaton.scan(data, 4, (pattern, start) -> starts.add(start));
+        assertTrue(starts.isEmpty());
+        automaton.scan(data, 5, (pattern, start) -> starts.add(start));
+        assertEquals(1, starts.size());
+        assertEquals(2, (int) starts.get(0));
+    }
+
+    @Test
+    public void commonSignatureDoesNotCrowdOutRareOne() {
+        ConstantSignature common = find(CryptoAlgorithm.BASE64);
+        ConstantSignature rare = find(CryptoAlgorithm.SHA256);
+        int copies = ConstantScanProcessor.MAX_HITS_PER_ALGORITHM * 4;
+        int stride = common.pattern.length + 8;
+        byte[] data = new byte[copies * stride + rare.pattern.length + 8];
+        for (int i = 0; i < copies; i++) {
+            System.arraycopy(common.pattern, 0, data, i * stride, common.pattern.length);
+        }
+        int rareOffset = copies * stride;
+        System.arraycopy(rare.pattern, 0, data, rareOffset, rare.pattern.length);
+
+        ConstantScanProcessor processor = new ConstantScanProcessor();
+        processor.processChunk(data, data.length, 0, 0);
+
+        AlgorithmFingerprint base64 = fingerprintOf(processor.getFingerprints(), CryptoAlgorithm.BASE64);
+        AlgorithmFingerprint sha256 = fingerprintOf(processor.getFingerprints(), CryptoAlgorithm.SHA256);
+        assertEquals(copies, base64.getHitCount());
+        assertEquals(ConstantScanProcessor.MAX_HITS_PER_ALGORITHM, base64.getHits().size());
+        // 保留文件中最靠前的命中
+        assertEquals(0, base64.getHits().get(0).getOffset());
+        assertEquals((long) (ConstantScanProcessor.MAX_HITS_PER_ALGORITHM - 1) * stride,
+                base64.getHits().get(base64.getHits().size() - 1).getOffset());
+        assertEquals(1, sha256.getHits().size());
+        assertEquals(rareOffset, sha256.getHits().get(0).getOffset());
+        assertEquals(copies - ConstantScanProcessor.MAX_HITS_PER_ALGORITHM, processor.getDroppedHits());
+    }
+
+    @Test
+    public void keptHitsDoNotDependOnChunkOrder() {
+        ConstantSignature common = find(CryptoAlgorithm.BASE64);
+        int copies = ConstantScanProcessor.MAX_HITS_PER_ALGORITHM * 2;
+        int stride = common.pattern.length + 8;
+        byte[] data = new byte[copies * stride];
+        for (int i = 0; i < copies; i++) {
+            System.arraycopy(common.pattern, 0, data, i * stride, common.pattern.length);
+        }
+        // 先处理后半部分，再处理前半部分（后处理的块的命中更靠前）
+        int half = copies / 2 * stride;
+        byte[] second = new byte[data.length - half];
+        System.arraycopy(data, half, second, 0, second.length);
+        ConstantScanProcessor processor = new ConstantScanProcessor();
+        processor.processChunk(second, second.length, 0, half);
+        processor.processChunk(data, half, 0, 0);
+
+        List<ConstantHit> hits = fingerprintOf(processor.getFingerprints(), CryptoAlgorithm.BASE64).getHits();
+        assertEquals(ConstantScanProcessor.MAX_HITS_PER_ALGORITHM, hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals((long) i * stride, hits.get(i).getOffset());
+        }
+    }
+
+    @Test
+    public void overlappingChunksCountEachLocationOnce() {
+        ConstantSignature signature = find(CryptoAlgorithm.SHA256);
+        byte[] data = new byte[signature.pattern.length + 16];
+        System.arraycopy(signature.pattern, 0, data, 8, signature.pattern.length);
+        ConstantScanProcessor processor = new ConstantScanProcessor();
+        processor.processChunk(data, data.length, 0, 0);
+        processor.processChunk(data, data.length, 0, 0);
+        processor.processChunk(data, data.length, 1, 0);
+
+        AlgorithmFingerprint sha256 = fingerprintOf(processor.getFingerprints(), CryptoAlgorithm.SHA256);
+        assertEquals(2, sha256.getHitCount());
+        assertEquals(2, sha256.getHits().size());
+    }
+
+    private static ConstantSignature find(CryptoAlgorithm algorithm) {
+        for (ConstantSignature signature : ConstantSignature.all()) {
+            if (signature.algorithm == algorithm) {
+                return signature;
+            }
+        }
+        throw new AssertionError("没有 " + algorithm + " 的特征");
+    }
+
+    private static AlgorithmFingerprint fingerprintOf(List<AlgorithmFingerprint> fingerprints,
+                                                      CryptoAlgorithm algorithm) {
+        for (AlgorithmFingerprint fingerprint : fingerprints) {
+            if (fingerprint.getAlgorithm() == algorithm) {
+                return fingerprint;
+            }
+        }
+        throw new AssertionError(algorithm + " 未被识别");
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+} 
\ No newline at end of file
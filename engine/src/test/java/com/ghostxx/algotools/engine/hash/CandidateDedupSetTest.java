@@ -0,0 +1,77 @@
+package com.ghostxx.algotools.engine.hash;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CandidateDedupSetTest {
+
+    @Test
+    public void insertReturnsTrueOnlyTheFirstTime() {
+        CandidateDedupSet set = new CandidateDedupSet(1 << 16);
+        assertTrue(set.insert(42));
+        assertFalse(set.insert(42));
+        assertTrue(set.insert(43));
+    }
+
+    @Test
+    public void fingerprintDependsOnlyOnTheRange() {
+        byte[] a = "xxpasswordyy".getBytes(StandardCharsets.US_ASCII);
+        byte[] b = "password".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(CandidateDedupSet.fingerprint(b, 0, b.length), CandidateDedupSet.fingerprint(a, 2, 8));
+        assertNotEquals(CandidateDedupSet.fingerprint(a, 2, 8), CandidateDedupSet.fingerprint(a, 2, 7));
+    }
+
+    @Test
+    public void fingerprintNeverReturnsTheEmptySlot() {
+        for (int i = 0; i < 10000; i++) {
+            byte[] data = Integer.toString(i).getBytes(StandardCharsets.US_ASCII);
+            assertNotEquals(0, CandidateDedupSet.fingerprint(data, 0, data.length));
+        }
+    }
+
+    @Test
+    public void growsAndKeepsEntriesAcrossResize() {
+        CandidateDedupSet set = new CandidateDedupSet(1 << 20);
+        int count = 200000;
+        for (long i = 1; i <= count; i++) {
+            assertTrue(set.insert(mix(i)));
+        }
+        for (long i = 1; i <= count; i++) {
+            assertFalse(set.insert(mix(i)));
+        }
+    }
+
+    @Test
+    public void fullSetStillAnswersButStopsRecording() {
+        // 每个分片最少1024个槽位，负载因子1/2，64个分片共约32768个条目
+        CandidateDedupSet set = new CandidateDedupSet(1);
+        int inserted = 100000;
+        for (long i = 1; i <= inserted; i++) {
+            set.insert(mix(i));
+        }
+        int remembered = 0;
+        for (long i = 1; i <= inserted; i++) {
+            if (!set.insert(mix(i))) {
+                remembered++;
+            }
+        }
+        assertTrue(remembered > 0);
+        assertTrue(remembered < inserted);
+        // 满了之后新条目总是返回true（需要计算哈希），不会被误判为重复
+        assertTrue(set.insert(mix(inserted + 1)));
+        assertTrue(set.insert(mix(inserted + 1)));
+    }
+
+    private static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        return x == 0 ? 1 : x;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.ghostxx.algotools.engine.hash;
+
+import com.ghostxx.algotools.engine.FileChunkProcessor;
+import com.ghostxx.algotools.engine.FileProcessingEngine;
+import com.ghostxx.algotools.engine.region.RegionMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MatchStreamTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void firstHitModeReturnsTheSameRecordForARepeatedLocation() {
+        List<MatchRecord> sunk = new ArrayList<>();
+        MatchStream stream = new MatchStream("target", false, sunk::add);
+        byte[] data = ascii("..secret..");
+        MatchRecord first = stream.report(0, 102, data, 2, 6, "MD5");
+        // 与上一块的重叠区域中再次命中同一位置
+        MatchRecord again = stream.report(0, 102, data, 2, 6, "MD5");
+        assertNotNull(first);
+        assertSame(first, again);
+        assertEquals(1, stream.getMatchCount());
+        assertEquals(1, sunk.size());
+    }
+
+    @Test
+    public void allMatchesModeReportsEachLocationOnce() {
+        MatchStream stream = new MatchStream("target", true, null);
+        byte[] data = ascii("..secret..");
+        assertNotNull(stream.report(0, 102, data, 2, 6, "MD5"));
+        assertNull(stream.report(0, 102, data, 2, 6, "MD5"));
+        assertNotNull(stream.report(1, 102, data, 2, 6, "MD5"));
+        assertEquals(2, stream.getMatchCount());
+    }
+
+    @Test
+    public void unknownOffsetsAreNotDeduplicated() {
+        MatchStream stream = new MatchStream("target", false, null);
+        byte[] data = ascii("secret");
+        MatchRecord a = stream.report(0, -1, data, 0, 6, "MD5");
+        MatchRecord b = stream.report(0, -1, data, 0, 6, "MD5");
+        assertTrue(a != b);
+        assertEquals(2, stream.getMatchCount());
+    }
+
+    @Test
+    public void reportCopyUsesTheKnownHashType() {
+        MatchStream stream = new MatchStream("target", true, null);
+        byte[] data = ascii("secret secret");
+        assertTrue(!stream.reportCopy(0, 7, data, 7, 6));
+        stream.report(0, 0, data, 0, 6, "SHA-1");
+        assertTrue(stream.reportCopy(0, 7, data, 7, 6));
+        List<MatchRecord> records = stream.getRecords();
+        assertEquals(2, records.size());
+        assertEquals(7, records.get(1).getOffset());
+        assertEquals("SHA-1", records.get(1).getHashType());
+    }
+
+    @Test
+    public void recordsAreMappedToRegions() {
+        MatchStream stream = new MatchStream("target", false, null).setRegionMaps(Collections.singletonList(
+                RegionMap.parse("1000-2000 r--p 00000000 00:00 0 [heap]\n8000-9000 rw-p 00000000 00:00 0\n", -1)));
+        byte[] data = ascii("secret");
+        MatchRecord record = stream.report(0, 0x1010, data, 0, 6, "MD5");
+        assertEquals(0x8010, record.getAddress());
+        MatchRecord outside = stream.report(0, 0x3000, data, 0, 6, "MD5");
+        assertEquals(-1, outside.getAddress());
+        assertNull(outside.getRegion());
+    }
+
+    @Test
+    public void engineResultCarriesTheRecordOfTheHitItReturns() throws Exception {
+        // 原文不是合法的UTF-8：引擎返回的字符串中无效字节已被替换，原始字节和偏移应从记录中获取
+        byte[] plaintext = {'p', 'w', (byte) 0xff, (byte) 0xfe, '1'};
+        // 解码后与原文相同的另一个字符串出现在更前面，按文本查找会找错
+        byte[] decoy = {'p', 'w', (byte) 0xfe, (byte) 0xff, '1'};
+        byte[] content = new byte[256 * 1024];
+        int decoyOffset = 1000;
+        int plaintextOffset = 150 * 1024;
+        System.arraycopy(decoy, 0, content, decoyOffset, decoy.length);
+        System.arraycopy(plaintext, 0, content, plaintextOffset, plaintext.length);
+        File dump = folder.newFile("dump.bin");
+        try (FileOutputStream out = new FileOutputStream(dump)) {
+            out.write(content);
+        }
+
+        String hash = hex(MessageDigest.getInstance("MD5").digest(plaintext));
+        MatchStream stream = new MatchStream(hash, false, null);
+        // 先报告一次解码后相同的诱饵
+        stream.report(0, decoyOffset, content, decoyOffset, decoy.length, "MD5");
+        JavaHashSearchProcessor processor = new JavaHashSearchProcessor(hash, "MD5", null, null);
+        processor.setMatchStream(stream);
+        FileProcessingEngine engine = new FileProcessingEngine().setChunkSize(64 * 1024).setOverlapSize(1024)
+                .setThreadCount(2);
+
+        FileProcessingEngine.FileResult result = engine.processFiles(Collections.singletonList(dump), processor,
+                null);
+        assertNotNull(result);
+        assertEquals(new String(plaintext, StandardCharsets.UTF_8), result.getResult());
+        MatchRecord record = result.getMatchRecord();
+        assertNotNull(record);
+        assertEquals(plaintextOffset, record.getOffset());
+        assertArrayEquals(plaintext, record.getBytes());
+        assertEquals("MD5", record.getHashType());
+    }
+
+    @Test
+    public void processorWithoutStreamReturnsResultWithoutRecord() {
+        byte[] data = ascii("\0\0secret\0\0");
+        String hash = "5ebe2294ecd0e0f08eab7690d2a6ee69";
+        FileChunkProcessor processor = new JavaHashSearchProcessor(hash, "MD5", null, null);
+        FileChunkProcessor.ChunkResult result = processor.processChunkResult(data, data.length, 0, 0);
+        assertNotNull(result);
+        assertEquals("secret", result.getResult());
+        assertNull(result.getRecord());
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b & 0xff));
+        }
+        return builder.toString();
+    }
+} 
\ No newline at end of file
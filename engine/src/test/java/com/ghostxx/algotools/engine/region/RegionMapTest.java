@@ -0,0 +1,93 @@
+package com.ghostxx.algotools.engine.region;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RegionMapTest {
+    private static final String MAPS =
+            "12c00000-12c40000 rw-p 00000000 00:00 0                                  [anon:dalvik-main space]\n"
+            + "70000000-70001000 ---p 00000000 00:00 0\n"
+            + "7f00000000-7f00002000 r-xp 00000000 fd:00 1234                         /system/lib64/libc.so\n"
+            + "7fff000000-7fff001000 rw-p 00000000 00:00 0\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parseKeepsReadableRegionsInDumpOrder() {
+        RegionMap map = RegionMap.parse(MAPS, -1);
+        assertEquals(3, map.getRegions().size());
+        RegionMap.Region heap = map.getRegions().get(0);
+        assertEquals(0x12c00000L, heap.getStart());
+        assertEquals(0x40000, heap.getSize());
+        assertEquals("[anon:dalvik-main space]", heap.getName());
+        assertEquals(0, heap.getDumpOffset());
+
+        RegionMap.Region libc = map.getRegions().get(1);
+        assertEquals("r-xp", libc.getPermissions());
+        assertEquals("/system/lib64/libc.so", libc.getName());
+        assertEquals(0x40000, libc.getDumpOffset());
+
+        RegionMap.Region anon = map.getRegions().get(2);
+        assertEquals("", anon.getName());
+        assertEquals(0x42000, anon.getDumpOffset());
+        assertTrue(anon.toString().endsWith("[anon]"));
+    }
+
+    @Test
+    public void findMapsOffsetsToAddresses() {
+        RegionMap map = RegionMap.parse(MAPS, -1);
+        assertEquals(0x12c00000L, map.find(0).toAddress(0));
+        assertEquals(0x12c3ffffL, map.find(0x3ffff).toAddress(0x3ffff));
+        assertEquals(0x7f00000000L, map.find(0x40000).toAddress(0x40000));
+        assertEquals(0x7fff000fffL, map.find(0x42fff).toAddress(0x42fff));
+        assertNull(map.find(0x43000));
+        assertNull(map.find(-1));
+    }
+
+    @Test
+    public void exactOnlyWhenTotalSizeMatchesDump() {
+        assertTrue(RegionMap.parse(MAPS, 0x43000).isExact());
+        assertFalse(RegionMap.parse(MAPS, 0x43001).isExact());
+        assertTrue(RegionMap.parse(MAPS, -1).isExact());
+    }
+
+    @Test
+    public void parseSkipsMalformedLines() {
+        String text = "garbage\n"
+                + "zz-10 r--p 0 0 0\n"
+                + "2000-1000 r--p 00000000 00:00 0\n"
+                + "\n"
+                + "1000-2000 r--p 00000000 00:00 0 /data/app/base.apk\n";
+        RegionMap map = RegionMap.parse(text, 0x1000);
+        assertEquals(1, map.getRegions().size());
+        assertTrue(map.isExact());
+        assertEquals("/data/app/base.apk", map.find(0).getName());
+    }
+
+    @Test
+    public void savedSidecarIsReadBackForTheDump() throws Exception {
+        File dump = folder.newFile("app.dump");
+        try (FileOutputStream out = new FileOutputStream(dump)) {
+            out.write(new byte[0x43000]);
+        }
+        assertNull(RegionMap.forDump(dump));
+        assertTrue(RegionMap.save(dump, MAPS));
+        assertEquals(dump.getPath() + RegionMap.FILE_SUFFIX, RegionMap.sidecarOf(dump).getPath());
+
+        RegionMap map = RegionMap.forDump(dump);
+        assertNotNull(map);
+        assertTrue(map.isExact());
+        assertEquals(3, map.getRegions().size());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.ghostxx.algotools.engine.tuning;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TuningProfileTest {
+
+    @Test
+    public void defaultsLeaveOneCoreForTheUi() {
+        TuningProfile profile = TuningProfile.defaults(8);
+        assertEquals(7, profile.getThreadCount());
+        assertEquals(TuningProfile.DEFAULT_CHUNK_SIZE, profile.getChunkSize());
+        assertEquals(0, profile.getScans());
+        assertEquals(1, TuningProfile.defaults(1).getThreadCount());
+    }
+
+    @Test
+    public void serializeRoundTrips() {
+        TuningProfile profile = TuningProfile.defaults(8);
+        profile.record(2 << 20, 150e6, 5);
+        profile.record(4 << 20, 100e6, 0);
+        String text = profile.serialize();
+        assertEquals("threads=5;chunk=2097152;scans=2;tp=2097152:150000000,4194304:100000000", text);
+
+        TuningProfile parsed = TuningProfile.parse(text, 8);
+        assertEquals(text, parsed.serialize());
+        assertEquals(5, parsed.getThreadCount());
+        assertEquals(2 << 20, parsed.getChunkSize());
+        assertEquals(2, parsed.getScans());
+    }
+
+    @Test
+    public void parseFallsBackToDefaults() {
+        String defaults = TuningProfile.defaults(4).serialize();
+        assertEquals(defaults, TuningProfile.parse(null, 4).serialize());
+        assertEquals(defaults, TuningProfile.parse("", 4).serialize());
+        assertEquals(defaults, TuningProfile.parse("threads=abc;chunk=1048576", 4).serialize());
+        assertEquals(defaults, TuningProfile.parse("tp=1048576:fast", 4).serialize());
+    }
+
+    @Test
+    public void parseIgnoresUnknownFieldsAndChunkSizes() {
+        TuningProfile profile = TuningProfile.parse("threads=0;chunk=12345;future=1;tp=777:5,1048576:9", 4);
+        assertEquals(1, profile.getThreadCount());
+        assertEquals(TuningProfile.DEFAULT_CHUNK_SIZE, profile.getChunkSize());
+        assertEquals("threads=1;chunk=4194304;scans=0;tp=1048576:9", profile.serialize());
+    }
+
+    @Test
+    public void nextChunkSizeProbesUnmeasuredNeighbours() {
+        TuningProfile profile = TuningProfile.defaults(4);
+        assertEquals(8 << 20, profile.nextChunkSize(Integer.MAX_VALUE));
+        // 内存不允许更大的块时试探更小的
+        assertEquals(2 << 20, profile.nextChunkSize(4 << 20));
+        profile.record(8 << 20, 100e6, 0);
+        profile.record(4 << 20, 120e6, 0);
+        assertEquals(2 << 20, profile.nextChunkSize(Integer.MAX_VALUE));
+        profile.record(2 << 20, 90e6, 0);
+        assertEquals(4 << 20, profile.nextChunkSize(Integer.MAX_VALUE));
+        assertEquals(2 << 20, profile.bestChunkSize(3 << 20));
+    }
+
+    @Test
+    public void recordSmoothsThroughput() {
+        TuningProfile profile = TuningProfile.defaults(4);
+        profile.record(4 << 20, 100e6, 0);
+        profile.record(4 << 20, 200e6, 0);
+        assertEquals("threads=3;chunk=4194304;scans=2;tp=4194304:130000000", profile.serialize());
+        // 没有吞吐量时只更新线程数
+        profile.record(4 << 20, 0, 2);
+        assertEquals("threads=2;chunk=4194304;scans=2;tp=4194304:130000000", profile.serialize());
+    }
+} 
\ No newline at end of file